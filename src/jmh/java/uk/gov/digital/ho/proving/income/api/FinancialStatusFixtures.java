@@ -0,0 +1,73 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import uk.gov.digital.ho.proving.income.api.domain.CategoryCheck;
+import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.Individual;
+import uk.gov.digital.ho.proving.income.api.domain.ResponseStatus;
+import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * A single applicant's financial status check, as recorded in {@code json/AuditRecordRequest.json} and
+ * {@code json/AuditRecordResponsePass.json} under the test resources, for the serialization benchmarks.
+ */
+public final class FinancialStatusFixtures {
+
+    public static final String NINO = "PJ151008C";
+    public static final String FORENAME = "Jackie";
+    public static final String SURNAME = "Smith";
+    public static final LocalDate DATE_OF_BIRTH = LocalDate.of(1960, 6, 1);
+    public static final LocalDate APPLICATION_RAISED_DATE = LocalDate.of(2019, 2, 11);
+    public static final int DEPENDANTS = 0;
+
+    private static final String EMPLOYER = "Company MYDXXQ";
+    private static final String EMPLOYER_PAYE_REFERENCE = "120/MYDXXQ";
+
+    private FinancialStatusFixtures() {
+    }
+
+    public static String request() {
+        return String.format("{\"individuals\":[{\"forename\":\"%s\",\"surname\":\"%s\",\"dateOfBirth\":\"%s\",\"nino\":\"%s\"}],"
+                             + "\"applicationRaisedDate\":\"%s\",\"dependants\":%d}",
+                             FORENAME, SURNAME, DATE_OF_BIRTH, NINO, APPLICATION_RAISED_DATE, DEPENDANTS);
+    }
+
+    /**
+     * What HMRC would return for the applicant - a year of monthly salary from one employer.
+     */
+    public static String incomeRecord() {
+        StringJoiner paye = new StringJoiner(",", "[", "]");
+        LocalDate paymentDate = APPLICATION_RAISED_DATE.minusDays(11);
+        for (int month = 12; month > 0; month--) {
+            paye.add(String.format("{\"taxablePayment\":1666.67,\"paymentDate\":\"%s\",\"monthPayNumber\":%d,\"employerPayeReference\":\"%s\"}",
+                                   paymentDate, month, EMPLOYER_PAYE_REFERENCE));
+            paymentDate = paymentDate.minusMonths(1);
+        }
+        return "{\"paye\":" + paye + ",\"selfAssessment\":[{\"taxYear\":\"2018\",\"selfEmploymentProfit\":0}],"
+               + "\"employments\":[{\"employer\":{\"name\":\"" + EMPLOYER + "\",\"payeReference\":\"" + EMPLOYER_PAYE_REFERENCE + "\"}}],"
+               + "\"individual\":{\"firstName\":\"" + FORENAME + "\",\"lastName\":\"" + SURNAME + "\",\"nino\":\"" + NINO
+               + "\",\"dateOfBirth\":\"" + DATE_OF_BIRTH + "\"}}";
+    }
+
+    public static FinancialStatusCheckResponse response() {
+        return new FinancialStatusCheckResponse(new ResponseStatus("100", "OK"),
+                                                singletonList(new Individual(FORENAME, SURNAME, NINO)),
+                                                asList(categoryCheck("A", "Category A Monthly Salary", 6, IncomeValidationStatus.MONTHLY_SALARIED_PASSED, "1550.00"),
+                                                       categoryCheck("B", "Category B non salaried", 12, IncomeValidationStatus.CATB_NON_SALARIED_PASSED, "18600"),
+                                                       categoryCheck("A", "Category A Non Salaried", 6, IncomeValidationStatus.CATA_NON_SALARIED_PASSED, "18600"),
+                                                       categoryCheck("F", "Category F Self-Assessment Income", 22, IncomeValidationStatus.SELF_ASSESSMENT_ONE_YEAR_FAILED, "18600"),
+                                                       categoryCheck("B", "Category B salaried", 12, IncomeValidationStatus.CATB_SALARIED_PASSED, "18600")));
+    }
+
+    private static CategoryCheck categoryCheck(String category, String calculationType, int monthsAssessed, IncomeValidationStatus status, String threshold) {
+        return new CategoryCheck(category, calculationType, status.isPassed(), APPLICATION_RAISED_DATE, APPLICATION_RAISED_DATE.minusMonths(monthsAssessed),
+                                 status, new BigDecimal(threshold), singletonList(new CheckedIndividual(NINO, singletonList(EMPLOYER))));
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusRequest;
+import uk.gov.digital.ho.proving.income.application.ServiceConfiguration;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes the JSON a financial status check passes through with the production {@link ObjectMapper}: the
+ * request coming in, the income record from HMRC and the response going out. The response is written both as the
+ * service writes it, indented, and compact, to show what the indentation costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FinancialStatusJsonBenchmark {
+
+    private byte[] request;
+    private byte[] incomeRecord;
+    private FinancialStatusCheckResponse response;
+
+    private ObjectReader requestReader;
+    private ObjectReader incomeRecordReader;
+    private ObjectWriter responseWriter;
+    private ObjectWriter compactResponseWriter;
+
+    @Setup
+    public void setUp() {
+        request = FinancialStatusFixtures.request().getBytes(StandardCharsets.UTF_8);
+        incomeRecord = FinancialStatusFixtures.incomeRecord().getBytes(StandardCharsets.UTF_8);
+        response = FinancialStatusFixtures.response();
+
+        ObjectMapper mapper = new ServiceConfiguration("", 0, 0, 0, 0, 0, 0).createObjectMapper();
+        requestReader = mapper.readerFor(FinancialStatusRequest.class);
+        incomeRecordReader = mapper.readerFor(IncomeRecord.class);
+        responseWriter = mapper.writerFor(FinancialStatusCheckResponse.class);
+        compactResponseWriter = responseWriter.without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Benchmark
+    public FinancialStatusRequest readRequest() throws IOException {
+        return requestReader.readValue(request);
+    }
+
+    @Benchmark
+    public IncomeRecord readIncomeRecord() throws IOException {
+        return incomeRecordReader.readValue(incomeRecord);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeResponseCompact() throws JsonProcessingException {
+        return compactResponseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,142 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_REQUEST;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_RESPONSE;
+
+/**
+ * Makes up a year of financial status checks for the audit benchmarks. Most NINOs are checked once, but some are checked
+ * again within days, as when a caseworker retries, and a few go on being checked over months, as with repeat
+ * applications. Checks pass, fail, find no record or end in error in roughly the proportions seen in production. The
+ * same seed always gives the same history.
+ */
+public final class AuditHistoryGenerator {
+
+    public static final LocalDate FIRST_DAY = LocalDate.of(2019, 1, 1);
+    public static final int DAYS = 365;
+
+    private static final long SEED = 20190101L;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final JsonNode REQUEST_DETAIL = detail("{\"method\":\"get-financial-status\",\"dependants\":0}");
+    private static final JsonNode PASS_DETAIL = responseDetail("100", "[{\"passed\":false},{\"passed\":true}]");
+    private static final JsonNode FAIL_DETAIL = responseDetail("100", "[{\"passed\":false},{\"passed\":false}]");
+    private static final JsonNode NOT_FOUND_DETAIL = responseDetail("0009", "[]");
+
+    private final Random random = new Random(SEED);
+    private int ninos;
+
+    private AuditHistoryGenerator() {
+    }
+
+    /**
+     * A request and a response record for every check, except those that ended in error before a response was audited.
+     */
+    public static List<AuditRecord> auditRecords(int records) {
+        AuditHistoryGenerator generator = new AuditHistoryGenerator();
+        List<AuditRecord> auditRecords = new ArrayList<>(records);
+        while (auditRecords.size() < records) {
+            for (AuditResult check : generator.checksForNextNino()) {
+                LocalDateTime requested = check.date().atTime(generator.random.nextInt(24), generator.random.nextInt(60));
+                auditRecords.add(new AuditRecord(check.correlationId(), requested, "caseworker", INCOME_PROVING_FINANCIAL_STATUS_REQUEST,
+                                                 REQUEST_DETAIL, check.nino()));
+                JsonNode responseDetail = responseDetailFor(check.resultType());
+                if (responseDetail != null) {
+                    auditRecords.add(new AuditRecord(check.correlationId(), requested.plusSeconds(3), "caseworker",
+                                                     INCOME_PROVING_FINANCIAL_STATUS_RESPONSE, responseDetail, null));
+                }
+            }
+        }
+        return auditRecords.subList(0, records);
+    }
+
+    /**
+     * One result for every check, as worked out from the audit records.
+     */
+    public static List<AuditResult> auditResults(int results) {
+        AuditHistoryGenerator generator = new AuditHistoryGenerator();
+        List<AuditResult> auditResults = new ArrayList<>(results);
+        while (auditResults.size() < results) {
+            auditResults.addAll(generator.checksForNextNino());
+        }
+        return auditResults.subList(0, results);
+    }
+
+    private List<AuditResult> checksForNextNino() {
+        String nino = String.format("AA%06dA", ninos++);
+        int checks = numberOfChecks();
+        List<AuditResult> results = new ArrayList<>(checks);
+        LocalDate date = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        for (int i = 0; i < checks; i++) {
+            String correlationId = new UUID(random.nextLong(), random.nextLong()).toString();
+            results.add(new AuditResult(correlationId, date, nino, resultType()));
+            date = date.plusDays(random.nextInt(5) < 4 ? random.nextInt(4) : 15 + random.nextInt(106));
+        }
+        return results;
+    }
+
+    private int numberOfChecks() {
+        int percentile = random.nextInt(100);
+        if (percentile < 70) {
+            return 1;
+        }
+        if (percentile < 90) {
+            return 2;
+        }
+        if (percentile < 97) {
+            return 3 + random.nextInt(3);
+        }
+        return 6 + random.nextInt(15);
+    }
+
+    private AuditResultType resultType() {
+        int percentile = random.nextInt(100);
+        if (percentile < 55) {
+            return AuditResultType.PASS;
+        }
+        if (percentile < 80) {
+            return AuditResultType.FAIL;
+        }
+        if (percentile < 92) {
+            return AuditResultType.NOTFOUND;
+        }
+        return AuditResultType.ERROR;
+    }
+
+    private static JsonNode responseDetailFor(AuditResultType resultType) {
+        switch (resultType) {
+            case PASS:
+                return PASS_DETAIL;
+            case FAIL:
+                return FAIL_DETAIL;
+            case NOTFOUND:
+                return NOT_FOUND_DETAIL;
+            default:
+                return null;
+        }
+    }
+
+    private static JsonNode responseDetail(String statusCode, String categoryChecks) {
+        return detail("{\"method\":\"get-financial-status\",\"response\":{\"status\":{\"code\":\"" + statusCode + "\",\"message\":\"OK\"},"
+                      + "\"categoryChecks\":" + categoryChecks + "}}");
+    }
+
+    private static JsonNode detail(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
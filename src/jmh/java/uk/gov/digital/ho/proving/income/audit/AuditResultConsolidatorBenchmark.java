@@ -0,0 +1,81 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.digital.ho.proving.income.audit.statistics.AuditResultsGroupedByNino;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Consolidates a generated audit history the way the archive run does: records into a result per check, results into the
+ * best result per NINO for each application, and on its own the separation of a NINO's results at the cutoff. Sizes run
+ * up to a year of production volume, and the heap is fixed so that the largest fits and runs compare. Check
+ * {@code gc.alloc.rate.norm} for the bytes allocated per run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AuditResultConsolidatorBenchmark {
+
+    private static final int CUTOFF_DAYS = 10;
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    private int records;
+
+    private List<AuditRecord> auditRecords;
+    private List<AuditResult> auditResults;
+    private List<AuditResultsGroupedByNino> resultsByNino;
+
+    private AuditResultConsolidator auditResultConsolidator;
+    private ResultCutoffSeparator resultCutoffSeparator;
+
+    @Setup
+    public void setUp() {
+        AuditResultTypeComparator auditResultTypeComparator = new AuditResultTypeComparator();
+        resultCutoffSeparator = new ResultCutoffSeparator(CUTOFF_DAYS);
+        auditResultConsolidator = new AuditResultConsolidator(new AuditResultParser(new ObjectMapper()),
+                                                              auditResultTypeComparator,
+                                                              new AuditResultComparator(auditResultTypeComparator),
+                                                              resultCutoffSeparator);
+
+        auditRecords = AuditHistoryGenerator.auditRecords(records);
+        auditResults = auditResultConsolidator.auditResultsByCorrelationId(auditRecords);
+        resultsByNino = auditResults.stream()
+                                    .collect(groupingBy(AuditResult::nino))
+                                    .values().stream()
+                                    .map(AuditResultsGroupedByNino::new)
+                                    .collect(toList());
+    }
+
+    @Benchmark
+    public List<AuditResult> auditResultsByCorrelationId() {
+        return auditResultConsolidator.auditResultsByCorrelationId(auditRecords);
+    }
+
+    @Benchmark
+    public List<ConsolidatedAuditResult> consolidatedAuditResults() {
+        return auditResultConsolidator.consolidatedAuditResults(auditResults);
+    }
+
+    @Benchmark
+    public int separateResultsByCutoff() {
+        int applications = 0;
+        for (AuditResultsGroupedByNino results : resultsByNino) {
+            applications += resultCutoffSeparator.separateResultsByCutoff(results).size();
+        }
+        return applications;
+    }
+}
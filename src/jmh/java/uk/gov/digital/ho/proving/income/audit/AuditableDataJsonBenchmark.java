@@ -0,0 +1,82 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.digital.ho.proving.income.application.ServiceConfiguration;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.digital.ho.proving.income.api.FinancialStatusFixtures.*;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_REQUEST;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_RESPONSE;
+
+/**
+ * Builds and writes the two audit events for a financial status check as {@link AuditClient} does: the detail is
+ * written to a JSON string with the production {@link ObjectMapper}, then the {@link AuditableData} holding it is
+ * written as the body posted to the audit service. The compact variant writes both without indentation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditableDataJsonBenchmark {
+
+    private static final String EVENT_ID = UUID.randomUUID().toString();
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2019, 2, 25, 11, 13, 25);
+
+    private Map<String, Object> requestDetail;
+    private Map<String, Object> responseDetail;
+
+    private ObjectMapper mapper;
+    private ObjectWriter compactWriter;
+
+    @Setup
+    public void setUp() {
+        requestDetail = new HashMap<>();
+        requestDetail.put("method", "get-financial-status");
+        requestDetail.put("nino", NINO);
+        requestDetail.put("forename", FORENAME);
+        requestDetail.put("surname", SURNAME);
+        requestDetail.put("dateOfBirth", DATE_OF_BIRTH.toString());
+        requestDetail.put("applicationRaisedDate", APPLICATION_RAISED_DATE.toString());
+        requestDetail.put("dependants", DEPENDANTS);
+
+        responseDetail = new HashMap<>();
+        responseDetail.put("method", "get-financial-status");
+        responseDetail.put("response", response());
+
+        mapper = new ServiceConfiguration("", 0, 0, 0, 0, 0, 0).createObjectMapper();
+        compactWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Benchmark
+    public byte[] requestAudit() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(auditableData(INCOME_PROVING_FINANCIAL_STATUS_REQUEST, mapper.writeValueAsString(requestDetail)));
+    }
+
+    @Benchmark
+    public byte[] responseAudit() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(auditableData(INCOME_PROVING_FINANCIAL_STATUS_RESPONSE, mapper.writeValueAsString(responseDetail)));
+    }
+
+    @Benchmark
+    public byte[] responseAuditCompact() throws JsonProcessingException {
+        return compactWriter.writeValueAsBytes(auditableData(INCOME_PROVING_FINANCIAL_STATUS_RESPONSE, compactWriter.writeValueAsString(responseDetail)));
+    }
+
+    private static AuditableData auditableData(AuditEventType eventType, String detail) {
+        return new AuditableData(EVENT_ID, TIMESTAMP, "some session", "some correlation", "some user", "pttg-ip-api", "local", eventType, detail);
+    }
+}
@@ -0,0 +1,87 @@
+package uk.gov.digital.ho.proving.income.audit.statistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.digital.ho.proving.income.audit.ArchivedResult;
+import uk.gov.digital.ho.proving.income.audit.AuditHistoryGenerator;
+import uk.gov.digital.ho.proving.income.audit.AuditResult;
+import uk.gov.digital.ho.proving.income.audit.AuditResultComparator;
+import uk.gov.digital.ho.proving.income.audit.AuditResultTypeComparator;
+import uk.gov.digital.ho.proving.income.audit.ResultCutoffSeparator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Works out pass rate statistics for a year of generated audit results: consolidating each NINO's results to the
+ * earliest best result per application, then counting them for the year along with a year of archived monthly counts.
+ * The heap is fixed so that the largest size fits and runs compare. Check {@code gc.alloc.rate.norm} for the bytes
+ * allocated per run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PassStatisticsBenchmark {
+
+    private static final int CUTOFF_DAYS = 10;
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    private int results;
+
+    private List<AuditResultsGroupedByNino> resultsByNino;
+    private List<AuditResult> consolidatedResults;
+    private List<ArchivedResult> archivedResults;
+
+    private PassStatisticsResultsConsolidator passStatisticsResultsConsolidator;
+    private PassStatisticsCalculator passStatisticsCalculator;
+
+    @Setup
+    public void setUp() {
+        passStatisticsResultsConsolidator = new PassStatisticsResultsConsolidator(new AuditResultComparator(new AuditResultTypeComparator()),
+                                                                                  new ResultCutoffSeparator(CUTOFF_DAYS));
+        passStatisticsCalculator = new PassStatisticsCalculator();
+
+        resultsByNino = AuditHistoryGenerator.auditResults(results).stream()
+                                             .collect(groupingBy(AuditResult::nino))
+                                             .values().stream()
+                                             .map(AuditResultsGroupedByNino::new)
+                                             .collect(toList());
+        consolidatedResults = passStatisticsResultsConsolidator.consolidateResults(resultsByNino);
+
+        Map<String, Integer> monthlyCounts = new HashMap<>();
+        monthlyCounts.put("PASS", 9_000);
+        monthlyCounts.put("FAIL", 4_000);
+        monthlyCounts.put("NOTFOUND", 2_000);
+        monthlyCounts.put("ERROR", 1_000);
+        archivedResults = new ArrayList<>();
+        for (int month = 0; month < 12; month++) {
+            archivedResults.add(new ArchivedResult(monthlyCounts));
+        }
+    }
+
+    @Benchmark
+    public List<AuditResult> consolidateResults() {
+        return passStatisticsResultsConsolidator.consolidateResults(resultsByNino);
+    }
+
+    @Benchmark
+    public PassRateStatistics result() {
+        return passStatisticsCalculator.result(consolidatedResults, archivedResults, AuditHistoryGenerator.FIRST_DAY,
+                                               AuditHistoryGenerator.FIRST_DAY.plusDays(AuditHistoryGenerator.DAYS - 1));
+    }
+}
@@ -0,0 +1,83 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.digital.ho.proving.income.application.ServiceConfiguration;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads an HMRC response for a weekly paid worker with reflective databinding and with {@link IncomeRecordDeserializer}.
+ * Compare {@code gc.alloc.rate.norm} between the two for the bytes allocated per response, as well as the time taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncomeRecordDeserializerBenchmark {
+
+    @Param({"26", "312"})
+    private int payments;
+
+    @Param({"3"})
+    private int employers;
+
+    private byte[] response;
+    private ObjectReader databindReader;
+    private ObjectReader streamingReader;
+
+    @Setup
+    public void setUp() {
+        response = weeklyPaidResponse(payments, employers).getBytes(StandardCharsets.UTF_8);
+
+        ObjectMapper databindMapper = new ObjectMapper();
+        JavaTimeModule javaTimeModule = new JavaTimeModule();
+        javaTimeModule.addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeFormatter.ofPattern("yyyy-M-d")));
+        databindMapper.registerModule(javaTimeModule);
+        databindReader = databindMapper.readerFor(IncomeRecord.class);
+
+        streamingReader = new ServiceConfiguration("", 0, 0, 0, 0, 0, 0).createObjectMapper().readerFor(IncomeRecord.class);
+    }
+
+    @Benchmark
+    public IncomeRecord databinding() throws IOException {
+        return databindReader.readValue(response);
+    }
+
+    @Benchmark
+    public IncomeRecord streaming() throws IOException {
+        return streamingReader.readValue(response);
+    }
+
+    private static String weeklyPaidResponse(int payments, int employers) {
+        StringJoiner paye = new StringJoiner(",", "[", "]");
+        LocalDate paymentDate = LocalDate.of(2018, 12, 28);
+        for (int i = 0; i < payments; i++) {
+            paye.add(String.format("{\"taxablePayment\":%d.%02d,\"paymentDate\":\"%d-%d-%d\",\"weekPayNumber\":%d,\"employerPayeReference\":\"%03d/AB%05d\"}",
+                                   400 + i % 7, i % 100, paymentDate.getYear(), paymentDate.getMonthValue(), paymentDate.getDayOfMonth(),
+                                   52 - i % 52, i % employers, i % employers));
+            paymentDate = paymentDate.minusWeeks(1);
+        }
+        StringJoiner employments = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < employers; i++) {
+            employments.add(String.format("{\"employer\":{\"name\":\"Employer %d Limited\",\"payeReference\":\"%03d/AB%05d\"}}", i, i, i));
+        }
+        return "{\"paye\":" + paye + ",\"selfAssessment\":[],\"employments\":" + employments
+               + ",\"individual\":{\"firstName\":\"Joe\",\"lastName\":\"Bloggs\",\"nino\":\"AA123456A\",\"dateOfBirth\":\"1980-1-1\"}}";
+    }
+}
@@ -0,0 +1,213 @@
+package uk.gov.digital.ho.proving.income.validator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import uk.gov.digital.ho.proving.income.api.IncomeThresholdCalculator;
+import uk.gov.digital.ho.proving.income.api.domain.Applicant;
+import uk.gov.digital.ho.proving.income.api.domain.CategoryCheck;
+import uk.gov.digital.ho.proving.income.hmrc.domain.AnnualSelfAssessmentTaxReturn;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employer;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncome;
+import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
+import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Validates synthetic income records, for the whole of {@link IncomeValidationService} and for each active validator on
+ * its own. Every invocation builds a new {@link IncomeValidationRequest}, as the service does, so nothing worked out for
+ * one request is reused by the next - {@link #request()} measures that on its own, to subtract from the others.
+ * Logging is turned down to warnings so that writing the console is not what gets measured.
+ *
+ * Validating even 500 payments takes well under a millisecond, so half-second iterations are plenty and keep the full
+ * grid of benchmarks, parameters and modes to under an hour - narrow it with {@code -PjmhInclude} for a quicker look.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class IncomeValidatorBenchmark {
+
+    private static final LocalDate APPLICATION_RAISED_DATE = LocalDate.of(2018, 12, 31);
+    private static final int DEPENDANTS = 1;
+    private static final int MANY_EMPLOYERS = 10;
+
+    public enum PaySchedule {
+        MONTHLY, WEEKLY, FORTNIGHTLY, CHANGED, MANY_EMPLOYERS
+    }
+
+    @Param({"MONTHLY", "WEEKLY", "FORTNIGHTLY", "CHANGED", "MANY_EMPLOYERS"})
+    private PaySchedule paySchedule;
+
+    @Param({"false", "true"})
+    private boolean joint;
+
+    @Param({"12", "52", "500"})
+    private int payments;
+
+    private List<ApplicantIncome> applicantIncomes;
+    private IncomeValidationService sequentialService;
+    private IncomeValidationService parallelService;
+    private ForkJoinPool validationPool;
+
+    private ActiveIncomeValidator catASalaried;
+    private ActiveIncomeValidator catANonSalaried;
+    private ActiveIncomeValidator catBSalaried;
+    private ActiveIncomeValidator catBNonSalaried;
+    private ActiveIncomeValidator catFOneYearSelfAssessment;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        applicantIncomes = new ArrayList<>();
+        applicantIncomes.add(applicantIncome("AA123456A", 0));
+        if (joint) {
+            applicantIncomes.add(applicantIncome("BB123456B", MANY_EMPLOYERS));
+        }
+
+        IncomeThresholdCalculator incomeThresholdCalculator =
+            new IncomeThresholdCalculator(BigDecimal.valueOf(18_600), BigDecimal.valueOf(22_400), BigDecimal.valueOf(2_400));
+        EmploymentCheckIncomeValidator employmentCheck = new EmploymentCheckIncomeValidator(incomeThresholdCalculator);
+
+        catASalaried = new CatASalariedIncomeValidator(new CatASalariedMonthlyIncomeValidator(incomeThresholdCalculator),
+                                                       new CatASalariedWeeklyIncomeValidator(incomeThresholdCalculator),
+                                                       new CatAUnsupportedIncomeValidator());
+        catANonSalaried = new CatANonSalariedIncomeValidator(incomeThresholdCalculator);
+        catBSalaried = new CatBSalariedIncomeValidator(employmentCheck, incomeThresholdCalculator);
+        catBNonSalaried = new CatBNonSalariedIncomeValidator(employmentCheck, incomeThresholdCalculator);
+        catFOneYearSelfAssessment = new CatFOneYearSelfAssessmentIncomeValidator(incomeThresholdCalculator);
+
+        List<ActiveIncomeValidator> validators = asList(catASalaried, catANonSalaried, catBSalaried, catBNonSalaried, catFOneYearSelfAssessment);
+        sequentialService = new IncomeValidationService(validators);
+        validationPool = new ForkJoinPool(validators.size());
+        parallelService = new IncomeValidationService(validators, validationPool, true, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validationPool.shutdown();
+    }
+
+    @Benchmark
+    public IncomeValidationRequest request() {
+        return newRequest();
+    }
+
+    @Benchmark
+    public List<CategoryCheck> validationService() {
+        return sequentialService.validate(newRequest());
+    }
+
+    @Benchmark
+    public List<CategoryCheck> validationServiceInParallel() {
+        return parallelService.validate(newRequest());
+    }
+
+    @Benchmark
+    public IncomeValidationResult catASalaried() {
+        return catASalaried.validate(newRequest());
+    }
+
+    @Benchmark
+    public IncomeValidationResult catANonSalaried() {
+        return catANonSalaried.validate(newRequest());
+    }
+
+    @Benchmark
+    public IncomeValidationResult catBSalaried() {
+        return catBSalaried.validate(newRequest());
+    }
+
+    @Benchmark
+    public IncomeValidationResult catBNonSalaried() {
+        return catBNonSalaried.validate(newRequest());
+    }
+
+    @Benchmark
+    public IncomeValidationResult catFOneYearSelfAssessment() {
+        return catFOneYearSelfAssessment.validate(newRequest());
+    }
+
+    private IncomeValidationRequest newRequest() {
+        return new IncomeValidationRequest(applicantIncomes, APPLICATION_RAISED_DATE, DEPENDANTS);
+    }
+
+    private ApplicantIncome applicantIncome(String nino, int firstEmployer) {
+        LocalDate dateOfBirth = LocalDate.of(1980, 1, 1);
+        List<Income> paye = paye(firstEmployer);
+        List<Employments> employments = new ArrayList<>();
+        for (String payeReference : employerReferences(paye)) {
+            employments.add(new Employments(new Employer("Employer " + payeReference + " Limited", payeReference)));
+        }
+        List<AnnualSelfAssessmentTaxReturn> selfAssessment = singletonList(new AnnualSelfAssessmentTaxReturn("2018", BigDecimal.valueOf(20_000)));
+
+        IncomeRecord incomeRecord = new IncomeRecord(paye, selfAssessment, employments, new HmrcIndividual("Joe", "Bloggs", nino, dateOfBirth));
+        return new ApplicantIncome(new Applicant("Joe", "Bloggs", dateOfBirth, nino), incomeRecord);
+    }
+
+    /**
+     * Payments newest first, as HMRC return them, each just over the monthly or weekly threshold for the dependants.
+     */
+    private List<Income> paye(int firstEmployer) {
+        List<Income> paye = new ArrayList<>(payments);
+        LocalDate paymentDate = APPLICATION_RAISED_DATE.minusDays(3);
+        for (int i = 0; i < payments; i++) {
+            boolean monthly = paySchedule == PaySchedule.MONTHLY || (paySchedule == PaySchedule.CHANGED && i < payments / 2);
+            int weeksApart = paySchedule == PaySchedule.FORTNIGHTLY ? 2 : 1;
+            String employer = employer(firstEmployer, i);
+            if (monthly) {
+                paye.add(new Income(BigDecimal.valueOf(2_000), paymentDate, 12 - i % 12, null, employer));
+                paymentDate = paymentDate.minusMonths(1);
+            } else {
+                paye.add(new Income(BigDecimal.valueOf(470L * weeksApart), paymentDate, null, 52 - (i * weeksApart) % 52, employer));
+                paymentDate = paymentDate.minusWeeks(weeksApart);
+            }
+        }
+        return paye;
+    }
+
+    private String employer(int firstEmployer, int payment) {
+        int employer = firstEmployer;
+        if (paySchedule == PaySchedule.MANY_EMPLOYERS) {
+            // A few payments in a row from each employer, as with agency work.
+            employer += payment / 3 % MANY_EMPLOYERS;
+        }
+        return String.format("%03d/AB%05d", employer, employer);
+    }
+
+    private static List<String> employerReferences(List<Income> paye) {
+        List<String> payeReferences = new ArrayList<>();
+        for (Income income : paye) {
+            if (!payeReferences.contains(income.employerPayeReference())) {
+                payeReferences.add(income.employerPayeReference());
+            }
+        }
+        return payeReferences;
+    }
+}
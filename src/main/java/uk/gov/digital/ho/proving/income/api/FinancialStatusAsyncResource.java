@@ -0,0 +1,179 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusRequest;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.FinancialStatusUnavailableException;
+import uk.gov.digital.ho.proving.income.application.AsyncRetrier;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * The financial status check with the servlet thread handed back to the container while HMRC and the audit service are
+ * called. The check itself is the same as {@link FinancialStatusResource} and runs on the financialStatusAsyncExecutor,
+ * so the number of checks one instance can hold open is set by that pool rather than by the container's threads.
+ *
+ * When the non-blocking HMRC client is enabled the pool only runs the steps either side of the HMRC lookup, and no
+ * thread at all is held while HMRC answers.
+ *
+ * A check still running after {@code timeoutMillis} is cancelled and answered with 0006, as is one that arrives when the
+ * pool and its queue are full. Other failures are mapped by {@code ResourceExceptionHandler} exactly as for the blocking
+ * endpoint.
+ *
+ * The threads saved metric is the number of suspended checks less the pool threads currently working on them. A blocking
+ * check holds a pool thread for the whole HMRC wait, so it only swaps a container thread for a pool thread and saves
+ * nothing until the non-blocking client is enabled.
+ */
+@RestController
+public class FinancialStatusAsyncResource implements PublicMetrics {
+
+    private final FinancialStatusResource financialStatusResource;
+    private final RequestData requestData;
+    private final AsyncTaskExecutor asyncExecutor;
+    private final long timeoutMillis;
+
+    private final AtomicInteger suspended = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final AtomicInteger maxThreadsSaved = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public FinancialStatusAsyncResource(FinancialStatusResource financialStatusResource,
+                                        RequestData requestData,
+                                        @Qualifier("financialStatusAsyncExecutor") AsyncTaskExecutor asyncExecutor,
+                                        @Value("${financialstatus.async.timeout-millis:120000}") long timeoutMillis) {
+        this.financialStatusResource = financialStatusResource;
+        this.requestData = requestData;
+        this.asyncExecutor = asyncExecutor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostMapping(value = "/incomeproving/v3/individual/financialstatus/async", produces = APPLICATION_JSON_VALUE)
+    DeferredResult<FinancialStatusCheckResponse> getFinancialStatus(@Valid @RequestBody FinancialStatusRequest request, HttpServletRequest servletRequest) {
+        requests.incrementAndGet();
+        DeferredResult<FinancialStatusCheckResponse> result = new DeferredResult<>(timeoutMillis);
+        Map<String, String> requestContext = MDC.getCopyOfContextMap();
+        AtomicBoolean answered = new AtomicBoolean();
+
+        Future<?> running;
+        if (financialStatusResource.canCheckWithoutBlocking()) {
+            running = checkWithoutBlocking(request, result, servletRequest, answered);
+        } else {
+            try {
+                running = asyncExecutor.submit(() -> occupyingPoolThread(() -> check(request, result, servletRequest, answered)));
+            } catch (TaskRejectedException e) {
+                rejected.incrementAndGet();
+                throw new FinancialStatusUnavailableException("too many financial status checks in progress");
+            }
+        }
+
+        suspended.incrementAndGet();
+        recordThreadsSaved();
+        result.onCompletion(suspended::decrementAndGet);
+        result.onTimeout(() -> {
+            if (answered.compareAndSet(false, true)) {
+                timeouts.incrementAndGet();
+                running.cancel(true);
+                requestData.saveAsyncResultContext(servletRequest, requestContext);
+                result.setErrorResult(new FinancialStatusUnavailableException("financial status check timed out"));
+            }
+        });
+        return result;
+    }
+
+    private void check(FinancialStatusRequest request, DeferredResult<FinancialStatusCheckResponse> result, HttpServletRequest servletRequest, AtomicBoolean answered) {
+        Object outcome;
+        try {
+            outcome = financialStatusResource.getFinancialStatus(request);
+        } catch (RuntimeException e) {
+            outcome = e;
+        }
+        answer(result, servletRequest, answered, outcome);
+    }
+
+    /*
+     * With the non-blocking HMRC client the pool only runs the steps either side of the lookup, so no thread is held
+     * while HMRC answers. A step the full pool turns away is answered with 0006 straight away, as the stage waiting on it
+     * would never complete.
+     */
+    private Future<?> checkWithoutBlocking(FinancialStatusRequest request, DeferredResult<FinancialStatusCheckResponse> result, HttpServletRequest servletRequest, AtomicBoolean answered) {
+        Executor executor = task -> {
+            try {
+                asyncExecutor.execute(() -> occupyingPoolThread(task));
+            } catch (TaskRejectedException e) {
+                rejected.incrementAndGet();
+                answer(result, servletRequest, answered, new FinancialStatusUnavailableException("too many financial status checks in progress"));
+            }
+        };
+        CompletableFuture<FinancialStatusCheckResponse> running = financialStatusResource.getFinancialStatusWithoutBlocking(request, executor);
+        running.whenComplete((response, error) -> answer(result, servletRequest, answered, error == null ? response : AsyncRetrier.unwrap(error)));
+        return running;
+    }
+
+    private void occupyingPoolThread(Runnable task) {
+        busy.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            busy.decrementAndGet();
+            recordThreadsSaved();
+        }
+    }
+
+    private int threadsSaved() {
+        return Math.max(0, suspended.get() - busy.get());
+    }
+
+    private void recordThreadsSaved() {
+        maxThreadsSaved.accumulateAndGet(threadsSaved(), Math::max);
+    }
+
+    private void answer(DeferredResult<FinancialStatusCheckResponse> result, HttpServletRequest servletRequest, AtomicBoolean answered, Object outcome) {
+        // Once the request has timed out it may already be recycled by the container, so it must not be touched.
+        if (!answered.compareAndSet(false, true)) {
+            return;
+        }
+        requestData.saveAsyncResultContext(servletRequest, MDC.getCopyOfContextMap());
+        if (outcome instanceof FinancialStatusCheckResponse) {
+            result.setResult((FinancialStatusCheckResponse) outcome);
+        } else {
+            result.setErrorResult(outcome);
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("financialstatus.async.suspended", suspended.get()));
+        metrics.add(new Metric<>("financialstatus.async.threads.saved", threadsSaved()));
+        metrics.add(new Metric<>("financialstatus.async.threads.saved.max", maxThreadsSaved.get()));
+        metrics.add(new Metric<>("financialstatus.async.requests", requests.get()));
+        metrics.add(new Metric<>("financialstatus.async.timeouts", timeouts.get()));
+        metrics.add(new Metric<>("financialstatus.async.rejected", rejected.get()));
+        return metrics;
+    }
+}
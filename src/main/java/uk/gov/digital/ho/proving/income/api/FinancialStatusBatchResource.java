@@ -0,0 +1,138 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.digital.ho.proving.income.api.domain.BaseResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusBatchItem;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusRequest;
+import uk.gov.digital.ho.proving.income.application.ResourceExceptionHandler;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_BATCH_REQUEST_RECEIVED;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_BATCH_RESPONSE_COMPLETE;
+
+/**
+ * Runs many financial status checks in one call for back-office reconciliation. Each item is checked exactly as if it
+ * had been sent to the single check endpoint - same validation, logging and audit events - with at most
+ * {@code concurrency} items of a batch in flight at once. Results are written as newline delimited JSON in the order
+ * they complete, each tagged with the index of its request, and an item that fails gets the error response the single
+ * endpoint would have given without affecting the rest of the batch.
+ */
+@RestController
+@Slf4j
+public class FinancialStatusBatchResource {
+
+    static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final FinancialStatusResource financialStatusResource;
+    private final ResourceExceptionHandler resourceExceptionHandler;
+    private final ObjectWriter writer;
+    private final Executor batchExecutor;
+    private final int concurrency;
+    private final int maxItems;
+
+    public FinancialStatusBatchResource(FinancialStatusResource financialStatusResource,
+                                        ResourceExceptionHandler resourceExceptionHandler,
+                                        ObjectMapper mapper,
+                                        @Qualifier("financialStatusBatchExecutor") Executor batchExecutor,
+                                        @Value("${financialstatus.batch.concurrency:4}") int concurrency,
+                                        @Value("${financialstatus.batch.max-items:1000}") int maxItems) {
+        this.financialStatusResource = financialStatusResource;
+        this.resourceExceptionHandler = resourceExceptionHandler;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.batchExecutor = batchExecutor;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxItems = maxItems;
+    }
+
+    @PostMapping(value = "/incomeproving/v3/individual/financialstatus/batch")
+    void getFinancialStatuses(@RequestBody List<FinancialStatusRequest> requests, HttpServletResponse response) throws IOException {
+        validateBatch(requests);
+        log.info("Financial status batch of {} checks received", requests.size(), value(EVENT, INCOME_PROVING_BATCH_REQUEST_RECEIVED));
+
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        OutputStream out = response.getOutputStream();
+
+        CompletionService<FinancialStatusBatchItem> completionService = new ExecutorCompletionService<>(batchExecutor);
+        List<Future<FinancialStatusBatchItem>> inFlight = new ArrayList<>();
+        int next = 0;
+        int failed = 0;
+        try {
+            for (; next < requests.size() && inFlight.size() < concurrency; next++) {
+                inFlight.add(submit(completionService, next, requests.get(next)));
+            }
+            while (!inFlight.isEmpty()) {
+                Future<FinancialStatusBatchItem> done = completionService.take();
+                inFlight.remove(done);
+                if (next < requests.size()) {
+                    inFlight.add(submit(completionService, next, requests.get(next)));
+                    next++;
+                }
+                FinancialStatusBatchItem item = done.get();
+                failed += isFailed(item) ? 1 : 0;
+                write(out, item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted running financial status batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Financial status batch item failed unexpectedly", e.getCause());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+
+        log.info("Financial status batch of {} checks complete - {} failed", requests.size(), failed, value(EVENT, INCOME_PROVING_BATCH_RESPONSE_COMPLETE));
+    }
+
+    private void validateBatch(List<FinancialStatusRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Error: no financial status requests");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("Error: more than " + maxItems + " financial status requests");
+        }
+    }
+
+    private Future<FinancialStatusBatchItem> submit(CompletionService<FinancialStatusBatchItem> completionService, int index, FinancialStatusRequest request) {
+        return completionService.submit(() -> new FinancialStatusBatchItem(index, check(request)));
+    }
+
+    private BaseResponse check(FinancialStatusRequest request) {
+        try {
+            return financialStatusResource.getFinancialStatus(request);
+        } catch (RuntimeException e) {
+            return resourceExceptionHandler.errorResponse(e);
+        }
+    }
+
+    private void write(OutputStream out, FinancialStatusBatchItem item) throws IOException {
+        out.write(writer.writeValueAsBytes(item));
+        out.write(NEW_LINE);
+        out.flush();
+    }
+
+    private static boolean isFailed(FinancialStatusBatchItem item) {
+        return !(item.response() instanceof FinancialStatusCheckResponse);
+    }
+}
@@ -12,6 +12,8 @@ import javax.validation.Valid;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static java.time.LocalDate.now;
 import static net.logstash.logback.argument.StructuredArguments.value;
@@ -32,7 +34,6 @@ public class FinancialStatusResource {
     private final RequestData requestData;
 
     private static final int MINIMUM_DEPENDANTS = 0;
-    private static final int MAXIMUM_DEPENDANTS = 99;
 
     private static final int NUMBER_OF_DAYS_INCOME = 365;
 
@@ -47,27 +48,52 @@ public class FinancialStatusResource {
     @PostMapping(value = "/incomeproving/v3/individual/financialstatus", produces = APPLICATION_JSON_VALUE)
     FinancialStatusCheckResponse getFinancialStatus(@Valid @RequestBody FinancialStatusRequest request) {
 
+        FinancialStatusCheck check = startCheck(request);
+
+        Map<Individual, IncomeRecord> incomeRecords = financialStatusService.getIncomeRecords(check.applicants, check.startSearchDate, request.applicationRaisedDate());
+
+        return completeCheck(check, incomeRecords);
+    }
+
+    boolean canCheckWithoutBlocking() {
+        return financialStatusService.canGetIncomeRecordsWithoutBlocking();
+    }
+
+    /**
+     * The same check with the income records fetched through the non-blocking HMRC client. The request is audited and
+     * the response calculated and audited on {@code executor}, so no thread is held while HMRC answers and none of that
+     * work runs on the HTTP client's I/O threads.
+     */
+    CompletableFuture<FinancialStatusCheckResponse> getFinancialStatusWithoutBlocking(FinancialStatusRequest request, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> startCheck(request), executor)
+                                .thenCompose(check -> financialStatusService.getIncomeRecordsWithoutBlocking(check.applicants, check.startSearchDate, request.applicationRaisedDate())
+                                                                            .thenApplyAsync(incomeRecords -> completeCheck(check, incomeRecords), executor));
+    }
+
+    private FinancialStatusCheck startCheck(FinancialStatusRequest request) {
+
         List<Applicant> applicants = sanitiseApplicants(request.applicants());
 
-        UUID eventId = UUID.randomUUID();
-        String redactedNino = ninoUtils.redact(applicants.get(0).nino());
+        FinancialStatusCheck check = new FinancialStatusCheck(request, applicants, ninoUtils.redact(applicants.get(0).nino()));
         log.info("Financial status check request received for {} - applicationRaisedDate = {}, dependents = {}",
-            redactedNino, request.applicationRaisedDate(), request.dependants(), value(EVENT, INCOME_PROVING_SERVICE_REQUEST_RECEIVED));
-        auditClient.add(INCOME_PROVING_FINANCIAL_STATUS_REQUEST, eventId, auditData(applicants.get(0), request.applicationRaisedDate(), request.dependants()));
+            check.redactedNino, request.applicationRaisedDate(), request.dependants(), value(EVENT, INCOME_PROVING_SERVICE_REQUEST_RECEIVED));
+        auditClient.add(INCOME_PROVING_FINANCIAL_STATUS_REQUEST, check.eventId, auditData(applicants.get(0), request.applicationRaisedDate(), request.dependants()));
 
         validateApplicants(applicants);
         validateDependents(request.dependants());
         validateApplicationRaisedDate(request.applicationRaisedDate());
 
-        LocalDate startSearchDate = request.applicationRaisedDate().minusDays(NUMBER_OF_DAYS_INCOME);
-        Map<Individual, IncomeRecord> incomeRecords = financialStatusService.getIncomeRecords(applicants, startSearchDate, request.applicationRaisedDate());
+        check.startSearchDate = request.applicationRaisedDate().minusDays(NUMBER_OF_DAYS_INCOME);
+        return check;
+    }
 
+    private FinancialStatusCheckResponse completeCheck(FinancialStatusCheck check, Map<Individual, IncomeRecord> incomeRecords) {
 
-        FinancialStatusCheckResponse response = financialStatusService.calculateResponse(request.applicationRaisedDate(), request.dependants(), incomeRecords);
+        FinancialStatusCheckResponse response = financialStatusService.calculateResponse(check.request.applicationRaisedDate(), check.request.dependants(), incomeRecords);
 
         log.info("Financial status check passed for {} is: {}",
-            value("nino", redactedNino), response.categoryChecks().stream().anyMatch(CategoryCheck::passed), value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_SUCCESS));
-        auditClient.add(INCOME_PROVING_FINANCIAL_STATUS_RESPONSE, eventId, auditData(response));
+            value("nino", check.redactedNino), response.categoryChecks().stream().anyMatch(CategoryCheck::passed), value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_SUCCESS));
+        auditClient.add(INCOME_PROVING_FINANCIAL_STATUS_RESPONSE, check.eventId, auditData(response));
 
         return response;
     }
@@ -120,8 +146,8 @@ public class FinancialStatusResource {
     private void validateDependents(Integer dependants) {
         if (dependants < MINIMUM_DEPENDANTS) {
             throw new IllegalArgumentException("Error: Dependants cannot be less than " + MINIMUM_DEPENDANTS);
-        } else if (dependants > MAXIMUM_DEPENDANTS) {
-            throw new IllegalArgumentException("Error: Dependants cannot be more than " + MAXIMUM_DEPENDANTS);
+        } else if (dependants > ThresholdSchedule.MAXIMUM_DEPENDANTS) {
+            throw new IllegalArgumentException("Error: Dependants cannot be more than " + ThresholdSchedule.MAXIMUM_DEPENDANTS);
         }
     }
 
@@ -149,4 +175,18 @@ public class FinancialStatusResource {
 
         return auditData;
     }
+
+    private static class FinancialStatusCheck {
+        private final FinancialStatusRequest request;
+        private final List<Applicant> applicants;
+        private final String redactedNino;
+        private final UUID eventId = UUID.randomUUID();
+        private LocalDate startSearchDate;
+
+        private FinancialStatusCheck(FinancialStatusRequest request, List<Applicant> applicants, String redactedNino) {
+            this.request = request;
+            this.applicants = applicants;
+            this.redactedNino = redactedNino;
+        }
+    }
 }
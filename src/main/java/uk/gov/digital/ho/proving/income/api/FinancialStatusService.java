@@ -1,10 +1,14 @@
 package uk.gov.digital.ho.proving.income.api;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.domain.Applicant;
 import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
 import uk.gov.digital.ho.proving.income.api.domain.Individual;
 import uk.gov.digital.ho.proving.income.api.domain.ResponseStatus;
+import uk.gov.digital.ho.proving.income.hmrc.HmrcAsyncClient;
 import uk.gov.digital.ho.proving.income.hmrc.HmrcClient;
 import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
@@ -14,29 +18,48 @@ import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static java.util.stream.Collectors.toList;
 
 @Service
 public class FinancialStatusService {
 
     private final HmrcClient hmrcClient;
+    private final Optional<HmrcAsyncClient> hmrcAsyncClient;
     private final IncomeValidationService incomeValidationService;
-
-    public FinancialStatusService(HmrcClient hmrcClient, IncomeValidationService incomeValidationService) {
+    private final RequestData requestData;
+    private final AsyncTaskExecutor hmrcLookupExecutor;
+    private final boolean concurrentLookups;
+
+    public FinancialStatusService(HmrcClient hmrcClient,
+                                  Optional<HmrcAsyncClient> hmrcAsyncClient,
+                                  IncomeValidationService incomeValidationService,
+                                  RequestData requestData,
+                                  @Qualifier("hmrcLookupExecutor") AsyncTaskExecutor hmrcLookupExecutor,
+                                  @Value("${hmrc.service.lookup.concurrent:false}") boolean concurrentLookups) {
         this.hmrcClient = hmrcClient;
+        this.hmrcAsyncClient = hmrcAsyncClient;
         this.incomeValidationService = incomeValidationService;
+        this.requestData = requestData;
+        this.hmrcLookupExecutor = hmrcLookupExecutor;
+        this.concurrentLookups = concurrentLookups;
     }
 
     Map<Individual, IncomeRecord> getIncomeRecords(List<Applicant> applicants, LocalDate startSearchDate, LocalDate applicationRaisedDate) {
+        if (hmrcAsyncClient.isPresent() || (concurrentLookups && applicants.size() > 1)) {
+            return getIncomeRecordsConcurrently(applicants, startSearchDate, applicationRaisedDate);
+        }
+
         // The IPS UI relies on the first individual in the response being the applicant and the second the partner. This is why we must
         // use a LinkedHashMap to ensure the order.
         Map<Individual, IncomeRecord> incomeRecords = new LinkedHashMap<>();
 
         for (Applicant applicant : applicants) {
 
-            IncomeRecord incomeRecord = hmrcClient.getIncomeRecord(
-                new Identity(applicant.forename(), applicant.surname(), applicant.dateOfBirth(), applicant.nino()),
-                startSearchDate,
-                applicationRaisedDate);
+            IncomeRecord incomeRecord = getIncomeRecord(applicant, startSearchDate, applicationRaisedDate);
 
             incomeRecords.put(individualFromRequestAndRecord(applicant, incomeRecord.individual(), applicant.nino()), incomeRecord);
         }
@@ -44,6 +67,100 @@ public class FinancialStatusService {
         return incomeRecords;
     }
 
+    private Map<Individual, IncomeRecord> getIncomeRecordsConcurrently(List<Applicant> applicants, LocalDate startSearchDate, LocalDate applicationRaisedDate) {
+        List<IncomeRecordLookup> lookups = new ArrayList<>();
+        for (Applicant applicant : applicants) {
+            lookups.add(startLookup(applicant, startSearchDate, applicationRaisedDate));
+        }
+
+        // Results are collected in applicant order so the LinkedHashMap ordering, and the first error reported, match the sequential lookup.
+        // Each lookup's component trace is merged into the request's, so the partner's does not replace the applicant's.
+        Map<Individual, IncomeRecord> incomeRecords = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < applicants.size(); i++) {
+                Applicant applicant = applicants.get(i);
+                IncomeRecord incomeRecord = await(lookups.get(i));
+                incomeRecords.put(individualFromRequestAndRecord(applicant, incomeRecord.individual(), applicant.nino()), incomeRecord);
+            }
+        } finally {
+            lookups.forEach(lookup -> lookup.result.cancel(true));
+        }
+
+        return incomeRecords;
+    }
+
+    /*
+     * With the non-blocking client no lookup thread is needed - the component trace is picked up on whichever thread the
+     * response completes on, where the client has restored the request's MDC.
+     */
+    private IncomeRecordLookup startLookup(Applicant applicant, LocalDate startSearchDate, LocalDate applicationRaisedDate) {
+        IncomeRecordLookup lookup = new IncomeRecordLookup();
+        if (hmrcAsyncClient.isPresent()) {
+            lookup.result = hmrcAsyncClient.get().getIncomeRecord(identity(applicant), startSearchDate, applicationRaisedDate)
+                                           .whenComplete((incomeRecord, e) -> lookup.componentTrace = requestData.componentTrace());
+            return lookup;
+        }
+        lookup.result = hmrcLookupExecutor.submit(() -> {
+            try {
+                return getIncomeRecord(applicant, startSearchDate, applicationRaisedDate);
+            } finally {
+                lookup.componentTrace = requestData.componentTrace();
+            }
+        });
+        return lookup;
+    }
+
+    boolean canGetIncomeRecordsWithoutBlocking() {
+        return hmrcAsyncClient.isPresent();
+    }
+
+    /**
+     * Looks up every applicant at once through the non-blocking HMRC client. The future completes on the thread of the
+     * last response with the request's MDC in place, and fails with the first failed lookup in applicant order, as
+     * {@link #getIncomeRecords} would.
+     */
+    CompletableFuture<Map<Individual, IncomeRecord>> getIncomeRecordsWithoutBlocking(List<Applicant> applicants, LocalDate startSearchDate, LocalDate applicationRaisedDate) {
+        HmrcAsyncClient client = hmrcAsyncClient.orElseThrow(() -> new IllegalStateException("Non-blocking HMRC client is not enabled"));
+        List<CompletableFuture<IncomeRecord>> lookups = applicants.stream()
+                                                                  .map(applicant -> client.getIncomeRecord(identity(applicant), startSearchDate, applicationRaisedDate))
+                                                                  .collect(toList());
+
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                                .handle((ignored, error) -> {
+                                    Map<Individual, IncomeRecord> incomeRecords = new LinkedHashMap<>();
+                                    for (int i = 0; i < applicants.size(); i++) {
+                                        Applicant applicant = applicants.get(i);
+                                        IncomeRecord incomeRecord = lookups.get(i).join();
+                                        incomeRecords.put(individualFromRequestAndRecord(applicant, incomeRecord.individual(), applicant.nino()), incomeRecord);
+                                    }
+                                    return incomeRecords;
+                                });
+    }
+
+    private IncomeRecord getIncomeRecord(Applicant applicant, LocalDate startSearchDate, LocalDate applicationRaisedDate) {
+        return hmrcClient.getIncomeRecord(identity(applicant), startSearchDate, applicationRaisedDate);
+    }
+
+    private static Identity identity(Applicant applicant) {
+        return new Identity(applicant.forename(), applicant.surname(), applicant.dateOfBirth(), applicant.nino());
+    }
+
+    private IncomeRecord await(IncomeRecordLookup lookup) {
+        try {
+            return lookup.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("HMRC income record lookup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for HMRC income record lookup", e);
+        } finally {
+            requestData.mergeComponentTrace(lookup.componentTrace);
+        }
+    }
+
     FinancialStatusCheckResponse calculateResponse(LocalDate applicationRaisedDate, Integer dependants, Map<Individual, IncomeRecord> incomeRecords) {
 
         List<Individual> individuals = new LinkedList<>(incomeRecords.keySet());
@@ -69,4 +186,9 @@ public class FinancialStatusService {
         return new ResponseStatus("100", "OK");
     }
 
+    private static class IncomeRecordLookup {
+        private Future<IncomeRecord> result;
+        private volatile String componentTrace;
+    }
+
 }
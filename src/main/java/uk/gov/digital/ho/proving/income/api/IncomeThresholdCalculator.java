@@ -4,40 +4,110 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+
+/**
+ * Looks up the income thresholds in effect on an application raised date. The thresholds configured in the application
+ * properties apply until the first effective-dated {@link ThresholdSchedule}, and schedules can be reloaded while the
+ * service is running.
+ */
 @Component
 public class IncomeThresholdCalculator {
 
-    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
-    private static final BigDecimal WEEKS_PER_YEAR = BigDecimal.valueOf(52);
+    private static final Comparator<ThresholdSchedule> BY_EFFECTIVE_DATE = Comparator.comparing(ThresholdSchedule::effectiveFrom, nullsFirst(naturalOrder()));
 
-    private final BigDecimal baseThreshold;
-    private final BigDecimal oneDependantThreshold;
-    private final BigDecimal remainingDependantsIncrement;
+    // Oldest first, starting with the undated schedule. Replaced whole on reload so a lookup never sees a partial change.
+    private volatile ThresholdSchedule[] schedules;
 
     public IncomeThresholdCalculator(
         @Value("${threshold.yearly.base}") BigDecimal baseThreshold,
         @Value("${threshold.yearly.oneDependant}") BigDecimal oneDependantThreshold,
         @Value("${threshold.yearly.remainingDependantsIncrement}") BigDecimal remainingDependantsIncrement
     ) {
-        this.baseThreshold = baseThreshold;
-        this.oneDependantThreshold = oneDependantThreshold;
-        this.remainingDependantsIncrement = remainingDependantsIncrement;
+        this.schedules = new ThresholdSchedule[]{new ThresholdSchedule(null, baseThreshold, oneDependantThreshold, remainingDependantsIncrement)};
     }
 
+    /**
+     * The threshold configured in the application properties, ignoring any effective-dated schedule - validators should
+     * use {@link #yearlyThreshold(LocalDate, int)}.
+     */
     public BigDecimal yearlyThreshold(int dependants) {
-        if (dependants == 0) {
-            return baseThreshold;
-        }
-       return oneDependantThreshold.add(remainingDependantsIncrement.multiply(BigDecimal.valueOf(dependants - 1)));
+        return scheduleOn(null).yearlyThreshold(dependants);
     }
 
+    /**
+     * The threshold configured in the application properties, ignoring any effective-dated schedule - validators should
+     * use {@link #monthlyThreshold(LocalDate, int)}.
+     */
     public BigDecimal monthlyThreshold(int dependants) {
-        return yearlyThreshold(dependants).divide(MONTHS_PER_YEAR, 2, RoundingMode.HALF_UP);
+        return scheduleOn(null).monthlyThreshold(dependants);
     }
 
+    /**
+     * The threshold configured in the application properties, ignoring any effective-dated schedule - validators should
+     * use {@link #weeklyThreshold(LocalDate, int)}.
+     */
     public BigDecimal weeklyThreshold(int dependants) {
-        return yearlyThreshold(dependants).divide(WEEKS_PER_YEAR, 2, RoundingMode.HALF_UP);
+        return scheduleOn(null).weeklyThreshold(dependants);
+    }
+
+    public BigDecimal yearlyThreshold(LocalDate applicationRaisedDate, int dependants) {
+        return scheduleOn(applicationRaisedDate).yearlyThreshold(dependants);
+    }
+
+    public BigDecimal monthlyThreshold(LocalDate applicationRaisedDate, int dependants) {
+        return scheduleOn(applicationRaisedDate).monthlyThreshold(dependants);
+    }
+
+    public BigDecimal weeklyThreshold(LocalDate applicationRaisedDate, int dependants) {
+        return scheduleOn(applicationRaisedDate).weeklyThreshold(dependants);
+    }
+
+    /**
+     * The schedule in effect on the date, or the undated schedule if the date is not known.
+     */
+    public ThresholdSchedule scheduleOn(LocalDate applicationRaisedDate) {
+        ThresholdSchedule[] current = schedules;
+        if (applicationRaisedDate == null) {
+            return current[0];
+        }
+        // Only a handful of schedules are ever in force, newest is the most likely match.
+        for (int i = current.length - 1; i > 0; i--) {
+            if (current[i].isEffectiveOn(applicationRaisedDate)) {
+                return current[i];
+            }
+        }
+        return current[0];
+    }
+
+    public List<ThresholdSchedule> schedules() {
+        return unmodifiableList(asList(schedules));
+    }
+
+    /**
+     * Replaces the effective-dated schedules. An undated schedule among them replaces the undated schedule too, otherwise
+     * the current one is kept.
+     */
+    public synchronized void reload(Collection<ThresholdSchedule> newSchedules) {
+        List<ThresholdSchedule> sorted = new ArrayList<>(newSchedules);
+        sorted.sort(BY_EFFECTIVE_DATE);
+        if (sorted.isEmpty() || sorted.get(0).effectiveFrom() != null) {
+            sorted.add(0, schedules[0]);
+        }
+        for (int i = 1; i < sorted.size(); i++) {
+            if (BY_EFFECTIVE_DATE.compare(sorted.get(i - 1), sorted.get(i)) == 0) {
+                throw new IllegalArgumentException("More than one threshold schedule from " + sorted.get(i).effectiveFrom());
+            }
+        }
+        schedules = sorted.toArray(new ThresholdSchedule[0]);
     }
 }
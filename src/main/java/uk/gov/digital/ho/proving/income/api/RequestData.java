@@ -15,8 +15,13 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.Charset;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -30,6 +35,9 @@ public class RequestData implements HandlerInterceptor {
     public static final String SMOKE_TESTS_USER_ID = "smoke-tests";
 
     public static final String COMPONENT_TRACE_HEADER = "x-component-trace";
+    public static final String BYPASS_CACHE_HEADER = "x-bypass-cache";
+    private static final String BYPASS_CACHE = "bypass-cache";
+    private static final String ASYNC_RESULT_CONTEXT = RequestData.class.getName() + ".asyncResultContext";
     private static final String COMPONENT_NAME = "pttg-ip-api";
 
     @Value("${auditing.deployment.name}") private String deploymentName;
@@ -41,13 +49,39 @@ public class RequestData implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
 
         MDC.clear();
+        if (restoreAsyncResultContext(request)) {
+            return true;
+        }
+
         MDC.put(SESSION_ID_HEADER, initialiseSessionId(request));
         MDC.put(CORRELATION_ID_HEADER, initialiseCorrelationId(request));
         MDC.put(USER_ID_HEADER, initialiseUserName(request));
         MDC.put("userHost", request.getRemoteHost());
         MDC.put(REQUEST_START_TIMESTAMP, initialiseRequestStart());
         MDC.put(COMPONENT_TRACE_HEADER, initialiseComponentTrace(request));
+        if (Boolean.parseBoolean(request.getHeader(BYPASS_CACHE_HEADER))) {
+            MDC.put(BYPASS_CACHE, Boolean.TRUE.toString());
+        }
+
+        return true;
+    }
+
+    /*
+     * When an async request completes the response is written on a new dispatch, which comes through preHandle again. That
+     * dispatch carries on with the context the request had when its result was set - including the component trace built
+     * up while it ran - rather than starting afresh.
+     */
+    public void saveAsyncResultContext(HttpServletRequest request, Map<String, String> context) {
+        request.setAttribute(ASYNC_RESULT_CONTEXT, context);
+    }
 
+    @SuppressWarnings("unchecked")
+    private boolean restoreAsyncResultContext(HttpServletRequest request) {
+        Object context = request.getAttribute(ASYNC_RESULT_CONTEXT);
+        if (!(context instanceof Map)) {
+            return false;
+        }
+        MDC.setContextMap((Map<String, String>) context);
         return true;
     }
 
@@ -122,6 +156,13 @@ public class RequestData implements HandlerInterceptor {
         return userId().equals(SMOKE_TESTS_USER_ID);
     }
 
+    /*
+     * Caseworkers who need fresh data send x-bypass-cache: true to have HMRC asked again rather than answered from a cache.
+     */
+    public boolean bypassCache() {
+        return Boolean.parseBoolean(MDC.get(BYPASS_CACHE));
+    }
+
     public String componentTrace() {
         return MDC.get(COMPONENT_TRACE_HEADER);
     }
@@ -144,6 +185,22 @@ public class RequestData implements HandlerInterceptor {
         setComponentTrace(components);
     }
 
+    /*
+     * Adds the components of a trace picked up on another thread, such as a concurrent HMRC lookup's, to those already
+     * traced for this request - each component once, in the order first seen - so no lookup's trace is lost to another's.
+     */
+    public void mergeComponentTrace(String componentTrace) {
+        if (StringUtils.isEmpty(componentTrace)) {
+            return;
+        }
+        Set<String> components = new LinkedHashSet<>();
+        if (StringUtils.isNotEmpty(componentTrace())) {
+            components.addAll(Arrays.asList(componentTrace().split(",")));
+        }
+        components.addAll(Arrays.asList(componentTrace.split(",")));
+        setComponentTrace(new ArrayList<>(components));
+    }
+
     private void setComponentTrace(List<String> components) {
         if (components == null) {
             return;
@@ -0,0 +1,92 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * The yearly income thresholds from one date, with the yearly, monthly and weekly thresholds for every number of
+ * dependants the service accepts worked out up front. A schedule without an effective date is the one that applies before
+ * any dated schedule.
+ */
+@Accessors(fluent = true)
+@EqualsAndHashCode(of = {"effectiveFrom", "baseThreshold", "oneDependantThreshold", "remainingDependantsIncrement"})
+@ToString(of = {"effectiveFrom", "baseThreshold", "oneDependantThreshold", "remainingDependantsIncrement"})
+public final class ThresholdSchedule {
+
+    public static final int MAXIMUM_DEPENDANTS = 99;
+
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+    private static final BigDecimal WEEKS_PER_YEAR = BigDecimal.valueOf(52);
+
+    @Getter private final LocalDate effectiveFrom;
+    @Getter private final BigDecimal baseThreshold;
+    @Getter private final BigDecimal oneDependantThreshold;
+    @Getter private final BigDecimal remainingDependantsIncrement;
+
+    private final BigDecimal[] yearly = new BigDecimal[MAXIMUM_DEPENDANTS + 1];
+    private final BigDecimal[] monthly = new BigDecimal[MAXIMUM_DEPENDANTS + 1];
+    private final BigDecimal[] weekly = new BigDecimal[MAXIMUM_DEPENDANTS + 1];
+
+    @JsonCreator
+    public ThresholdSchedule(@JsonProperty("effectiveFrom") LocalDate effectiveFrom,
+                             @JsonProperty("baseThreshold") BigDecimal baseThreshold,
+                             @JsonProperty("oneDependantThreshold") BigDecimal oneDependantThreshold,
+                             @JsonProperty("remainingDependantsIncrement") BigDecimal remainingDependantsIncrement) {
+        if (baseThreshold == null || oneDependantThreshold == null || remainingDependantsIncrement == null) {
+            throw new IllegalArgumentException("Threshold schedule from " + effectiveFrom + " is missing a threshold");
+        }
+        this.effectiveFrom = effectiveFrom;
+        this.baseThreshold = baseThreshold;
+        this.oneDependantThreshold = oneDependantThreshold;
+        this.remainingDependantsIncrement = remainingDependantsIncrement;
+
+        for (int dependants = 0; dependants <= MAXIMUM_DEPENDANTS; dependants++) {
+            yearly[dependants] = calculateYearly(dependants);
+            monthly[dependants] = toMonthly(yearly[dependants]);
+            weekly[dependants] = toWeekly(yearly[dependants]);
+        }
+    }
+
+    public BigDecimal yearlyThreshold(int dependants) {
+        return isTabled(dependants) ? yearly[dependants] : calculateYearly(dependants);
+    }
+
+    public BigDecimal monthlyThreshold(int dependants) {
+        return isTabled(dependants) ? monthly[dependants] : toMonthly(calculateYearly(dependants));
+    }
+
+    public BigDecimal weeklyThreshold(int dependants) {
+        return isTabled(dependants) ? weekly[dependants] : toWeekly(calculateYearly(dependants));
+    }
+
+    boolean isEffectiveOn(LocalDate date) {
+        return effectiveFrom == null || !effectiveFrom.isAfter(date);
+    }
+
+    private static boolean isTabled(int dependants) {
+        return dependants >= 0 && dependants <= MAXIMUM_DEPENDANTS;
+    }
+
+    private BigDecimal calculateYearly(int dependants) {
+        if (dependants == 0) {
+            return baseThreshold;
+        }
+        return oneDependantThreshold.add(remainingDependantsIncrement.multiply(BigDecimal.valueOf(dependants - 1)));
+    }
+
+    private static BigDecimal toMonthly(BigDecimal yearlyThreshold) {
+        return yearlyThreshold.divide(MONTHS_PER_YEAR, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal toWeekly(BigDecimal yearlyThreshold) {
+        return yearlyThreshold.divide(WEEKS_PER_YEAR, 2, RoundingMode.HALF_UP);
+    }
+}
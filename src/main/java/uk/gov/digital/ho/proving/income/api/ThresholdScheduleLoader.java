@@ -0,0 +1,96 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.*;
+
+/**
+ * Loads effective-dated threshold schedules from a JSON file into the {@link IncomeThresholdCalculator} and reloads them
+ * whenever the file changes, so new thresholds can be scheduled without a restart. A file that cannot be read stops the
+ * service starting, but once running a bad change is logged and the schedules already loaded stay in use.
+ */
+@Component
+@Slf4j
+class ThresholdScheduleLoader {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final TypeReference<List<ThresholdSchedule>> SCHEDULES = new TypeReference<List<ThresholdSchedule>>() {};
+
+    private final IncomeThresholdCalculator incomeThresholdCalculator;
+    private final ObjectMapper mapper;
+    private final ThresholdScheduleProperties properties;
+
+    private ScheduledExecutorService reloader;
+    private FileTime loadedModifiedTime;
+
+    ThresholdScheduleLoader(IncomeThresholdCalculator incomeThresholdCalculator, ObjectMapper mapper, ThresholdScheduleProperties properties) {
+        this.incomeThresholdCalculator = incomeThresholdCalculator;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        load();
+        reloader = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("threshold-reload-"));
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, properties.getReloadIntervalMillis(), properties.getReloadIntervalMillis(), MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (reloader == null) {
+            return;
+        }
+        reloader.shutdownNow();
+        reloader.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, SECONDS);
+    }
+
+    boolean isEnabled() {
+        return properties.getLocation() != null && !properties.getLocation().isEmpty();
+    }
+
+    void reloadIfChanged() {
+        try {
+            if (!Files.getLastModifiedTime(location()).equals(loadedModifiedTime)) {
+                load();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to reload threshold schedules from {} - keeping those already loaded - {}", properties.getLocation(), e.getMessage(),
+                      value(EVENT, INCOME_PROVING_THRESHOLDS_LOAD_FAILURE));
+        }
+    }
+
+    private void load() throws IOException {
+        Path location = location();
+        FileTime modifiedTime = Files.getLastModifiedTime(location);
+        List<ThresholdSchedule> schedules = mapper.readValue(location.toFile(), SCHEDULES);
+        incomeThresholdCalculator.reload(schedules);
+        loadedModifiedTime = modifiedTime;
+        log.info("Loaded threshold schedules {} from {}", incomeThresholdCalculator.schedules(), location, value(EVENT, INCOME_PROVING_THRESHOLDS_LOADED));
+    }
+
+    private Path location() {
+        return Paths.get(properties.getLocation());
+    }
+}
@@ -0,0 +1,18 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "threshold.schedules")
+@NoArgsConstructor
+@Setter
+@Getter
+public class ThresholdScheduleProperties {
+
+    private String location;
+    private long reloadIntervalMillis = 60000;
+}
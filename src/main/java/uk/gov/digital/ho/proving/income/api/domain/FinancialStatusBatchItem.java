@@ -0,0 +1,18 @@
+package uk.gov.digital.ho.proving.income.api.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+@AllArgsConstructor
+@Getter
+@Accessors(fluent = true)
+@ToString
+public class FinancialStatusBatchItem {
+    @JsonProperty(value = "index")
+    private final int index;
+    @JsonProperty(value = "response")
+    private final BaseResponse response;
+}
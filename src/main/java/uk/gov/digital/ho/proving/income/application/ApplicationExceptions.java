@@ -26,6 +26,34 @@ public interface ApplicationExceptions {
         }
     }
 
+    class CircuitBreakerOpenException extends RuntimeException {
+        private final String circuit;
+        public CircuitBreakerOpenException(String circuit) {
+            super(String.format("Circuit breaker %s is open", circuit));
+            this.circuit = circuit;
+        }
+        public String circuit() {
+            return circuit;
+        }
+    }
+
+    class BulkheadRejectedException extends RuntimeException {
+        private final String bulkhead;
+        public BulkheadRejectedException(BulkheadFullException cause) {
+            super(cause.getMessage(), cause);
+            this.bulkhead = cause.bulkhead();
+        }
+        public String bulkhead() {
+            return bulkhead;
+        }
+    }
+
+    class FinancialStatusUnavailableException extends RuntimeException {
+        public FinancialStatusUnavailableException(String message) {
+            super(message);
+        }
+    }
+
     class InvalidNationalInsuranceNumber extends IllegalArgumentException {
         public InvalidNationalInsuranceNumber(final String message) {
             super(message);
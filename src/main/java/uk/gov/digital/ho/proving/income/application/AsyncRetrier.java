@@ -0,0 +1,102 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Retries a call that completes later with the same retry and back-off policies a RetryTemplate would use for the
+ * downstream, but schedules each retry on {@code scheduler} once the back-off has passed instead of sleeping through it,
+ * so a call waiting to be retried holds no thread.
+ *
+ * The back-off policy is built around a sleeper that notes the pause it is asked for rather than taking it, which is
+ * then used as the delay before the next attempt.
+ */
+public class AsyncRetrier {
+
+    private final RetryPolicy retryPolicy;
+    private final BackOffPolicy backOffPolicy;
+    private final ScheduledExecutorService scheduler;
+    private final PauseRecorder pauses = new PauseRecorder();
+
+    public AsyncRetrier(RetryPolicy retryPolicy, Function<Sleeper, BackOffPolicy> backOffPolicy, ScheduledExecutorService scheduler) {
+        this.retryPolicy = retryPolicy;
+        this.backOffPolicy = backOffPolicy.apply(pauses);
+        this.scheduler = scheduler;
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        RetryContext context = retryPolicy.open(null);
+        BackOffContext backOffContext = backOffPolicy.start(context);
+        attempt(call, context, backOffContext, result);
+        return result;
+    }
+
+    private <T> void attempt(Supplier<CompletableFuture<T>> call, RetryContext context, BackOffContext backOffContext, CompletableFuture<T> result) {
+        CompletableFuture<T> attempt;
+        try {
+            attempt = call.get();
+        } catch (RuntimeException e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+
+        attempt.whenComplete((value, error) -> {
+            if (error == null) {
+                retryPolicy.close(context);
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            retryPolicy.registerThrowable(context, cause);
+            // A caller that has given up, for instance on a timeout, is not retried for.
+            if (result.isDone() || !retryPolicy.canRetry(context)) {
+                retryPolicy.close(context);
+                result.completeExceptionally(cause);
+                return;
+            }
+            try {
+                scheduler.schedule(() -> attempt(call, context, backOffContext, result), pauses.pauseFor(backOffPolicy, backOffContext), MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retryPolicy.close(context);
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static final class PauseRecorder implements Sleeper {
+
+        private final ThreadLocal<Long> pause = new ThreadLocal<>();
+
+        @Override
+        public void sleep(long backOffPeriod) {
+            pause.set(backOffPeriod);
+        }
+
+        private long pauseFor(BackOffPolicy backOffPolicy, BackOffContext backOffContext) {
+            pause.set(0L);
+            try {
+                backOffPolicy.backOff(backOffContext);
+                return pause.get();
+            } finally {
+                pause.remove();
+            }
+        }
+    }
+}
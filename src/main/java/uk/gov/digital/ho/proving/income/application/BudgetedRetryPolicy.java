@@ -0,0 +1,84 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+import java.time.Clock;
+
+/**
+ * Wraps a retry policy so a failed call is only retried while the caller's deadline has not passed and the downstream's
+ * {@link RetryBudget} has a token to spare. The deadline runs from the first attempt and is kept on the retry context,
+ * where {@link DecorrelatedJitterBackOffPolicy} also reads it so a back-off never sleeps past it.
+ *
+ * RetryTemplate asks whether it can retry both before backing off and again before the next attempt, so the decision
+ * for each retry is made once and kept on the context to avoid spending two tokens on one retry.
+ */
+public class BudgetedRetryPolicy implements RetryPolicy {
+
+    static final String DEADLINE = "retry.deadline";
+    private static final String FIRST_FAILURE = "retry.firstFailure";
+    private static final String DECIDED_FOR = "retry.decidedFor";
+    private static final String DECISION = "retry.decision";
+    private static final String RETRIED = "retry.retried";
+
+    private final RetryPolicy delegate;
+    private final RetryBudget budget;
+    private final Clock clock;
+
+    public BudgetedRetryPolicy(RetryPolicy delegate, RetryBudget budget, Clock clock) {
+        this.delegate = delegate;
+        this.budget = budget;
+        this.clock = clock;
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        RetryContext context = delegate.open(parent);
+        context.setAttribute(DEADLINE, clock.millis() + budget.properties().getDeadlineMillis());
+        budget.recordCall();
+        return context;
+    }
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        if (context.getRetryCount() == 0) {
+            return delegate.canRetry(context);
+        }
+        if (!Integer.valueOf(context.getRetryCount()).equals(context.getAttribute(DECIDED_FOR))) {
+            context.setAttribute(DECISION, decide(context));
+            context.setAttribute(DECIDED_FOR, context.getRetryCount());
+        }
+        return (Boolean) context.getAttribute(DECISION);
+    }
+
+    private boolean decide(RetryContext context) {
+        if (!delegate.canRetry(context)) {
+            return false;
+        }
+        if (clock.millis() >= (Long) context.getAttribute(DEADLINE)) {
+            budget.recordDeadlineExceeded();
+            return false;
+        }
+        if (!budget.tryAcquireRetry()) {
+            return false;
+        }
+        context.setAttribute(RETRIED, true);
+        return true;
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        if (context.hasAttribute(RETRIED)) {
+            budget.recordRetryLatency(clock.millis() - (Long) context.getAttribute(FIRST_FAILURE));
+        }
+        delegate.close(context);
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        if (!context.hasAttribute(FIRST_FAILURE)) {
+            context.setAttribute(FIRST_FAILURE, clock.millis());
+        }
+        delegate.registerThrowable(context, throwable);
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Caps the calls in flight to one downstream. A call that cannot get a permit within {@code maxWaitMillis} is rejected,
+ * so a slow downstream fails fast rather than tying up request threads that other downstreams need.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    void acquire() throws BulkheadFullException {
+        if (!tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException(name, maxConcurrentCalls);
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    String name() {
+        return name;
+    }
+
+    int maxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    int activeCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    int queuedCalls() {
+        return permits.getQueueLength();
+    }
+
+    long rejectedCalls() {
+        return rejected.get();
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(maxWaitMillis, MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends each downstream's calls through its own connection pool and bulkhead, so a slow downstream cannot use up the
+ * connections or request threads that another one needs. Downstreams are matched by URL prefix, and optionally by
+ * method, in the order they were added. Anything else goes through a shared default pool with no bulkhead.
+ */
+public class BulkheadClientHttpRequestFactory implements ClientHttpRequestFactory, PublicMetrics, Closeable {
+
+    private static final int PERCENT = 100;
+
+    private final HttpConnectionPoolProperties poolProperties;
+    private final HttpConnectionPool defaultPool;
+    private final List<Downstream> downstreams = new ArrayList<>();
+
+    public BulkheadClientHttpRequestFactory(HttpConnectionPoolProperties poolProperties) {
+        this.poolProperties = poolProperties;
+        this.defaultPool = new HttpConnectionPool("default", poolProperties.getMaxTotal(), poolProperties.getDefaultMaxPerRoute(), poolProperties);
+    }
+
+    /**
+     * @param method the only method routed to this downstream, or null for any method
+     */
+    public BulkheadClientHttpRequestFactory addDownstream(String name, String urlPrefix, HttpMethod method, BulkheadProperties.Limits limits) {
+        HttpConnectionPool pool = new HttpConnectionPool(name, limits.getMaxConnections(), limits.getMaxConnections(), poolProperties);
+        Bulkhead bulkhead = new Bulkhead(name, limits.getMaxConcurrentCalls(), limits.getMaxWaitMillis());
+        downstreams.add(new Downstream(urlPrefix, method, pool, bulkhead));
+        return this;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        for (Downstream downstream : downstreams) {
+            if (downstream.handles(uri, httpMethod)) {
+                ClientHttpRequest request = downstream.pool.requestFactory().createRequest(uri, httpMethod);
+                return new BulkheadClientHttpRequest(request, downstream.bulkhead);
+            }
+        }
+        return defaultPool.requestFactory().createRequest(uri, httpMethod);
+    }
+
+    // Called reflectively by RestTemplateBuilder
+    public void setReadTimeout(int timeout) {
+        defaultPool.setReadTimeout(timeout);
+        downstreams.forEach(downstream -> downstream.pool.setReadTimeout(timeout));
+    }
+
+    // Called reflectively by RestTemplateBuilder
+    public void setConnectTimeout(int timeout) {
+        defaultPool.setConnectTimeout(timeout);
+        downstreams.forEach(downstream -> downstream.pool.setConnectTimeout(timeout));
+    }
+
+    @Override
+    public void close() throws IOException {
+        defaultPool.close();
+        for (Downstream downstream : downstreams) {
+            downstream.pool.close();
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>(defaultPool.metrics());
+        for (Downstream downstream : downstreams) {
+            metrics.addAll(downstream.pool.metrics());
+            addBulkheadMetrics(metrics, downstream.bulkhead);
+        }
+        return metrics;
+    }
+
+    private static void addBulkheadMetrics(List<Metric<?>> metrics, Bulkhead bulkhead) {
+        String prefix = "http.bulkhead." + bulkhead.name();
+        int active = bulkhead.activeCalls();
+        int max = bulkhead.maxConcurrentCalls();
+        metrics.add(new Metric<>(prefix + ".active", active));
+        metrics.add(new Metric<>(prefix + ".queued", bulkhead.queuedCalls()));
+        metrics.add(new Metric<>(prefix + ".max", max));
+        metrics.add(new Metric<>(prefix + ".rejected", bulkhead.rejectedCalls()));
+        metrics.add(new Metric<>(prefix + ".saturation.percent", max > 0 ? active * PERCENT / max : PERCENT));
+    }
+
+    private static class Downstream {
+
+        private final String urlPrefix;
+        private final HttpMethod method;
+        private final HttpConnectionPool pool;
+        private final Bulkhead bulkhead;
+
+        Downstream(String urlPrefix, HttpMethod method, HttpConnectionPool pool, Bulkhead bulkhead) {
+            this.urlPrefix = urlPrefix;
+            this.method = method;
+            this.pool = pool;
+            this.bulkhead = bulkhead;
+        }
+
+        boolean handles(URI uri, HttpMethod httpMethod) {
+            return uri.toString().startsWith(urlPrefix) && (method == null || method == httpMethod);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import java.io.IOException;
+
+public class BulkheadFullException extends IOException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead, int maxConcurrentCalls) {
+        super(String.format("Bulkhead %s is full - %d calls already in flight", bulkhead, maxConcurrentCalls));
+        this.bulkhead = bulkhead;
+    }
+
+    public String bulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,30 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "http.bulkhead")
+@NoArgsConstructor
+@Setter
+@Getter
+public class BulkheadProperties {
+
+    private Limits hmrc = new Limits(50, 50, 1000);
+    private Limits auditWrite = new Limits(20, 20, 0);
+    private Limits auditRead = new Limits(5, 5, 1000);
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Setter
+    @Getter
+    public static class Limits {
+        private int maxConnections;
+        private int maxConcurrentCalls;
+        private long maxWaitMillis;
+    }
+}
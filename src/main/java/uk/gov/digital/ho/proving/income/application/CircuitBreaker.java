@@ -0,0 +1,218 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.CircuitBreakerOpenException;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.CIRCUIT_BREAKER_STATE_CHANGED;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+
+/**
+ * Stops calling a downstream that is failing or slow. Call outcomes are counted over a rolling window of one second
+ * buckets. Once the window holds at least {@code minimumCalls} and either the failure rate or the slow call rate reaches
+ * its threshold the circuit opens, and calls fail straight away with {@link CircuitBreakerOpenException}.
+ *
+ * After {@code openDurationMillis} the circuit goes half open and lets {@code halfOpenPermittedCalls} trial calls
+ * through. If they all succeed in time it closes, and if any of them fails or is slow it opens again.
+ */
+@Slf4j
+public class CircuitBreaker implements PublicMetrics {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long BUCKET_MILLIS = 1000;
+    private static final int PERCENT = 100;
+
+    private final String name;
+    private final CircuitBreakerProperties properties;
+    private final Clock clock;
+    private final Predicate<RuntimeException> isFailure;
+
+    private final long[] bucketSeconds;
+    private final int[] calls;
+    private final int[] failures;
+    private final int[] slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsAdmitted;
+    private int trialsSucceeded;
+    private long rejected;
+    private long timesOpened;
+
+    /**
+     * @param isFailure decides which exceptions count against the downstream - anything else, such as a not found
+     *                  response, counts as a successful call
+     */
+    public CircuitBreaker(String name, CircuitBreakerProperties properties, Clock clock, Predicate<RuntimeException> isFailure) {
+        this.name = name;
+        this.properties = properties;
+        this.clock = clock;
+        this.isFailure = isFailure;
+
+        int buckets = Math.max(1, properties.getWindowSeconds());
+        this.bucketSeconds = new long[buckets];
+        this.calls = new int[buckets];
+        this.failures = new int[buckets];
+        this.slowCalls = new int[buckets];
+        Arrays.fill(bucketSeconds, Long.MIN_VALUE);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        acquirePermission();
+        long start = clock.millis();
+        try {
+            T result = call.get();
+            record(false, clock.millis() - start);
+            return result;
+        } catch (RuntimeException e) {
+            record(isFailure.test(e), clock.millis() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * As {@link #execute} for a call that completes later. The call is timed until its future completes, and a failed
+     * future counts against the downstream as a thrown exception would.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        acquirePermission();
+        long start = clock.millis();
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            record(isFailure.test(e), clock.millis() - start);
+            throw e;
+        }
+        return result.whenComplete((value, error) -> record(error != null && countsAsFailure(AsyncRetrier.unwrap(error)), clock.millis() - start));
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN && clock.millis() - openedAt >= properties.getOpenDurationMillis()) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialsAdmitted >= properties.getHalfOpenPermittedCalls())) {
+            rejected++;
+            throw new CircuitBreakerOpenException(name);
+        }
+        if (state == State.HALF_OPEN) {
+            trialsAdmitted++;
+        }
+    }
+
+    private boolean countsAsFailure(Throwable error) {
+        return !(error instanceof RuntimeException) || isFailure.test((RuntimeException) error);
+    }
+
+    private synchronized void record(boolean failed, long durationMillis) {
+        boolean slow = durationMillis >= properties.getSlowCallDurationMillis();
+        if (state == State.HALF_OPEN) {
+            recordTrial(failed || slow);
+        } else if (state == State.CLOSED) {
+            recordInWindow(failed, slow);
+        }
+    }
+
+    private void recordTrial(boolean failedOrSlow) {
+        if (failedOrSlow) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        trialsSucceeded++;
+        if (trialsSucceeded >= properties.getHalfOpenPermittedCalls()) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    private void recordInWindow(boolean failed, boolean slow) {
+        long second = clock.millis() / BUCKET_MILLIS;
+        int bucket = (int) (second % bucketSeconds.length);
+        if (bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second;
+            calls[bucket] = 0;
+            failures[bucket] = 0;
+            slowCalls[bucket] = 0;
+        }
+        calls[bucket]++;
+        failures[bucket] += failed ? 1 : 0;
+        slowCalls[bucket] += slow ? 1 : 0;
+
+        int windowCalls = sumInWindow(calls);
+        if (windowCalls >= properties.getMinimumCalls()
+            && (exceedsThreshold(sumInWindow(failures), windowCalls, properties.getFailureRateThresholdPercent())
+                || exceedsThreshold(sumInWindow(slowCalls), windowCalls, properties.getSlowCallRateThresholdPercent()))) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private int sumInWindow(int[] counts) {
+        long oldestSecond = clock.millis() / BUCKET_MILLIS - bucketSeconds.length;
+        int sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (bucketSeconds[i] > oldestSecond) {
+                sum += counts[i];
+            }
+        }
+        return sum;
+    }
+
+    private static boolean exceedsThreshold(int count, int total, int thresholdPercent) {
+        return (long) count * PERCENT >= (long) thresholdPercent * total;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker {} changed from {} to {}", name, state, newState, value(EVENT, CIRCUIT_BREAKER_STATE_CHANGED));
+        state = newState;
+        trialsAdmitted = 0;
+        trialsSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAt = clock.millis();
+            timesOpened++;
+        }
+        if (newState == State.CLOSED) {
+            Arrays.fill(bucketSeconds, Long.MIN_VALUE);
+        }
+    }
+
+    @Override
+    public synchronized Collection<Metric<?>> metrics() {
+        String prefix = "circuit." + name;
+        int windowCalls = sumInWindow(calls);
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(prefix + ".state", state.ordinal()));
+        metrics.add(new Metric<>(prefix + ".calls", windowCalls));
+        metrics.add(new Metric<>(prefix + ".failure.rate.percent", ratePercent(sumInWindow(failures), windowCalls)));
+        metrics.add(new Metric<>(prefix + ".slow.rate.percent", ratePercent(sumInWindow(slowCalls), windowCalls)));
+        metrics.add(new Metric<>(prefix + ".rejected", rejected));
+        metrics.add(new Metric<>(prefix + ".opened", timesOpened));
+        return metrics;
+    }
+
+    private static int ratePercent(int count, int total) {
+        return total == 0 ? 0 : count * PERCENT / total;
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+
+@Configuration
+public class CircuitBreakerConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "hmrc.service.circuit-breaker")
+    public CircuitBreakerProperties hmrcCircuitBreakerProperties() {
+        return new CircuitBreakerProperties();
+    }
+
+    /*
+     * Only server errors and failures to connect count against HMRC. A 404 means HMRC is working and found no match.
+     */
+    @Bean
+    public CircuitBreaker hmrcCircuitBreaker(@Qualifier("hmrcCircuitBreakerProperties") CircuitBreakerProperties properties, Clock clock) {
+        return new CircuitBreaker("hmrc", properties, clock, CircuitBreakerConfiguration::countsAgainstHmrc);
+    }
+
+    /*
+     * A call we turned away ourselves, because the HMRC bulkhead or its connection pool was full, never reached HMRC and
+     * says nothing about its health - RestTemplate wraps these as a ResourceAccessException like any other I/O failure.
+     */
+    static boolean countsAgainstHmrc(RuntimeException e) {
+        if (e instanceof HttpServerErrorException) {
+            return true;
+        }
+        return e instanceof ResourceAccessException && !isLocalRejection(e.getCause());
+    }
+
+    private static boolean isLocalRejection(Throwable cause) {
+        return cause instanceof BulkheadFullException || cause instanceof ConnectionPoolTimeoutException;
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Setter
+@Getter
+public class CircuitBreakerProperties {
+
+    private boolean enabled;
+    private int windowSeconds = 10;
+    private int minimumCalls = 20;
+    private int failureRateThresholdPercent = 50;
+    private long slowCallDurationMillis = 5000;
+    private int slowCallRateThresholdPercent = 80;
+    private long openDurationMillis = 30000;
+    private int halfOpenPermittedCalls = 5;
+}
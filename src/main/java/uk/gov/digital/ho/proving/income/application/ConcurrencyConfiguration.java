@@ -0,0 +1,100 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import uk.gov.digital.ho.proving.income.hmrc.IncomeRecordKey;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ConcurrencyConfiguration {
+
+    @Bean
+    public ThreadPoolTaskExecutor hmrcLookupExecutor(@Value("${hmrc.service.lookup.threads:8}") int threads,
+                                                     @Value("${hmrc.service.lookup.queue.capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("hmrc-lookup-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // When saturated the lookup runs on the request thread, which is no worse than the sequential behaviour.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor hmrcHedgingExecutor(@Value("${hmrc.service.hedging.threads:32}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("hmrc-hedging-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // No queue - when every thread is busy the call runs unhedged on the request thread instead of waiting.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor financialStatusBatchExecutor(@Value("${financialstatus.batch.threads:16}") int threads,
+                                                               @Value("${financialstatus.batch.queue.capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("financial-status-batch-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // Shared by every batch in flight - when saturated a batch runs its next item itself, slowing only that batch.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor financialStatusAsyncExecutor(@Value("${financialstatus.async.threads:64}") int threads,
+                                                               @Value("${financialstatus.async.queue.capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("financial-status-async-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // A full pool turns the check away with 0006 - running it on the container thread would defeat the point.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool incomeValidationPool(@Value("${income.validation.parallel.threads:0}") int threads) {
+        // Validators are pure CPU work over an immutable request, so a work-stealing pool sized to the cores suits them.
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("income-validation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "hmrc.service.async.enabled", havingValue = "true")
+    public ThreadPoolTaskScheduler hmrcRetryScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        // Only starts the next attempt, which is itself non-blocking, so one thread serves every retry in flight.
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("hmrc-retry-");
+        return scheduler;
+    }
+
+    @Bean
+    public SingleFlight<IncomeRecordKey, ResponseEntity<IncomeRecord>> hmrcLookupSingleFlight(@Value("${hmrc.service.lookup.coalesce:false}") boolean enabled) {
+        return new SingleFlight<>("hmrc", enabled);
+    }
+}
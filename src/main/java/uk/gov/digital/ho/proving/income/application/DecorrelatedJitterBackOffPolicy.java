@@ -0,0 +1,78 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential back-off with decorrelated jitter - each pause is picked at random between the initial delay and three
+ * times the previous pause, capped at the maximum delay. Callers that failed together drift apart rather than
+ * retrying in lockstep.
+ *
+ * If the retry context carries a {@link BudgetedRetryPolicy} deadline, the pause is cut short so it ends by then.
+ */
+public class DecorrelatedJitterBackOffPolicy implements BackOffPolicy {
+
+    private static final long GROWTH = 3;
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final Clock clock;
+    private final Sleeper sleeper;
+
+    public DecorrelatedJitterBackOffPolicy(long initialDelayMillis, long maxDelayMillis, Clock clock) {
+        this(initialDelayMillis, maxDelayMillis, clock, new ThreadWaitSleeper());
+    }
+
+    DecorrelatedJitterBackOffPolicy(long initialDelayMillis, long maxDelayMillis, Clock clock, Sleeper sleeper) {
+        this.initialDelayMillis = Math.max(1, initialDelayMillis);
+        this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new JitterContext(context, initialDelayMillis);
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) {
+        JitterContext context = (JitterContext) backOffContext;
+        long upper = Math.min(maxDelayMillis, context.previousDelayMillis * GROWTH);
+        long delay = ThreadLocalRandom.current().nextLong(initialDelayMillis, Math.max(initialDelayMillis, upper) + 1);
+        context.previousDelayMillis = delay;
+
+        long pause = Math.min(delay, remainingMillis(context.retryContext));
+        if (pause <= 0) {
+            return;
+        }
+        try {
+            sleeper.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackOffInterruptedException("Thread interrupted while sleeping", e);
+        }
+    }
+
+    private long remainingMillis(RetryContext context) {
+        Object deadline = context == null ? null : context.getAttribute(BudgetedRetryPolicy.DEADLINE);
+        return deadline == null ? Long.MAX_VALUE : (Long) deadline - clock.millis();
+    }
+
+    private static final class JitterContext implements BackOffContext {
+        private final RetryContext retryContext;
+        private long previousDelayMillis;
+
+        private JitterContext(RetryContext retryContext, long previousDelayMillis) {
+            this.retryContext = retryContext;
+            this.previousDelayMillis = previousDelayMillis;
+        }
+    }
+}
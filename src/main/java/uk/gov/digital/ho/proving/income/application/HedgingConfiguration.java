@@ -0,0 +1,26 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Clock;
+
+@Configuration
+public class HedgingConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "hmrc.service.hedging")
+    public HedgingProperties hmrcHedgingProperties() {
+        return new HedgingProperties();
+    }
+
+    @Bean
+    public RequestHedger hmrcRequestHedger(@Qualifier("hmrcHedgingProperties") HedgingProperties properties,
+                                           @Qualifier("hmrcHedgingExecutor") ThreadPoolTaskExecutor executor,
+                                           Clock clock) {
+        return new RequestHedger("hmrc", properties, executor, clock);
+    }
+}
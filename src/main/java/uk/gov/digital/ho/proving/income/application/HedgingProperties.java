@@ -0,0 +1,23 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Setter
+@Getter
+public class HedgingProperties {
+
+    private boolean enabled;
+    private long windowMillis = 60000;
+    private int minimumSamples = 100;
+    private double hedgePercentile = 95;
+    private long minHedgeDelayMillis = 50;
+    private int maxHedgeRatePercent = 10;
+    private int hedgeBurst = 5;
+    private double timeoutPercentile = 99;
+    private double timeoutFactor = 3;
+    private long minTimeoutMillis = 2000;
+    private long maxTimeoutMillis = 30000;
+}
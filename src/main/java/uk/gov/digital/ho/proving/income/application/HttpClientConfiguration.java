@@ -0,0 +1,70 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
+import org.springframework.web.client.AsyncRestTemplate;
+
+import static org.springframework.http.HttpMethod.POST;
+
+@Configuration
+public class HttpClientConfiguration {
+
+    /*
+     * Audit writes are matched first so that POSTs of audit events do not fall into the audit read bulkhead, which is
+     * for the statistics and archive calls.
+     */
+    @Bean(destroyMethod = "close")
+    public BulkheadClientHttpRequestFactory bulkheadClientHttpRequestFactory(HttpConnectionPoolProperties poolProperties,
+                                                                             BulkheadProperties bulkheadProperties,
+                                                                             @Value("${hmrc.service.url}") String hmrcServiceUrl,
+                                                                             @Value("${pttg.audit.url}") String auditServiceUrl,
+                                                                             @Value("${pttg.audit.audit-endpoint}") String auditEndpoint) {
+        return new BulkheadClientHttpRequestFactory(poolProperties)
+            .addDownstream("hmrc", hmrcServiceUrl, null, bulkheadProperties.getHmrc())
+            .addDownstream("audit-write", auditEndpoint, POST, bulkheadProperties.getAuditWrite())
+            .addDownstream("audit-read", auditServiceUrl, null, bulkheadProperties.getAuditRead());
+    }
+
+    /*
+     * The non-blocking HMRC client has a connection pool of its own, served by a few I/O reactor threads however many
+     * calls are outstanding. It is sized by the HMRC bulkhead - calls beyond that wait for a connection without a thread.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "hmrc.service.async.enabled", havingValue = "true")
+    public HttpComponentsAsyncClientHttpRequestFactory hmrcAsyncRequestFactory(HttpConnectionPoolProperties poolProperties,
+                                                                               BulkheadProperties bulkheadProperties,
+                                                                               @Value("${hmrc.service.async.io-threads:2}") int ioThreads,
+                                                                               @Value("${resttemplate.timeout.read:30000}") int readTimeoutMillis,
+                                                                               @Value("${resttemplate.timeout.connect:30000}") int connectTimeoutMillis) {
+        int maxConnections = bulkheadProperties.getHmrc().getMaxConnections();
+        return new HttpComponentsAsyncClientHttpRequestFactory(
+            HttpAsyncClients.custom()
+                            .setMaxConnTotal(maxConnections)
+                            .setMaxConnPerRoute(maxConnections)
+                            .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                            .setDefaultRequestConfig(RequestConfig.custom()
+                                                                  .setConnectTimeout(connectTimeoutMillis)
+                                                                  .setSocketTimeout(readTimeoutMillis)
+                                                                  .setConnectionRequestTimeout(poolProperties.getConnectionRequestTimeoutMillis())
+                                                                  .build())
+                            .build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "hmrc.service.async.enabled", havingValue = "true")
+    public AsyncRestTemplate hmrcAsyncRestTemplate(@Qualifier("hmrcAsyncRequestFactory") HttpComponentsAsyncClientHttpRequestFactory requestFactory,
+                                                   HttpMessageConverters messageConverters) {
+        AsyncRestTemplate asyncRestTemplate = new AsyncRestTemplate(requestFactory);
+        // The same converters as the blocking RestTemplate, so income records are read by the same ObjectMapper.
+        asyncRestTemplate.setMessageConverters(messageConverters.getConverters());
+        return asyncRestTemplate;
+    }
+}
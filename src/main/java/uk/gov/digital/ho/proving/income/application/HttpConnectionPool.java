@@ -0,0 +1,91 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A pool of kept-alive connections to a downstream service, backed by its own Apache HttpClient. Idle and expired
+ * connections are evicted in the background, and a connection that has sat idle for a while is checked before it is
+ * reused so a request is not handed a connection the far end has already closed.
+ */
+public class HttpConnectionPool implements PublicMetrics, Closeable {
+
+    private final String name;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    public HttpConnectionPool(String name, int maxTotal, int maxPerRoute, HttpConnectionPoolProperties properties) {
+        this.name = name;
+
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(properties.getValidateAfterInactivityMillis());
+
+        httpClient = HttpClients.custom()
+                                .setConnectionManager(connectionManager)
+                                .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAliveMillis()))
+                                .evictExpiredConnections()
+                                .evictIdleConnections(properties.getIdleEvictionMillis(), MILLISECONDS)
+                                .build();
+
+        requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMillis());
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    void setReadTimeout(int timeout) {
+        requestFactory.setReadTimeout(timeout);
+    }
+
+    void setConnectTimeout(int timeout) {
+        requestFactory.setConnectTimeout(timeout);
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        String prefix = "http.pool." + name;
+        PoolStats stats = connectionManager.getTotalStats();
+        metrics.add(new Metric<>(prefix + ".leased", stats.getLeased()));
+        metrics.add(new Metric<>(prefix + ".pending", stats.getPending()));
+        metrics.add(new Metric<>(prefix + ".available", stats.getAvailable()));
+        metrics.add(new Metric<>(prefix + ".max", stats.getMax()));
+        return metrics;
+    }
+
+    /*
+     * Honour a shorter keep-alive if the server asks for one, but otherwise keep connections no longer than we're told to.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+}
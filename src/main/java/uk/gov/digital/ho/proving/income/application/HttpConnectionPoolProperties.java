@@ -0,0 +1,22 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "http.pool")
+@NoArgsConstructor
+@Setter
+@Getter
+public class HttpConnectionPoolProperties {
+
+    private int maxTotal = 100;
+    private int defaultMaxPerRoute = 20;
+    private int connectionRequestTimeoutMillis = 5000;
+    private long idleEvictionMillis = 30000;
+    private long keepAliveMillis = 30000;
+    private int validateAfterInactivityMillis = 2000;
+}
@@ -0,0 +1,104 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import java.time.Clock;
+import java.util.Arrays;
+
+/**
+ * Call latencies over a rolling window, counted in buckets that grow by a quarter each so percentiles come out within
+ * 25% of the true value whatever the scale. The window is split into slices and the oldest slice is cleared as the
+ * window moves on, so old latencies stop counting without keeping every sample.
+ */
+public class LatencyHistogram {
+
+    private static final int SLICES = 6;
+    private static final double GROWTH = 1.25;
+    private static final long MAX_TRACKED_MILLIS = 300_000;
+    private static final long[] UPPER_BOUNDS = upperBounds();
+
+    private final Clock clock;
+    private final long sliceMillis;
+    private final long[] sliceIds = new long[SLICES];
+    private final int[][] counts = new int[SLICES][UPPER_BOUNDS.length];
+
+    public LatencyHistogram(long windowMillis, Clock clock) {
+        this.clock = clock;
+        this.sliceMillis = Math.max(1, windowMillis / SLICES);
+        Arrays.fill(sliceIds, Long.MIN_VALUE);
+    }
+
+    public synchronized void record(long millis) {
+        long sliceId = clock.millis() / sliceMillis;
+        int slice = (int) (sliceId % SLICES);
+        if (sliceIds[slice] != sliceId) {
+            sliceIds[slice] = sliceId;
+            Arrays.fill(counts[slice], 0);
+        }
+        counts[slice][bucketFor(millis)]++;
+    }
+
+    public synchronized long count() {
+        long total = 0;
+        for (int bucket : liveTotals()) {
+            total += bucket;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, or 0 if nothing has been recorded in the window.
+     */
+    public synchronized long percentile(double percentile) {
+        int[] totals = liveTotals();
+        long total = 0;
+        for (int bucket : totals) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < totals.length; bucket++) {
+            seen += totals[bucket];
+            if (seen >= rank) {
+                return UPPER_BOUNDS[bucket];
+            }
+        }
+        return UPPER_BOUNDS[UPPER_BOUNDS.length - 1];
+    }
+
+    private int[] liveTotals() {
+        long oldestSliceId = clock.millis() / sliceMillis - SLICES;
+        int[] totals = new int[UPPER_BOUNDS.length];
+        for (int slice = 0; slice < SLICES; slice++) {
+            if (sliceIds[slice] > oldestSliceId) {
+                for (int bucket = 0; bucket < totals.length; bucket++) {
+                    totals[bucket] += counts[slice][bucket];
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static int bucketFor(long millis) {
+        int index = Arrays.binarySearch(UPPER_BOUNDS, millis);
+        int bucket = index >= 0 ? index : -index - 1;
+        return Math.min(bucket, UPPER_BOUNDS.length - 1);
+    }
+
+    private static long[] upperBounds() {
+        long[] bounds = new long[64];
+        int size = 0;
+        double bound = 1;
+        while (size < bounds.length && (long) bound < MAX_TRACKED_MILLIS) {
+            long next = (long) Math.ceil(bound);
+            if (size == 0 || next > bounds[size - 1]) {
+                bounds[size++] = next;
+            }
+            bound *= GROWTH;
+        }
+        bounds[size++] = MAX_TRACKED_MILLIS;
+        return Arrays.copyOf(bounds, size);
+    }
+}
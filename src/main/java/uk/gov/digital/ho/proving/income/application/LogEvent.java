@@ -13,7 +13,17 @@ public enum LogEvent {
     HMRC_REQUEST_SENT,
     HMRC_RESPONSE_SUCCESS,
     HMRC_NOT_FOUND_RESPONSE,
-    HMRC_ERROR_REPSONSE;
+    HMRC_ERROR_REPSONSE,
+    CIRCUIT_BREAKER_STATE_CHANGED,
+    HEDGED_REQUEST_TIMEOUT,
+    HMRC_CACHE_HIT,
+    HMRC_CACHE_FAILURE,
+    HMRC_NO_MATCH_CACHE_HIT,
+    INCOME_PROVING_BATCH_REQUEST_RECEIVED,
+    INCOME_PROVING_BATCH_RESPONSE_COMPLETE,
+    INCOME_PROVING_VALIDATION_COMPLETE,
+    INCOME_PROVING_THRESHOLDS_LOADED,
+    INCOME_PROVING_THRESHOLDS_LOAD_FAILURE;
 
     public static final String EVENT = "event_id";
 }
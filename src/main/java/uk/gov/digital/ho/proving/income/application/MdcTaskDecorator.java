@@ -0,0 +1,36 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Copies the submitting thread's MDC (session id, correlation id, user id and component trace) onto the thread that runs
+ * the task. The worker's previous MDC is put back afterwards so that a task which ends up running on the caller's own thread
+ * (e.g. through a CallerRunsPolicy) does not wipe the request's context.
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> submittingContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            setContext(submittingContext);
+            try {
+                runnable.run();
+            } finally {
+                setContext(previousContext);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.HEDGED_REQUEST_TIMEOUT;
+
+/**
+ * Cuts the latency tail of calls to one downstream. Latencies are kept in a rolling {@link LatencyHistogram}, and once
+ * it holds {@code minimumSamples} a call that has not answered by the {@code hedgePercentile} latency is sent a second
+ * time. Whichever attempt answers first - with a result or an error - is used and the other is cancelled. Hedges are
+ * limited to {@code maxHedgeRatePercent} of calls by a token bucket, so a slow downstream does not get twice the load.
+ *
+ * The caller also stops waiting after an adaptive timeout of the {@code timeoutPercentile} latency times
+ * {@code timeoutFactor}, kept between {@code minTimeoutMillis} and {@code maxTimeoutMillis}, and gets a
+ * {@link ResourceAccessException} as it would for a read timeout.
+ *
+ * Attempts run on the given executor, which should copy the caller's MDC, and the winning attempt's MDC - including any
+ * component trace it picked up - is copied back to the caller. A cancelled attempt is interrupted, but a read already
+ * in progress runs on in the background until the transport's own timeout.
+ *
+ * An attempt given up on - the first attempt when its hedge won, or any attempt still running at the timeout - goes into
+ * the histogram as taking at least as long as it had run, as leaving out the slowest calls would pull the percentiles,
+ * and so the hedge delay and timeout, down. Only a hedge that lost to the first attempt is left out, since it was sent
+ * without regard to how slow it would be.
+ */
+@Slf4j
+public class RequestHedger implements PublicMetrics {
+
+    private static final long TOKEN = 1000;
+    private static final long PERCENT = 100;
+
+    private final String name;
+    private final HedgingProperties properties;
+    private final Executor executor;
+    private final Clock clock;
+    private final LatencyHistogram histogram;
+
+    private final AtomicLong hedgeTokens;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public RequestHedger(String name, HedgingProperties properties, Executor executor, Clock clock) {
+        this.name = name;
+        this.properties = properties;
+        this.executor = executor;
+        this.clock = clock;
+        this.histogram = new LatencyHistogram(properties.getWindowMillis(), clock);
+        this.hedgeTokens = new AtomicLong(TOKEN * properties.getHedgeBurst());
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        calls.incrementAndGet();
+        depositHedgeToken();
+        long start = clock.millis();
+        long timeout = timeoutMillis();
+        long hedgeDelay = hedgeDelayMillis();
+
+        CompletionService<Attempt<T>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Attempt<T>>> attempts = new ArrayList<>(2);
+        List<Long> submittedAt = new ArrayList<>(2);
+        try {
+            attempts.add(completion.submit(attempt(call, false)));
+            submittedAt.add(start);
+        } catch (RejectedExecutionException e) {
+            return call.get();
+        }
+
+        Future<Attempt<T>> first = null;
+        try {
+            if (hedgeDelay < timeout) {
+                first = completion.poll(hedgeDelay, MILLISECONDS);
+                if (first == null) {
+                    hedge(completion, attempts, submittedAt, call);
+                }
+            }
+            if (first == null) {
+                first = completion.poll(Math.max(0, start + timeout - clock.millis()), MILLISECONDS);
+            }
+            if (first == null) {
+                timeouts.incrementAndGet();
+                log.warn("{} did not respond within {}ms", name, timeout, value(EVENT, HEDGED_REQUEST_TIMEOUT));
+                throw new ResourceAccessException(String.format("%s did not respond within %dms", name, timeout));
+            }
+            return result(first.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected failure calling " + name, e.getCause());
+        } finally {
+            finish(attempts, submittedAt, first);
+        }
+    }
+
+    public long timeoutMillis() {
+        if (histogram.count() < properties.getMinimumSamples()) {
+            return properties.getMaxTimeoutMillis();
+        }
+        long adaptive = (long) (histogram.percentile(properties.getTimeoutPercentile()) * properties.getTimeoutFactor());
+        return Math.min(properties.getMaxTimeoutMillis(), Math.max(properties.getMinTimeoutMillis(), adaptive));
+    }
+
+    public long hedgeDelayMillis() {
+        if (histogram.count() < properties.getMinimumSamples()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(properties.getMinHedgeDelayMillis(), histogram.percentile(properties.getHedgePercentile()));
+    }
+
+    private <T> void hedge(CompletionService<Attempt<T>> completion, List<Future<Attempt<T>>> attempts, List<Long> submittedAt, Supplier<T> call) {
+        if (!tryAcquireHedgeToken()) {
+            hedgesSkipped.incrementAndGet();
+            return;
+        }
+        try {
+            attempts.add(completion.submit(attempt(call, true)));
+            submittedAt.add(clock.millis());
+            hedged.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            hedgesSkipped.incrementAndGet();
+        }
+    }
+
+    private <T> Callable<Attempt<T>> attempt(Supplier<T> call, boolean hedge) {
+        return () -> {
+            long started = clock.millis();
+            try {
+                T value = call.get();
+                return new Attempt<>(value, null, hedge, clock.millis() - started, MDC.getCopyOfContextMap());
+            } catch (RuntimeException e) {
+                return new Attempt<>(null, e, hedge, clock.millis() - started, MDC.getCopyOfContextMap());
+            }
+        };
+    }
+
+    /*
+     * Cancels whatever is still running and records every attempt's latency - see the class comment for those given up on.
+     */
+    private <T> void finish(List<Future<Attempt<T>>> attempts, List<Long> submittedAt, Future<Attempt<T>> first) {
+        boolean timedOut = first == null;
+        for (int i = 0; i < attempts.size(); i++) {
+            Future<Attempt<T>> attempt = attempts.get(i);
+            if (attempt != first && attempt.cancel(true)) {
+                boolean hedgeLostToFirstAttempt = i > 0 && !timedOut;
+                if (!hedgeLostToFirstAttempt) {
+                    histogram.record(clock.millis() - submittedAt.get(i));
+                }
+            } else {
+                Attempt<T> completed = completed(attempt);
+                if (completed != null) {
+                    histogram.record(completed.elapsedMillis);
+                }
+            }
+        }
+    }
+
+    private static <T> Attempt<T> completed(Future<Attempt<T>> attempt) {
+        try {
+            return attempt.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T result(Attempt<T> attempt) {
+        if (attempt.mdc != null) {
+            MDC.setContextMap(attempt.mdc);
+        }
+        if (attempt.hedge) {
+            hedgeWins.incrementAndGet();
+        }
+        if (attempt.error != null) {
+            throw attempt.error;
+        }
+        return attempt.value;
+    }
+
+    private void depositHedgeToken() {
+        long capacity = TOKEN * properties.getHedgeBurst();
+        long deposit = TOKEN * properties.getMaxHedgeRatePercent() / PERCENT;
+        hedgeTokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    private boolean tryAcquireHedgeToken() {
+        long current = hedgeTokens.get();
+        while (current >= TOKEN) {
+            if (hedgeTokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+            current = hedgeTokens.get();
+        }
+        return false;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!properties.isEnabled()) {
+            return metrics;
+        }
+        String prefix = "hedge." + name;
+        metrics.add(new Metric<>(prefix + ".calls", calls.get()));
+        metrics.add(new Metric<>(prefix + ".hedged", hedged.get()));
+        metrics.add(new Metric<>(prefix + ".hedge.wins", hedgeWins.get()));
+        metrics.add(new Metric<>(prefix + ".hedge.skipped", hedgesSkipped.get()));
+        metrics.add(new Metric<>(prefix + ".timeouts", timeouts.get()));
+        metrics.add(new Metric<>(prefix + ".latency.p50.millis", histogram.percentile(50)));
+        metrics.add(new Metric<>(prefix + ".latency.p95.millis", histogram.percentile(95)));
+        metrics.add(new Metric<>(prefix + ".latency.p99.millis", histogram.percentile(99)));
+        metrics.add(new Metric<>(prefix + ".timeout.millis", timeoutMillis()));
+        return metrics;
+    }
+
+    private static final class Attempt<T> {
+        private final T value;
+        private final RuntimeException error;
+        private final boolean hedge;
+        private final long elapsedMillis;
+        private final Map<String, String> mdc;
+
+        private Attempt(T value, RuntimeException error, boolean hedge, long elapsedMillis, Map<String, String> mdc) {
+            this.value = value;
+            this.error = error;
+            this.hedge = hedge;
+            this.elapsedMillis = elapsedMillis;
+            this.mdc = mdc;
+        }
+    }
+}
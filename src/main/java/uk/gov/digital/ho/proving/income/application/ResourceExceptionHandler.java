@@ -86,6 +86,51 @@ public class ResourceExceptionHandler {
         return buildErrorResponse(httpHeaders(), "0009", errorMessage, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ApplicationExceptions.CircuitBreakerOpenException.class)
+    ResponseEntity<BaseResponse> handle(ApplicationExceptions.CircuitBreakerOpenException e) {
+        log.error(append("errorCode", "0006"), e.getMessage(), value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_ERROR));
+        return buildErrorResponse(httpHeaders(), "0006", "Error: " + e.circuit() + " service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ApplicationExceptions.BulkheadRejectedException.class)
+    ResponseEntity<BaseResponse> handle(ApplicationExceptions.BulkheadRejectedException e) {
+        log.error(append("errorCode", "0006"), e.getMessage(), value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_ERROR));
+        return buildErrorResponse(httpHeaders(), "0006", "Error: " + e.bulkhead() + " service unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ApplicationExceptions.FinancialStatusUnavailableException.class)
+    ResponseEntity<BaseResponse> handle(ApplicationExceptions.FinancialStatusUnavailableException e) {
+        log.error(append("errorCode", "0006"), e.getMessage(), value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_ERROR));
+        return buildErrorResponse(httpHeaders(), "0006", "Error: " + e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Gives the response a single request failing with this exception would have had, logged and audited the same way, so
+     * one item of a batch can fail without failing the others. Anything not mapped above is reported as 0005.
+     */
+    public BaseResponse errorResponse(RuntimeException exception) {
+        if (exception instanceof IllegalArgumentException) {
+            return handle((IllegalArgumentException) exception, null).getBody();
+        }
+        if (exception instanceof ApplicationExceptions.EarningsServiceNoUniqueMatchException) {
+            return handle((ApplicationExceptions.EarningsServiceNoUniqueMatchException) exception).getBody();
+        }
+        if (exception instanceof ApplicationExceptions.CircuitBreakerOpenException) {
+            return handle((ApplicationExceptions.CircuitBreakerOpenException) exception).getBody();
+        }
+        if (exception instanceof ApplicationExceptions.BulkheadRejectedException) {
+            return handle((ApplicationExceptions.BulkheadRejectedException) exception).getBody();
+        }
+        if (exception instanceof ApplicationExceptions.FinancialStatusUnavailableException) {
+            return handle((ApplicationExceptions.FinancialStatusUnavailableException) exception).getBody();
+        }
+        if (exception instanceof AuditDataException) {
+            return handle((AuditDataException) exception).getBody();
+        }
+        log.error(append("errorCode", "0005"), exception.getMessage(), exception, value(EVENT, INCOME_PROVING_SERVICE_RESPONSE_ERROR));
+        return new BaseResponse(new ResponseStatus("0005", "Error: financial status check failed"));
+    }
+
     private Map<String, Object> auditData(BaseResponse response) {
         return ImmutableMap.of("method", "get-financial-status", "response", response);
     }
@@ -0,0 +1,101 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket shared by every call to one downstream that caps retries at {@code budgetPercent} of live traffic.
+ * Each call adds a fraction of a token, each retry takes a whole one, and the bucket holds at most
+ * {@code budgetMaxTokens}. While a downstream is healthy the bucket stays full; once most calls are failing retries
+ * stop at the budget instead of multiplying the load on it.
+ *
+ * Tokens are counted in thousandths so the bucket can be kept in a single {@link AtomicLong}.
+ */
+public class RetryBudget implements PublicMetrics {
+
+    private static final long TOKEN = 1000;
+    private static final long PERCENT = 100;
+
+    private final String name;
+    private final RetryProperties properties;
+    private final long depositPerCall;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriedCalls = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+    private final AtomicLong retryLatencyMillis = new AtomicLong();
+
+    public RetryBudget(String name, RetryProperties properties) {
+        this.name = name;
+        this.properties = properties;
+        this.depositPerCall = TOKEN * properties.getBudgetPercent() / PERCENT;
+        this.capacity = TOKEN * properties.getBudgetMaxTokens();
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public RetryProperties properties() {
+        return properties;
+    }
+
+    void recordCall() {
+        calls.incrementAndGet();
+        tokens.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(capacity, current + deposit));
+    }
+
+    boolean tryAcquireRetry() {
+        long current = tokens.get();
+        while (current >= TOKEN) {
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                retries.incrementAndGet();
+                return true;
+            }
+            current = tokens.get();
+        }
+        budgetExhausted.incrementAndGet();
+        return false;
+    }
+
+    void recordDeadlineExceeded() {
+        deadlineExceeded.incrementAndGet();
+    }
+
+    void recordRetryLatency(long millis) {
+        retriedCalls.incrementAndGet();
+        retryLatencyMillis.addAndGet(millis);
+    }
+
+    double availableTokens() {
+        return (double) tokens.get() / TOKEN;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!isEnabled()) {
+            return metrics;
+        }
+        String prefix = "retry." + name;
+        metrics.add(new Metric<>(prefix + ".calls", calls.get()));
+        metrics.add(new Metric<>(prefix + ".attempts", calls.get() + retries.get()));
+        metrics.add(new Metric<>(prefix + ".retries", retries.get()));
+        metrics.add(new Metric<>(prefix + ".budget.tokens", availableTokens()));
+        metrics.add(new Metric<>(prefix + ".budget.exhausted", budgetExhausted.get()));
+        metrics.add(new Metric<>(prefix + ".deadline.exceeded", deadlineExceeded.get()));
+        metrics.add(new Metric<>(prefix + ".latency.millis", retryLatencyMillis.get()));
+        metrics.add(new Metric<>(prefix + ".latency.mean.millis", retriedCalls.get() == 0 ? 0 : retryLatencyMillis.get() / retriedCalls.get()));
+        return metrics;
+    }
+}
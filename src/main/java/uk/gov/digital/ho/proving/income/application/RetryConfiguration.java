@@ -0,0 +1,32 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RetryConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "hmrc.service.retry.adaptive")
+    public RetryProperties hmrcRetryProperties() {
+        return new RetryProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "audit.service.retry.adaptive")
+    public RetryProperties auditRetryProperties() {
+        return new RetryProperties();
+    }
+
+    @Bean
+    public RetryBudget hmrcRetryBudget(@Qualifier("hmrcRetryProperties") RetryProperties properties) {
+        return new RetryBudget("hmrc", properties);
+    }
+
+    @Bean
+    public RetryBudget auditRetryBudget(@Qualifier("auditRetryProperties") RetryProperties properties) {
+        return new RetryBudget("audit", properties);
+    }
+}
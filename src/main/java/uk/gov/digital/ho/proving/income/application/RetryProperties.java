@@ -0,0 +1,18 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Setter
+@Getter
+public class RetryProperties {
+
+    private boolean enabled;
+    private long initialDelayMillis = 200;
+    private long maxDelayMillis = 5000;
+    private int budgetPercent = 20;
+    private int budgetMaxTokens = 10;
+    private long deadlineMillis = 10000;
+}
@@ -2,18 +2,25 @@ package uk.gov.digital.ho.proving.income.application;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.backoff.BackOffPolicy;
 import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClientException;
@@ -22,14 +29,17 @@ import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.*;
 import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
 import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.hmrc.IncomeRecordDeserializer;
 import uk.gov.digital.ho.proving.income.hmrc.IncomeRecordServiceNotProductionResponseLogger;
 import uk.gov.digital.ho.proving.income.hmrc.IncomeRecordServiceProductionResponseLogger;
 import uk.gov.digital.ho.proving.income.hmrc.ServiceResponseLogger;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
 
 import java.text.SimpleDateFormat;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -76,6 +86,7 @@ public class ServiceConfiguration extends WebMvcConfigurerAdapter {
         JavaTimeModule javaTimeModule = new JavaTimeModule();
         javaTimeModule.addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeFormatter.ofPattern("yyyy-M-d")));
         m.registerModule(javaTimeModule);
+        m.registerModule(new SimpleModule("hmrc").addDeserializer(IncomeRecord.class, new IncomeRecordDeserializer()));
         m.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         m.enable(SerializationFeature.INDENT_OUTPUT);
         m.writer().withDefaultPrettyPrinter();
@@ -111,8 +122,9 @@ public class ServiceConfiguration extends WebMvcConfigurerAdapter {
     }
 
     @Bean
-    public RestTemplate createRestTemplate(RestTemplateBuilder restTemplateBuilder) {
+    public RestTemplate createRestTemplate(RestTemplateBuilder restTemplateBuilder, BulkheadClientHttpRequestFactory requestFactory) {
         return restTemplateBuilder
+            .requestFactory(requestFactory)
             .setReadTimeout(restTemplateReadTimeoutInMillis)
             .setConnectTimeout(restTemplateConnectTimeoutInMillis)
             .build();
@@ -145,29 +157,53 @@ public class ServiceConfiguration extends WebMvcConfigurerAdapter {
     }
 
     @Bean
-    public RetryTemplate hmrcRetryTemplate() {
-        RetryTemplate retryTemplate = new RetryTemplate();
+    public RetryTemplate hmrcRetryTemplate(@Qualifier("hmrcRetryBudget") RetryBudget retryBudget) {
+        return createRetryTemplate(retryBudget, hmrcRetryAttempts, hmrcRetryDelay, singletonMap(HttpServerErrorException.class, true));
+    }
 
-        FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
-        backOffPolicy.setBackOffPeriod(hmrcRetryDelay);
-        retryTemplate.setBackOffPolicy(backOffPolicy);
+    @Bean
+    public RetryTemplate auditRetryTemplate(@Qualifier("auditRetryBudget") RetryBudget retryBudget) {
+        return createRetryTemplate(retryBudget, auditRetryAttempts, auditRetryDelay, singletonMap(RestClientException.class, true));
+    }
 
-        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(hmrcRetryAttempts, singletonMap(HttpServerErrorException.class, true));
-        retryTemplate.setRetryPolicy(retryPolicy);
+    /*
+     * Retries for the non-blocking HMRC client follow the same policies as hmrcRetryTemplate, with the back-off waited out
+     * on the scheduler rather than on a thread.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "hmrc.service.async.enabled", havingValue = "true")
+    public AsyncRetrier hmrcAsyncRetrier(@Qualifier("hmrcRetryBudget") RetryBudget retryBudget,
+                                         @Qualifier("hmrcRetryScheduler") ThreadPoolTaskScheduler scheduler) {
+        return new AsyncRetrier(createRetryPolicy(retryBudget, hmrcRetryAttempts, singletonMap(HttpServerErrorException.class, true)),
+                                sleeper -> createBackOffPolicy(retryBudget, hmrcRetryDelay, sleeper),
+                                scheduler.getScheduledExecutor());
+    }
 
+    private RetryTemplate createRetryTemplate(RetryBudget retryBudget, int retryAttempts, int retryDelay,
+                                              Map<Class<? extends Throwable>, Boolean> retryableExceptions) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setBackOffPolicy(createBackOffPolicy(retryBudget, retryDelay, new ThreadWaitSleeper()));
+        retryTemplate.setRetryPolicy(createRetryPolicy(retryBudget, retryAttempts, retryableExceptions));
         return retryTemplate;
     }
 
-    @Bean
-    public RetryTemplate auditRetryTemplate() {
-        RetryTemplate retryTemplate = new RetryTemplate();
+    private RetryPolicy createRetryPolicy(RetryBudget retryBudget, int retryAttempts, Map<Class<? extends Throwable>, Boolean> retryableExceptions) {
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(retryAttempts, retryableExceptions);
+        if (retryBudget.isEnabled()) {
+            return new BudgetedRetryPolicy(retryPolicy, retryBudget, createClock());
+        }
+        return retryPolicy;
+    }
 
-        FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
-        backOffPolicy.setBackOffPeriod(auditRetryDelay);
-        retryTemplate.setBackOffPolicy(backOffPolicy);
+    private BackOffPolicy createBackOffPolicy(RetryBudget retryBudget, int retryDelay, Sleeper sleeper) {
+        if (retryBudget.isEnabled()) {
+            RetryProperties properties = retryBudget.properties();
+            return new DecorrelatedJitterBackOffPolicy(properties.getInitialDelayMillis(), properties.getMaxDelayMillis(), createClock(), sleeper);
+        }
 
-        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(auditRetryAttempts, singletonMap(RestClientException.class, true));
-        retryTemplate.setRetryPolicy(retryPolicy);
-        return retryTemplate;
+        FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
+        backOffPolicy.setBackOffPeriod(retryDelay);
+        backOffPolicy.setSleeper(sleeper);
+        return backOffPolicy;
     }
 }
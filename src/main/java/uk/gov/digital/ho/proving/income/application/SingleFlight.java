@@ -0,0 +1,96 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one call. The first caller for a key makes the call and any
+ * caller that arrives while it is in flight waits for it and gets the same result, or the same exception, rather than
+ * making a call of its own. Nothing is kept once the call completes - the next caller for the key makes a new call.
+ *
+ * Results are shared, not copied, so they must not be changed by the callers.
+ */
+public class SingleFlight<K, V> implements PublicMetrics {
+
+    private static final long PERCENT = 100;
+
+    private final String name;
+    private final boolean enabled;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlight(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        calls.incrementAndGet();
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return await(leader);
+        }
+
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for shared " + name + " call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Shared " + name + " call failed", cause);
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!enabled) {
+            return metrics;
+        }
+        String prefix = "singleflight." + name;
+        long total = calls.get();
+        metrics.add(new Metric<>(prefix + ".calls", total));
+        metrics.add(new Metric<>(prefix + ".coalesced", coalesced.get()));
+        metrics.add(new Metric<>(prefix + ".inflight", inFlight.size()));
+        metrics.add(new Metric<>(prefix + ".hit.rate.percent", total == 0 ? 0 : coalesced.get() * PERCENT / total));
+        return metrics;
+    }
+}
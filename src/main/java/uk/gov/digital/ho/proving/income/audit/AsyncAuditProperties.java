@@ -0,0 +1,22 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "audit.async")
+@NoArgsConstructor
+@Setter
+@Getter
+public class AsyncAuditProperties {
+
+    private boolean enabled;
+    private int queueCapacity = 1000;
+    private int workers = 2;
+    private AuditOverflowPolicy overflowPolicy = AuditOverflowPolicy.DROP_OLDEST;
+    private long blockTimeoutMillis = 100;
+    private long shutdownTimeoutMillis = 10000;
+}
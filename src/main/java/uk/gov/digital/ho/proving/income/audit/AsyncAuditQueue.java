@@ -0,0 +1,234 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpEntity;
+import org.springframework.retry.policy.NeverRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import uk.gov.digital.ho.proving.income.audit.statistics.AuditClientEndpointProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static org.springframework.http.HttpMethod.POST;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.*;
+
+/**
+ * Takes audit events off the request thread. Events are put on a bounded queue and background workers take them off
+ * one at a time. The audit service has no bulk endpoint, so events are not batched - every event is its own POST and
+ * delivery throughput is scaled with {@code workers}.
+ * <p>
+ * Only the workers retry. When an event has to be sent from the calling thread - because the queue has not been started
+ * or is full under {@link AuditOverflowPolicy#CALLER_RUNS} - it gets a single attempt and is spooled if that fails, so
+ * an audit outage never holds a request thread for the whole retry budget.
+ */
+@Component
+@Slf4j
+class AsyncAuditQueue implements PublicMetrics {
+
+    private static final long IDLE_POLL_MILLIS = 500;
+
+    private final RestTemplate restTemplate;
+    private final String auditEndpoint;
+    private final RetryTemplate retryTemplate;
+    private final RetryTemplate singleAttempt;
+    private final AsyncAuditProperties properties;
+    private final AuditEventSpooler auditEventSpooler;
+    private final BlockingQueue<HttpEntity<AuditableData>> queue;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    AsyncAuditQueue(RestTemplate restTemplate,
+                    AuditClientEndpointProperties endpointProperties,
+                    @Qualifier("auditRetryTemplate") RetryTemplate retryTemplate,
+                    AsyncAuditProperties properties,
+                    AuditEventSpooler auditEventSpooler) {
+        this.restTemplate = restTemplate;
+        this.auditEndpoint = endpointProperties.getAuditEndpoint();
+        this.retryTemplate = retryTemplate;
+        this.singleAttempt = new RetryTemplate();
+        this.singleAttempt.setRetryPolicy(new NeverRetryPolicy());
+        this.properties = properties;
+        this.auditEventSpooler = auditEventSpooler;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (properties.getWorkers() < 1) {
+            throw new IllegalStateException("audit.async.workers must be at least 1 when asynchronous auditing is enabled");
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("audit-dispatch-"));
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.execute(this::drainQueue);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (workers == null) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getShutdownTimeoutMillis(), MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        int abandoned = queue.size();
+        if (abandoned > 0) {
+            dropped.addAndGet(abandoned);
+            log.error("Shut down with {} audit events still queued", abandoned, value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        }
+    }
+
+    void enqueue(HttpEntity<AuditableData> event) {
+        enqueued.incrementAndGet();
+        if (!running) {
+            dispatchOnCallingThread(event);
+            return;
+        }
+
+        switch (properties.getOverflowPolicy()) {
+            case DROP_NEWEST:
+                offerOrDrop(event);
+                break;
+            case DROP_OLDEST:
+                offerDroppingOldest(event);
+                break;
+            case BLOCK:
+                offerWithTimeout(event);
+                break;
+            default:
+                offerOrDispatch(event);
+        }
+    }
+
+    private void offerOrDrop(HttpEntity<AuditableData> event) {
+        if (!queue.offer(event)) {
+            drop(event);
+        }
+    }
+
+    private void offerDroppingOldest(HttpEntity<AuditableData> event) {
+        while (!queue.offer(event)) {
+            HttpEntity<AuditableData> oldest = queue.poll();
+            if (oldest != null) {
+                drop(oldest);
+            }
+        }
+    }
+
+    private void offerWithTimeout(HttpEntity<AuditableData> event) {
+        try {
+            if (!queue.offer(event, properties.getBlockTimeoutMillis(), MILLISECONDS)) {
+                drop(event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drop(event);
+        }
+    }
+
+    private void offerOrDispatch(HttpEntity<AuditableData> event) {
+        if (!queue.offer(event)) {
+            dispatchOnCallingThread(event);
+        }
+    }
+
+    private void drop(HttpEntity<AuditableData> event) {
+        dropped.incrementAndGet();
+        log.error("Audit queue full - dropped audit event {}", event.getBody().getEventId(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+    }
+
+    private void drainQueue() {
+        while (running || !queue.isEmpty()) {
+            HttpEntity<AuditableData> event;
+            try {
+                event = queue.poll(IDLE_POLL_MILLIS, MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event != null) {
+                dispatch(event);
+            }
+        }
+    }
+
+    private void dispatch(HttpEntity<AuditableData> event) {
+        dispatch(event, retryTemplate);
+    }
+
+    private void dispatchOnCallingThread(HttpEntity<AuditableData> event) {
+        dispatch(event, singleAttempt);
+    }
+
+    private void dispatch(HttpEntity<AuditableData> event, RetryTemplate attempts) {
+        if (auditEventSpooler.shouldSpool()) {
+            auditEventSpooler.spool(event.getBody());
+            return;
+        }
+        try {
+            attempts.execute(context -> restTemplate.exchange(auditEndpoint, POST, event, Void.class));
+            dispatched.incrementAndGet();
+        } catch (RestClientException e) {
+            failed.incrementAndGet();
+            log.error("Failed to audit {} - {}", event.getBody().getEventType(), e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            auditEventSpooler.spoolUndelivered(event.getBody());
+        }
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    long dispatchedCount() {
+        return dispatched.get();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("audit.async.queue.depth", queue.size()));
+        metrics.add(new Metric<>("audit.async.queue.remaining", queue.remainingCapacity()));
+        metrics.add(new Metric<>("audit.async.enqueued", enqueued.get()));
+        metrics.add(new Metric<>("audit.async.dispatched", dispatched.get()));
+        metrics.add(new Metric<>("audit.async.failed", failed.get()));
+        metrics.add(new Metric<>("audit.async.dropped", dropped.get()));
+        return metrics;
+    }
+}
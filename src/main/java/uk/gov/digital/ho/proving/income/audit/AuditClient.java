@@ -8,6 +8,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.retry.policy.NeverRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -47,14 +48,19 @@ public class AuditClient {
     private final RequestData requestData;
     private final ObjectMapper mapper;
     private final RetryTemplate retryTemplate;
+    private final RetryTemplate singleAttempt;
     private final int historyPageSize;
+    private final AsyncAuditQueue asyncAuditQueue;
+    private final AuditEventSpooler auditEventSpooler;
 
     AuditClient(Clock clock,
                 RestTemplate restTemplate,
                 RequestData requestData,
                 AuditClientEndpointProperties endpointProperties,
                 ObjectMapper mapper,
-                @Qualifier("auditRetryTemplate") RetryTemplate retryTemplate) {
+                @Qualifier("auditRetryTemplate") RetryTemplate retryTemplate,
+                AsyncAuditQueue asyncAuditQueue,
+                AuditEventSpooler auditEventSpooler) {
         this.clock = clock;
         this.restTemplate = restTemplate;
         this.requestData = requestData;
@@ -66,26 +72,46 @@ public class AuditClient {
         this.historyPageSize = endpointProperties.getArchiveHistoryPageSize();
         this.mapper = mapper;
         this.retryTemplate = retryTemplate;
+        this.singleAttempt = new RetryTemplate();
+        this.singleAttempt.setRetryPolicy(new NeverRetryPolicy());
+        this.asyncAuditQueue = asyncAuditQueue;
+        this.auditEventSpooler = auditEventSpooler;
     }
 
     public void add(AuditEventType eventType, UUID eventId, Map<String, Object> auditDetail) {
+        AuditableData auditableData;
         try {
-            retryTemplate.execute(context -> addAudit(eventType, eventId, auditDetail));
-        } catch (RestClientException e) {
-            log.error("Failed to audit {} after retries - {}", eventType, e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            auditableData = generateAuditableData(eventType, eventId, auditDetail);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to create json representation of audit data", value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            return;
+        }
+
+        if (asyncAuditQueue.isEnabled()) {
+            // The headers read the request's MDC so they must be built here, on the request thread.
+            asyncAuditQueue.enqueue(toEntity(auditableData));
+            return;
         }
-    }
 
-    private Object addAudit(AuditEventType eventType, UUID eventId, Map<String, Object> auditDetail) {
-        log.info("POST data for {} to audit service", eventId, value(EVENT, INCOME_PROVING_AUDIT_REQUEST));
+        if (auditEventSpooler.shouldSpool()) {
+            auditEventSpooler.spool(auditableData);
+            return;
+        }
 
+        // With a spool to fall back on the request thread makes one attempt and leaves retrying to the replayer.
+        RetryTemplate attempts = auditEventSpooler.isEnabled() ? singleAttempt : retryTemplate;
         try {
-            AuditableData auditableData = generateAuditableData(eventType, eventId, auditDetail);
-            dispatchAuditableData(auditableData);
-            log.info("data POSTed to audit service", value(EVENT, INCOME_PROVING_AUDIT_SUCCESS));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to create json representation of audit data", value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            attempts.execute(context -> addAudit(auditableData));
+        } catch (RestClientException e) {
+            log.error("Failed to audit {} - {}", eventType, e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            auditEventSpooler.spoolUndelivered(auditableData);
         }
+    }
+
+    private Object addAudit(AuditableData auditableData) {
+        log.info("POST data for {} to audit service", auditableData.getEventId(), value(EVENT, INCOME_PROVING_AUDIT_REQUEST));
+        dispatchAuditableData(auditableData);
+        log.info("data POSTed to audit service", value(EVENT, INCOME_PROVING_AUDIT_SUCCESS));
         return null; // retry lambda requires a return value although we don't actually use it
     }
 
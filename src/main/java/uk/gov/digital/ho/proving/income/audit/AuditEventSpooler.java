@@ -0,0 +1,212 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.audit.statistics.AuditClientEndpointProperties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.*;
+
+/**
+ * Keeps audit events that the audit service could not take in a local {@link AuditSpool} and replays them, oldest first,
+ * once it is back. While the audit service is down, or older events are still waiting to be replayed, new events go
+ * straight to the spool so the request thread only pays for a local append and the audit trail stays in order.
+ */
+@Component
+@Slf4j
+class AuditEventSpooler implements PublicMetrics {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final RestTemplate restTemplate;
+    private final String auditEndpoint;
+    private final RequestData requestData;
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final AuditSpoolProperties properties;
+
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong spoolFailures = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong replayFailures = new AtomicLong();
+
+    private AuditSpool spool;
+    private ScheduledExecutorService replayer;
+    private volatile boolean auditServiceAvailable = true;
+
+    AuditEventSpooler(RestTemplate restTemplate,
+                      AuditClientEndpointProperties endpointProperties,
+                      RequestData requestData,
+                      ObjectMapper mapper,
+                      AuditSpoolProperties properties) {
+        this.restTemplate = restTemplate;
+        this.auditEndpoint = endpointProperties.getAuditEndpoint();
+        this.requestData = requestData;
+        this.mapper = mapper;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        spool = new AuditSpool(Paths.get(properties.getDirectory()), properties.getSegmentBytes());
+        replayer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("audit-replay-"));
+        replayer.scheduleWithFixedDelay(this::replay, properties.getReplayIntervalMillis(), properties.getReplayIntervalMillis(), MILLISECONDS);
+        log.info("Spooling undelivered audit events to {}", properties.getDirectory());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (replayer == null) {
+            return;
+        }
+        replayer.shutdownNow();
+        replayer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, SECONDS);
+        spool.close();
+    }
+
+    boolean isEnabled() {
+        return spool != null;
+    }
+
+    boolean shouldSpool() {
+        return isEnabled() && (!auditServiceAvailable || !spool.isEmpty());
+    }
+
+    void spool(AuditableData auditableData) {
+        try {
+            spool.append(writer.writeValueAsBytes(auditableData));
+            spooled.incrementAndGet();
+        } catch (IOException e) {
+            spoolFailures.incrementAndGet();
+            log.error("Failed to spool audit event {} - {}", auditableData.getEventId(), e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        }
+    }
+
+    /**
+     * Marks the audit service as unavailable, so later events are spooled without trying it first, and keeps the event
+     * for replay. Returns false if spooling is not enabled and the event has been lost.
+     */
+    boolean spoolUndelivered(AuditableData auditableData) {
+        if (!isEnabled()) {
+            return false;
+        }
+        auditServiceAvailable = false;
+        spool(auditableData);
+        return true;
+    }
+
+    void replay() {
+        try {
+            replayBacklog();
+        } catch (IOException e) {
+            log.error("Failed to read audit spool - {}", e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        } finally {
+            spool.flush();
+        }
+    }
+
+    private void replayBacklog() throws IOException {
+        long pauseMillis = SECONDS.toMillis(1) / Math.max(1, properties.getReplayPerSecond());
+        byte[] record = spool.peek();
+        while (record != null) {
+            if (!replayRecord(record)) {
+                return;
+            }
+            spool.commit();
+            if (!pause(pauseMillis)) {
+                return;
+            }
+            record = spool.peek();
+        }
+        if (!auditServiceAvailable) {
+            log.info("Audit spool replayed - auditing directly again", value(EVENT, INCOME_PROVING_AUDIT_SUCCESS));
+        }
+        auditServiceAvailable = true;
+    }
+
+    private boolean replayRecord(byte[] record) {
+        AuditableData auditableData;
+        try {
+            auditableData = mapper.readValue(record, AuditableData.class);
+        } catch (IOException e) {
+            log.error("Discarding unreadable audit spool record - {}", e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            return true;
+        }
+
+        try {
+            restTemplate.exchange(auditEndpoint, POST, new HttpEntity<>(auditableData, replayHeaders(auditableData)), Void.class);
+            replayed.incrementAndGet();
+            return true;
+        } catch (RestClientException e) {
+            replayFailures.incrementAndGet();
+            auditServiceAvailable = false;
+            log.warn("Audit service still unavailable, will retry spooled events - {}", e.getMessage(), value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+            return false;
+        }
+    }
+
+    private HttpHeaders replayHeaders(AuditableData auditableData) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(AUTHORIZATION, requestData.auditBasicAuth());
+        headers.setContentType(APPLICATION_JSON);
+        headers.add(RequestData.CORRELATION_ID_HEADER, auditableData.getCorrelationId());
+        return headers;
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!isEnabled()) {
+            return metrics;
+        }
+        metrics.add(new Metric<>("audit.spool.pending.bytes", spool.pendingBytes()));
+        metrics.add(new Metric<>("audit.spool.segments", spool.segmentCount()));
+        metrics.add(new Metric<>("audit.spool.spooled", spooled.get()));
+        metrics.add(new Metric<>("audit.spool.failed", spoolFailures.get()));
+        metrics.add(new Metric<>("audit.spool.replayed", replayed.get()));
+        metrics.add(new Metric<>("audit.spool.replay.failures", replayFailures.get()));
+        metrics.add(new Metric<>("audit.spool.available", auditServiceAvailable ? 1 : 0));
+        return metrics;
+    }
+}
@@ -0,0 +1,11 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+/**
+ * What to do with an audit event when the asynchronous audit queue is full.
+ */
+public enum AuditOverflowPolicy {
+    DROP_NEWEST,
+    DROP_OLDEST,
+    BLOCK,
+    CALLER_RUNS
+}
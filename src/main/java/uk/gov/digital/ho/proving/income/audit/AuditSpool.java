@@ -0,0 +1,274 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_AUDIT_FAILURE;
+
+/**
+ * An append-only log of audit events held in fixed size, memory-mapped segment files. Each record is a length, a CRC32
+ * of the payload and the payload itself. The length is written last so a record torn by a crash reads as unwritten.
+ * When a segment fills a new one is started, and segments are deleted once every record in them has been read.
+ *
+ * The read position is kept in a small mapped cursor file so records are not replayed twice after a restart. Appends
+ * only reach the page cache - they survive the process dying but not the host, unless {@link #flush()} has been called.
+ */
+@Slf4j
+class AuditSpool implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int UNWRITTEN = 0;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CURSOR_FILE = "cursor";
+    private static final int CURSOR_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final MappedByteBuffer cursor;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment;
+    private int readOffset;
+    private MappedByteBuffer readBuffer;
+    private int peekedLength;
+
+    AuditSpool(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.cursor = map(directory.resolve(CURSOR_FILE), CURSOR_BYTES);
+        openReader();
+        openWriter();
+    }
+
+    synchronized void append(byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + Integer.BYTES > segmentBytes) {
+            throw new IOException(String.format("Audit event of %d bytes does not fit in a %d byte spool segment", payload.length, segmentBytes));
+        }
+        if (writeBuffer.remaining() < recordBytes + Integer.BYTES) {
+            rotate();
+        }
+
+        int start = writeBuffer.position();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        writeBuffer.putLong(start + Integer.BYTES, crc.getValue());
+        ByteBuffer body = writeBuffer.duplicate();
+        body.position(start + HEADER_BYTES);
+        body.put(payload);
+        writeBuffer.putInt(start, payload.length);
+        writeBuffer.position(start + recordBytes);
+    }
+
+    /**
+     * Returns the oldest unread record without consuming it, or null if every record has been read. A record that fails
+     * its checksum is logged and skipped. Only when a length cannot be trusted is the rest of the segment given up.
+     */
+    synchronized byte[] peek() throws IOException {
+        while (true) {
+            ByteBuffer buffer = readableBuffer();
+            boolean live = readSegment == writeSegment;
+            int end = live ? writeBuffer.position() : segmentBytes;
+            if (live && readOffset >= end) {
+                return null;
+            }
+            int length = readOffset + HEADER_BYTES <= end ? buffer.getInt(readOffset) : END_OF_SEGMENT;
+            if (length > 0 && length <= end - readOffset - HEADER_BYTES) {
+                byte[] payload = readRecord(buffer, readOffset, length);
+                if (payload != null) {
+                    peekedLength = length;
+                    return payload;
+                }
+                skipRecord(length);
+            } else if (live) {
+                skipToWritePosition();
+            } else {
+                finishReadSegment(length);
+            }
+        }
+    }
+
+    /**
+     * Consumes the record returned by the last call to {@link #peek()}.
+     */
+    synchronized void commit() {
+        if (peekedLength == 0) {
+            return;
+        }
+        readOffset += HEADER_BYTES + peekedLength;
+        peekedLength = 0;
+        saveCursor();
+    }
+
+    synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readOffset >= writeBuffer.position();
+    }
+
+    synchronized long pendingBytes() {
+        return (writeSegment - readSegment) * segmentBytes + writeBuffer.position() - readOffset;
+    }
+
+    synchronized long segmentCount() {
+        return writeSegment - readSegment + 1;
+    }
+
+    synchronized void flush() {
+        writeBuffer.force();
+        cursor.force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private static byte[] readRecord(ByteBuffer buffer, int position, int length) {
+        byte[] payload = new byte[length];
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + HEADER_BYTES);
+        body.get(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue() == buffer.getLong(position + Integer.BYTES) ? payload : null;
+    }
+
+    private void skipRecord(int length) {
+        log.error("Skipping audit spool record of {} bytes that failed its checksum in segment {} at offset {}", length, readSegment, readOffset,
+                  value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        readOffset += HEADER_BYTES + length;
+        peekedLength = 0;
+        saveCursor();
+    }
+
+    private void skipToWritePosition() {
+        log.error("Skipping unreadable audit spool records in segment {} from offset {} to {}", readSegment, readOffset, writeBuffer.position(),
+                  value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        readOffset = writeBuffer.position();
+        peekedLength = 0;
+        saveCursor();
+    }
+
+    private void finishReadSegment(int length) throws IOException {
+        if (length != END_OF_SEGMENT) {
+            log.error("Skipping unreadable tail of audit spool segment {} from offset {}", readSegment, readOffset, value(EVENT, INCOME_PROVING_AUDIT_FAILURE));
+        }
+        readBuffer = null;
+        Files.deleteIfExists(segmentPath(readSegment));
+        readSegment++;
+        readOffset = 0;
+        peekedLength = 0;
+        saveCursor();
+    }
+
+    private ByteBuffer readableBuffer() throws IOException {
+        if (readSegment == writeSegment) {
+            return writeBuffer;
+        }
+        if (readBuffer == null) {
+            readBuffer = map(segmentPath(readSegment), segmentBytes);
+        }
+        return readBuffer;
+    }
+
+    private void rotate() throws IOException {
+        writeBuffer.putInt(writeBuffer.position(), END_OF_SEGMENT);
+        writeBuffer.force();
+        writeSegment++;
+        writeBuffer = map(segmentPath(writeSegment), segmentBytes);
+    }
+
+    private void openReader() throws IOException {
+        List<Long> segments = existingSegments();
+        long savedSegment = cursor.getLong(0);
+        int savedOffset = cursor.getInt(Long.BYTES);
+
+        if (segments.isEmpty()) {
+            readSegment = savedSegment;
+            readOffset = 0;
+        } else if (segments.get(0) > savedSegment) {
+            readSegment = segments.get(0);
+            readOffset = 0;
+        } else {
+            readSegment = savedSegment;
+            readOffset = savedOffset;
+        }
+        saveCursor();
+    }
+
+    private void openWriter() throws IOException {
+        List<Long> segments = existingSegments();
+        writeSegment = segments.isEmpty() ? readSegment : Math.max(readSegment, segments.get(segments.size() - 1));
+        writeBuffer = map(segmentPath(writeSegment), segmentBytes);
+        writeBuffer.position(recoverWritePosition(writeBuffer));
+        if (readSegment == writeSegment && readOffset > writeBuffer.position()) {
+            readOffset = writeBuffer.position();
+            saveCursor();
+        }
+    }
+
+    private int recoverWritePosition(ByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                return segmentBytes - Integer.BYTES;
+            }
+            if (length == UNWRITTEN || length < 0 || length > segmentBytes - position - HEADER_BYTES || readRecord(buffer, position, length) == null) {
+                return position;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private void saveCursor() {
+        cursor.putLong(0, readSegment);
+        cursor.putInt(Long.BYTES, readOffset);
+    }
+
+    private List<Long> existingSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            return channel.map(READ_WRITE, 0, bytes);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "audit.spool")
+@NoArgsConstructor
+@Setter
+@Getter
+public class AuditSpoolProperties {
+
+    private boolean enabled;
+    private String directory;
+    private int segmentBytes = 16 * 1024 * 1024;
+    private int replayPerSecond = 20;
+    private long replayIntervalMillis = 5000;
+}
@@ -0,0 +1,210 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.AsyncRetrier;
+import uk.gov.digital.ho.proving.income.application.CircuitBreaker;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static org.springframework.http.HttpMethod.POST;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.*;
+
+/**
+ * The same lookup as {@link HmrcClient} made without holding a thread while HMRC answers. Requests go out through a
+ * non-blocking HTTP client served by a few I/O threads and retries are scheduled rather than slept for, so thousands of
+ * outstanding lookups need only a handful of threads. Used in place of the blocking client when
+ * {@code hmrc.service.async.enabled} is set.
+ *
+ * The caches, circuit breaker, retries, headers and no match handling are the same as the blocking client's. Hedging
+ * and coalescing of identical lookups are not applied here.
+ *
+ * The returned future is completed on whichever thread the response arrived on, with the request's MDC restored
+ * there, so the component trace updated from the response is seen by anything that runs when it completes.
+ */
+@Service
+@ConditionalOnProperty(value = "hmrc.service.async.enabled", havingValue = "true")
+@Slf4j
+public class HmrcAsyncClient {
+
+    private final AsyncRestTemplate asyncRestTemplate;
+    private final String hmrcServiceEndpoint;
+    private final RequestData requestData;
+    private final ServiceResponseLogger serviceResponseLogger;
+    private final AsyncRetrier retrier;
+    private final CircuitBreaker circuitBreaker;
+    private final IncomeRecordCache incomeRecordCache;
+    private final NoMatchCache noMatchCache;
+
+    HmrcAsyncClient(@Qualifier("hmrcAsyncRestTemplate") AsyncRestTemplate asyncRestTemplate,
+                    @Value("${hmrc.service.endpoint}") String hmrcServiceEndpoint,
+                    RequestData requestData,
+                    ServiceResponseLogger serviceResponseLogger,
+                    @Qualifier("hmrcAsyncRetrier") AsyncRetrier retrier,
+                    @Qualifier("hmrcCircuitBreaker") CircuitBreaker circuitBreaker,
+                    IncomeRecordCache incomeRecordCache,
+                    NoMatchCache noMatchCache) {
+        this.asyncRestTemplate = asyncRestTemplate;
+        this.hmrcServiceEndpoint = hmrcServiceEndpoint;
+        this.requestData = requestData;
+        this.serviceResponseLogger = serviceResponseLogger;
+        this.retrier = retrier;
+        this.circuitBreaker = circuitBreaker;
+        this.incomeRecordCache = incomeRecordCache;
+        this.noMatchCache = noMatchCache;
+    }
+
+    /*
+     * Must be called on a thread carrying the request's MDC - the headers and the context the future completes in are
+     * taken from it.
+     */
+    public CompletableFuture<IncomeRecord> getIncomeRecord(Identity identity, LocalDate fromDate, LocalDate toDate) {
+        boolean bypassCache = requestData.bypassCache();
+        if (!bypassCache && noMatchCache.isKnownNoMatch(identity)) {
+            log.error("HMRC Service recently found no match", value(EVENT, HMRC_NO_MATCH_CACHE_HIT));
+            return failed(new EarningsServiceNoUniqueMatchException(identity.nino()));
+        }
+
+        IncomeRecordKey key = new IncomeRecordKey(identity, fromDate, toDate);
+        IncomeRecord cachedIncomeRecord = cachedIncomeRecord(key, bypassCache);
+        if (cachedIncomeRecord != null) {
+            serviceResponseLogger.record(identity, cachedIncomeRecord);
+            return completedFuture(cachedIncomeRecord);
+        }
+
+        HttpEntity<IncomeDataRequest> entity = HmrcClient.createEntity(identity, fromDate, toDate, requestData);
+        Map<String, String> requestContext = MDC.getCopyOfContextMap();
+        CompletableFuture<IncomeRecord> result = new CompletableFuture<>();
+        retrier.execute(() -> circuitBreaker.executeAsync(() -> fetchIncomeRecord(entity, requestContext)))
+               .whenComplete((responseEntity, error) -> inContext(requestContext, () -> complete(result, key, responseEntity, error)));
+        return result;
+    }
+
+    private IncomeRecord cachedIncomeRecord(IncomeRecordKey key, boolean bypassCache) {
+        if (bypassCache) {
+            incomeRecordCache.recordBypass();
+            return null;
+        }
+        IncomeRecord incomeRecord = incomeRecordCache.get(key);
+        if (incomeRecord != null) {
+            log.info("Using cached HMRC income record with {} incomes and {} employments", incomeRecord.paye().size(),
+                     incomeRecord.employments().size(), value(EVENT, HMRC_CACHE_HIT));
+        }
+        return incomeRecord;
+    }
+
+    private CompletableFuture<ResponseEntity<IncomeRecord>> fetchIncomeRecord(HttpEntity<IncomeDataRequest> entity, Map<String, String> requestContext) {
+        inContext(requestContext, () -> log.info("About to call HMRC Service at {}", hmrcServiceEndpoint, value(EVENT, HMRC_REQUEST_SENT)));
+
+        CompletableFuture<ResponseEntity<IncomeRecord>> response = new CompletableFuture<>();
+        asyncRestTemplate.exchange(hmrcServiceEndpoint, POST, entity, IncomeRecord.class)
+                         .addCallback(response::complete, error -> {
+                             Throwable failure = asRestClientException(error);
+                             if (failure instanceof HttpStatusCodeException && !isNotFound((HttpStatusCodeException) failure)) {
+                                 inContext(requestContext, () -> log.error("HMRC Service failed", failure, value(EVENT, HMRC_ERROR_REPSONSE)));
+                             }
+                             response.completeExceptionally(failure);
+                         });
+        return response;
+    }
+
+    private void complete(CompletableFuture<IncomeRecord> result, IncomeRecordKey key, ResponseEntity<IncomeRecord> responseEntity, Throwable error) {
+        try {
+            if (error != null) {
+                result.completeExceptionally(failure(key.identity(), AsyncRetrier.unwrap(error)));
+                return;
+            }
+            incomeRecordCache.put(key, responseEntity.getBody());
+            noMatchCache.recordMatch(key.identity());
+            result.complete(recordResponse(key.identity(), responseEntity));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private Throwable failure(Identity identity, Throwable error) {
+        if (!(error instanceof HttpStatusCodeException)) {
+            return error;
+        }
+        HttpStatusCodeException e = (HttpStatusCodeException) error;
+        requestData.updateComponentTrace(e);
+        if (isNotFound(e)) {
+            log.error("HMRC Service found no match", value(EVENT, HMRC_NOT_FOUND_RESPONSE));
+            noMatchCache.recordNoMatch(identity);
+            return new EarningsServiceNoUniqueMatchException(identity.nino());
+        }
+        if (e instanceof HttpServerErrorException) {
+            log.error("Failed to retrieve HMRC data after retries - {}", e.getMessage(), value(EVENT, HMRC_ERROR_REPSONSE));
+        }
+        return e;
+    }
+
+    private IncomeRecord recordResponse(Identity identity, ResponseEntity<IncomeRecord> responseEntity) {
+        requestData.updateComponentTrace(responseEntity);
+        serviceResponseLogger.record(identity, responseEntity.getBody());
+
+        log.info("Received {} incomes and {} employments", responseEntity.getBody().paye().size(),
+                 responseEntity.getBody().employments().size(), value(EVENT, HMRC_RESPONSE_SUCCESS));
+
+        return responseEntity.getBody();
+    }
+
+    /*
+     * Connection failures reach the callback as they were raised. The blocking RestTemplate wraps them, and retries
+     * and the circuit breaker are set up for that.
+     */
+    private Throwable asRestClientException(Throwable error) {
+        if (error instanceof IOException) {
+            return new ResourceAccessException("I/O error on POST request for \"" + hmrcServiceEndpoint + "\": " + error.getMessage(), (IOException) error);
+        }
+        return error;
+    }
+
+    private boolean isNotFound(HttpStatusCodeException e) {
+        return e.getStatusCode() == HttpStatus.NOT_FOUND;
+    }
+
+    private static void inContext(Map<String, String> context, Runnable runnable) {
+        Map<String, String> previousContext = MDC.getCopyOfContextMap();
+        setContext(context);
+        try {
+            runnable.run();
+        } finally {
+            setContext(previousContext);
+        }
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+}
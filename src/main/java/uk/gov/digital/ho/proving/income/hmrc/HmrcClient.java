@@ -11,9 +11,15 @@ import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.BulkheadRejectedException;
 import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.BulkheadFullException;
+import uk.gov.digital.ho.proving.income.application.CircuitBreaker;
+import uk.gov.digital.ho.proving.income.application.RequestHedger;
+import uk.gov.digital.ho.proving.income.application.SingleFlight;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
 import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
 
@@ -36,63 +42,146 @@ public class HmrcClient {
     private final RequestData requestData;
     private final ServiceResponseLogger serviceResponseLogger;
     private final RetryTemplate retryTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestHedger requestHedger;
+    private final SingleFlight<IncomeRecordKey, ResponseEntity<IncomeRecord>> lookupSingleFlight;
+    private final IncomeRecordCache incomeRecordCache;
+    private final NoMatchCache noMatchCache;
 
     HmrcClient(RestTemplate restTemplate,
                @Value("${hmrc.service.endpoint}") String hmrcServiceEndpoint,
                RequestData requestData,
                ServiceResponseLogger serviceResponseLogger,
-               @Qualifier("hmrcRetryTemplate") RetryTemplate retryTemplate) {
+               @Qualifier("hmrcRetryTemplate") RetryTemplate retryTemplate,
+               @Qualifier("hmrcCircuitBreaker") CircuitBreaker circuitBreaker,
+               @Qualifier("hmrcRequestHedger") RequestHedger requestHedger,
+               @Qualifier("hmrcLookupSingleFlight") SingleFlight<IncomeRecordKey, ResponseEntity<IncomeRecord>> lookupSingleFlight,
+               IncomeRecordCache incomeRecordCache,
+               NoMatchCache noMatchCache) {
         this.restTemplate = restTemplate;
         this.hmrcServiceEndpoint = hmrcServiceEndpoint;
         this.requestData = requestData;
         this.serviceResponseLogger = serviceResponseLogger;
         this.retryTemplate = retryTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.requestHedger = requestHedger;
+        this.lookupSingleFlight = lookupSingleFlight;
+        this.incomeRecordCache = incomeRecordCache;
+        this.noMatchCache = noMatchCache;
     }
 
+    /*
+     * A record fetched recently for the same person and covering these dates is answered from the cache, and an
+     * identity HMRC recently found no match for is turned away, unless the caseworker asked for fresh data. Concurrent
+     * lookups for the same identity and dates share one call to HMRC. Each caller then applies the response,
+     * or the error, to its own request - its component trace, its response logging and its no match handling. A cached
+     * record is response logged in the same way, but leaves the component trace alone as HMRC was not called.
+     */
     public IncomeRecord getIncomeRecord(Identity identity, LocalDate fromDate, LocalDate toDate) {
+        boolean bypassCache = requestData.bypassCache();
+        if (!bypassCache && noMatchCache.isKnownNoMatch(identity)) {
+            log.error("HMRC Service recently found no match", value(EVENT, HMRC_NO_MATCH_CACHE_HIT));
+            throw new EarningsServiceNoUniqueMatchException(identity.nino());
+        }
+
+        IncomeRecordKey key = new IncomeRecordKey(identity, fromDate, toDate);
+        IncomeRecord cachedIncomeRecord = cachedIncomeRecord(key, bypassCache);
+        if (cachedIncomeRecord != null) {
+            serviceResponseLogger.record(identity, cachedIncomeRecord);
+            return cachedIncomeRecord;
+        }
+
         try {
-            return retryTemplate.execute(context -> fetchIncomeRecord(identity, fromDate, toDate));
-        } catch (HttpServerErrorException e) {
-            log.error("Failed to retrieve HMRC data after retries - {}", e.getMessage(), value(EVENT, HMRC_ERROR_REPSONSE));
-            throw (e);
+            ResponseEntity<IncomeRecord> responseEntity = lookupSingleFlight.execute(key, () -> fetchAndCacheIncomeRecord(key));
+            return recordResponse(identity, responseEntity);
+        } catch (HttpStatusCodeException e) {
+            requestData.updateComponentTrace(e);
+            if (isNotFound(e)) {
+                log.error("HMRC Service found no match", value(EVENT, HMRC_NOT_FOUND_RESPONSE));
+                noMatchCache.recordNoMatch(identity);
+                throw new EarningsServiceNoUniqueMatchException(identity.nino());
+            }
+            if (e instanceof HttpServerErrorException) {
+                log.error("Failed to retrieve HMRC data after retries - {}", e.getMessage(), value(EVENT, HMRC_ERROR_REPSONSE));
+            }
+            throw e;
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof BulkheadFullException) {
+                throw new BulkheadRejectedException((BulkheadFullException) e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private IncomeRecord cachedIncomeRecord(IncomeRecordKey key, boolean bypassCache) {
+        if (bypassCache) {
+            incomeRecordCache.recordBypass();
+            return null;
         }
+        IncomeRecord incomeRecord = incomeRecordCache.get(key);
+        if (incomeRecord != null) {
+            log.info("Using cached HMRC income record with {} incomes and {} employments", incomeRecord.paye().size(),
+                     incomeRecord.employments().size(), value(EVENT, HMRC_CACHE_HIT));
+        }
+        return incomeRecord;
+    }
+
+    private ResponseEntity<IncomeRecord> fetchAndCacheIncomeRecord(IncomeRecordKey key) {
+        ResponseEntity<IncomeRecord> responseEntity = retryTemplate.execute(context -> circuitBreaker.execute(() -> requestHedger.execute(() -> fetchIncomeRecord(key.identity(), key.fromDate(), key.toDate()))));
+        incomeRecordCache.put(key, responseEntity.getBody());
+        noMatchCache.recordMatch(key.identity());
+        return responseEntity;
     }
 
-    private IncomeRecord fetchIncomeRecord(Identity identity, LocalDate fromDate, LocalDate toDate) {
+    private ResponseEntity<IncomeRecord> fetchIncomeRecord(Identity identity, LocalDate fromDate, LocalDate toDate) {
         try {
             log.info("About to call HMRC Service at {}", hmrcServiceEndpoint,
                      value(EVENT, HMRC_REQUEST_SENT));
 
-            ResponseEntity<IncomeRecord> responseEntity = restTemplate.exchange(
+            return restTemplate.exchange(
                 hmrcServiceEndpoint,
                 POST,
-                createEntity(identity, fromDate, toDate),
+                createEntity(identity, fromDate, toDate, requestData),
                 IncomeRecord.class);
 
-            requestData.updateComponentTrace(responseEntity);
-            serviceResponseLogger.record(identity, responseEntity.getBody());
-
-            log.info("Received {} incomes and {} employments", responseEntity.getBody().paye().size(),
-                     responseEntity.getBody().employments().size(), value(EVENT, HMRC_RESPONSE_SUCCESS));
-
-            return responseEntity.getBody();
-
         } catch (HttpStatusCodeException e) {
-            requestData.updateComponentTrace(e);
-            if (isNotFound(e)) {
-                log.error("HMRC Service found no match", value(EVENT, HMRC_NOT_FOUND_RESPONSE));
-                throw new EarningsServiceNoUniqueMatchException(identity.nino());
+            if (!isNotFound(e)) {
+                log.error("HMRC Service failed", e, value(EVENT, HMRC_ERROR_REPSONSE));
             }
-            log.error("HMRC Service failed", e, value(EVENT, HMRC_ERROR_REPSONSE));
             throw e;
         }
     }
 
+    private IncomeRecord recordResponse(Identity identity, ResponseEntity<IncomeRecord> responseEntity) {
+        requestData.updateComponentTrace(responseEntity);
+        serviceResponseLogger.record(identity, responseEntity.getBody());
+
+        log.info("Received {} incomes and {} employments", responseEntity.getBody().paye().size(),
+                 responseEntity.getBody().employments().size(), value(EVENT, HMRC_RESPONSE_SUCCESS));
+
+        return responseEntity.getBody();
+    }
+
     private boolean isNotFound(HttpStatusCodeException e) {
         return e.getStatusCode() == HttpStatus.NOT_FOUND;
     }
 
-    private HttpHeaders generateRestHeaders() {
+    /*
+     * The headers are read from the request's MDC, so the entity must be created on a thread carrying it.
+     */
+    static HttpEntity<IncomeDataRequest> createEntity(Identity identity, LocalDate fromDate, LocalDate toDate, RequestData requestData) {
+        return new HttpEntity<>(
+            new IncomeDataRequest(
+                identity.firstname(),
+                identity.lastname(),
+                identity.nino(),
+                identity.dateOfBirth(),
+                fromDate,
+                toDate),
+            generateRestHeaders(requestData));
+    }
+
+    private static HttpHeaders generateRestHeaders(RequestData requestData) {
 
         HttpHeaders headers = new HttpHeaders();
 
@@ -105,16 +194,4 @@ public class HmrcClient {
 
         return headers;
     }
-
-    private HttpEntity createEntity(Identity identity, LocalDate fromDate, LocalDate toDate) {
-        return new HttpEntity<>(
-            new IncomeDataRequest(
-                identity.firstname(),
-                identity.lastname(),
-                identity.nino(),
-                identity.dateOfBirth(),
-                fromDate,
-                toDate),
-            generateRestHeaders());
-    }
 }
@@ -0,0 +1,57 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Turns an identity into an HMAC that can be used as a cache key without holding the identity itself. The HMAC key is
+ * generated when the digester is created and never leaves the process, so the same identity gives a different digest
+ * after a restart and in every other instance.
+ *
+ * The NINO is sanitised the same way as incoming requests and names are trimmed, so trivially different spellings of an
+ * identity share a key. Names are otherwise compared exactly as HMRC would see them.
+ */
+final class IdentityDigester {
+
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+    private static final int KEY_BITS = 256;
+    private static final String SEPARATOR = "\u0000";
+
+    private final SecretKey digestKey;
+
+    IdentityDigester() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(DIGEST_ALGORITHM);
+            generator.init(KEY_BITS);
+            this.digestKey = generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create identity digest key", e);
+        }
+    }
+
+    String digest(Identity identity) {
+        String canonical = String.join(SEPARATOR,
+                                       sanitiseNino(identity.nino()),
+                                       StringUtils.trimToEmpty(identity.firstname()),
+                                       StringUtils.trimToEmpty(identity.lastname()),
+                                       String.valueOf(identity.dateOfBirth()));
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(digestKey);
+            return Base64.getEncoder().encodeToString(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to digest identity", e);
+        }
+    }
+
+    private static String sanitiseNino(String nino) {
+        return StringUtils.upperCase(StringUtils.deleteWhitespace(StringUtils.defaultString(nino)));
+    }
+}
@@ -0,0 +1,298 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.HMRC_CACHE_FAILURE;
+
+/**
+ * Keeps HMRC income records for {@code ttlSeconds} so a case re-checked soon after is not fetched again. The cache is
+ * least recently used first, bounded both by entry count and by the total size of the stored records.
+ *
+ * Each identity has one record along with the dates it covers. A re-check whose dates fall inside those is answered by
+ * cutting the record down to them, so moving the application raised date back a few days does not need HMRC, and a
+ * record fetched for dates overlapping the cached ones is merged in so the covered dates grow.
+ *
+ * Nothing identifying is held in the clear. Records are stored AES-GCM encrypted and looked up by an HMAC of the
+ * identity, with both keys generated at start up and never leaving the process, so a heap dump shows
+ * neither who was checked nor what their income was. Restarting the service empties the cache.
+ */
+@Component
+@Slf4j
+public class IncomeRecordCache implements PublicMetrics {
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final int KEY_BITS = 256;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int EXPIRY_CHECKS_PER_STORE = 4;
+
+    private final IncomeRecordCacheProperties properties;
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Clock clock;
+    private final SecretKey encryptionKey;
+    private final IdentityDigester identityDigester = new IdentityDigester();
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+    private long hits;
+    private long misses;
+    private long bypasses;
+    private long merges;
+    private long expirations;
+    private long evictions;
+
+    IncomeRecordCache(IncomeRecordCacheProperties properties, ObjectMapper mapper, Clock clock) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.clock = clock;
+        this.encryptionKey = generateKey(KEY_ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns the cached record for the identity cut down to the dates asked for, or null unless a cached record covers
+     * every one of those dates.
+     */
+    public IncomeRecord get(IncomeRecordKey key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String digest = identityDigester.digest(key.identity());
+        Entry entry = lookup(digest, key.fromDate(), key.toDate());
+        if (entry == null) {
+            return null;
+        }
+        IncomeRecord incomeRecord = read(digest, entry);
+        return incomeRecord == null ? null : IncomeRecordRanges.slice(incomeRecord, key.fromDate(), key.toDate());
+    }
+
+    /**
+     * Caches a record fetched from HMRC. If the identity already has a record for dates that overlap or adjoin these it is
+     * merged in, and the merged record covers both ranges but expires when the older one would have.
+     */
+    public void put(IncomeRecordKey key, IncomeRecord incomeRecord) {
+        if (!isEnabled()) {
+            return;
+        }
+        String digest = identityDigester.digest(key.identity());
+        long ttlExpiry = clock.millis() + SECONDS.toMillis(properties.getTtlSeconds());
+
+        // Reading, merging and re-encrypting happen outside the lock. The result is only stored if no other put for the
+        // identity got in first, otherwise it is merged again with what that put stored so neither range is lost.
+        try {
+            while (true) {
+                Entry existing = current(digest);
+                LocalDate coveredFrom = key.fromDate();
+                LocalDate coveredTo = key.toDate();
+                long expiresAt = ttlExpiry;
+                IncomeRecord toStore = incomeRecord;
+                boolean merged = false;
+
+                if (existing != null && IncomeRecordRanges.overlapsOrAdjoins(existing.coveredFrom, existing.coveredTo, coveredFrom, coveredTo)) {
+                    IncomeRecord cached = read(digest, existing);
+                    if (cached != null) {
+                        toStore = IncomeRecordRanges.merge(cached, incomeRecord, coveredFrom, coveredTo);
+                        coveredFrom = min(existing.coveredFrom, coveredFrom);
+                        coveredTo = max(existing.coveredTo, coveredTo);
+                        expiresAt = Math.min(existing.expiresAt, expiresAt);
+                        merged = true;
+                    }
+                }
+
+                Entry entry = new Entry(seal(writer.writeValueAsBytes(toStore)), coveredFrom, coveredTo, expiresAt);
+                if (replace(digest, existing, entry, merged)) {
+                    return;
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("Failed to cache income record - {}", e.getMessage(), value(EVENT, HMRC_CACHE_FAILURE));
+        }
+    }
+
+    public synchronized void recordBypass() {
+        bypasses++;
+    }
+
+    private IncomeRecord read(String digest, Entry entry) {
+        try {
+            return mapper.readValue(open(entry.sealed), IncomeRecord.class);
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("Discarding unreadable cached income record - {}", e.getMessage(), value(EVENT, HMRC_CACHE_FAILURE));
+            remove(digest);
+            return null;
+        }
+    }
+
+    private synchronized Entry lookup(String digest, LocalDate fromDate, LocalDate toDate) {
+        Entry entry = current(digest);
+        if (entry == null || !IncomeRecordRanges.covers(entry.coveredFrom, entry.coveredTo, fromDate, toDate)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    private synchronized Entry current(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry != null && entry.expiresAt <= clock.millis()) {
+            removeEntry(digest);
+            expirations++;
+            return null;
+        }
+        return entry;
+    }
+
+    /*
+     * Stores the entry unless the identity's entry is no longer the one it was built from.
+     */
+    private synchronized boolean replace(String digest, Entry expected, Entry entry, boolean merged) {
+        if (entries.get(digest) != expected) {
+            return false;
+        }
+        if (merged) {
+            merges++;
+        }
+        removeEntry(digest);
+        if (entry.sealed.length > properties.getMaxWeightBytes()) {
+            return true;
+        }
+        removeEldestExpired();
+        entries.put(digest, entry);
+        weightBytes += entry.sealed.length;
+
+        Iterator<Map.Entry<String, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (entries.size() > properties.getMaxEntries() || weightBytes > properties.getMaxWeightBytes()) {
+            weightBytes -= leastRecentlyUsed.next().getValue().sealed.length;
+            leastRecentlyUsed.remove();
+            evictions++;
+        }
+        return true;
+    }
+
+    private synchronized void remove(String digest) {
+        removeEntry(digest);
+    }
+
+    /*
+     * Expired entries are dropped when they are looked up. Only the few least recently used are checked here, so one
+     * that is never asked for again still goes without every store scanning the whole cache under the lock.
+     */
+    private void removeEldestExpired() {
+        long now = clock.millis();
+        Iterator<Entry> eldest = entries.values().iterator();
+        for (int checked = 0; checked < EXPIRY_CHECKS_PER_STORE && eldest.hasNext(); checked++) {
+            Entry entry = eldest.next();
+            if (entry.expiresAt <= now) {
+                weightBytes -= entry.sealed.length;
+                eldest.remove();
+                expirations++;
+            }
+        }
+    }
+
+    private void removeEntry(String digest) {
+        Entry removed = entries.remove(digest);
+        if (removed != null) {
+            weightBytes -= removed.sealed.length;
+        }
+    }
+
+    private byte[] seal(byte[] plain) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+        byte[] encrypted = cipher.doFinal(plain);
+        return ByteBuffer.allocate(IV_BYTES + encrypted.length).put(iv).put(encrypted).array();
+    }
+
+    private byte[] open(byte[] sealed) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+        return cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES);
+    }
+
+    private static SecretKey generateKey(String algorithm) {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(algorithm);
+            generator.init(KEY_BITS);
+            return generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create income record cache key", e);
+        }
+    }
+
+    @Override
+    public synchronized Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!isEnabled()) {
+            return metrics;
+        }
+        metrics.add(new Metric<>("hmrc.cache.entries", entries.size()));
+        metrics.add(new Metric<>("hmrc.cache.weight.bytes", weightBytes));
+        metrics.add(new Metric<>("hmrc.cache.hits", hits));
+        metrics.add(new Metric<>("hmrc.cache.misses", misses));
+        metrics.add(new Metric<>("hmrc.cache.bypasses", bypasses));
+        metrics.add(new Metric<>("hmrc.cache.merges", merges));
+        metrics.add(new Metric<>("hmrc.cache.expirations", expirations));
+        metrics.add(new Metric<>("hmrc.cache.evictions", evictions));
+        return metrics;
+    }
+
+    private static LocalDate min(LocalDate date, LocalDate otherDate) {
+        return date.isBefore(otherDate) ? date : otherDate;
+    }
+
+    private static LocalDate max(LocalDate date, LocalDate otherDate) {
+        return date.isAfter(otherDate) ? date : otherDate;
+    }
+
+    private static final class Entry {
+        private final byte[] sealed;
+        private final LocalDate coveredFrom;
+        private final LocalDate coveredTo;
+        private final long expiresAt;
+
+        private Entry(byte[] sealed, LocalDate coveredFrom, LocalDate coveredTo, long expiresAt) {
+            this.sealed = sealed;
+            this.coveredFrom = coveredFrom;
+            this.coveredTo = coveredTo;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
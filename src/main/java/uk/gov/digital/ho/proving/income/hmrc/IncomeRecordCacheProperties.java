@@ -0,0 +1,20 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "hmrc.service.cache")
+@NoArgsConstructor
+@Setter
+@Getter
+public class IncomeRecordCacheProperties {
+
+    private boolean enabled;
+    private long ttlSeconds = 900;
+    private int maxEntries = 1000;
+    private long maxWeightBytes = 64L * 1024 * 1024;
+}
@@ -0,0 +1,338 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import uk.gov.digital.ho.proving.income.hmrc.domain.AnnualSelfAssessmentTaxReturn;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employer;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an HMRC income record straight off the parser's tokens rather than through reflective databinding. A long
+ * tenure weekly paid worker has hundreds of payments, and for each of them this avoids the intermediate strings: dates
+ * are parsed from the token's characters, amounts are built from them, and employer PAYE references and names are
+ * looked up in a table kept for the response so each distinct one is only created once.
+ *
+ * The result is the same as databinding gives. Anything outside the shapes HMRC sends - a date not written as
+ * {@code yyyy-M-d}, an amount sent as a string, and so on - is handed to the deserializer databinding would have used
+ * for that value, and the tax returns and individual, which appear once per response, are always read that way.
+ */
+public class IncomeRecordDeserializer extends StdDeserializer<IncomeRecord> {
+
+    public IncomeRecordDeserializer() {
+        super(IncomeRecord.class);
+    }
+
+    @Override
+    public IncomeRecord deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        StringTable strings = new StringTable();
+        List<Income> paye = null;
+        List<AnnualSelfAssessmentTaxReturn> selfAssessment = null;
+        List<Employments> employments = null;
+        HmrcIndividual individual = null;
+        int found = 0;
+
+        for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "paye":
+                    paye = readIncomes(p, ctxt, strings);
+                    found |= 1;
+                    break;
+                case "selfAssessment":
+                    selfAssessment = readList(p, ctxt, AnnualSelfAssessmentTaxReturn.class);
+                    found |= 2;
+                    break;
+                case "employments":
+                    employments = readEmployments(p, ctxt, strings);
+                    found |= 4;
+                    break;
+                case "individual":
+                    individual = readValue(p, ctxt, HmrcIndividual.class);
+                    found |= 8;
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+
+        checkRequired(ctxt, found, "paye", "selfAssessment", "employments", "individual");
+        return new IncomeRecord(paye, selfAssessment, employments, individual);
+    }
+
+    private List<Income> readIncomes(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return readList(p, ctxt, Income.class);
+        }
+        List<Income> incomes = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            incomes.add(p.hasToken(JsonToken.VALUE_NULL) ? null : readIncome(p, ctxt, strings));
+        }
+        return incomes;
+    }
+
+    private Income readIncome(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        BigDecimal payment = null;
+        LocalDate paymentDate = null;
+        Integer monthPayNumber = null;
+        Integer weekPayNumber = null;
+        String employerPayeReference = null;
+
+        for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "taxablePayment":
+                    payment = readDecimal(p, ctxt);
+                    break;
+                case "paymentDate":
+                    paymentDate = readDate(p, ctxt);
+                    break;
+                case "monthPayNumber":
+                    monthPayNumber = readInteger(p, ctxt);
+                    break;
+                case "weekPayNumber":
+                    weekPayNumber = readInteger(p, ctxt);
+                    break;
+                case "employerPayeReference":
+                    employerPayeReference = readString(p, ctxt, strings);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return new Income(payment, paymentDate, monthPayNumber, weekPayNumber, employerPayeReference);
+    }
+
+    private List<Employments> readEmployments(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return readList(p, ctxt, Employments.class);
+        }
+        List<Employments> employments = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            employments.add(p.hasToken(JsonToken.VALUE_NULL) ? null : readEmployment(p, ctxt, strings));
+        }
+        return employments;
+    }
+
+    private Employments readEmployment(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        Employer employer = null;
+        for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            if ("employer".equals(field)) {
+                employer = p.hasToken(JsonToken.VALUE_NULL) ? null : readEmployer(p, ctxt, strings);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new Employments(employer);
+    }
+
+    private Employer readEmployer(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        String name = null;
+        String payeReference = null;
+        for (String field = firstField(p, ctxt); field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            if ("name".equals(field)) {
+                name = readString(p, ctxt, strings);
+            } else if ("payeReference".equals(field)) {
+                payeReference = readString(p, ctxt, strings);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new Employer(name, payeReference);
+    }
+
+    /*
+     * Positions the parser on the first field of the object about to be read, which is where databinding may also hand
+     * over, and returns its name or null if the object is empty.
+     */
+    private String firstField(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.isExpectedStartObjectToken()) {
+            return p.nextFieldName();
+        }
+        if (p.hasToken(JsonToken.FIELD_NAME)) {
+            return p.getCurrentName();
+        }
+        if (p.hasToken(JsonToken.END_OBJECT)) {
+            return null;
+        }
+        return ctxt.reportWrongTokenException(this, JsonToken.START_OBJECT, "Expected an object");
+    }
+
+    private String readString(JsonParser p, DeserializationContext ctxt, StringTable strings) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            return strings.intern(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        return readValue(p, ctxt, String.class);
+    }
+
+    private BigDecimal readDecimal(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT) || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+            return new BigDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        return readValue(p, ctxt, BigDecimal.class);
+    }
+
+    private Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NUMBER_INT) && p.getNumberType() == JsonParser.NumberType.INT) {
+            return p.getIntValue();
+        }
+        return readValue(p, ctxt, Integer.class);
+    }
+
+    private LocalDate readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            LocalDate date = parseDate(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            if (date != null) {
+                return date;
+            }
+        }
+        return readValue(p, ctxt, LocalDate.class);
+    }
+
+    private <T> List<T> readList(JsonParser p, DeserializationContext ctxt, Class<T> elementType) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return ctxt.readValue(p, ctxt.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    private <T> T readValue(JsonParser p, DeserializationContext ctxt, Class<T> type) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    private void checkRequired(DeserializationContext ctxt, int found, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if ((found & (1 << i)) == 0) {
+                ctxt.reportInputMismatch(this, "Missing required creator property '%s'", fields[i]);
+            }
+        }
+    }
+
+    /*
+     * A four digit year with one or two digit month and day, as HMRC writes them. Returns null for anything else, or for
+     * a date that does not exist, leaving those to the configured date deserializer.
+     */
+    static LocalDate parseDate(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int yearEnd = offset + 4;
+        if (length < 8 || chars[yearEnd] != '-') {
+            return null;
+        }
+        int monthEnd = indexOf('-', chars, yearEnd + 1, end);
+        if (monthEnd < 0) {
+            return null;
+        }
+        int year = digits(chars, offset, yearEnd, 4);
+        int month = digits(chars, yearEnd + 1, monthEnd, 2);
+        int day = digits(chars, monthEnd + 1, end, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        return day > Month.of(month).length(Year.isLeap(year)) ? null : LocalDate.of(year, month, day);
+    }
+
+    private static int indexOf(char c, char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int digits(char[] chars, int from, int to, int maxDigits) {
+        if (to <= from || to - from > maxDigits) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /*
+     * Open addressing table of the strings seen in one response, found by the characters of the token so a string that
+     * has already been seen is returned without creating another. Hashes as String does so a grown table can reuse the
+     * hash each string has cached.
+     */
+    static final class StringTable {
+
+        private String[] slots = new String[32];
+        private int size;
+
+        String intern(char[] chars, int offset, int length) {
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int mask = slots.length - 1;
+            for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+                String candidate = slots[slot];
+                if (candidate == null) {
+                    String string = new String(chars, offset, length);
+                    slots[slot] = string;
+                    if (++size * 2 > slots.length) {
+                        grow();
+                    }
+                    return string;
+                }
+                if (matches(candidate, chars, offset, length)) {
+                    return candidate;
+                }
+            }
+        }
+
+        private void grow() {
+            String[] old = slots;
+            slots = new String[old.length * 2];
+            int mask = slots.length - 1;
+            for (String string : old) {
+                if (string != null) {
+                    int slot = spread(string.hashCode()) & mask;
+                    while (slots[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = string;
+                }
+            }
+        }
+
+        private static boolean matches(String candidate, char[] chars, int offset, int length) {
+            if (candidate.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (candidate.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
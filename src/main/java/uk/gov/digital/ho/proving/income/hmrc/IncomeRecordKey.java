@@ -0,0 +1,23 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+
+import java.time.LocalDate;
+
+/**
+ * Identifies one HMRC income record lookup - the individual and the date window asked for.
+ */
+@AllArgsConstructor
+@Getter
+@Accessors(fluent = true)
+@EqualsAndHashCode
+public class IncomeRecordKey {
+
+    private final Identity identity;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+}
@@ -0,0 +1,107 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import uk.gov.digital.ho.proving.income.hmrc.domain.AnnualSelfAssessmentTaxReturn;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+import uk.gov.digital.ho.proving.income.validator.domain.TaxYear;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Cuts an income record fetched for one date range down to a range inside it, and combines records fetched for
+ * overlapping ranges, so the answer matches what HMRC would have returned for the range asked for.
+ *
+ * Payments are placed by payment date and self assessment returns by whether their tax year overlaps the range.
+ * Employments carry no dates so they follow the payments made by that employer - an employment with no payments in the
+ * record cannot be placed and is always kept.
+ */
+final class IncomeRecordRanges {
+
+    private IncomeRecordRanges() {
+    }
+
+    static boolean covers(LocalDate coveredFrom, LocalDate coveredTo, LocalDate fromDate, LocalDate toDate) {
+        return !fromDate.isBefore(coveredFrom) && !toDate.isAfter(coveredTo);
+    }
+
+    static boolean overlapsOrAdjoins(LocalDate coveredFrom, LocalDate coveredTo, LocalDate fromDate, LocalDate toDate) {
+        return !fromDate.isAfter(coveredTo.plusDays(1)) && !toDate.isBefore(coveredFrom.minusDays(1));
+    }
+
+    static IncomeRecord slice(IncomeRecord incomeRecord, LocalDate fromDate, LocalDate toDate) {
+        List<Income> paye = incomeRecord.paye().stream()
+                                        .filter(income -> within(income.paymentDate(), fromDate, toDate))
+                                        .collect(toList());
+        List<AnnualSelfAssessmentTaxReturn> selfAssessment = incomeRecord.selfAssessment().stream()
+                                                                         .filter(taxReturn -> overlaps(taxReturn, fromDate, toDate))
+                                                                         .collect(toList());
+
+        Set<String> allPayers = payeReferences(incomeRecord.paye());
+        Set<String> payers = payeReferences(paye);
+        List<Employments> employments = incomeRecord.employments().stream()
+                                                    .filter(employment -> payers.contains(payeReference(employment)) || !allPayers.contains(payeReference(employment)))
+                                                    .collect(toList());
+
+        return new IncomeRecord(paye, selfAssessment, employments, incomeRecord.individual());
+    }
+
+    /**
+     * Combines a cached record with a newer one whose range overlaps or adjoins it. Inside the newer range only the newer
+     * record is used, so payments HMRC has since corrected or withdrawn are not carried over. Payments are returned
+     * newest first.
+     */
+    static IncomeRecord merge(IncomeRecord older, IncomeRecord newer, LocalDate newerFrom, LocalDate newerTo) {
+        List<Income> paye = new ArrayList<>(newer.paye());
+        older.paye().stream()
+             .filter(income -> !within(income.paymentDate(), newerFrom, newerTo))
+             .forEach(paye::add);
+        paye.sort(Comparator.comparing(Income::paymentDate, Comparator.nullsLast(Comparator.reverseOrder())));
+
+        Set<String> newerTaxYears = newer.selfAssessment().stream().map(AnnualSelfAssessmentTaxReturn::taxYear).collect(toSet());
+        List<AnnualSelfAssessmentTaxReturn> selfAssessment = new ArrayList<>(newer.selfAssessment());
+        older.selfAssessment().stream()
+             .filter(taxReturn -> !newerTaxYears.contains(taxReturn.taxYear()))
+             .forEach(selfAssessment::add);
+
+        Set<String> newerEmployers = newer.employments().stream().map(IncomeRecordRanges::payeReference).collect(toSet());
+        List<Employments> employments = new ArrayList<>(newer.employments());
+        older.employments().stream()
+             .filter(employment -> !newerEmployers.contains(payeReference(employment)))
+             .forEach(employments::add);
+
+        return new IncomeRecord(paye, selfAssessment, employments, newer.individual());
+    }
+
+    private static boolean within(LocalDate date, LocalDate fromDate, LocalDate toDate) {
+        return date != null && !date.isBefore(fromDate) && !date.isAfter(toDate);
+    }
+
+    private static boolean overlaps(AnnualSelfAssessmentTaxReturn taxReturn, LocalDate fromDate, LocalDate toDate) {
+        if (taxReturn.taxYear() == null) {
+            return true;
+        }
+        TaxYear taxYear;
+        try {
+            taxYear = TaxYear.of(taxReturn.taxYear());
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        return !taxYear.start().isAfter(toDate) && !taxYear.end().isBefore(fromDate);
+    }
+
+    private static Set<String> payeReferences(List<Income> paye) {
+        return paye.stream().map(Income::employerPayeReference).collect(toSet());
+    }
+
+    private static String payeReference(Employments employment) {
+        return employment.employer() == null ? null : employment.employer().payeReference();
+    }
+}
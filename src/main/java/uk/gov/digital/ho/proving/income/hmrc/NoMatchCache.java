@@ -0,0 +1,121 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Remembers identities HMRC could not find a unique match for, for {@code ttlSeconds}, so a mistyped identity that is
+ * resubmitted again and again is turned away without another call to HMRC. Identities are held only as an HMAC, and
+ * the oldest are dropped once {@code maxEntries} is reached.
+ *
+ * Entries are kept in the order they were recorded. Every entry lives for the same {@code ttlSeconds}, so that is also
+ * the order they expire in, and a write only has to look at the front of the map to clear out expired ones.
+ */
+@Component
+public class NoMatchCache implements PublicMetrics {
+
+    private final NoMatchCacheProperties properties;
+    private final Clock clock;
+    private final IdentityDigester identityDigester = new IdentityDigester();
+
+    private final Map<String, Long> expiries = new LinkedHashMap<>();
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+
+    NoMatchCache(NoMatchCacheProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isKnownNoMatch(Identity identity) {
+        if (!isEnabled()) {
+            return false;
+        }
+        String digest = identityDigester.digest(identity);
+        synchronized (this) {
+            Long expiresAt = expiries.get(digest);
+            if (expiresAt != null && expiresAt <= clock.millis()) {
+                expiries.remove(digest);
+                expirations++;
+                expiresAt = null;
+            }
+            if (expiresAt == null) {
+                misses++;
+                return false;
+            }
+            hits++;
+            return true;
+        }
+    }
+
+    public void recordNoMatch(Identity identity) {
+        if (!isEnabled()) {
+            return;
+        }
+        String digest = identityDigester.digest(identity);
+        synchronized (this) {
+            removeExpired();
+            // Removed first so that re-recording an identity moves it to the back of the map.
+            expiries.remove(digest);
+            expiries.put(digest, clock.millis() + SECONDS.toMillis(properties.getTtlSeconds()));
+
+            Iterator<String> oldest = expiries.keySet().iterator();
+            while (expiries.size() > properties.getMaxEntries()) {
+                oldest.next();
+                oldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public void recordMatch(Identity identity) {
+        if (!isEnabled()) {
+            return;
+        }
+        String digest = identityDigester.digest(identity);
+        synchronized (this) {
+            expiries.remove(digest);
+        }
+    }
+
+    private void removeExpired() {
+        long now = clock.millis();
+        Iterator<Long> oldest = expiries.values().iterator();
+        while (oldest.hasNext() && oldest.next() <= now) {
+            oldest.remove();
+            expirations++;
+        }
+    }
+
+    @Override
+    public synchronized Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        if (!isEnabled()) {
+            return metrics;
+        }
+        metrics.add(new Metric<>("hmrc.nomatch.cache.entries", expiries.size()));
+        metrics.add(new Metric<>("hmrc.nomatch.cache.hits", hits));
+        metrics.add(new Metric<>("hmrc.nomatch.cache.misses", misses));
+        metrics.add(new Metric<>("hmrc.nomatch.cache.expirations", expirations));
+        metrics.add(new Metric<>("hmrc.nomatch.cache.evictions", evictions));
+        return metrics;
+    }
+}
@@ -0,0 +1,19 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "hmrc.service.no-match-cache")
+@NoArgsConstructor
+@Setter
+@Getter
+public class NoMatchCacheProperties {
+
+    private boolean enabled;
+    private long ttlSeconds = 300;
+    private int maxEntries = 10000;
+}
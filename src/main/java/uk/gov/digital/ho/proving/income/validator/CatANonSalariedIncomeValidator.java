@@ -31,7 +31,7 @@ public class CatANonSalariedIncomeValidator implements ActiveIncomeValidator {
 
     @Override
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
-        BigDecimal threshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.dependants());
+        BigDecimal threshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
         LocalDate assessmentStartDate = getAssessmentStartDate(incomeValidationRequest.applicationRaisedDate());
 
         IncomeValidationRequest applicantOnlyRequest = incomeValidationRequest.toApplicantOnly();
@@ -55,8 +55,7 @@ public class CatANonSalariedIncomeValidator implements ActiveIncomeValidator {
     }
 
     private IncomeValidationStatus validateIncome(IncomeValidationRequest validationRequest, LocalDate assessmentStartDate, LocalDate applicationRaisedDate, BigDecimal threshold) {
-        List<Income> paye = getAllPayeIncomes(validationRequest);
-        paye = removeDuplicates(filterIncomesByDates(paye, assessmentStartDate, applicationRaisedDate));
+        List<Income> paye = validationRequest.incomeIndex().applicant().distinctPayeBetween(assessmentStartDate, applicationRaisedDate);
 
         if (paye.isEmpty()) {
             return NOT_ENOUGH_RECORDS;
@@ -76,11 +75,8 @@ public class CatANonSalariedIncomeValidator implements ActiveIncomeValidator {
 
     private IncomeValidationStatus validateJointIncome(IncomeValidationRequest validationRequest, LocalDate assessmentStartDate, LocalDate applicationRaisedDate, BigDecimal threshold) {
 
-        List<Income> applicantPaye = validationRequest.applicantIncome().incomeRecord().paye();
-        applicantPaye = removeDuplicates(filterIncomesByDates(applicantPaye, assessmentStartDate, applicationRaisedDate));
-
-        List<Income> partnerPaye = validationRequest.partnerIncome().incomeRecord().paye();
-        partnerPaye = removeDuplicates(filterIncomesByDates(partnerPaye, assessmentStartDate, applicationRaisedDate));
+        List<Income> applicantPaye = validationRequest.incomeIndex().applicant().distinctPayeBetween(assessmentStartDate, applicationRaisedDate);
+        List<Income> partnerPaye = validationRequest.incomeIndex().partner().distinctPayeBetween(assessmentStartDate, applicationRaisedDate);
 
         List<Income> allPaye = new ArrayList<>(applicantPaye);
         allPaye.addAll(partnerPaye);
@@ -3,7 +3,7 @@ package uk.gov.digital.ho.proving.income.validator;
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
-import uk.gov.digital.ho.proving.income.validator.frequencycalculator.FrequencyCalculator;
+import uk.gov.digital.ho.proving.income.validator.frequencycalculator.PayPatternProfiler;
 
 import java.time.LocalDate;
 
@@ -29,7 +29,7 @@ public class CatASalariedIncomeValidator implements ActiveIncomeValidator {
     @Override
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
 
-        switch (FrequencyCalculator.calculate(incomeValidationRequest.applicantIncome().incomeRecord())) {
+        switch (PayPatternProfiler.APPLICANT_PAY_PATTERN.of(incomeValidationRequest).frequency()) {
             case CALENDAR_MONTHLY:
                 return catASalariedMonthlyIncomeValidator.validate(incomeValidationRequest);
             case WEEKLY:
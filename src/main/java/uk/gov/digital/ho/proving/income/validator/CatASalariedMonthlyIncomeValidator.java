@@ -35,18 +35,19 @@ public class CatASalariedMonthlyIncomeValidator implements IncomeValidator {
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
 
         ApplicantIncome applicantIncome = incomeValidationRequest.applicantIncome();
+        ApplicantIncomeIndex applicantIncomeIndex = incomeValidationRequest.incomeIndex().applicant();
 
-        List<String> employments = toEmployerNames(applicantIncome.employments());
+        List<String> employments = applicantIncomeIndex.employerNames();
 
         CheckedIndividual checkedIndividual = new CheckedIndividual(applicantIncome.applicant().nino(), employments);
 
-        BigDecimal monthlyThreshold = incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.dependants());
+        BigDecimal monthlyThreshold = incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
 
         LocalDate assessmentStartDate = getAssessmentStartDate(incomeValidationRequest.applicationRaisedDate());
 
         IncomeValidationStatus status =
             financialCheckForMonthlySalaried(
-                removeDuplicates(applicantIncome.incomeRecord().paye()),
+                applicantIncomeIndex,
                 monthlyThreshold,
                 assessmentStartDate,
                 incomeValidationRequest.applicationRaisedDate());
@@ -61,13 +62,13 @@ public class CatASalariedMonthlyIncomeValidator implements IncomeValidator {
             .build();
     }
 
-    private IncomeValidationStatus financialCheckForMonthlySalaried(List<Income> incomes, BigDecimal threshold, LocalDate assessmentStartDate, LocalDate applicationRaisedDate) {
-        List<Income> individualIncome = filterIncomesByDates(incomes, assessmentStartDate, applicationRaisedDate);
+    private IncomeValidationStatus financialCheckForMonthlySalaried(ApplicantIncomeIndex incomeIndex, BigDecimal threshold, LocalDate assessmentStartDate, LocalDate applicationRaisedDate) {
+        List<Income> individualIncome = incomeIndex.distinctPayeBetween(assessmentStartDate, applicationRaisedDate);
         if (individualIncome.size() < MONTHS_OF_INCOME) {
             return IncomeValidationStatus.NOT_ENOUGH_RECORDS;
         }
 
-        List<Income> lastXMonths = orderByPaymentDate(combineIncomesForSameMonth(individualIncome)).stream()
+        List<Income> lastXMonths = incomeIndex.monthlyIncomeBetween(assessmentStartDate, applicationRaisedDate).stream()
             .limit(MONTHS_OF_INCOME)
             .collect(Collectors.toList());
         if (lastXMonths.size() < MONTHS_OF_INCOME) {
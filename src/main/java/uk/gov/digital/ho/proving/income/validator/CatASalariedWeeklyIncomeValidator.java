@@ -31,18 +31,19 @@ public class CatASalariedWeeklyIncomeValidator implements IncomeValidator {
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
 
         ApplicantIncome applicantIncome = incomeValidationRequest.applicantIncome();
+        ApplicantIncomeIndex applicantIncomeIndex = incomeValidationRequest.incomeIndex().applicant();
 
-        List<String> employments = toEmployerNames(applicantIncome.employments());
+        List<String> employments = applicantIncomeIndex.employerNames();
 
         CheckedIndividual checkedIndividual = new CheckedIndividual(applicantIncome.applicant().nino(), employments);
 
-        BigDecimal weeklyThreshold = incomeThresholdCalculator.weeklyThreshold(incomeValidationRequest.dependants());
+        BigDecimal weeklyThreshold = incomeThresholdCalculator.weeklyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
 
         LocalDate assessmentStartDate = getAssessmentStartDate(incomeValidationRequest.applicationRaisedDate());
 
         IncomeValidationStatus status =
             financialCheckForWeeklySalaried(
-                removeDuplicates(applicantIncome.incomeRecord().paye()),
+                applicantIncomeIndex,
                 weeklyThreshold,
                 assessmentStartDate,
                 incomeValidationRequest.applicationRaisedDate());
@@ -57,9 +58,8 @@ public class CatASalariedWeeklyIncomeValidator implements IncomeValidator {
             .build();
     }
 
-    private static IncomeValidationStatus financialCheckForWeeklySalaried(List<Income> incomes, BigDecimal threshold, LocalDate assessmentStartDate, LocalDate applicationRaisedDate) {
-        List<Income> individualIncome = filterIncomesByDates(incomes, assessmentStartDate, applicationRaisedDate);
-        List<Income> lastXWeeks = orderByPaymentDate(combineIncomesForSameWeek(individualIncome));
+    private static IncomeValidationStatus financialCheckForWeeklySalaried(ApplicantIncomeIndex incomeIndex, BigDecimal threshold, LocalDate assessmentStartDate, LocalDate applicationRaisedDate) {
+        List<Income> lastXWeeks = incomeIndex.weeklyIncomeBetween(assessmentStartDate, applicationRaisedDate);
 
         if (lastXWeeks.size() >= WEEKS_OF_INCOME) {
             EmploymentCheck employmentCheck = checkIncomesPassThresholdWithSameEmployer(lastXWeeks, threshold);
@@ -3,18 +3,18 @@ package uk.gov.digital.ho.proving.income.validator;
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
 import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncome;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
 import uk.gov.digital.ho.proving.income.validator.frequencycalculator.Frequency;
-import uk.gov.digital.ho.proving.income.validator.frequencycalculator.FrequencyCalculator;
+import uk.gov.digital.ho.proving.income.validator.frequencycalculator.PayPatternProfiler;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 
 import static uk.gov.digital.ho.proving.income.validator.CatASalariedIncomeValidator.getAssessmentStartDate;
-import static uk.gov.digital.ho.proving.income.validator.IncomeValidationHelper.toEmployerNames;
 
 @Service
 public class CatAUnsupportedIncomeValidator implements IncomeValidator {
@@ -25,8 +25,9 @@ public class CatAUnsupportedIncomeValidator implements IncomeValidator {
     @Override
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
         ApplicantIncome applicantIncome = incomeValidationRequest.applicantIncome();
-        Frequency frequency = FrequencyCalculator.calculate(applicantIncome.incomeRecord());
-        List<String> employments = toEmployerNames(applicantIncome.employments());
+        ApplicantIncomeIndex applicantIncomeIndex = incomeValidationRequest.incomeIndex().applicant();
+        Frequency frequency = PayPatternProfiler.APPLICANT_PAY_PATTERN.of(incomeValidationRequest).frequency();
+        List<String> employments = applicantIncomeIndex.employerNames();
         CheckedIndividual checkedIndividual = new CheckedIndividual(applicantIncome.applicant().nino(), employments);
         return IncomeValidationResult.builder()
             .status(getStatus(frequency))
@@ -2,17 +2,13 @@ package uk.gov.digital.ho.proving.income.validator;
 
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.IncomeThresholdCalculator;
-import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Map;
 
-import static uk.gov.digital.ho.proving.income.validator.IncomeValidationHelper.getAllPayeIncomes;
 import static uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus.CATB_NON_SALARIED_BELOW_THRESHOLD;
 import static uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus.CATB_NON_SALARIED_PASSED;
 
@@ -78,7 +74,7 @@ public class CatBNonSalariedIncomeValidator implements ActiveIncomeValidator {
 
         BigDecimal projectedAnnualIncome = getProjectedAnnualIncome(incomeValidationRequest);
 
-        BigDecimal yearlyThreshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.dependants());
+        BigDecimal yearlyThreshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
 
         IncomeValidationStatus result = projectedAnnualIncome.compareTo(yearlyThreshold) >= 0 ? CATB_NON_SALARIED_PASSED : CATB_NON_SALARIED_BELOW_THRESHOLD;
 
@@ -93,9 +89,7 @@ public class CatBNonSalariedIncomeValidator implements ActiveIncomeValidator {
     }
 
     private BigDecimal getProjectedAnnualIncome(IncomeValidationRequest incomeValidationRequest) {
-        List<Income> incomes = getAllPayeIncomes(incomeValidationRequest);
-        Map<Integer, BigDecimal> monthlyIncomes = MonthlyIncomeAggregator.aggregateMonthlyIncome(incomes);
-        return ProjectedAnnualIncomeCalculator.calculate(monthlyIncomes);
+        return ProjectedAnnualIncomeCalculator.PROJECTED_ANNUAL_INCOME.of(incomeValidationRequest);
     }
 
 }
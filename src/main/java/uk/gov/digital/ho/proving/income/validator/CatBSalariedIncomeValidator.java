@@ -3,9 +3,12 @@ package uk.gov.digital.ho.proving.income.validator;
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.IncomeThresholdCalculator;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
+import uk.gov.digital.ho.proving.income.validator.domain.IncomeIndex;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
+import uk.gov.digital.ho.proving.income.validator.domain.PrimitivePaye;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,11 +18,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import static uk.gov.digital.ho.proving.income.validator.IncomeValidationHelper.*;
+import static uk.gov.digital.ho.proving.income.validator.domain.PrimitivePaye.monthCode;
 
 @Service
 public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
 
     private static final int INCOME_PERIOD_START_DATE_YEARS_AGO = 1;
+    private static final int MINIMUM_PAYMENTS = 12;
     private static final String CALCULATION_TYPE = "Category B salaried";
     private static final String CATEGORY = "B";
 
@@ -42,25 +47,78 @@ public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
             return employmentCheckValidation;
         }
 
-        final List<Income> paye = getAllPayeInDateRange(incomeValidationRequest, getApplicationStartDate(incomeValidationRequest));
-        if (paye.size() < 12) {
-            return validationResult(incomeValidationRequest, IncomeValidationStatus.NOT_ENOUGH_RECORDS);
+        LocalDate applicationStartDate = getApplicationStartDate(incomeValidationRequest);
+        LocalDate applicationRaisedDate = incomeValidationRequest.applicationRaisedDate();
+        BigDecimal monthlyThreshold = getMonthlyThreshold(incomeValidationRequest);
+        IncomeIndex incomeIndex = incomeValidationRequest.incomeIndex();
+
+        IncomeValidationStatus status;
+        if (incomeIndex.isExactInPence() && PrimitivePaye.isWithinPenceRange(monthlyThreshold)) {
+            status = checkMonthlyIncomeInPence(incomeIndex.individuals(), applicationStartDate, applicationRaisedDate, monthlyThreshold);
+        } else {
+            status = checkMonthlyIncome(incomeIndex.payeBetween(applicationStartDate, applicationRaisedDate), monthlyThreshold);
+        }
+        return validationResult(incomeValidationRequest, status);
+    }
+
+    static IncomeValidationStatus checkMonthlyIncome(List<Income> paye, BigDecimal monthlyThreshold) {
+        if (paye.size() < MINIMUM_PAYMENTS) {
+            return IncomeValidationStatus.NOT_ENOUGH_RECORDS;
         }
 
         List<List<Income>> monthlyIncomes = sortAndGroupIncomesByMonth(paye);
 
         if (monthMissing(monthlyIncomes)) {
-            return validationResult(incomeValidationRequest, IncomeValidationStatus.NON_CONSECUTIVE_MONTHS);
+            return IncomeValidationStatus.NON_CONSECUTIVE_MONTHS;
+        }
+
+        if (monthBelowThreshold(monthlyIncomes, monthlyThreshold)) {
+            return IncomeValidationStatus.CATB_SALARIED_BELOW_THRESHOLD;
+        }
+
+        return IncomeValidationStatus.CATB_SALARIED_PASSED;
+    }
+
+    /*
+     * The same check as checkMonthlyIncome, totting up each month in whole pence instead. Every payment must be exact in
+     * pence and the threshold within range.
+     */
+    static IncomeValidationStatus checkMonthlyIncomeInPence(List<ApplicantIncomeIndex> individuals, LocalDate fromDate, LocalDate toDate, BigDecimal monthlyThreshold) {
+        int firstMonth = monthCode(fromDate);
+        long[] monthlyPence = new long[monthCode(toDate) - firstMonth + 1];
+        boolean[] paidInMonth = new boolean[monthlyPence.length];
+        int payments = 0;
+
+        for (ApplicantIncomeIndex individual : individuals) {
+            PrimitivePaye paye = individual.primitivePaye();
+            int end = paye.firstBefore((int) fromDate.toEpochDay());
+            for (int i = paye.firstOnOrBefore((int) toDate.toEpochDay()); i < end; i++) {
+                int month = paye.month(i) - firstMonth;
+                monthlyPence[month] += paye.pence(i);
+                paidInMonth[month] = true;
+                payments++;
+            }
+        }
+
+        if (payments < MINIMUM_PAYMENTS) {
+            return IncomeValidationStatus.NOT_ENOUGH_RECORDS;
+        }
+
+        if (monthMissing(paidInMonth)) {
+            return IncomeValidationStatus.NON_CONSECUTIVE_MONTHS;
         }
 
-        if (monthBelowThreshold(monthlyIncomes, getMonthlyThreshold(incomeValidationRequest))) {
-            return validationResult(incomeValidationRequest, IncomeValidationStatus.CATB_SALARIED_BELOW_THRESHOLD);
+        long thresholdPence = PrimitivePaye.thresholdInPence(monthlyThreshold);
+        for (int month = 0; month < monthlyPence.length; month++) {
+            if (paidInMonth[month] && monthlyPence[month] < thresholdPence) {
+                return IncomeValidationStatus.CATB_SALARIED_BELOW_THRESHOLD;
+            }
         }
 
-        return validationResult(incomeValidationRequest, IncomeValidationStatus.CATB_SALARIED_PASSED);
+        return IncomeValidationStatus.CATB_SALARIED_PASSED;
     }
 
-    private List<List<Income>> sortAndGroupIncomesByMonth(List<Income> incomes) {
+    private static List<List<Income>> sortAndGroupIncomesByMonth(List<Income> incomes) {
         List<List<Income>> monthlyIncomes = new ArrayList<>();
         incomes.stream()
             .collect(Collectors.groupingBy(Income::yearAndMonth))
@@ -73,7 +131,7 @@ public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
     private IncomeValidationResult validationResult(IncomeValidationRequest incomeValidationRequest, IncomeValidationStatus validationStatus) {
         return IncomeValidationResult.builder()
             .status(validationStatus)
-            .threshold(incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.dependants()))
+            .threshold(incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants()))
             .assessmentStartDate(getApplicationStartDate(incomeValidationRequest))
             .individuals(incomeValidationRequest.getCheckedIndividuals())
             .category(CATEGORY)
@@ -85,7 +143,24 @@ public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
         return incomeValidationRequest.applicationRaisedDate().minusYears(INCOME_PERIOD_START_DATE_YEARS_AGO);
     }
 
-    private boolean monthMissing(List<List<Income>> monthlyIncomes) {
+    private static boolean monthMissing(boolean[] paidInMonth) {
+        int firstPaid = 0;
+        while (!paidInMonth[firstPaid]) {
+            firstPaid++;
+        }
+        int lastPaid = paidInMonth.length - 1;
+        while (!paidInMonth[lastPaid]) {
+            lastPaid--;
+        }
+        for (int month = firstPaid; month <= lastPaid; month++) {
+            if (!paidInMonth[month]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean monthMissing(List<List<Income>> monthlyIncomes) {
         for (int i = 0; i < monthlyIncomes.size() - 1; i++) {
             if (!isSuccessiveMonths(monthlyIncomes.get(i + 1).get(0), monthlyIncomes.get(i).get(0))) {
                 return true;
@@ -94,7 +169,7 @@ public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
         return false;
     }
 
-    private boolean monthBelowThreshold(List<List<Income>> monthlyIncomes, BigDecimal monthlyThreshold) {
+    private static boolean monthBelowThreshold(List<List<Income>> monthlyIncomes, BigDecimal monthlyThreshold) {
         for (List<Income> monthlyIncome : monthlyIncomes) {
             BigDecimal totalMonthlyIncome = totalPayment(monthlyIncome);
             if (!checkValuePassesThreshold(totalMonthlyIncome, monthlyThreshold)) {
@@ -105,6 +180,6 @@ public class CatBSalariedIncomeValidator implements ActiveIncomeValidator {
     }
 
     private BigDecimal getMonthlyThreshold(IncomeValidationRequest incomeValidationRequest) {
-        return incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.dependants());
+        return incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
     }
 }
@@ -27,7 +27,7 @@ public class CatFOneYearSelfAssessmentIncomeValidator implements ActiveIncomeVal
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
         IncomeValidationStatus status = IncomeValidationStatus.SELF_ASSESSMENT_ONE_YEAR_FAILED;
 
-        BigDecimal threshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.dependants());
+        BigDecimal threshold = incomeThresholdCalculator.yearlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
 
         List<AnnualSelfAssessmentTaxReturn> previousYearsTaxReturns = getSelfAssessmentReturnsFromPreviousTaxYear(incomeValidationRequest);
         if (!previousYearsTaxReturns.isEmpty()) {
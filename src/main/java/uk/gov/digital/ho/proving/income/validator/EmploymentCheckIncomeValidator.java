@@ -2,16 +2,13 @@ package uk.gov.digital.ho.proving.income.validator;
 
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.IncomeThresholdCalculator;
-import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
-import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
+import uk.gov.digital.ho.proving.income.validator.domain.SubResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus.EMPLOYMENT_CHECK_FAILED;
 import static uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus.EMPLOYMENT_CHECK_PASSED;
@@ -26,12 +23,19 @@ public class EmploymentCheckIncomeValidator implements IncomeValidator {
 
     private final IncomeThresholdCalculator incomeThresholdCalculator;
 
+    // Both category B validators start with the employment check, so it is worked out once per request for the two.
+    private final SubResult<IncomeValidationResult> employmentCheck = new SubResult<>("employment check", this::checkEmployment);
+
     public EmploymentCheckIncomeValidator(IncomeThresholdCalculator incomeThresholdCalculator) {
         this.incomeThresholdCalculator = incomeThresholdCalculator;
     }
 
     @Override
     public IncomeValidationResult validate(IncomeValidationRequest incomeValidationRequest) {
+        return employmentCheck.of(incomeValidationRequest);
+    }
+
+    private IncomeValidationResult checkEmployment(IncomeValidationRequest incomeValidationRequest) {
         if (!incomeValidationRequest.isJointRequest()) {
             IncomeValidationResult result = doValidation(incomeValidationRequest);
             return result;
@@ -59,36 +63,20 @@ public class EmploymentCheckIncomeValidator implements IncomeValidator {
 
         LocalDate assessmentStartDate = incomeValidationRequest.applicationRaisedDate().minusDays(ASSESSMENT_START_DAYS_PREVIOUS - 1);
 
-        BigDecimal monthlyThreshold = incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.dependants());
+        BigDecimal monthlyThreshold = incomeThresholdCalculator.monthlyThreshold(incomeValidationRequest.applicationRaisedDate(), incomeValidationRequest.dependants());
 
-        BigDecimal earningsSinceAssessmentStart =
-            incomeValidationRequest.allIncome().stream()
-                .flatMap(applicantIncome -> applicantIncome.incomeRecord().paye().stream())
-                .filter(income -> ! income.paymentDate().isBefore(assessmentStartDate))
-                .map(Income::payment)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal earningsSinceAssessmentStart = incomeValidationRequest.incomeIndex().totalPaymentsSince(assessmentStartDate);
 
         IncomeValidationStatus result = earningsSinceAssessmentStart.compareTo(monthlyThreshold) >= 0 ? EMPLOYMENT_CHECK_PASSED : EMPLOYMENT_CHECK_FAILED;
 
         return IncomeValidationResult.builder()
             .status(result)
             .threshold(monthlyThreshold)
-            .individuals(getCheckedIndividuals(incomeValidationRequest))
+            .individuals(incomeValidationRequest.getCheckedIndividuals())
             .assessmentStartDate(assessmentStartDate)
             .category(CATEGORY)
             .calculationType(CALCULATION_TYPE)
             .build();
     }
 
-    private List<CheckedIndividual> getCheckedIndividuals(IncomeValidationRequest incomeValidationRequest) {
-        return incomeValidationRequest.allIncome()
-            .stream()
-            .map(applicantIncome ->
-                new CheckedIndividual(
-                    applicantIncome.applicant().nino(),
-                    IncomeValidationHelper.toEmployerNames(applicantIncome.incomeRecord().employments())
-                ))
-            .collect(Collectors.toList());
-    }
-
 }
@@ -1,18 +1,15 @@
 package uk.gov.digital.ho.proving.income.validator;
 
 import lombok.extern.slf4j.Slf4j;
-import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
 import uk.gov.digital.ho.proving.income.validator.domain.EmploymentCheck;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
+import uk.gov.digital.ho.proving.income.validator.domain.PrimitivePaye;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.Period;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,24 +21,12 @@ public class IncomeValidationHelper {
 
     static long getDifferenceInMonthsBetweenDates(LocalDate date1, LocalDate date2) {
 
-        // Period.toTotalMonths() only returns integer month differences so for 14/07/2015 and 17/06/2015 it returns 0
-        // We need it to return 1, so we set both dates to the first of the month
+        // Only the calendar months count, so for 14/07/2015 and 17/06/2015 this returns 1
 
-        LocalDate toDate = date1.withDayOfMonth(1);
-        LocalDate fromDate = date2.withDayOfMonth(1);
-
-        Period period = fromDate.until(toDate);
-        return period.toTotalMonths();
+        return PrimitivePaye.monthCode(date1) - PrimitivePaye.monthCode(date2);
 
     }
 
-    static List<String> toEmployerNames(List<Employments> employments) {
-        return employments.stream()
-            .map(employment -> employment.employer().name())
-            .distinct()
-            .collect(Collectors.toList());
-    }
-
     static EmploymentCheck checkIncomesPassThresholdWithSameEmployer(List<Income> incomes, BigDecimal threshold) {
         String employerPayeReference = incomes.get(0).employerPayeReference();
         for (Income income : incomes) {
@@ -64,15 +49,9 @@ public class IncomeValidationHelper {
             .collect(Collectors.toList());
     }
 
-    static List<Income> orderByPaymentDate(List<Income> incomeStream) {
-        return incomeStream.stream()
-            .sorted((income1, income2) -> income2.paymentDate().compareTo(income1.paymentDate()))
-            .collect(Collectors.toList());
-    }
-
     private static boolean isDateInRange(LocalDate date, LocalDate lower, LocalDate upper) {
         boolean inRange = !(date.isBefore(lower) || date.isAfter(upper));
-        log.debug(String.format("%s: %s in range of %s & %s", inRange, date, lower, upper));
+        log.debug("{}: {} in range of {} & {}", inRange, date, lower, upper);
         return inRange;
     }
 
@@ -80,10 +59,6 @@ public class IncomeValidationHelper {
         return (value.compareTo(threshold) >= 0);
     }
 
-    static List<Income> removeDuplicates(List<Income> incomes) {
-        return incomes.stream().distinct().collect(Collectors.toList());
-    }
-
     static List<Income> getAllPayeIncomes(IncomeValidationRequest incomeValidationRequest) {
         return incomeValidationRequest.allIncome()
             .stream()
@@ -97,30 +72,6 @@ public class IncomeValidationHelper {
         return filterIncomesByDates(paye, applicationStartDate, applicationRaisedDate);
     }
 
-    static List<Income> combineIncomesForSameMonth(List<Income> incomes) {
-        Map<Integer, List<Income>> groupedByMonth = incomes.stream()
-            .collect(Collectors.groupingBy(Income::yearMonthAndEmployer));
-        return sumGroupedIncomes(groupedByMonth.values());
-    }
-
-    static List<Income> combineIncomesForSameWeek(List<Income> incomes) {
-        Map<Integer, List<Income>> groupedByWeek = incomes.stream()
-            .collect(Collectors.groupingBy(Income::weekNumberAndEmployer));
-        return sumGroupedIncomes(groupedByWeek.values());
-    }
-
-    private static List<Income> sumGroupedIncomes(Collection<List<Income>> groupedIncomes) {
-        List<Income> summedIncomes = new ArrayList<>();
-        for (List<Income> samePeriodIncomes : groupedIncomes) {
-            Income summedIncome = samePeriodIncomes.get(0);
-            for (int i = 1; i < samePeriodIncomes.size(); i++) {
-                summedIncome = summedIncome.add(samePeriodIncomes.get(i));
-            }
-            summedIncomes.add(summedIncome);
-        }
-        return summedIncomes;
-    }
-
     static BigDecimal totalPayment(List<Income> incomes) {
         return incomes.stream()
             .map(Income::payment)
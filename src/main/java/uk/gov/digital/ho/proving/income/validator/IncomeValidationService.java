@@ -1,32 +1,132 @@
 package uk.gov.digital.ho.proving.income.validator;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.digital.ho.proving.income.api.domain.CategoryCheck;
+import uk.gov.digital.ho.proving.income.application.MdcTaskDecorator;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationResult;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static net.logstash.logback.argument.StructuredArguments.value;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.EVENT;
+import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_VALIDATION_COMPLETE;
 
+/**
+ * Runs every active validator against a request. When parallel validation is enabled and the request holds at least
+ * {@code minPayments} payments the validators run side by side on the validation pool, with the calling thread taking
+ * the first of them itself. Below that the cost of handing the work over outweighs the gain, so they run one after
+ * another. Either way the category checks come back in validator order.
+ */
 @Service
+@Slf4j
 public class IncomeValidationService {
 
     private final List<IncomeValidator> incomeValidators;
+    private final ForkJoinPool validationPool;
+    private final boolean parallel;
+    private final int minPayments;
+    private final MdcTaskDecorator mdcTaskDecorator = new MdcTaskDecorator();
 
-    public IncomeValidationService(List<ActiveIncomeValidator> incomeValidators) {
+    @Autowired
+    public IncomeValidationService(List<ActiveIncomeValidator> incomeValidators,
+                                   @Qualifier("incomeValidationPool") ForkJoinPool validationPool,
+                                   @Value("${income.validation.parallel.enabled:false}") boolean parallel,
+                                   @Value("${income.validation.parallel.min-payments:100}") int minPayments) {
         this.incomeValidators = unmodifiableList(incomeValidators);
+        this.validationPool = validationPool;
+        this.parallel = parallel;
+        this.minPayments = minPayments;
+    }
+
+    IncomeValidationService(List<ActiveIncomeValidator> incomeValidators) {
+        this(incomeValidators, null, false, 0);
     }
 
     public List<CategoryCheck> validate(IncomeValidationRequest incomeValidationRequest) {
-        return incomeValidators.stream()
-            .map(incomeValidator -> checkCategory(incomeValidationRequest, incomeValidator))
-            .collect(Collectors.toList());
+        CategoryCheck[] categoryChecks = new CategoryCheck[incomeValidators.size()];
+        long[] durations = new long[incomeValidators.size()];
+        long start = System.nanoTime();
+
+        boolean inParallel = isWorthRunningInParallel(incomeValidationRequest);
+        if (inParallel) {
+            validateInParallel(incomeValidationRequest, categoryChecks, durations);
+        } else {
+            for (int i = 0; i < incomeValidators.size(); i++) {
+                checkCategory(incomeValidationRequest, i, categoryChecks, durations);
+            }
+        }
+
+        log.info("Income validated in {} ms", NANOSECONDS.toMillis(System.nanoTime() - start),
+                 value(EVENT, INCOME_PROVING_VALIDATION_COMPLETE),
+                 value("validated_in_parallel", inParallel),
+                 value("validator_durations_micros", durationsByValidator(durations)),
+                 value("sub_results_computed", incomeValidationRequest.subResults().computed()),
+                 value("sub_results_reused", incomeValidationRequest.subResults().reused()));
+
+        return unmodifiableList(Arrays.asList(categoryChecks));
+    }
+
+    private boolean isWorthRunningInParallel(IncomeValidationRequest incomeValidationRequest) {
+        if (!parallel || incomeValidators.size() < 2) {
+            return false;
+        }
+        int payments = 0;
+        for (ApplicantIncomeIndex individual : incomeValidationRequest.incomeIndex().individuals()) {
+            payments += individual.paye().size();
+        }
+        return payments >= minPayments;
+    }
+
+    private void validateInParallel(IncomeValidationRequest incomeValidationRequest, CategoryCheck[] categoryChecks, long[] durations) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(incomeValidators.size() - 1);
+        for (int i = 1; i < incomeValidators.size(); i++) {
+            int index = i;
+            tasks.add(validationPool.submit(mdcTaskDecorator.decorate(() -> checkCategory(incomeValidationRequest, index, categoryChecks, durations))));
+        }
+
+        boolean completed = false;
+        try {
+            checkCategory(incomeValidationRequest, 0, categoryChecks, durations);
+
+            // Joining also makes each task's writes to the arrays visible here.
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            completed = true;
+        } finally {
+            // The request has failed, so validators not yet started need not run.
+            if (!completed) {
+                tasks.forEach(task -> task.cancel(true));
+            }
+        }
+    }
+
+    private void checkCategory(IncomeValidationRequest incomeValidationRequest, int index, CategoryCheck[] categoryChecks, long[] durations) {
+        long start = System.nanoTime();
+        IncomeValidationResult result = incomeValidators.get(index).validate(incomeValidationRequest);
+        categoryChecks[index] = CategoryCheck.from(result, incomeValidationRequest.applicationRaisedDate());
+        durations[index] = System.nanoTime() - start;
     }
 
-    private CategoryCheck checkCategory(IncomeValidationRequest incomeValidationRequest, IncomeValidator incomeValidator) {
-        IncomeValidationResult result = incomeValidator.validate(incomeValidationRequest);
-        return CategoryCheck.from(result, incomeValidationRequest.applicationRaisedDate());
+    private Map<String, Long> durationsByValidator(long[] durations) {
+        Map<String, Long> durationsByValidator = new LinkedHashMap<>();
+        for (int i = 0; i < incomeValidators.size(); i++) {
+            durationsByValidator.put(incomeValidators.get(i).getClass().getSimpleName(), NANOSECONDS.toMicros(durations[i]));
+        }
+        return durationsByValidator;
     }
 }
@@ -1,5 +1,7 @@
 package uk.gov.digital.ho.proving.income.validator;
 
+import uk.gov.digital.ho.proving.income.validator.domain.SubResult;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Map;
@@ -9,6 +11,9 @@ public class ProjectedAnnualIncomeCalculator {
 
     private static final Integer MONTHS_PER_YEAR = 12;
 
+    public static final SubResult<BigDecimal> PROJECTED_ANNUAL_INCOME =
+        new SubResult<>("projected annual income", request -> calculate(request.incomeIndex().monthlyTotals()));
+
     public static BigDecimal calculate(Map<Integer, BigDecimal> aggregatedMonthlyIncome) {
         if(aggregatedMonthlyIncome.size() == 0) {
             return new BigDecimal("0.00");
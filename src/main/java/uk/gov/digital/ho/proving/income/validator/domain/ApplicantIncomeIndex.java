@@ -0,0 +1,279 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSortedMap;
+
+/**
+ * The views of one individual's income record that the validators work from, each derived once when the request is
+ * created rather than by every validator that needs it.
+ *
+ * Payments are held newest first, both as sent and with duplicates removed, so the payments between two dates are a
+ * slice found by binary search. Payments are also grouped per employer by month and by week number. A grouping the
+ * assessment dates fall entirely around is used as it is, and only the groups they cut through are summed again.
+ */
+public final class ApplicantIncomeIndex {
+
+    private static final Comparator<Income> NEWEST_FIRST = Comparator.comparing(Income::paymentDate).reversed();
+
+    private final List<Income> paye;
+    private final List<Income> payeNewestFirst;
+    private final List<Income> distinctPayeNewestFirst;
+    private final List<PeriodIncome> monthlyIncome;
+    private final List<PeriodIncome> weeklyIncome;
+    private final SortedMap<Integer, BigDecimal> monthlyTotals;
+    private final List<Integer> weekPayNumbers;
+    private final List<String> employerNames;
+    private final PrimitivePaye primitivePaye;
+
+    private ApplicantIncomeIndex(List<Income> paye, List<Employments> employments) {
+        this.paye = unmodifiableList(new ArrayList<>(paye));
+        this.payeNewestFirst = sortedNewestFirst(paye);
+        this.distinctPayeNewestFirst = sortedNewestFirst(new LinkedHashSet<>(paye));
+        this.monthlyIncome = groupIntoPeriods(distinctPayeNewestFirst, income -> income.yearAndMonth() + employerKey(income));
+        this.weeklyIncome = groupIntoPeriods(withWeekPayNumber(distinctPayeNewestFirst), income -> income.weekPayNumber() + employerKey(income));
+        this.monthlyTotals = monthlyTotals(paye);
+        this.weekPayNumbers = weekPayNumbers(paye);
+        this.employerNames = employerNames(employments);
+        this.primitivePaye = PrimitivePaye.of(payeNewestFirst);
+    }
+
+    public static ApplicantIncomeIndex of(IncomeRecord incomeRecord) {
+        return new ApplicantIncomeIndex(orEmpty(incomeRecord.paye()), orEmpty(incomeRecord.employments()));
+    }
+
+    /**
+     * The payments as HMRC sent them, duplicates and all.
+     */
+    public List<Income> paye() {
+        return paye;
+    }
+
+    /**
+     * Every payment, newest first, including any duplicates.
+     */
+    public List<Income> payeNewestFirst() {
+        return payeNewestFirst;
+    }
+
+    /**
+     * The payments made on or between the dates, newest first, including any duplicates.
+     */
+    public List<Income> payeBetween(LocalDate fromDate, LocalDate toDate) {
+        return slice(payeNewestFirst, fromDate, toDate);
+    }
+
+    /**
+     * The payments made on or between the dates, newest first, with duplicates removed.
+     */
+    public List<Income> distinctPayeBetween(LocalDate fromDate, LocalDate toDate) {
+        return slice(distinctPayeNewestFirst, fromDate, toDate);
+    }
+
+    /**
+     * The distinct payments made on or between the dates summed per employer and calendar month, newest first. Each
+     * sum carries the date and pay numbers of the newest payment in it.
+     */
+    public List<Income> monthlyIncomeBetween(LocalDate fromDate, LocalDate toDate) {
+        return periodIncomeBetween(monthlyIncome, fromDate, toDate);
+    }
+
+    /**
+     * The distinct payments made on or between the dates summed per employer and week number, newest first. Payments
+     * without a week number are left out.
+     */
+    public List<Income> weeklyIncomeBetween(LocalDate fromDate, LocalDate toDate) {
+        return periodIncomeBetween(weeklyIncome, fromDate, toDate);
+    }
+
+    /**
+     * Every payment, duplicates included, summed per calendar month keyed as {@link Income#yearAndMonth()}.
+     */
+    public SortedMap<Integer, BigDecimal> monthlyTotals() {
+        return monthlyTotals;
+    }
+
+    /**
+     * The distinct week numbers paid against, in order.
+     */
+    public List<Integer> weekPayNumbers() {
+        return weekPayNumbers;
+    }
+
+    public LocalDate firstPaymentDate() {
+        return payeNewestFirst.isEmpty() ? null : payeNewestFirst.get(payeNewestFirst.size() - 1).paymentDate();
+    }
+
+    public LocalDate lastPaymentDate() {
+        return payeNewestFirst.isEmpty() ? null : payeNewestFirst.get(0).paymentDate();
+    }
+
+    public List<String> employerNames() {
+        return employerNames;
+    }
+
+    /**
+     * Every payment, newest first and including any duplicates, in pence, epoch days and month codes.
+     */
+    public PrimitivePaye primitivePaye() {
+        return primitivePaye;
+    }
+
+    private static List<Income> periodIncomeBetween(List<PeriodIncome> periods, LocalDate fromDate, LocalDate toDate) {
+        List<Income> incomes = new ArrayList<>();
+        for (PeriodIncome period : periods) {
+            Income income = period.between(fromDate, toDate);
+            if (income != null) {
+                incomes.add(income);
+            }
+        }
+        incomes.sort(NEWEST_FIRST);
+        return incomes;
+    }
+
+    private static List<Income> slice(List<Income> newestFirst, LocalDate fromDate, LocalDate toDate) {
+        int from = firstIndexBefore(newestFirst, toDate, true);
+        int to = firstIndexBefore(newestFirst, fromDate, false);
+        return from < to ? newestFirst.subList(from, to) : emptyList();
+    }
+
+    /*
+     * The index of the first payment made before the date, or on it too if asked, or the size of the list if there is
+     * none.
+     */
+    private static int firstIndexBefore(List<Income> newestFirst, LocalDate date, boolean orOn) {
+        int low = 0;
+        int high = newestFirst.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            LocalDate paymentDate = newestFirst.get(middle).paymentDate();
+            if (paymentDate.isBefore(date) || orOn && paymentDate.isEqual(date)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static List<Income> sortedNewestFirst(Collection<Income> paye) {
+        List<Income> sorted = new ArrayList<>(paye);
+        sorted.sort(NEWEST_FIRST);
+        return unmodifiableList(sorted);
+    }
+
+    private static List<Income> withWeekPayNumber(List<Income> paye) {
+        List<Income> incomes = new ArrayList<>(paye.size());
+        for (Income income : paye) {
+            if (income.weekPayNumber() != null) {
+                incomes.add(income);
+            }
+        }
+        return incomes;
+    }
+
+    private static List<PeriodIncome> groupIntoPeriods(List<Income> newestFirst, ToIntFunction<Income> period) {
+        Map<Integer, List<Income>> incomesByPeriod = new LinkedHashMap<>();
+        for (Income income : newestFirst) {
+            incomesByPeriod.computeIfAbsent(period.applyAsInt(income), key -> new ArrayList<>()).add(income);
+        }
+        List<PeriodIncome> periods = new ArrayList<>(incomesByPeriod.size());
+        for (List<Income> incomes : incomesByPeriod.values()) {
+            periods.add(new PeriodIncome(incomes));
+        }
+        return unmodifiableList(periods);
+    }
+
+    private static SortedMap<Integer, BigDecimal> monthlyTotals(List<Income> paye) {
+        SortedMap<Integer, BigDecimal> totals = new TreeMap<>();
+        for (Income income : paye) {
+            totals.merge(income.yearAndMonth(), income.payment(), BigDecimal::add);
+        }
+        return unmodifiableSortedMap(totals);
+    }
+
+    private static List<Integer> weekPayNumbers(List<Income> paye) {
+        SortedSet<Integer> weekPayNumbers = new TreeSet<>();
+        for (Income income : paye) {
+            if (income.weekPayNumber() != null) {
+                weekPayNumbers.add(income.weekPayNumber());
+            }
+        }
+        return unmodifiableList(new ArrayList<>(weekPayNumbers));
+    }
+
+    private static List<String> employerNames(List<Employments> employments) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Employments employment : employments) {
+            names.add(employment.employer().name());
+        }
+        return unmodifiableList(new ArrayList<>(names));
+    }
+
+    /*
+     * As Income keys months and weeks with their employer, allowing for a payment with no employer reference.
+     */
+    private static int employerKey(Income income) {
+        return 10_000 * Objects.hashCode(income.employerPayeReference());
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list == null ? emptyList() : list;
+    }
+
+    /*
+     * The payments to one employer in one month or week, newest first, with their sum.
+     */
+    private static final class PeriodIncome {
+
+        private final List<Income> incomes;
+        private final Income total;
+
+        private PeriodIncome(List<Income> incomes) {
+            this.incomes = incomes;
+            this.total = sum(incomes, null, null);
+        }
+
+        private Income between(LocalDate fromDate, LocalDate toDate) {
+            boolean newestInRange = !incomes.get(0).paymentDate().isAfter(toDate);
+            boolean oldestInRange = !incomes.get(incomes.size() - 1).paymentDate().isBefore(fromDate);
+            return newestInRange && oldestInRange ? total : sum(incomes, fromDate, toDate);
+        }
+
+        private static Income sum(List<Income> incomes, LocalDate fromDate, LocalDate toDate) {
+            Income total = null;
+            for (Income income : incomes) {
+                if (isBetween(income.paymentDate(), fromDate, toDate)) {
+                    total = total == null ? income : total.add(income);
+                }
+            }
+            return total;
+        }
+
+        private static boolean isBetween(LocalDate date, LocalDate fromDate, LocalDate toDate) {
+            return (fromDate == null || !date.isBefore(fromDate)) && (toDate == null || !date.isAfter(toDate));
+        }
+    }
+
+}
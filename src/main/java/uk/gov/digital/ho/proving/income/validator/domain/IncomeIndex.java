@@ -0,0 +1,111 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The income of everyone in an {@link IncomeValidationRequest}, indexed once when the request is created and shared by
+ * every validator that looks at it, including for the applicant only and partner only requests split from it.
+ */
+public final class IncomeIndex {
+
+    private final List<ApplicantIncomeIndex> individuals;
+
+    private IncomeIndex(List<ApplicantIncomeIndex> individuals) {
+        this.individuals = unmodifiableList(individuals);
+    }
+
+    public static IncomeIndex of(List<ApplicantIncome> applicantIncomes) {
+        List<ApplicantIncomeIndex> individuals = new ArrayList<>(applicantIncomes.size());
+        for (ApplicantIncome applicantIncome : applicantIncomes) {
+            individuals.add(ApplicantIncomeIndex.of(applicantIncome.incomeRecord()));
+        }
+        return new IncomeIndex(individuals);
+    }
+
+    public List<ApplicantIncomeIndex> individuals() {
+        return individuals;
+    }
+
+    public ApplicantIncomeIndex applicant() {
+        if (individuals.isEmpty()) {
+            throw new IllegalStateException("There are no applicants");
+        }
+        return individuals.get(0);
+    }
+
+    public ApplicantIncomeIndex partner() {
+        if (individuals.size() < 2) {
+            throw new IllegalStateException("There is no partner");
+        }
+        return individuals.get(1);
+    }
+
+    IncomeIndex applicantOnly() {
+        return new IncomeIndex(singletonList(applicant()));
+    }
+
+    IncomeIndex partnerOnly() {
+        return new IncomeIndex(singletonList(partner()));
+    }
+
+    /**
+     * Whether everyone's payments can be worked with as {@link PrimitivePaye} pence.
+     */
+    public boolean isExactInPence() {
+        for (ApplicantIncomeIndex individual : individuals) {
+            if (!individual.primitivePaye().isExact()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Everyone's payments made on or between the dates, including any duplicates - the applicant's newest first and
+     * then the partner's.
+     */
+    public List<Income> payeBetween(LocalDate fromDate, LocalDate toDate) {
+        if (individuals.size() == 1) {
+            return applicant().payeBetween(fromDate, toDate);
+        }
+        List<Income> paye = new ArrayList<>();
+        for (ApplicantIncomeIndex individual : individuals) {
+            paye.addAll(individual.payeBetween(fromDate, toDate));
+        }
+        return paye;
+    }
+
+    /**
+     * Everyone's payments summed per calendar month, in month order.
+     */
+    public SortedMap<Integer, BigDecimal> monthlyTotals() {
+        if (individuals.size() == 1) {
+            return applicant().monthlyTotals();
+        }
+        SortedMap<Integer, BigDecimal> totals = new TreeMap<>();
+        for (ApplicantIncomeIndex individual : individuals) {
+            individual.monthlyTotals().forEach((month, total) -> totals.merge(month, total, BigDecimal::add));
+        }
+        return totals;
+    }
+
+    public BigDecimal totalPaymentsSince(LocalDate fromDate) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ApplicantIncomeIndex individual : individuals) {
+            for (Income income : individual.payeBetween(fromDate, LocalDate.MAX)) {
+                total = total.add(income.payment());
+            }
+        }
+        return total;
+    }
+}
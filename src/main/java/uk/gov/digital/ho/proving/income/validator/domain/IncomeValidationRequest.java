@@ -1,7 +1,6 @@
 package uk.gov.digital.ho.proving.income.validator.domain;
 
 import jersey.repackaged.com.google.common.collect.ImmutableList;
-import lombok.AllArgsConstructor;
 import uk.gov.digital.ho.proving.income.api.domain.Applicant;
 import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
 import uk.gov.digital.ho.proving.income.api.domain.Individual;
@@ -11,13 +10,29 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-@AllArgsConstructor
 public class IncomeValidationRequest {
+    private static final SubResult<IncomeValidationRequest> APPLICANT_ONLY = new SubResult<>("applicant only request", IncomeValidationRequest::splitApplicant);
+    private static final SubResult<IncomeValidationRequest> PARTNER_ONLY = new SubResult<>("partner only request", IncomeValidationRequest::splitPartner);
+
     private List<ApplicantIncome> applicantIncomes;
     private LocalDate applicationRaisedDate;
     private Integer dependants;
+    private IncomeIndex incomeIndex;
+    private SubResults subResults;
+
+    public IncomeValidationRequest(List<ApplicantIncome> applicantIncomes, LocalDate applicationRaisedDate, Integer dependants) {
+        this(applicantIncomes, applicationRaisedDate, dependants, IncomeIndex.of(applicantIncomes), new SubResults());
+    }
+
+    private IncomeValidationRequest(List<ApplicantIncome> applicantIncomes, LocalDate applicationRaisedDate, Integer dependants,
+                                    IncomeIndex incomeIndex, SubResults subResults) {
+        this.applicantIncomes = applicantIncomes;
+        this.applicationRaisedDate = applicationRaisedDate;
+        this.dependants = dependants;
+        this.incomeIndex = incomeIndex;
+        this.subResults = subResults;
+    }
 
     public static IncomeValidationRequest create(LocalDate applicationRaisedDate, Map<Individual, IncomeRecord> incomeRecords, Integer dependants) {
         List<ApplicantIncome> applicantIncomes = new ArrayList<>();
@@ -31,10 +46,12 @@ public class IncomeValidationRequest {
     }
 
     public List<CheckedIndividual> getCheckedIndividuals() {
-        return allIncome()
-            .stream()
-            .map(CheckedIndividual::fromApplicantIncome)
-            .collect(Collectors.toList());
+        List<CheckedIndividual> checkedIndividuals = new ArrayList<>(applicantIncomes.size());
+        for (int i = 0; i < applicantIncomes.size(); i++) {
+            String nino = applicantIncomes.get(i).applicant().nino();
+            checkedIndividuals.add(new CheckedIndividual(nino, incomeIndex.individuals().get(i).employerNames()));
+        }
+        return checkedIndividuals;
     }
 
     public LocalDate applicationRaisedDate() {
@@ -53,6 +70,14 @@ public class IncomeValidationRequest {
         return applicantIncomes.size() > 1;
     }
 
+    public IncomeIndex incomeIndex() {
+        return incomeIndex;
+    }
+
+    public SubResults subResults() {
+        return subResults;
+    }
+
     public boolean isJointRequest() {
         return containsPartner();
     }
@@ -77,15 +102,23 @@ public class IncomeValidationRequest {
 
     public IncomeValidationRequest toApplicantOnly() {
         if (containsApplicant()) {
-            return new IncomeValidationRequest(ImmutableList.of(applicantIncome()), applicationRaisedDate, dependants);
+            return APPLICANT_ONLY.of(this);
         }
         throw new IllegalStateException("There are no applicants");
     }
 
     public IncomeValidationRequest toPartnerOnly() {
         if (containsPartner()) {
-            return new IncomeValidationRequest(ImmutableList.of(partnerIncome()), applicationRaisedDate, dependants);
+            return PARTNER_ONLY.of(this);
         }
         throw new IllegalStateException("There is no partner");
     }
+
+    private IncomeValidationRequest splitApplicant() {
+        return new IncomeValidationRequest(ImmutableList.of(applicantIncome()), applicationRaisedDate, dependants, incomeIndex.applicantOnly(), subResults.forSplitRequest());
+    }
+
+    private IncomeValidationRequest splitPartner() {
+        return new IncomeValidationRequest(ImmutableList.of(partnerIncome()), applicationRaisedDate, dependants, incomeIndex.partnerOnly(), subResults.forSplitRequest());
+    }
 }
@@ -0,0 +1,120 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * An individual's payments, newest first, held as whole pence, epoch days and month codes so the validators can add,
+ * compare and window them without allocating.
+ *
+ * An amount that is not a whole number of pence, or is too large to add up safely as pence, cannot be held exactly. If
+ * any amount cannot, {@link #isExact()} is false and the payments must be worked with as {@link BigDecimal}s instead.
+ */
+public final class PrimitivePaye {
+
+    // Some ten million payments of the largest amount still add up within a long.
+    static final long MAX_PENCE = 1_000_000_000_000L;
+
+    private final int[] epochDays;
+    private final int[] months;
+    private final long[] pence;
+    private final boolean exact;
+
+    private PrimitivePaye(int[] epochDays, int[] months, long[] pence, boolean exact) {
+        this.epochDays = epochDays;
+        this.months = months;
+        this.pence = pence;
+        this.exact = exact;
+    }
+
+    static PrimitivePaye of(List<Income> newestFirst) {
+        int size = newestFirst.size();
+        int[] epochDays = new int[size];
+        int[] months = new int[size];
+        long[] pence = new long[size];
+        boolean exact = true;
+        for (int i = 0; i < size; i++) {
+            Income income = newestFirst.get(i);
+            epochDays[i] = (int) income.paymentDate().toEpochDay();
+            months[i] = monthCode(income.paymentDate());
+            if (exact && isExactInPence(income.payment())) {
+                pence[i] = income.payment().movePointRight(2).longValueExact();
+            } else {
+                exact = false;
+            }
+        }
+        return new PrimitivePaye(epochDays, months, pence, exact);
+    }
+
+    /**
+     * A month counted from year 0, so that consecutive calendar months have consecutive codes.
+     */
+    public static int monthCode(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    public static boolean isExactInPence(BigDecimal amount) {
+        BigDecimal inPence = amount.movePointRight(2);
+        return isWithinPenceRange(amount) && (inPence.signum() == 0 || inPence.stripTrailingZeros().scale() <= 0);
+    }
+
+    public static boolean isWithinPenceRange(BigDecimal amount) {
+        return amount.movePointRight(2).abs().compareTo(BigDecimal.valueOf(MAX_PENCE)) <= 0;
+    }
+
+    /**
+     * The fewest whole pence that meet the threshold, so that an amount in pence meets the threshold exactly when it is at
+     * least this. The threshold itself need not be whole pence, but must be {@link #isWithinPenceRange(BigDecimal)}.
+     */
+    public static long thresholdInPence(BigDecimal threshold) {
+        return threshold.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public int size() {
+        return pence.length;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public int month(int index) {
+        return months[index];
+    }
+
+    public long pence(int index) {
+        return pence[index];
+    }
+
+    /**
+     * The index of the newest payment made on or before the day, or {@link #size()} if there is none.
+     */
+    public int firstOnOrBefore(int epochDay) {
+        return firstBefore(epochDay + 1);
+    }
+
+    /**
+     * The index of the newest payment made before the day, or {@link #size()} if there is none.
+     */
+    public int firstBefore(int epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import java.util.function.Function;
+
+/**
+ * A computation over an {@link IncomeValidationRequest} that more than one validator needs, such as the employment
+ * check or the applicant's pay frequency. Validators ask for it through {@link #of(IncomeValidationRequest)} and it is
+ * worked out once per request however many of them do. A sub-result is identified by its instance, so declare each one
+ * once, as a constant or a field of the singleton that computes it.
+ *
+ * A computation may ask for other sub-results, but never, directly or not, for itself.
+ */
+public final class SubResult<T> {
+
+    private final String name;
+    private final Function<IncomeValidationRequest, T> computation;
+
+    public SubResult(String name, Function<IncomeValidationRequest, T> computation) {
+        this.name = name;
+        this.computation = computation;
+    }
+
+    public T of(IncomeValidationRequest incomeValidationRequest) {
+        return incomeValidationRequest.subResults().get(this, incomeValidationRequest);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    T compute(IncomeValidationRequest incomeValidationRequest) {
+        return computation.apply(incomeValidationRequest);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
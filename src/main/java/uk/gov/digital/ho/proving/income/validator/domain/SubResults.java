@@ -0,0 +1,107 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link SubResult}s worked out so far for one request. The first validator to ask for a sub-result computes it and
+ * any validator asking at the same time, on another thread, waits for that rather than computing it again. Exceptions
+ * are shared the same way.
+ *
+ * The applicant only and partner only requests split from a request keep sub-results of their own, since they hold
+ * different income, but count into the same totals so the whole request's savings can be reported together.
+ */
+public final class SubResults {
+
+    private final ConcurrentMap<SubResult<?>, CompletableFuture<Object>> results = new ConcurrentHashMap<>();
+    private final Counts counts;
+
+    SubResults() {
+        this(new Counts());
+    }
+
+    private SubResults(Counts counts) {
+        this.counts = counts;
+    }
+
+    SubResults forSplitRequest() {
+        return new SubResults(counts);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(SubResult<T> subResult, IncomeValidationRequest incomeValidationRequest) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.putIfAbsent(subResult, result);
+        if (existing != null) {
+            counts.reused(subResult);
+            return (T) await(subResult, existing);
+        }
+
+        counts.computed(subResult);
+        try {
+            T value = subResult.compute(incomeValidationRequest);
+            result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * How many times each sub-result was computed, across this request and those split from it.
+     */
+    public Map<String, Integer> computed() {
+        return counts.snapshot(counts.computed);
+    }
+
+    /**
+     * How many times each sub-result was asked for again and the earlier result used instead of computing it.
+     */
+    public Map<String, Integer> reused() {
+        return counts.snapshot(counts.reused);
+    }
+
+    private static Object await(SubResult<?> subResult, CompletableFuture<Object> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the " + subResult + " sub-result", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("The " + subResult + " sub-result failed", cause);
+        }
+    }
+
+    private static final class Counts {
+
+        private final ConcurrentMap<String, AtomicInteger> computed = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicInteger> reused = new ConcurrentHashMap<>();
+
+        private void computed(SubResult<?> subResult) {
+            computed.computeIfAbsent(subResult.name(), name -> new AtomicInteger()).incrementAndGet();
+        }
+
+        private void reused(SubResult<?> subResult) {
+            reused.computeIfAbsent(subResult.name(), name -> new AtomicInteger()).incrementAndGet();
+        }
+
+        private Map<String, Integer> snapshot(ConcurrentMap<String, AtomicInteger> counts) {
+            Map<String, Integer> snapshot = new TreeMap<>();
+            counts.forEach((name, count) -> snapshot.put(name, count.get()));
+            return snapshot;
+        }
+    }
+}
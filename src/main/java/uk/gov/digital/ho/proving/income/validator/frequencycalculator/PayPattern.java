@@ -0,0 +1,49 @@
+package uk.gov.digital.ho.proving.income.validator.frequencycalculator;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDate;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+
+/**
+ * How an individual is paid, as worked out by {@link PayPatternProfiler}.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@Accessors(fluent = true)
+@EqualsAndHashCode
+@ToString
+public final class PayPattern {
+
+    private final Frequency frequency;
+
+    /**
+     * Every payment, duplicates included.
+     */
+    private final int payments;
+
+    private final LocalDate firstPaymentDate;
+    private final LocalDate lastPaymentDate;
+
+    /**
+     * The gap between each distinct week number and the next, or 0 if the gaps vary or there are fewer than two.
+     */
+    private final int weekNumberGap;
+
+    private final int largestWeekNumberGap;
+
+    /**
+     * How many times, taking the payments in date order, a payment came from a different employer to the one before.
+     */
+    private final int employerChanges;
+
+    public long daysSpanned() {
+        return payments == 0 ? 0 : DAYS.between(firstPaymentDate, lastPaymentDate);
+    }
+}
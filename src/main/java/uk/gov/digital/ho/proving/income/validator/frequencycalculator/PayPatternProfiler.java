@@ -0,0 +1,111 @@
+package uk.gov.digital.ho.proving.income.validator.frequencycalculator;
+
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
+import uk.gov.digital.ho.proving.income.validator.domain.SubResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Works out an individual's {@link PayPattern} in one pass over their payments, noting how each is numbered and when
+ * the employer changes. The week numbers and the first and last payment dates come from the {@link ApplicantIncomeIndex},
+ * which already holds them sorted.
+ *
+ * The frequency is decided as {@link FrequencyCalculator} always has: payments numbered in more than one way mean the
+ * frequency changed, month numbers mean calendar monthly, and evenly spaced week numbers mean weekly, fortnightly or
+ * four weekly. Anything else is judged on the average number of days between payments.
+ */
+public final class PayPatternProfiler {
+
+    public static final SubResult<PayPattern> APPLICANT_PAY_PATTERN =
+        new SubResult<>("applicant pay pattern", request -> profile(request.incomeIndex().applicant()));
+
+    private static final int MONTH_NUMBERED = 1;
+    private static final int WEEK_NUMBERED = 2;
+    private static final int NOT_NUMBERED = 4;
+
+    private PayPatternProfiler() {
+    }
+
+    public static PayPattern profile(ApplicantIncomeIndex incomeIndex) {
+        List<Income> newestFirst = incomeIndex.payeNewestFirst();
+
+        int numbering = 0;
+        int employerChanges = 0;
+        for (int i = 0; i < newestFirst.size(); i++) {
+            Income income = newestFirst.get(i);
+            numbering |= numbering(income);
+            if (i > 0 && !Objects.equals(income.employerPayeReference(), newestFirst.get(i - 1).employerPayeReference())) {
+                employerChanges++;
+            }
+        }
+
+        int[] weekNumberGaps = weekNumberGaps(incomeIndex.weekPayNumbers());
+        int weekNumberGap = weekNumberGaps[0];
+        int largestWeekNumberGap = weekNumberGaps[1];
+
+        LocalDate firstPaymentDate = incomeIndex.firstPaymentDate();
+        LocalDate lastPaymentDate = incomeIndex.lastPaymentDate();
+        Frequency frequency = frequency(numbering, incomeIndex.weekPayNumbers().size(), weekNumberGap, newestFirst.size(), firstPaymentDate, lastPaymentDate);
+
+        return new PayPattern(frequency, newestFirst.size(), firstPaymentDate, lastPaymentDate, weekNumberGap, largestWeekNumberGap, employerChanges);
+    }
+
+    private static int numbering(Income income) {
+        if (income.monthPayNumber() != null) {
+            return MONTH_NUMBERED;
+        }
+        return income.weekPayNumber() != null ? WEEK_NUMBERED : NOT_NUMBERED;
+    }
+
+    /*
+     * The gap every week number has to the next, or 0 if they vary, and the largest gap.
+     */
+    private static int[] weekNumberGaps(List<Integer> weekNumbers) {
+        int commonGap = 0;
+        int largestGap = 0;
+        boolean even = true;
+        for (int i = 1; i < weekNumbers.size(); i++) {
+            int gap = weekNumbers.get(i) - weekNumbers.get(i - 1);
+            if (i == 1) {
+                commonGap = gap;
+            } else if (gap != commonGap) {
+                even = false;
+            }
+            largestGap = Math.max(largestGap, gap);
+        }
+        return new int[] {even ? commonGap : 0, largestGap};
+    }
+
+    private static Frequency frequency(int numbering, int distinctWeekNumbers, int weekNumberGap, int payments,
+                                       LocalDate firstPaymentDate, LocalDate lastPaymentDate) {
+        if (Integer.bitCount(numbering) > 1) {
+            return Frequency.CHANGED;
+        }
+        if (numbering == 0 || numbering == MONTH_NUMBERED) {
+            return Frequency.CALENDAR_MONTHLY;
+        }
+        if (numbering == WEEK_NUMBERED) {
+            Frequency frequency = distinctWeekNumbers < 2 ? Frequency.WEEKLY : byWeekNumberGap(weekNumberGap);
+            if (frequency != Frequency.UNKNOWN) {
+                return frequency;
+            }
+        }
+        return FrequencyCalculator.calculateByPaymentDates(payments, firstPaymentDate, lastPaymentDate);
+    }
+
+    private static Frequency byWeekNumberGap(int weekNumberGap) {
+        switch (weekNumberGap) {
+            case 1:
+                return Frequency.WEEKLY;
+            case 2:
+                return Frequency.FORTNIGHTLY;
+            case 4:
+                return Frequency.FOUR_WEEKLY;
+            default:
+                return Frequency.UNKNOWN;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.test.util.ReflectionTestUtils
 import org.springframework.web.servlet.DispatcherServlet
 import uk.gov.digital.ho.proving.income.ServiceRunner
 import uk.gov.digital.ho.proving.income.api.IncomeThresholdCalculator
+import uk.gov.digital.ho.proving.income.api.ThresholdSchedule
 import uk.gov.digital.ho.proving.income.audit.AuditClient
 import uk.gov.digital.ho.proving.income.hmrc.HmrcClient
 import uk.gov.digital.ho.proving.income.hmrc.domain.*
@@ -406,17 +407,24 @@ class ProvingThingsApiSteps implements ApplicationContextAware {
 
     @Given("^The yearly threshold is configured to (.*?):\$")
     void setYearlyThreshold(int threshold) {
-        ReflectionTestUtils.setField(incomeThresholdCalculator, "baseThreshold", BigDecimal.valueOf(threshold))
+        ThresholdSchedule current = incomeThresholdCalculator.scheduleOn(null)
+        reloadUndatedSchedule(BigDecimal.valueOf(threshold), current.oneDependantThreshold(), current.remainingDependantsIncrement())
     }
 
     @Given("^The single dependant yearly threshold is configured to (.*?):\$")
     void setSingleDepedantThreshold(int threshold) {
-        ReflectionTestUtils.setField(incomeThresholdCalculator, "oneDependantThreshold", BigDecimal.valueOf(threshold))
+        ThresholdSchedule current = incomeThresholdCalculator.scheduleOn(null)
+        reloadUndatedSchedule(current.baseThreshold(), BigDecimal.valueOf(threshold), current.remainingDependantsIncrement())
     }
 
     @Given("^The remaining dependants increment is configured to (.*?):\$")
     void setRemainingDependantIncrement(int increment) {
-        ReflectionTestUtils.setField(incomeThresholdCalculator, "remainingDependantsIncrement", BigDecimal.valueOf(increment))
+        ThresholdSchedule current = incomeThresholdCalculator.scheduleOn(null)
+        reloadUndatedSchedule(current.baseThreshold(), current.oneDependantThreshold(), BigDecimal.valueOf(increment))
+    }
+
+    private void reloadUndatedSchedule(BigDecimal baseThreshold, BigDecimal oneDependantThreshold, BigDecimal remainingDependantsIncrement) {
+        incomeThresholdCalculator.reload([new ThresholdSchedule(null, baseThreshold, oneDependantThreshold, remainingDependantsIncrement)])
     }
 
 }
@@ -41,7 +41,7 @@ class FinancialServiceSpec extends Specification {
     def mockIncomeValidationService = Mock(IncomeValidationService)
     def requestDataStub = Stub(RequestData)
 
-    def financialStatusServiceHelper = new FinancialStatusService(mockIncomeRecordService, mockIncomeValidationService)
+    def financialStatusServiceHelper = new FinancialStatusService(mockIncomeRecordService, Optional.empty(), mockIncomeValidationService, requestDataStub, null, false)
     def financialStatusController = new FinancialStatusResource(financialStatusServiceHelper, mockAuditClient, mockNinoUtils, requestDataStub)
 
     MockMvc mockMvc = standaloneSetup(financialStatusController).setControllerAdvice(new ResourceExceptionHandler(mockAuditClient, mockNinoUtils)).build()
@@ -0,0 +1,202 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusRequest;
+import uk.gov.digital.ho.proving.income.api.domain.ResponseStatus;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.FinancialStatusUnavailableException;
+import uk.gov.digital.ho.proving.income.application.ResourceExceptionHandler;
+import uk.gov.digital.ho.proving.income.audit.AuditClient;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FinancialStatusAsyncResourceTest {
+
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    @Mock
+    private FinancialStatusResource mockFinancialStatusResource;
+    @Mock
+    private RequestData mockRequestData;
+    @Mock
+    private AsyncTaskExecutor mockExecutor;
+    @Mock
+    private Future<Object> mockFuture;
+    @Mock
+    private AuditClient mockAuditClient;
+    @Mock
+    private NinoUtils mockNinoUtils;
+
+    @Test
+    public void getFinancialStatus_checkSucceeds_resultIsResponse() {
+        FinancialStatusCheckResponse response = new FinancialStatusCheckResponse(new ResponseStatus("100", "OK"), emptyList(), emptyList());
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willReturn(response);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+
+        DeferredResult<FinancialStatusCheckResponse> result = resource(synchronousExecutor()).getFinancialStatus(anyRequest(), servletRequest);
+
+        assertThat(result.getResult()).isSameAs(response);
+        then(mockRequestData).should().saveAsyncResultContext(eq(servletRequest), any());
+    }
+
+    @Test
+    public void getFinancialStatus_checkFails_resultIsException() {
+        EarningsServiceNoUniqueMatchException noMatch = new EarningsServiceNoUniqueMatchException("some nino");
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willThrow(noMatch);
+
+        DeferredResult<FinancialStatusCheckResponse> result = resource(synchronousExecutor()).getFinancialStatus(anyRequest(), new MockHttpServletRequest());
+
+        assertThat(result.getResult()).isSameAs(noMatch);
+    }
+
+    @Test
+    public void getFinancialStatus_poolFull_unavailable() {
+        given(mockExecutor.submit(any(Runnable.class))).willThrow(new TaskRejectedException("full"));
+        FinancialStatusAsyncResource resource = resource(mockExecutor);
+
+        assertThatThrownBy(() -> resource.getFinancialStatus(anyRequest(), new MockHttpServletRequest()))
+            .isInstanceOf(FinancialStatusUnavailableException.class);
+        assertThat(metric(resource, "financialstatus.async.rejected")).isEqualTo(1L);
+    }
+
+    @Test
+    public void getFinancialStatus_nonBlockingClient_resultIsResponse() {
+        FinancialStatusCheckResponse response = new FinancialStatusCheckResponse(new ResponseStatus("100", "OK"), emptyList(), emptyList());
+        given(mockFinancialStatusResource.canCheckWithoutBlocking()).willReturn(true);
+        given(mockFinancialStatusResource.getFinancialStatusWithoutBlocking(any(FinancialStatusRequest.class), any(Executor.class))).willReturn(completedFuture(response));
+
+        DeferredResult<FinancialStatusCheckResponse> result = resource(mockExecutor).getFinancialStatus(anyRequest(), new MockHttpServletRequest());
+
+        assertThat(result.getResult()).isSameAs(response);
+        then(mockExecutor).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void getFinancialStatus_nonBlockingClientPoolFull_unavailable() {
+        given(mockFinancialStatusResource.canCheckWithoutBlocking()).willReturn(true);
+        willThrow(new TaskRejectedException("full")).given(mockExecutor).execute(any(Runnable.class));
+        given(mockFinancialStatusResource.getFinancialStatusWithoutBlocking(any(FinancialStatusRequest.class), any(Executor.class))).willAnswer(invocation -> {
+            invocation.<Executor>getArgument(1).execute(() -> { });
+            return new CompletableFuture<>();
+        });
+        FinancialStatusAsyncResource resource = resource(mockExecutor);
+
+        DeferredResult<FinancialStatusCheckResponse> result = resource.getFinancialStatus(anyRequest(), new MockHttpServletRequest());
+
+        assertThat(result.getResult()).isInstanceOf(FinancialStatusUnavailableException.class);
+        assertThat(metric(resource, "financialstatus.async.rejected")).isEqualTo(1L);
+    }
+
+    @Test
+    public void getFinancialStatus_timesOut_cancelledAndMappedToServiceUnavailable() throws Exception {
+        given(mockExecutor.submit(any(Runnable.class))).willAnswer(invocation -> mockFuture);
+        FinancialStatusAsyncResource resource = resource(mockExecutor);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(resource)
+                                         .setControllerAdvice(new ResourceExceptionHandler(mockAuditClient, mockNinoUtils))
+                                         .build();
+
+        MvcResult mvcResult = mockMvc.perform(post("/incomeproving/v3/individual/financialstatus/async")
+                                                  .contentType(APPLICATION_JSON)
+                                                  .content("{\"individuals\":[],\"applicationRaisedDate\":\"2018-01-01\",\"dependants\":0}"))
+                                     .andExpect(request().asyncStarted())
+                                     .andReturn();
+        assertThat(metric(resource, "financialstatus.async.suspended")).isEqualTo(1);
+        assertThat(metric(resource, "financialstatus.async.threads.saved")).isEqualTo(1);
+
+        MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+               .andExpect(status().isServiceUnavailable())
+               .andExpect(jsonPath("$.status.code").value("0006"));
+        then(mockFuture).should().cancel(true);
+        assertThat(metric(resource, "financialstatus.async.timeouts")).isEqualTo(1L);
+    }
+
+    @Test
+    public void metrics_blockingCheckHoldingPoolThread_noThreadSaved() throws Exception {
+        CountDownLatch checking = new CountDownLatch(1);
+        CountDownLatch hmrcAnswered = new CountDownLatch(1);
+        FinancialStatusCheckResponse response = new FinancialStatusCheckResponse(new ResponseStatus("100", "OK"), emptyList(), emptyList());
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willAnswer(invocation -> {
+            checking.countDown();
+            hmrcAnswered.await();
+            return response;
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        FinancialStatusAsyncResource resource = resource(new ConcurrentTaskExecutor(pool));
+
+        try {
+            resource.getFinancialStatus(anyRequest(), new MockHttpServletRequest());
+            assertThat(checking.await(2, SECONDS)).isTrue();
+
+            assertThat(metric(resource, "financialstatus.async.suspended")).isEqualTo(1);
+            assertThat(metric(resource, "financialstatus.async.threads.saved")).isEqualTo(0);
+        } finally {
+            hmrcAnswered.countDown();
+            pool.shutdown();
+        }
+    }
+
+    private FinancialStatusAsyncResource resource(AsyncTaskExecutor executor) {
+        return new FinancialStatusAsyncResource(mockFinancialStatusResource, mockRequestData, executor, TIMEOUT_MILLIS);
+    }
+
+    private static AsyncTaskExecutor synchronousExecutor() {
+        return new ConcurrentTaskExecutor(Runnable::run);
+    }
+
+    private static FinancialStatusRequest anyRequest() {
+        return new FinancialStatusRequest(emptyList(), LocalDate.of(2018, 1, 1), 0);
+    }
+
+    private static Object metric(FinancialStatusAsyncResource resource, String name) {
+        return resource.metrics().stream()
+                       .filter(metric -> metric.getName().equals(name))
+                       .map(Metric::getValue)
+                       .findFirst()
+                       .orElseThrow(AssertionError::new);
+    }
+}
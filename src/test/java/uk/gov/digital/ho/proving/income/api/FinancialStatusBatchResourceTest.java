@@ -0,0 +1,136 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.gov.digital.ho.proving.income.api.domain.BaseResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
+import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusRequest;
+import uk.gov.digital.ho.proving.income.api.domain.ResponseStatus;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.ResourceExceptionHandler;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FinancialStatusBatchResourceTest {
+
+    private static final int MAX_ITEMS = 10;
+
+    @Mock
+    private FinancialStatusResource mockFinancialStatusResource;
+    @Mock
+    private ResourceExceptionHandler mockResourceExceptionHandler;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void getFinancialStatuses_eachItemWrittenAsJsonLineWithItsIndex() throws IOException {
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willReturn(successResponse());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        resource(Runnable::run, 4).getFinancialStatuses(requests(3), response);
+
+        assertThat(response.getContentType()).isEqualTo(FinancialStatusBatchResource.NDJSON_CONTENT_TYPE);
+        List<JsonNode> lines = lines(response);
+        assertThat(lines.stream().map(line -> line.get("index").asInt()).collect(toList())).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(lines).allSatisfy(line -> assertThat(line.at("/response/status/code").asText()).isEqualTo("100"));
+    }
+
+    @Test
+    public void getFinancialStatuses_itemFails_onlyThatItemGetsErrorResponse() throws IOException {
+        List<FinancialStatusRequest> requests = requests(3);
+        EarningsServiceNoUniqueMatchException noMatch = new EarningsServiceNoUniqueMatchException("some nino");
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willReturn(successResponse());
+        given(mockFinancialStatusResource.getFinancialStatus(requests.get(1))).willThrow(noMatch);
+        given(mockResourceExceptionHandler.errorResponse(noMatch)).willReturn(new BaseResponse(new ResponseStatus("0009", "Resource not found")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        resource(Runnable::run, 4).getFinancialStatuses(requests, response);
+
+        List<JsonNode> lines = lines(response);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.stream().filter(line -> line.get("index").asInt() == 1).findFirst().get().at("/response/status/code").asText()).isEqualTo("0009");
+        then(mockResourceExceptionHandler).should().errorResponse(eq(noMatch));
+    }
+
+    @Test
+    public void getFinancialStatuses_neverMoreThanConcurrencyItemsInFlight() throws IOException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        given(mockFinancialStatusResource.getFinancialStatus(any(FinancialStatusRequest.class))).willAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return successResponse();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            resource(executor, 2).getFinancialStatuses(requests(MAX_ITEMS), response);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lines(response)).hasSize(MAX_ITEMS);
+        assertThat(maxInFlight.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void getFinancialStatuses_emptyBatch_illegalArgument() {
+        assertThatThrownBy(() -> resource(Runnable::run, 4).getFinancialStatuses(emptyList(), new MockHttpServletResponse()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getFinancialStatuses_tooManyItems_illegalArgument() {
+        assertThatThrownBy(() -> resource(Runnable::run, 4).getFinancialStatuses(requests(MAX_ITEMS + 1), new MockHttpServletResponse()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(String.valueOf(MAX_ITEMS));
+    }
+
+    private FinancialStatusBatchResource resource(Executor executor, int concurrency) {
+        return new FinancialStatusBatchResource(mockFinancialStatusResource, mockResourceExceptionHandler, mapper, executor, concurrency, MAX_ITEMS);
+    }
+
+    private static List<FinancialStatusRequest> requests(int count) {
+        List<FinancialStatusRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new FinancialStatusRequest(emptyList(), LocalDate.of(2018, 1, 1).plusDays(i), 0));
+        }
+        return requests;
+    }
+
+    private static FinancialStatusCheckResponse successResponse() {
+        return new FinancialStatusCheckResponse(new ResponseStatus("100", "OK"), emptyList(), emptyList());
+    }
+
+    private List<JsonNode> lines(MockHttpServletResponse response) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        return lines;
+    }
+}
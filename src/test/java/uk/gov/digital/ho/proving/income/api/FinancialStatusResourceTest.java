@@ -25,6 +25,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static ch.qos.logback.classic.Level.INFO;
 import static java.util.Collections.singletonList;
@@ -194,6 +195,19 @@ public class FinancialStatusResourceTest {
         then(mockNinoUtils).should(never()).validate(anyString());
     }
 
+    @Test
+    public void getFinancialStatusWithoutBlocking_auditsRequestAndResponseAroundLookup() {
+        stubNinoUtils();
+        stubResponseCalculation();
+        given(mockHelper.getIncomeRecordsWithoutBlocking(any(), any(), any())).willReturn(CompletableFuture.completedFuture(getIncomeRecords()));
+
+        FinancialStatusCheckResponse response = service.getFinancialStatusWithoutBlocking(new FinancialStatusRequest(applicants, LocalDate.of(2019, 01, 01), 0), Runnable::run).join();
+
+        assertThat(response.categoryChecks()).hasSize(1);
+        then(mockHelper).should(never()).getIncomeRecords(any(), any(), any());
+        then(mockAuditClient).should(times(2)).add(any(), any(), any());
+    }
+
     private void stubResponseCalculation() {
         when(mockHelper.calculateResponse(any(), any(), any())).thenReturn(getResponse());
     }
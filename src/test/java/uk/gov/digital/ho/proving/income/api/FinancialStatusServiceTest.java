@@ -1,15 +1,24 @@
 package uk.gov.digital.ho.proving.income.api;
 
 import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpServerErrorException;
+import uk.gov.digital.ho.proving.income.api.domain.Applicant;
 import uk.gov.digital.ho.proving.income.api.domain.CategoryCheck;
 import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
 import uk.gov.digital.ho.proving.income.api.domain.FinancialStatusCheckResponse;
 import uk.gov.digital.ho.proving.income.api.domain.Individual;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.MdcTaskDecorator;
+import uk.gov.digital.ho.proving.income.hmrc.HmrcAsyncClient;
 import uk.gov.digital.ho.proving.income.hmrc.HmrcClient;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
@@ -20,23 +29,164 @@ import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.digital.ho.proving.income.api.RequestData.CORRELATION_ID_HEADER;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FinancialStatusServiceTest {
 
-    @InjectMocks
+    private static final LocalDate SOME_FROM_DATE = LocalDate.of(2018, 1, 1);
+    private static final LocalDate SOME_TO_DATE = LocalDate.of(2019, 1, 1);
+
     private FinancialStatusService financialStatusService;
+    private FinancialStatusService concurrentFinancialStatusService;
+    private FinancialStatusService nonBlockingFinancialStatusService;
+    private ThreadPoolTaskExecutor hmrcLookupExecutor;
 
     @Mock
     private HmrcClient mockHmrcClient;
 
+    @Mock
+    private HmrcAsyncClient mockHmrcAsyncClient;
+
     @Mock
     private IncomeValidationService mockIncomeValidationService;
 
+    @Mock
+    private RequestData mockRequestData;
+
+    @Before
+    public void setUp() {
+        hmrcLookupExecutor = new ThreadPoolTaskExecutor();
+        hmrcLookupExecutor.setCorePoolSize(2);
+        hmrcLookupExecutor.setTaskDecorator(new MdcTaskDecorator());
+        hmrcLookupExecutor.initialize();
+
+        financialStatusService = new FinancialStatusService(mockHmrcClient, Optional.empty(), mockIncomeValidationService, mockRequestData, hmrcLookupExecutor, false);
+        concurrentFinancialStatusService = new FinancialStatusService(mockHmrcClient, Optional.empty(), mockIncomeValidationService, mockRequestData, hmrcLookupExecutor, true);
+        nonBlockingFinancialStatusService = new FinancialStatusService(mockHmrcClient, Optional.of(mockHmrcAsyncClient), mockIncomeValidationService, mockRequestData, hmrcLookupExecutor, false);
+    }
+
+    @After
+    public void tearDown() {
+        hmrcLookupExecutor.shutdown();
+        MDC.clear();
+    }
+
+    @Test
+    public void getIncomeRecords_concurrent_returnsIndividualsInApplicantOrder() {
+        when(mockHmrcClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(getApplicantIncomeRecord());
+        when(mockHmrcClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenReturn(getPartnerIncomeRecord());
+
+        Map<Individual, IncomeRecord> incomeRecords = concurrentFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        List<Individual> individuals = new ArrayList<>(incomeRecords.keySet());
+        assertThat(individuals).extracting(Individual::nino).containsExactly("A", "B");
+        assertThat(incomeRecords.get(individuals.get(0))).isEqualTo(getApplicantIncomeRecord());
+        assertThat(incomeRecords.get(individuals.get(1))).isEqualTo(getPartnerIncomeRecord());
+    }
+
+    @Test
+    public void getIncomeRecords_concurrent_lookupsOverlap() {
+        CountDownLatch bothLookupsStarted = new CountDownLatch(2);
+        when(mockHmrcClient.getIncomeRecord(any(), any(), any())).thenAnswer(invocation -> {
+            bothLookupsStarted.countDown();
+            assertThat(bothLookupsStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return getApplicantIncomeRecord();
+        });
+
+        concurrentFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(bothLookupsStarted.getCount()).isZero();
+    }
+
+    @Test
+    public void getIncomeRecords_concurrent_notFoundForPartner_sameExceptionAsSequential() {
+        when(mockHmrcClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(getApplicantIncomeRecord());
+        when(mockHmrcClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenThrow(new EarningsServiceNoUniqueMatchException("B"));
+
+        assertThatThrownBy(() -> concurrentFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE))
+            .isInstanceOf(EarningsServiceNoUniqueMatchException.class);
+    }
+
+    @Test
+    public void getIncomeRecords_concurrent_serverErrorForApplicant_sameExceptionAsSequential() {
+        HttpServerErrorException serverError = new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        when(mockHmrcClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenThrow(serverError);
+
+        assertThatThrownBy(() -> concurrentFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE))
+            .isSameAs(serverError);
+    }
+
+    @Test
+    public void getIncomeRecords_concurrent_propagatesMdcToLookupThreads() {
+        MDC.put(CORRELATION_ID_HEADER, "some correlation id");
+        List<String> correlationIdsSeen = Collections.synchronizedList(new ArrayList<>());
+        when(mockHmrcClient.getIncomeRecord(any(), any(), any())).thenAnswer(invocation -> {
+            correlationIdsSeen.add(MDC.get(CORRELATION_ID_HEADER));
+            return getApplicantIncomeRecord();
+        });
+
+        concurrentFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(correlationIdsSeen).containsExactly("some correlation id", "some correlation id");
+    }
+
+    @Test
+    public void getIncomeRecords_nonBlockingClient_usedInsteadOfLookupThreads() {
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(completedFuture(getApplicantIncomeRecord()));
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenReturn(completedFuture(getPartnerIncomeRecord()));
+
+        Map<Individual, IncomeRecord> incomeRecords = nonBlockingFinancialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(incomeRecords.keySet()).extracting(Individual::nino).containsExactly("A", "B");
+        verifyZeroInteractions(mockHmrcClient);
+    }
+
+    @Test
+    public void getIncomeRecordsWithoutBlocking_partnerAnswersFirst_returnsIndividualsInApplicantOrder() {
+        CompletableFuture<IncomeRecord> applicantLookup = new CompletableFuture<>();
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(applicantLookup);
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenReturn(completedFuture(getPartnerIncomeRecord()));
+
+        CompletableFuture<Map<Individual, IncomeRecord>> incomeRecords = nonBlockingFinancialStatusService.getIncomeRecordsWithoutBlocking(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+        assertThat(incomeRecords).isNotDone();
+        applicantLookup.complete(getApplicantIncomeRecord());
+
+        assertThat(incomeRecords.join().keySet()).extracting(Individual::nino).containsExactly("A", "B");
+    }
+
+    @Test
+    public void getIncomeRecordsWithoutBlocking_notFoundForPartner_sameExceptionAsSequential() {
+        CompletableFuture<IncomeRecord> partnerLookup = new CompletableFuture<>();
+        partnerLookup.completeExceptionally(new EarningsServiceNoUniqueMatchException("B"));
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(completedFuture(getApplicantIncomeRecord()));
+        when(mockHmrcAsyncClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenReturn(partnerLookup);
+
+        CompletableFuture<Map<Individual, IncomeRecord>> incomeRecords = nonBlockingFinancialStatusService.getIncomeRecordsWithoutBlocking(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThatThrownBy(incomeRecords::join).hasCauseInstanceOf(EarningsServiceNoUniqueMatchException.class);
+    }
+
+    @Test
+    public void getIncomeRecords_sequential_returnsIndividualsInApplicantOrder() {
+        when(mockHmrcClient.getIncomeRecord(eq(getApplicantIdentity()), any(), any())).thenReturn(getApplicantIncomeRecord());
+        when(mockHmrcClient.getIncomeRecord(eq(getPartnerIdentity()), any(), any())).thenReturn(getPartnerIncomeRecord());
+
+        Map<Individual, IncomeRecord> incomeRecords = financialStatusService.getIncomeRecords(getApplicants(), SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(incomeRecords.keySet()).extracting(Individual::nino).containsExactly("A", "B");
+    }
 
     @Test
     public void shouldReturnCorrectIndividualNamesIfIndividualNotReturnedFromHmrc() {
@@ -86,6 +236,14 @@ public class FinancialStatusServiceTest {
         return new IncomeRecord(ImmutableList.of(income), new ArrayList<>(), new ArrayList(), null);
     }
 
+    private List<Applicant> getApplicants() {
+        Identity applicant = getApplicantIdentity();
+        Identity partner = getPartnerIdentity();
+        return Arrays.asList(
+            new Applicant(applicant.firstname(), applicant.lastname(), applicant.dateOfBirth(), applicant.nino()),
+            new Applicant(partner.firstname(), partner.lastname(), partner.dateOfBirth(), partner.nino()));
+    }
+
     private Individual getPartnerIndividual() {
         return new Individual("partner", "surname", "B");
     }
@@ -4,7 +4,11 @@ import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 public class IncomeThresholdCalculatorTest {
@@ -18,6 +22,10 @@ public class IncomeThresholdCalculatorTest {
     private static final BigDecimal EXPECTED_YEARLY_TWO_DEPENDANTS = BigDecimal.valueOf(24_800);
     private static final BigDecimal EXPECTED_YEARLY_FIVE_DEPENDANTS = BigDecimal.valueOf(32_000);
 
+    private static final LocalDate SOME_EFFECTIVE_DATE = LocalDate.of(2019, 4, 6);
+    private static final ThresholdSchedule SOME_DATED_SCHEDULE =
+        new ThresholdSchedule(SOME_EFFECTIVE_DATE, BigDecimal.valueOf(20_000), BigDecimal.valueOf(24_000), BigDecimal.valueOf(3_000));
+
     private final IncomeThresholdCalculator incomeThresholdCalculator =
         new IncomeThresholdCalculator(SOME_BASE_THRESHOLD, SOME_ONE_DEPENDANT_THRESHOLD, SOME_REMAINING_DEPENDANT_INCREMENT);
 
@@ -92,4 +100,51 @@ public class IncomeThresholdCalculatorTest {
         assertThat(incomeThresholdCalculator.weeklyThreshold(5)).isEqualTo(someWeeklyDependantThreshold);
     }
 
+    @Test
+    public void yearlyThreshold_noDatedSchedules_configuredThreshold() {
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE, 2)).isEqualTo(EXPECTED_YEARLY_TWO_DEPENDANTS);
+    }
+
+    @Test
+    public void monthlyThreshold_beforeDatedSchedule_configuredThreshold() {
+        incomeThresholdCalculator.reload(singletonList(SOME_DATED_SCHEDULE));
+
+        assertThat(incomeThresholdCalculator.monthlyThreshold(SOME_EFFECTIVE_DATE.minusDays(1), 0))
+            .isEqualTo(EXPECTED_YEARLY_ZERO_DEPENDANTS.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void weeklyThreshold_fromDatedSchedule_datedThreshold() {
+        incomeThresholdCalculator.reload(singletonList(SOME_DATED_SCHEDULE));
+
+        assertThat(incomeThresholdCalculator.weeklyThreshold(SOME_EFFECTIVE_DATE, 1)).isEqualTo(SOME_DATED_SCHEDULE.weeklyThreshold(1));
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE.plusYears(1), 1)).isEqualTo(BigDecimal.valueOf(24_000));
+    }
+
+    @Test
+    public void scheduleOn_severalDatedSchedules_latestInEffect() {
+        ThresholdSchedule laterSchedule = new ThresholdSchedule(SOME_EFFECTIVE_DATE.plusYears(1), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+        incomeThresholdCalculator.reload(asList(laterSchedule, SOME_DATED_SCHEDULE));
+
+        assertThat(incomeThresholdCalculator.scheduleOn(SOME_EFFECTIVE_DATE.plusMonths(6))).isEqualTo(SOME_DATED_SCHEDULE);
+        assertThat(incomeThresholdCalculator.scheduleOn(SOME_EFFECTIVE_DATE.plusYears(1))).isEqualTo(laterSchedule);
+        assertThat(incomeThresholdCalculator.scheduleOn(null).effectiveFrom()).isNull();
+    }
+
+    @Test
+    public void reload_undatedSchedule_replacesConfiguredThresholds() {
+        incomeThresholdCalculator.reload(singletonList(new ThresholdSchedule(null, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE)));
+
+        assertThat(incomeThresholdCalculator.yearlyThreshold(0)).isEqualTo(BigDecimal.ONE);
+        assertThat(incomeThresholdCalculator.schedules().size()).isEqualTo(1);
+    }
+
+    @Test
+    public void reload_twoSchedulesFromSameDate_rejectedAndPreviousKept() {
+        ThresholdSchedule sameDate = new ThresholdSchedule(SOME_EFFECTIVE_DATE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+
+        assertThatThrownBy(() -> incomeThresholdCalculator.reload(asList(SOME_DATED_SCHEDULE, sameDate)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE, 0)).isEqualTo(EXPECTED_YEARLY_ZERO_DEPENDANTS);
+    }
 }
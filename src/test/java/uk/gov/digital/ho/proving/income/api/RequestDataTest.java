@@ -12,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.HttpClientErrorException;
@@ -60,6 +61,36 @@ public class RequestDataTest {
         assertThat(MDC.get(CORRELATION_ID_HEADER)).isEqualTo("unknown");
     }
 
+    @Test
+    public void bypassCache_headerTrue_true() {
+        when(mockRequest.getHeader(BYPASS_CACHE_HEADER)).thenReturn("true");
+
+        requestData.preHandle(mockRequest, mockResponse, null);
+
+        assertThat(requestData.bypassCache()).isTrue();
+    }
+
+    @Test
+    public void bypassCache_noHeader_false() {
+        requestData.preHandle(mockRequest, mockResponse, null);
+
+        assertThat(requestData.bypassCache()).isFalse();
+    }
+
+    @Test
+    public void preHandle_asyncResultDispatch_restoresContextFromWhenResultWasSet() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MDC.put(CORRELATION_ID_HEADER, "some correlation id");
+        MDC.put(COMPONENT_TRACE_HEADER, "pttg-ip-api,pttg-ip-hmrc");
+        requestData.saveAsyncResultContext(request, MDC.getCopyOfContextMap());
+        MDC.clear();
+
+        requestData.preHandle(request, mockResponse, null);
+
+        assertThat(requestData.correlationId()).isEqualTo("some correlation id");
+        assertThat(requestData.componentTrace()).isEqualTo("pttg-ip-api,pttg-ip-hmrc");
+    }
+
     @Test
     public void shouldResetMDC_postHandle() {
         requestData.preHandle(mockRequest, mockResponse, null);
@@ -214,6 +245,24 @@ public class RequestDataTest {
         assertThat(requestData.componentTrace()).isEqualTo(expectedComponentTrace);
     }
 
+    @Test
+    public void mergeComponentTrace_otherTrace_addsNewComponentsOnce() {
+        MDC.put(COMPONENT_TRACE_HEADER, "pttg-ip-api,pttg-ip-hmrc,hmrc");
+
+        requestData.mergeComponentTrace("pttg-ip-api,pttg-ip-hmrc,hmrc-partner");
+
+        assertThat(requestData.componentTrace()).isEqualTo("pttg-ip-api,pttg-ip-hmrc,hmrc,hmrc-partner");
+    }
+
+    @Test
+    public void mergeComponentTrace_noTrace_unchanged() {
+        MDC.put(COMPONENT_TRACE_HEADER, "pttg-ip-api");
+
+        requestData.mergeComponentTrace(null);
+
+        assertThat(requestData.componentTrace()).isEqualTo("pttg-ip-api");
+    }
+
     @Test
     public void updateComponentTrace_httpExceptionWithTraceHeader_setComponentTrace() {
         String expectedComponentTrace = "some-component,some-other-component";
@@ -0,0 +1,101 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ThresholdScheduleLoaderTest {
+
+    private static final LocalDate SOME_EFFECTIVE_DATE = LocalDate.of(2019, 4, 6);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final IncomeThresholdCalculator incomeThresholdCalculator =
+        new IncomeThresholdCalculator(BigDecimal.valueOf(18_600), BigDecimal.valueOf(22_400), BigDecimal.valueOf(2_400));
+
+    private File schedulesFile;
+    private ThresholdScheduleLoader loader;
+
+    @Before
+    public void setUp() throws IOException {
+        schedulesFile = folder.newFile("thresholds.json");
+
+        ThresholdScheduleProperties properties = new ThresholdScheduleProperties();
+        properties.setLocation(schedulesFile.getPath());
+        properties.setReloadIntervalMillis(60000);
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+
+        loader = new ThresholdScheduleLoader(incomeThresholdCalculator, mapper, properties);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        loader.stop();
+    }
+
+    @Test
+    public void start_schedulesFile_datedSchedulesLoaded() throws IOException {
+        writeSchedules(20_000, 1);
+
+        loader.start();
+
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE, 0)).isEqualTo(BigDecimal.valueOf(20_000));
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE.minusDays(1), 0)).isEqualTo(BigDecimal.valueOf(18_600));
+    }
+
+    @Test
+    public void start_unreadableFile_failsToStart() throws IOException {
+        Files.write(schedulesFile.toPath(), "not json".getBytes(UTF_8));
+
+        assertThatThrownBy(loader::start).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void reloadIfChanged_fileChanged_newSchedulesInUse() throws IOException {
+        writeSchedules(20_000, 1);
+        loader.start();
+
+        writeSchedules(21_000, 2);
+        loader.reloadIfChanged();
+
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE, 0)).isEqualTo(BigDecimal.valueOf(21_000));
+    }
+
+    @Test
+    public void reloadIfChanged_badChange_previousSchedulesKept() throws IOException {
+        writeSchedules(20_000, 1);
+        loader.start();
+
+        Files.write(schedulesFile.toPath(), "[{\"effectiveFrom\": \"2019-04-06\"}]".getBytes(UTF_8));
+        Files.setLastModifiedTime(schedulesFile.toPath(), FileTime.fromMillis(2_000));
+        loader.reloadIfChanged();
+
+        assertThat(incomeThresholdCalculator.yearlyThreshold(SOME_EFFECTIVE_DATE, 0)).isEqualTo(BigDecimal.valueOf(20_000));
+    }
+
+    private void writeSchedules(int baseThreshold, long modifiedSeconds) throws IOException {
+        String schedules = "[{\"effectiveFrom\": \"2019-04-06\", \"baseThreshold\": " + baseThreshold
+                           + ", \"oneDependantThreshold\": 24000, \"remainingDependantsIncrement\": 3000}]";
+        Files.write(schedulesFile.toPath(), schedules.getBytes(UTF_8));
+        // Set explicitly, as two writes within the file system's timestamp resolution would otherwise look unchanged.
+        Files.setLastModifiedTime(schedulesFile.toPath(), FileTime.fromMillis(modifiedSeconds * 1000));
+    }
+}
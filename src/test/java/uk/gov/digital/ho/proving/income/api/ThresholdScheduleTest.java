@@ -0,0 +1,60 @@
+package uk.gov.digital.ho.proving.income.api;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ThresholdScheduleTest {
+
+    private static final BigDecimal SOME_BASE_THRESHOLD = BigDecimal.valueOf(18_600);
+    private static final BigDecimal SOME_ONE_DEPENDANT_THRESHOLD = BigDecimal.valueOf(22_400);
+    private static final BigDecimal SOME_REMAINING_DEPENDANT_INCREMENT = BigDecimal.valueOf(2_400);
+
+    private final ThresholdSchedule schedule =
+        new ThresholdSchedule(null, SOME_BASE_THRESHOLD, SOME_ONE_DEPENDANT_THRESHOLD, SOME_REMAINING_DEPENDANT_INCREMENT);
+
+    @Test
+    public void thresholds_everyTabledDependant_sameAsCalculated() {
+        for (int dependants = 0; dependants <= ThresholdSchedule.MAXIMUM_DEPENDANTS; dependants++) {
+            BigDecimal yearly = dependants == 0
+                ? SOME_BASE_THRESHOLD
+                : SOME_ONE_DEPENDANT_THRESHOLD.add(SOME_REMAINING_DEPENDANT_INCREMENT.multiply(BigDecimal.valueOf(dependants - 1)));
+
+            assertThat(schedule.yearlyThreshold(dependants)).isEqualTo(yearly);
+            assertThat(schedule.monthlyThreshold(dependants)).isEqualTo(yearly.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
+            assertThat(schedule.weeklyThreshold(dependants)).isEqualTo(yearly.divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    public void thresholds_tabledDependant_sameInstanceEachTime() {
+        assertThat(schedule.monthlyThreshold(3)).isSameAs(schedule.monthlyThreshold(3));
+    }
+
+    @Test
+    public void yearlyThreshold_beyondTable_stillCalculated() {
+        int dependants = ThresholdSchedule.MAXIMUM_DEPENDANTS + 1;
+
+        assertThat(schedule.yearlyThreshold(dependants)).isEqualTo(BigDecimal.valueOf(22_400 + 2_400 * 99));
+    }
+
+    @Test
+    public void isEffectiveOn_fromEffectiveDate() {
+        ThresholdSchedule dated = new ThresholdSchedule(LocalDate.of(2019, 4, 6), SOME_BASE_THRESHOLD, SOME_ONE_DEPENDANT_THRESHOLD, SOME_REMAINING_DEPENDANT_INCREMENT);
+
+        assertThat(dated.isEffectiveOn(LocalDate.of(2019, 4, 5))).isFalse();
+        assertThat(dated.isEffectiveOn(LocalDate.of(2019, 4, 6))).isTrue();
+        assertThat(schedule.isEffectiveOn(LocalDate.of(1900, 1, 1))).isTrue();
+    }
+
+    @Test
+    public void construct_missingThreshold_rejected() {
+        assertThatThrownBy(() -> new ThresholdSchedule(LocalDate.of(2019, 4, 6), SOME_BASE_THRESHOLD, null, SOME_REMAINING_DEPENDANT_INCREMENT))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
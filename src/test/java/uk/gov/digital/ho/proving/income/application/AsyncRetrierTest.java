@@ -0,0 +1,136 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRetrierTest {
+
+    private static final long BACK_OFF_MILLIS = 250;
+
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
+    @Test
+    public void execute_succeeds_notRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = retrier(3).execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        assertThat(result.join()).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(1);
+        then(mockScheduler).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void execute_retryableFailure_nextAttemptScheduledAfterBackOff() {
+        runScheduledTasksAtOnce();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = retrier(3).execute(failTimes(attempts, 2, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)));
+
+        assertThat(result.join()).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(3);
+        then(mockScheduler).should(times(2)).schedule(any(Runnable.class), eq(BACK_OFF_MILLIS), eq(MILLISECONDS));
+    }
+
+    @Test
+    public void execute_nonRetryableFailure_failsWithoutRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        HttpClientErrorException notFound = new HttpClientErrorException(HttpStatus.NOT_FOUND);
+
+        CompletableFuture<String> result = retrier(3).execute(failTimes(attempts, 1, notFound));
+
+        assertThatThrownBy(result::join).hasCause(notFound);
+        assertThat(attempts.get()).isEqualTo(1);
+        then(mockScheduler).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void execute_attemptsExhausted_failsWithLastError() {
+        runScheduledTasksAtOnce();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = retrier(2).execute(failTimes(attempts, 5, new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(HttpServerErrorException.class);
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_callThrows_treatedAsFailedAttempt() {
+        CompletableFuture<String> result = retrier(3).execute(() -> {
+            throw new IllegalStateException("not sent");
+        });
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void execute_schedulerShutDown_failsWithError() {
+        given(mockScheduler.schedule(any(Runnable.class), anyLong(), eq(MILLISECONDS))).willThrow(new RejectedExecutionException());
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = retrier(3).execute(failTimes(attempts, 1, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR)));
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(HttpServerErrorException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    private AsyncRetrier retrier(int maxAttempts) {
+        return new AsyncRetrier(new SimpleRetryPolicy(maxAttempts, singletonMap(HttpServerErrorException.class, true)),
+                                sleeper -> {
+                                    FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
+                                    backOffPolicy.setBackOffPeriod(BACK_OFF_MILLIS);
+                                    backOffPolicy.setSleeper(sleeper);
+                                    return backOffPolicy;
+                                },
+                                mockScheduler);
+    }
+
+    private void runScheduledTasksAtOnce() {
+        given(mockScheduler.schedule(any(Runnable.class), anyLong(), eq(MILLISECONDS))).willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        });
+    }
+
+    private static Supplier<CompletableFuture<String>> failTimes(AtomicInteger attempts, int failures, RuntimeException error) {
+        return () -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            if (attempts.incrementAndGet() <= failures) {
+                attempt.completeExceptionally(error);
+            } else {
+                attempt.complete("ok");
+            }
+            return attempt;
+        };
+    }
+}
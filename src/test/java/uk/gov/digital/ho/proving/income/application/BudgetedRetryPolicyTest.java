@@ -0,0 +1,132 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.backoff.NoBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BudgetedRetryPolicyTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long DEADLINE_MILLIS = 1000;
+
+    private RetryProperties properties;
+    private MutableClock clock;
+    private AtomicInteger attempts;
+
+    @Before
+    public void setUp() {
+        properties = new RetryProperties();
+        properties.setEnabled(true);
+        properties.setBudgetPercent(20);
+        properties.setBudgetMaxTokens(10);
+        properties.setDeadlineMillis(DEADLINE_MILLIS);
+
+        clock = new MutableClock();
+        attempts = new AtomicInteger();
+    }
+
+    @Test
+    public void execute_failsThenSucceeds_spendsOneTokenPerRetry() {
+        RetryBudget budget = new RetryBudget("test", properties);
+
+        String result = retryTemplate(budget).execute(context -> failTimes(1, 0));
+
+        assertThat(result).isEqualTo("success");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(budget.availableTokens()).isEqualTo(9.0);
+    }
+
+    @Test
+    public void execute_alwaysFails_stopsAtMaxAttempts() {
+        RetryBudget budget = new RetryBudget("test", properties);
+
+        assertThatThrownBy(() -> retryTemplate(budget).execute(context -> failTimes(MAX_ATTEMPTS, 0)))
+            .isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(attempts.get()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    public void execute_budgetExhausted_stopsRetrying() {
+        properties.setBudgetMaxTokens(1);
+        RetryBudget budget = new RetryBudget("test", properties);
+        RetryTemplate retryTemplate = retryTemplate(budget);
+
+        assertThatThrownBy(() -> retryTemplate.execute(context -> failTimes(MAX_ATTEMPTS, 0))).isInstanceOf(HttpServerErrorException.class);
+        assertThat(attempts.getAndSet(0)).isEqualTo(2);
+
+        assertThatThrownBy(() -> retryTemplate.execute(context -> failTimes(MAX_ATTEMPTS, 0))).isInstanceOf(HttpServerErrorException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(metric(budget, "retry.test.budget.exhausted")).isEqualTo(2L);
+    }
+
+    @Test
+    public void execute_deadlinePassed_stopsRetrying() {
+        RetryBudget budget = new RetryBudget("test", properties);
+
+        assertThatThrownBy(() -> retryTemplate(budget).execute(context -> failTimes(MAX_ATTEMPTS, DEADLINE_MILLIS)))
+            .isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(metric(budget, "retry.test.deadline.exceeded")).isEqualTo(1L);
+        assertThat(budget.availableTokens()).isEqualTo(10.0);
+    }
+
+    @Test
+    public void execute_retried_recordsLatencySinceFirstFailure() {
+        RetryBudget budget = new RetryBudget("test", properties);
+
+        retryTemplate(budget).execute(context -> failTimes(2, 100));
+
+        assertThat(metric(budget, "retry.test.latency.millis")).isEqualTo(200L);
+        assertThat(metric(budget, "retry.test.attempts")).isEqualTo(3L);
+    }
+
+    @Test
+    public void execute_notRetryable_doesNotSpendBudget() {
+        RetryBudget budget = new RetryBudget("test", properties);
+
+        assertThatThrownBy(() -> retryTemplate(budget).execute(context -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not retryable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(budget.availableTokens()).isEqualTo(10.0);
+    }
+
+    private RetryTemplate retryTemplate(RetryBudget budget) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setBackOffPolicy(new NoBackOffPolicy());
+        SimpleRetryPolicy delegate = new SimpleRetryPolicy(MAX_ATTEMPTS, singletonMap(HttpServerErrorException.class, true));
+        retryTemplate.setRetryPolicy(new BudgetedRetryPolicy(delegate, budget, clock));
+        return retryTemplate;
+    }
+
+    private String failTimes(int failures, long millisPerAttempt) {
+        clock.advance(millisPerAttempt);
+        if (attempts.incrementAndGet() <= failures) {
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return "success";
+    }
+
+    private static Object metric(RetryBudget budget, String name) {
+        return budget.metrics().stream()
+                     .filter(metric -> metric.getName().equals(name))
+                     .map(Metric::getValue)
+                     .findFirst()
+                     .orElseThrow(AssertionError::new);
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.ClientHttpRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+
+public class BulkheadClientHttpRequestFactoryTest {
+
+    private BulkheadClientHttpRequestFactory requestFactory;
+
+    @Before
+    public void setUp() {
+        requestFactory = new BulkheadClientHttpRequestFactory(new HttpConnectionPoolProperties())
+            .addDownstream("hmrc", "http://hmrc.local", null, new BulkheadProperties.Limits(2, 2, 0))
+            .addDownstream("audit-write", "http://audit.local/audit", POST, new BulkheadProperties.Limits(2, 2, 0))
+            .addDownstream("audit-read", "http://audit.local", null, new BulkheadProperties.Limits(1, 1, 0));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        requestFactory.close();
+    }
+
+    @Test
+    public void createRequest_downstreamUrl_guardedByBulkhead() throws IOException {
+        ClientHttpRequest request = requestFactory.createRequest(URI.create("http://hmrc.local/income"), POST);
+
+        assertThat(request).isInstanceOf(BulkheadClientHttpRequest.class);
+    }
+
+    @Test
+    public void createRequest_unknownUrl_notGuardedByBulkhead() throws IOException {
+        ClientHttpRequest request = requestFactory.createRequest(URI.create("http://elsewhere.local/thing"), GET);
+
+        assertThat(request).isNotInstanceOf(BulkheadClientHttpRequest.class);
+    }
+
+    @Test
+    public void metrics_eachDownstream_reportsPoolAndBulkhead() {
+        List<String> names = requestFactory.metrics().stream().map(Metric::getName).collect(toList());
+
+        assertThat(names).contains("http.pool.default.leased",
+                                   "http.pool.hmrc.leased",
+                                   "http.pool.audit-write.leased",
+                                   "http.pool.audit-read.leased",
+                                   "http.bulkhead.hmrc.active",
+                                   "http.bulkhead.audit-write.rejected",
+                                   "http.bulkhead.audit-read.saturation.percent");
+    }
+
+    @Test
+    public void metrics_bulkheadMax_fromLimits() {
+        Number max = requestFactory.metrics().stream()
+                                   .filter(metric -> metric.getName().equals("http.bulkhead.audit-read.max"))
+                                   .map(Metric::getValue)
+                                   .findFirst()
+                                   .orElseThrow(AssertionError::new);
+
+        assertThat(max).isEqualTo(1);
+    }
+}
@@ -0,0 +1,67 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkheadClientHttpRequestTest {
+
+    @Mock
+    private ClientHttpRequest mockRequest;
+    @Mock
+    private ClientHttpResponse mockResponse;
+
+    private final Bulkhead bulkhead = new Bulkhead("test", 1, 0);
+
+    @Test
+    public void execute_responseOpen_holdsPermit() throws IOException {
+        given(mockRequest.execute()).willReturn(mockResponse);
+
+        new BulkheadClientHttpRequest(mockRequest, bulkhead).execute();
+
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_responseClosed_releasesPermitOnce() throws IOException {
+        given(mockRequest.execute()).willReturn(mockResponse);
+
+        ClientHttpResponse response = new BulkheadClientHttpRequest(mockRequest, bulkhead).execute();
+        response.close();
+        response.close();
+
+        then(mockResponse).should(times(2)).close();
+        assertThat(bulkhead.activeCalls()).isZero();
+    }
+
+    @Test
+    public void execute_requestFails_releasesPermit() throws IOException {
+        given(mockRequest.execute()).willThrow(new IOException("connection refused"));
+
+        assertThatThrownBy(() -> new BulkheadClientHttpRequest(mockRequest, bulkhead).execute()).isInstanceOf(IOException.class);
+
+        assertThat(bulkhead.activeCalls()).isZero();
+    }
+
+    @Test
+    public void execute_bulkheadFull_rejectedWithoutSending() throws IOException {
+        bulkhead.acquire();
+
+        assertThatThrownBy(() -> new BulkheadClientHttpRequest(mockRequest, bulkhead).execute()).isInstanceOf(BulkheadFullException.class);
+
+        then(mockRequest).should(never()).execute();
+    }
+}
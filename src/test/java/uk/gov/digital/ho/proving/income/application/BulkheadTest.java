@@ -0,0 +1,64 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadTest {
+
+    @Test
+    public void acquire_belowLimit_countsActiveCall() throws BulkheadFullException {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 0);
+
+        bulkhead.acquire();
+
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void acquire_full_rejected() throws BulkheadFullException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0);
+        bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class)
+                                             .hasMessageContaining("test");
+        assertThat(bulkhead.rejectedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void acquire_fullThenReleased_admitted() throws BulkheadFullException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0);
+        bulkhead.acquire();
+        bulkhead.release();
+
+        bulkhead.acquire();
+
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+        assertThat(bulkhead.rejectedCalls()).isZero();
+    }
+
+    @Test
+    public void acquire_releasedWhileWaiting_admitted() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 5000);
+        bulkhead.acquire();
+
+        Thread releaser = new Thread(() -> {
+            sleepQuietly(50);
+            bulkhead.release();
+        });
+        releaser.start();
+        bulkhead.acquire();
+        releaser.join();
+
+        assertThat(bulkhead.rejectedCalls()).isZero();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.CircuitBreakerOpenException;
+import uk.gov.digital.ho.proving.income.application.CircuitBreaker.State;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MILLIS = 30000;
+    private static final long SLOW_CALL_MILLIS = 1000;
+
+    private CircuitBreakerProperties properties;
+    private MutableClock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() {
+        properties = new CircuitBreakerProperties();
+        properties.setEnabled(true);
+        properties.setWindowSeconds(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThresholdPercent(50);
+        properties.setSlowCallDurationMillis(SLOW_CALL_MILLIS);
+        properties.setSlowCallRateThresholdPercent(50);
+        properties.setOpenDurationMillis(OPEN_DURATION_MILLIS);
+        properties.setHalfOpenPermittedCalls(2);
+
+        clock = new MutableClock();
+        circuitBreaker = new CircuitBreaker("test", properties, clock, e -> e instanceof HttpServerErrorException);
+    }
+
+    @Test
+    public void execute_disabled_alwaysCalls() {
+        properties.setEnabled(false);
+        failTimes(10);
+
+        assertThat(circuitBreaker.execute(() -> "called")).isEqualTo("called");
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_failureRateBelowMinimumCalls_staysClosed() {
+        failTimes(3);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_failureRateReachesThreshold_opens() {
+        succeedTimes(2);
+        failTimes(2);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void execute_open_failsFastWithoutCalling() {
+        failTimes(4);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> circuitBreaker.execute(calls::incrementAndGet)).isInstanceOf(CircuitBreakerOpenException.class);
+
+        assertThat(calls.get()).isZero();
+        assertThat(metricValue("circuit.test.rejected")).isEqualTo(1L);
+    }
+
+    @Test
+    public void execute_nonFailureException_countsAsSuccess() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_hmrcBulkheadRejections_staysClosed() {
+        circuitBreaker = new CircuitBreaker("test", properties, clock, CircuitBreakerConfiguration::countsAgainstHmrc);
+
+        throwTimes(4, new ResourceAccessException("I/O error", new BulkheadFullException("hmrc", 50)));
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_hmrcConnectionFailures_opens() {
+        circuitBreaker = new CircuitBreaker("test", properties, clock, CircuitBreakerConfiguration::countsAgainstHmrc);
+
+        throwTimes(4, new ResourceAccessException("I/O error", new IOException("Connection refused")));
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void execute_slowCallRateReachesThreshold_opens() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> clock.advance(SLOW_CALL_MILLIS));
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void execute_failuresOutsideWindow_forgotten() {
+        failTimes(3);
+        clock.advance(11000);
+        failTimes(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_openDurationElapsed_halfOpenTrialsClose() {
+        failTimes(4);
+        clock.advance(OPEN_DURATION_MILLIS);
+
+        succeedTimes(1);
+        assertThat(circuitBreaker.state()).isEqualTo(State.HALF_OPEN);
+        succeedTimes(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void execute_halfOpenTrialFails_reopens() {
+        failTimes(4);
+        clock.advance(OPEN_DURATION_MILLIS);
+
+        failTimes(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(metricValue("circuit.test.opened")).isEqualTo(2L);
+    }
+
+    @Test
+    public void execute_halfOpenTrialsInFlight_rejectsFurtherCalls() {
+        failTimes(4);
+        clock.advance(OPEN_DURATION_MILLIS);
+
+        circuitBreaker.execute(() -> {
+            circuitBreaker.execute(() -> "second trial");
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> "third call")).isInstanceOf(CircuitBreakerOpenException.class);
+            return "first trial";
+        });
+    }
+
+    @Test
+    public void executeAsync_failedFutures_open() {
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            circuitBreaker.executeAsync(() -> call);
+            call.completeExceptionally(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.executeAsync(() -> CompletableFuture.completedFuture("ok"))).isInstanceOf(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    public void executeAsync_timedUntilFutureCompletes() {
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            circuitBreaker.executeAsync(() -> call);
+            clock.advance(SLOW_CALL_MILLIS);
+            call.complete("slow");
+        }
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void metrics_reportStateAndRates() {
+        succeedTimes(1);
+        failTimes(1);
+
+        assertThat(metricValue("circuit.test.state")).isEqualTo(State.CLOSED.ordinal());
+        assertThat(metricValue("circuit.test.calls")).isEqualTo(2);
+        assertThat(metricValue("circuit.test.failure.rate.percent")).isEqualTo(50);
+    }
+
+    private void succeedTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.execute(() -> "ok");
+        }
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            try {
+                circuitBreaker.execute(() -> {
+                    throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+                });
+            } catch (HttpServerErrorException | CircuitBreakerOpenException e) {
+                // expected
+            }
+        }
+    }
+
+    private void throwTimes(int times, RuntimeException exception) {
+        for (int i = 0; i < times; i++) {
+            try {
+                circuitBreaker.execute(() -> {
+                    throw exception;
+                });
+            } catch (ResourceAccessException | CircuitBreakerOpenException e) {
+                // expected
+            }
+        }
+    }
+
+    private Number metricValue(String name) {
+        return circuitBreaker.metrics().stream()
+                             .filter(metric -> metric.getName().equals(name))
+                             .map(Metric::getValue)
+                             .findFirst()
+                             .orElseThrow(AssertionError::new);
+    }
+}
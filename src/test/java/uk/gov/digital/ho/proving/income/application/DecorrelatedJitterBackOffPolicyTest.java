@@ -0,0 +1,73 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.context.RetryContextSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecorrelatedJitterBackOffPolicyTest {
+
+    private static final long INITIAL_DELAY_MILLIS = 100;
+    private static final long MAX_DELAY_MILLIS = 1000;
+
+    private MutableClock clock;
+    private List<Long> sleeps;
+    private DecorrelatedJitterBackOffPolicy backOffPolicy;
+
+    @Before
+    public void setUp() {
+        clock = new MutableClock();
+        sleeps = new ArrayList<>();
+        backOffPolicy = new DecorrelatedJitterBackOffPolicy(INITIAL_DELAY_MILLIS, MAX_DELAY_MILLIS, clock, sleeps::add);
+    }
+
+    @Test
+    public void backOff_repeated_staysWithinDecorrelatedBounds() {
+        BackOffContext context = backOffPolicy.start(new RetryContextSupport(null));
+
+        for (int i = 0; i < 50; i++) {
+            backOffPolicy.backOff(context);
+        }
+
+        long previous = INITIAL_DELAY_MILLIS;
+        for (long sleep : sleeps) {
+            assertThat(sleep).isBetween(INITIAL_DELAY_MILLIS, Math.min(MAX_DELAY_MILLIS, previous * 3));
+            previous = sleep;
+        }
+    }
+
+    @Test
+    public void backOff_repeated_doesNotSleepInLockstep() {
+        for (int i = 0; i < 20; i++) {
+            backOffPolicy.backOff(backOffPolicy.start(new RetryContextSupport(null)));
+            backOffPolicy.backOff(backOffPolicy.start(new RetryContextSupport(null)));
+        }
+
+        assertThat(sleeps.stream().distinct().count()).isGreaterThan(1);
+    }
+
+    @Test
+    public void backOff_deadlineSooner_sleepsOnlyUntilDeadline() {
+        RetryContextSupport retryContext = new RetryContextSupport(null);
+        retryContext.setAttribute(BudgetedRetryPolicy.DEADLINE, clock.millis() + 50);
+
+        backOffPolicy.backOff(backOffPolicy.start(retryContext));
+
+        assertThat(sleeps).containsExactly(50L);
+    }
+
+    @Test
+    public void backOff_deadlinePassed_doesNotSleep() {
+        RetryContextSupport retryContext = new RetryContextSupport(null);
+        retryContext.setAttribute(BudgetedRetryPolicy.DEADLINE, clock.millis() - 1);
+
+        backOffPolicy.backOff(backOffPolicy.start(retryContext));
+
+        assertThat(sleeps).isEmpty();
+    }
+}
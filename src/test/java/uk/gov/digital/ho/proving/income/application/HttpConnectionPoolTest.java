@@ -0,0 +1,47 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpConnectionPoolTest {
+
+    private HttpConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new HttpConnectionPool("test", 10, 5, new HttpConnectionPoolProperties());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.close();
+    }
+
+    @Test
+    public void requestFactory_backedByHttpClient() {
+        assertThat(pool.requestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+    }
+
+    @Test
+    public void metrics_reportTotalPoolStats() {
+        assertThat(metricValue("http.pool.test.max")).isEqualTo(10);
+        assertThat(metricValue("http.pool.test.leased")).isEqualTo(0);
+        assertThat(metricValue("http.pool.test.pending")).isEqualTo(0);
+        assertThat(metricValue("http.pool.test.available")).isEqualTo(0);
+    }
+
+    private Number metricValue(String name) {
+        return pool.metrics().stream()
+                   .filter(metric -> metric.getName().equals(name))
+                   .map(Metric::getValue)
+                   .findFirst()
+                   .orElseThrow(AssertionError::new);
+    }
+}
@@ -0,0 +1,67 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    private static final long WINDOW_MILLIS = 60000;
+
+    private MutableClock clock;
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        clock = new MutableClock();
+        histogram = new LatencyHistogram(WINDOW_MILLIS, clock);
+    }
+
+    @Test
+    public void percentile_empty_zero() {
+        assertThat(histogram.percentile(99)).isEqualTo(0);
+        assertThat(histogram.count()).isEqualTo(0);
+    }
+
+    @Test
+    public void percentile_uniformLatencies_withinBucketPrecision() {
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(millis);
+        }
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.percentile(50)).isBetween(500L, 625L);
+        assertThat(histogram.percentile(95)).isBetween(950L, 1188L);
+        assertThat(histogram.percentile(99)).isBetween(990L, 1238L);
+    }
+
+    @Test
+    public void percentile_longTail_reflectsTail() {
+        for (int i = 0; i < 98; i++) {
+            histogram.record(10);
+        }
+        histogram.record(5000);
+        histogram.record(5000);
+
+        assertThat(histogram.percentile(95)).isEqualTo(10);
+        assertThat(histogram.percentile(99)).isBetween(5000L, 6250L);
+    }
+
+    @Test
+    public void percentile_windowPassed_forgetsOldLatencies() {
+        histogram.record(5000);
+        clock.advance(WINDOW_MILLIS + WINDOW_MILLIS / 6);
+        histogram.record(10);
+
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.percentile(99)).isEqualTo(10);
+    }
+
+    @Test
+    public void record_beyondLargestBucket_countedInLargest() {
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.percentile(50)).isGreaterThan(0);
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MdcTaskDecoratorTest {
+
+    private final MdcTaskDecorator mdcTaskDecorator = new MdcTaskDecorator();
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void decorate_runOnAnotherThread_seesSubmittingThreadsMdc() throws InterruptedException {
+        MDC.put("x-correlation-id", "some correlation id");
+        AtomicReference<String> correlationIdSeen = new AtomicReference<>();
+
+        Runnable decorated = mdcTaskDecorator.decorate(() -> correlationIdSeen.set(MDC.get("x-correlation-id")));
+        Thread worker = new Thread(decorated);
+        worker.start();
+        worker.join();
+
+        assertThat(correlationIdSeen.get()).isEqualTo("some correlation id");
+    }
+
+    @Test
+    public void decorate_runOnSubmittingThread_restoresPreviousMdc() {
+        MDC.put("x-component-trace", "pttg-ip-api");
+        Runnable decorated = mdcTaskDecorator.decorate(() -> MDC.put("x-component-trace", "pttg-ip-api,pttg-ip-hmrc"));
+        MDC.put("x-component-trace", "changed after submission");
+
+        decorated.run();
+
+        assertThat(MDC.get("x-component-trace")).isEqualTo("changed after submission");
+    }
+
+    @Test
+    public void decorate_noMdcWhenSubmitted_clearsWorkerMdc() throws InterruptedException {
+        AtomicReference<String> correlationIdSeen = new AtomicReference<>("not cleared");
+        Runnable decorated = mdcTaskDecorator.decorate(() -> correlationIdSeen.set(MDC.get("x-correlation-id")));
+
+        Thread worker = new Thread(() -> {
+            MDC.put("x-correlation-id", "stale correlation id");
+            decorated.run();
+        });
+        worker.start();
+        worker.join();
+
+        assertThat(correlationIdSeen.get()).isNull();
+    }
+}
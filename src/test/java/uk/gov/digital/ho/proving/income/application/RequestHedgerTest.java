@@ -0,0 +1,179 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RequestHedgerTest {
+
+    private static final int MINIMUM_SAMPLES = 10;
+    private static final long MIN_TIMEOUT_MILLIS = 500;
+    private static final long MAX_TIMEOUT_MILLIS = 1000;
+
+    private HedgingProperties properties;
+    private ExecutorService executor;
+    private CountDownLatch releaseSlowCalls;
+
+    @Before
+    public void setUp() {
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinimumSamples(MINIMUM_SAMPLES);
+        properties.setMinHedgeDelayMillis(10);
+        properties.setMaxHedgeRatePercent(0);
+        properties.setHedgeBurst(1);
+        properties.setMinTimeoutMillis(MIN_TIMEOUT_MILLIS);
+        properties.setMaxTimeoutMillis(MAX_TIMEOUT_MILLIS);
+
+        executor = Executors.newCachedThreadPool();
+        releaseSlowCalls = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        releaseSlowCalls.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void execute_disabled_runsOnCallerThread() {
+        properties.setEnabled(false);
+        RequestHedger hedger = hedger();
+
+        assertThat(hedger.execute(() -> Thread.currentThread().getName())).isEqualTo(Thread.currentThread().getName());
+        assertThat(hedger.metrics()).isEmpty();
+    }
+
+    @Test
+    public void execute_tooFewSamples_doesNotHedgeAndUsesMaxTimeout() {
+        RequestHedger hedger = hedger();
+
+        assertThat(hedger.execute(() -> "result")).isEqualTo("result");
+        assertThat(hedger.hedgeDelayMillis()).isEqualTo(Long.MAX_VALUE);
+        assertThat(hedger.timeoutMillis()).isEqualTo(MAX_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void execute_fastLatencies_adaptsTimeoutDownToMinimum() {
+        RequestHedger hedger = warmedUpHedger();
+
+        assertThat(hedger.timeoutMillis()).isEqualTo(MIN_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void execute_primarySlow_hedgeAnswersFirst() {
+        RequestHedger hedger = warmedUpHedger();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(slowThenFast(attempts));
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(metric(hedger, "hedge.test.hedged")).isEqualTo(1L);
+        assertThat(metric(hedger, "hedge.test.hedge.wins")).isEqualTo(1L);
+    }
+
+    @Test
+    public void execute_primaryLostToHedge_recordedAsAtLeastHedgeDelay() {
+        RequestHedger hedger = warmedUpHedger();
+        long hedgeDelay = hedger.hedgeDelayMillis();
+
+        hedger.execute(slowThenFast(new AtomicInteger()));
+
+        assertThat((Long) metric(hedger, "hedge.test.latency.p99.millis")).isGreaterThanOrEqualTo(hedgeDelay);
+    }
+
+    @Test
+    public void execute_timedOut_recordedAsAtLeastTimeout() {
+        RequestHedger hedger = warmedUpHedger();
+        hedger.execute(slowThenFast(new AtomicInteger()));
+        long timeout = hedger.timeoutMillis();
+
+        assertThatThrownBy(() -> hedger.execute(slowThenFast(new AtomicInteger()))).isInstanceOf(ResourceAccessException.class);
+
+        assertThat((Long) metric(hedger, "hedge.test.latency.p99.millis")).isGreaterThanOrEqualTo(timeout);
+    }
+
+    @Test
+    public void execute_hedgeRateCapReached_waitsForPrimaryUntilTimeout() {
+        RequestHedger hedger = warmedUpHedger();
+        hedger.execute(slowThenFast(new AtomicInteger()));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> hedger.execute(slowThenFast(attempts))).isInstanceOf(ResourceAccessException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(metric(hedger, "hedge.test.hedge.skipped")).isEqualTo(1L);
+        assertThat(metric(hedger, "hedge.test.timeouts")).isEqualTo(1L);
+    }
+
+    @Test
+    public void execute_primaryFails_errorReturnedToCaller() {
+        RequestHedger hedger = hedger();
+
+        assertThatThrownBy(() -> hedger.execute(() -> {
+            throw new IllegalStateException("some failure");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("some failure");
+    }
+
+    @Test
+    public void execute_executorSaturated_runsOnCallerThread() {
+        RequestHedger hedger = new RequestHedger("test", properties, runnable -> {
+            throw new RejectedExecutionException();
+        }, Clock.systemUTC());
+
+        assertThat(hedger.execute(() -> Thread.currentThread().getName())).isEqualTo(Thread.currentThread().getName());
+    }
+
+    private RequestHedger hedger() {
+        return new RequestHedger("test", properties, executor, Clock.systemUTC());
+    }
+
+    private RequestHedger warmedUpHedger() {
+        RequestHedger hedger = hedger();
+        for (int i = 0; i < MINIMUM_SAMPLES; i++) {
+            hedger.execute(() -> "fast");
+        }
+        return hedger;
+    }
+
+    private Supplier<String> slowThenFast(AtomicInteger attempts) {
+        return () -> {
+            if (attempts.incrementAndGet() == 1) {
+                awaitRelease();
+                return "primary";
+            }
+            return "hedge";
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseSlowCalls.await(5, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Object metric(RequestHedger hedger, String name) {
+        return hedger.metrics().stream()
+                     .filter(metric -> metric.getName().equals(name))
+                     .map(Metric::getValue)
+                     .findFirst()
+                     .orElseThrow(AssertionError::new);
+    }
+}
@@ -13,23 +13,28 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import uk.gov.digital.ho.proving.income.api.NinoUtils;
+import uk.gov.digital.ho.proving.income.api.domain.BaseResponse;
 import uk.gov.digital.ho.proving.income.audit.AuditClient;
 import utils.LogCapturer;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import static ch.qos.logback.classic.Level.ERROR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_AUDIT_FAILURE;
 import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_SERVICE_RESPONSE_ERROR;
 import static uk.gov.digital.ho.proving.income.application.LogEvent.INCOME_PROVING_SERVICE_RESPONSE_NOT_FOUND;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_RESPONSE;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ResourceExceptionHandlerTest {
@@ -90,6 +95,50 @@ public class ResourceExceptionHandlerTest {
         verifyLogMessage("No handler found for POST some url", INCOME_PROVING_SERVICE_RESPONSE_NOT_FOUND);
     }
 
+    @Test
+    public void shouldReturnServiceUnavailableWhenCircuitOpen() {
+        ResponseEntity<BaseResponse> response = resourceExceptionHandler.handle(new ApplicationExceptions.CircuitBreakerOpenException("hmrc"));
+
+        assertThat(response.getStatusCode()).isEqualTo(SERVICE_UNAVAILABLE);
+        assertThat(response.getBody().status().code()).isEqualTo("0006");
+        verifyLogMessage("Circuit breaker hmrc is open", INCOME_PROVING_SERVICE_RESPONSE_ERROR);
+    }
+
+    @Test
+    public void shouldReturnServiceUnavailableWhenBulkheadFull() {
+        ResponseEntity<BaseResponse> response = resourceExceptionHandler.handle(new ApplicationExceptions.BulkheadRejectedException(new BulkheadFullException("hmrc", 50)));
+
+        assertThat(response.getStatusCode()).isEqualTo(SERVICE_UNAVAILABLE);
+        assertThat(response.getBody().status().code()).isEqualTo("0006");
+        assertThat(response.getBody().status().message()).isEqualTo("Error: hmrc service unavailable");
+        verifyLogMessage("Bulkhead hmrc is full - 50 calls already in flight", INCOME_PROVING_SERVICE_RESPONSE_ERROR);
+    }
+
+    @Test
+    public void errorResponse_noUniqueMatch_auditedAsNotFound() {
+        BaseResponse response = resourceExceptionHandler.errorResponse(new ApplicationExceptions.EarningsServiceNoUniqueMatchException("some nino"));
+
+        assertThat(response.status().code()).isEqualTo("0009");
+        verify(auditClient).add(eq(INCOME_PROVING_FINANCIAL_STATUS_RESPONSE), any(UUID.class), anyMap());
+    }
+
+    @Test
+    public void errorResponse_illegalArgument_badRequest() {
+        BaseResponse response = resourceExceptionHandler.errorResponse(new IllegalArgumentException("Error: zero applicants"));
+
+        assertThat(response.status().code()).isEqualTo("0004");
+        assertThat(response.status().message()).isEqualTo("Error: zero applicants");
+    }
+
+    @Test
+    public void errorResponse_unexpectedException_internalError() {
+        BaseResponse response = resourceExceptionHandler.errorResponse(new IllegalStateException("some message"));
+
+        assertThat(response.status().code()).isEqualTo("0005");
+        verifyLogMessage("some message", INCOME_PROVING_SERVICE_RESPONSE_ERROR);
+        verifyZeroInteractions(auditClient);
+    }
+
     private void verifyLogMessage(final String message, LogEvent event) {
         verify(mockAppender).doAppend(argThat(argument -> {
             LoggingEvent loggingEvent = (LoggingEvent) argument;
@@ -0,0 +1,85 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryBudgetTest {
+
+    private RetryProperties properties;
+    private RetryBudget budget;
+
+    @Before
+    public void setUp() {
+        properties = new RetryProperties();
+        properties.setEnabled(true);
+        properties.setBudgetPercent(50);
+        properties.setBudgetMaxTokens(2);
+        budget = new RetryBudget("test", properties);
+    }
+
+    @Test
+    public void tryAcquireRetry_newBudget_startsFull() {
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    public void tryAcquireRetry_empty_refilledByLiveCalls() {
+        drain();
+
+        budget.recordCall();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        budget.recordCall();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+
+    @Test
+    public void recordCall_full_doesNotExceedMaxTokens() {
+        for (int i = 0; i < 10; i++) {
+            budget.recordCall();
+        }
+
+        assertThat(budget.availableTokens()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void metrics_countsAttemptsAndExhaustion() {
+        drain();
+        budget.recordCall();
+        budget.tryAcquireRetry();
+        budget.recordRetryLatency(300);
+        budget.recordRetryLatency(100);
+
+        assertThat(metric("retry.test.calls")).isEqualTo(1L);
+        assertThat(metric("retry.test.attempts")).isEqualTo(3L);
+        assertThat(metric("retry.test.budget.exhausted")).isEqualTo(1L);
+        assertThat(metric("retry.test.latency.millis")).isEqualTo(400L);
+        assertThat(metric("retry.test.latency.mean.millis")).isEqualTo(200L);
+    }
+
+    @Test
+    public void metrics_disabled_empty() {
+        properties.setEnabled(false);
+
+        assertThat(budget.metrics()).isEmpty();
+    }
+
+    private void drain() {
+        while (budget.availableTokens() >= 1) {
+            budget.tryAcquireRetry();
+        }
+    }
+
+    private Object metric(String name) {
+        return budget.metrics().stream()
+                     .filter(metric -> metric.getName().equals(name))
+                     .map(Metric::getValue)
+                     .findFirst()
+                     .orElseThrow(AssertionError::new);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.retry.backoff.FixedBackOffPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
@@ -26,6 +27,7 @@ public class ServiceConfigurationTest {
     private static final String ANY_STRING = "";
     private static final int ANY_INT = 0;
     private static final ServiceConfiguration SPRING_CONFIG_WITH_RETRIES = new ServiceConfiguration(ANY_STRING, ANY_INT, ANY_INT, 5, ANY_INT, 5, ANY_INT);
+    private static final RetryBudget DISABLED_RETRY_BUDGET = new RetryBudget("any", new RetryProperties());
 
     @Mock
     private RestTemplateBuilder mockRestTemplateBuilder;
@@ -33,8 +35,12 @@ public class ServiceConfigurationTest {
     @Mock
     private RestTemplate mockRestTemplate;
 
+    @Mock
+    private BulkheadClientHttpRequestFactory mockRequestFactory;
+
     @Before
     public void setUp() {
+        when(mockRestTemplateBuilder.requestFactory(mockRequestFactory)).thenReturn(mockRestTemplateBuilder);
         when(mockRestTemplateBuilder.setReadTimeout(anyInt())).thenReturn(mockRestTemplateBuilder);
         when(mockRestTemplateBuilder.setConnectTimeout(anyInt())).thenReturn(mockRestTemplateBuilder);
 
@@ -49,11 +55,12 @@ public class ServiceConfigurationTest {
         ServiceConfiguration springConfig = new ServiceConfiguration(null, readTimeout, connectTimeout, ANY_INT, ANY_INT, ANY_INT, ANY_INT);
 
         // when
-        RestTemplate restTemplate = springConfig.createRestTemplate(mockRestTemplateBuilder);
+        RestTemplate restTemplate = springConfig.createRestTemplate(mockRestTemplateBuilder, mockRequestFactory);
 
         // then
         verify(mockRestTemplateBuilder).setReadTimeout(readTimeout);
         verify(mockRestTemplateBuilder).setConnectTimeout(connectTimeout);
+        verify(mockRestTemplateBuilder).requestFactory(mockRequestFactory);
 
         assertThat(restTemplate).isEqualTo(mockRestTemplate);
     }
@@ -63,7 +70,7 @@ public class ServiceConfigurationTest {
         int expectedBackOffDelay = 9;
         ServiceConfiguration springConfig = new ServiceConfiguration(ANY_STRING, ANY_INT, ANY_INT, ANY_INT, expectedBackOffDelay, ANY_INT, ANY_INT);
 
-        FixedBackOffPolicy hmrcBackOffPolicy = (FixedBackOffPolicy) ReflectionTestUtils.getField(springConfig.hmrcRetryTemplate(), "backOffPolicy");
+        FixedBackOffPolicy hmrcBackOffPolicy = (FixedBackOffPolicy) ReflectionTestUtils.getField(springConfig.hmrcRetryTemplate(DISABLED_RETRY_BUDGET), "backOffPolicy");
 
         assertThat(hmrcBackOffPolicy.getBackOffPeriod()).isEqualTo(expectedBackOffDelay);
     }
@@ -73,26 +80,26 @@ public class ServiceConfigurationTest {
         int expectedRetryAttempts = 23;
         ServiceConfiguration springConfig = new ServiceConfiguration(ANY_STRING, ANY_INT, ANY_INT, expectedRetryAttempts, ANY_INT, ANY_INT, ANY_INT);
 
-        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(springConfig.hmrcRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(springConfig.hmrcRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
 
         assertThat(hmrcRetryPolicy.getMaxAttempts()).isEqualTo(expectedRetryAttempts);
     }
 
     @Test
     public void hmrcRetryTemplate_httpServerException_shouldRetry() {
-        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
         assertThat(shouldRetryException(hmrcRetryPolicy, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))).isTrue();
     }
 
     @Test
     public void hmrcRetryTemplate_httpClientException_shouldNotRetry() {
-        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
         assertThat(shouldRetryException(hmrcRetryPolicy, new HttpClientErrorException(HttpStatus.NOT_FOUND))).isFalse();
     }
 
     @Test
     public void hmrcRetryTemplate_earningsServiceNoUniqueMatchException_shouldNotRetry() {
-        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy hmrcRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
         assertThat(shouldRetryException(hmrcRetryPolicy, new ApplicationExceptions.EarningsServiceNoUniqueMatchException("any nino"))).isFalse();
     }
 
@@ -101,7 +108,7 @@ public class ServiceConfigurationTest {
         int expectedRetryAttempts = 20;
         ServiceConfiguration springConfig = new ServiceConfiguration(ANY_STRING, ANY_INT, ANY_INT, ANY_INT, ANY_INT, expectedRetryAttempts, ANY_INT);
 
-        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(springConfig.auditRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(springConfig.auditRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
 
         assertThat(auditRetryPolicy.getMaxAttempts()).isEqualTo(expectedRetryAttempts);
     }
@@ -111,24 +118,49 @@ public class ServiceConfigurationTest {
         int expectedBackOffDelay = 2;
         ServiceConfiguration springConfig = new ServiceConfiguration(ANY_STRING, ANY_INT, ANY_INT, ANY_INT, ANY_INT, ANY_INT, expectedBackOffDelay);
 
-        FixedBackOffPolicy auditBackOffPolicy = (FixedBackOffPolicy) ReflectionTestUtils.getField(springConfig.auditRetryTemplate(), "backOffPolicy");
+        FixedBackOffPolicy auditBackOffPolicy = (FixedBackOffPolicy) ReflectionTestUtils.getField(springConfig.auditRetryTemplate(DISABLED_RETRY_BUDGET), "backOffPolicy");
         assertThat(auditBackOffPolicy.getBackOffPeriod()).isEqualTo(expectedBackOffDelay);
     }
 
     @Test
     public void auditRetryTemplate_restClientException_shouldRetry() {
-        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.auditRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.auditRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
         assertThat(shouldRetryException(auditRetryPolicy, new RestClientException("any message"))).isTrue();
     }
 
     @Test
     public void auditRetryTemplate_notRestClientException_shouldNotRetry() {
-        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.auditRetryTemplate(), "retryPolicy");
+        SimpleRetryPolicy auditRetryPolicy = (SimpleRetryPolicy) ReflectionTestUtils.getField(SPRING_CONFIG_WITH_RETRIES.auditRetryTemplate(DISABLED_RETRY_BUDGET), "retryPolicy");
 
         Exception notARestClientException = new NullPointerException();
         assertThat(shouldRetryException(auditRetryPolicy, notARestClientException)).isFalse();
 
     }
+
+    @Test
+    public void hmrcRetryTemplate_retryBudgetEnabled_usesJitterAndBudget() {
+        RetryProperties properties = new RetryProperties();
+        properties.setEnabled(true);
+
+        RetryTemplate retryTemplate = SPRING_CONFIG_WITH_RETRIES.hmrcRetryTemplate(new RetryBudget("hmrc", properties));
+
+        assertThat(ReflectionTestUtils.getField(retryTemplate, "backOffPolicy")).isInstanceOf(DecorrelatedJitterBackOffPolicy.class);
+        assertThat(ReflectionTestUtils.getField(retryTemplate, "retryPolicy")).isInstanceOf(BudgetedRetryPolicy.class);
+    }
+
+    @Test
+    public void auditRetryTemplate_retryBudgetEnabled_keepsRetryableExceptions() {
+        RetryProperties properties = new RetryProperties();
+        properties.setEnabled(true);
+
+        RetryTemplate retryTemplate = SPRING_CONFIG_WITH_RETRIES.auditRetryTemplate(new RetryBudget("audit", properties));
+        BudgetedRetryPolicy retryPolicy = (BudgetedRetryPolicy) ReflectionTestUtils.getField(retryTemplate, "retryPolicy");
+        SimpleRetryPolicy delegate = (SimpleRetryPolicy) ReflectionTestUtils.getField(retryPolicy, "delegate");
+
+        assertThat(delegate.getMaxAttempts()).isEqualTo(5);
+        assertThat(shouldRetryException(delegate, new RestClientException("any message"))).isTrue();
+    }
+
     private Boolean shouldRetryException(SimpleRetryPolicy retryPolicy, Exception exception) {
         return ReflectionTestUtils.invokeMethod(retryPolicy, "retryForException", exception);
     }
@@ -0,0 +1,133 @@
+package uk.gov.digital.ho.proving.income.application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private ExecutorService callers;
+    private CountDownLatch called;
+    private CountDownLatch release;
+    private AtomicInteger calls;
+
+    @Before
+    public void setUp() {
+        callers = Executors.newFixedThreadPool(2);
+        called = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        calls = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void execute_disabled_alwaysCalls() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", false);
+
+        singleFlight.execute("key", calls::incrementAndGet);
+        singleFlight.execute("key", calls::incrementAndGet);
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(singleFlight.metrics()).isEmpty();
+    }
+
+    @Test
+    public void execute_concurrentSameKey_sharesOneCall() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", true);
+
+        Future<Integer> first = callers.submit(() -> singleFlight.execute("key", blockingCall(() -> calls.incrementAndGet())));
+        called.await(5, SECONDS);
+        Future<Integer> second = callers.submit(() -> singleFlight.execute("key", calls::incrementAndGet));
+        awaitCoalesced(singleFlight);
+        release.countDown();
+
+        assertThat(first.get(5, SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, SECONDS)).isEqualTo(1);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(metric(singleFlight, "singleflight.test.hit.rate.percent")).isEqualTo(50L);
+    }
+
+    @Test
+    public void execute_concurrentSameKeyFails_allCallersGetException() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", true);
+
+        Future<Integer> first = callers.submit(() -> singleFlight.execute("key", blockingCall(() -> {
+            throw new IllegalStateException("some failure");
+        })));
+        called.await(5, SECONDS);
+        Future<Integer> second = callers.submit(() -> singleFlight.execute("key", calls::incrementAndGet));
+        awaitCoalesced(singleFlight);
+        release.countDown();
+
+        assertThatThrownBy(() -> first.get(5, SECONDS)).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, SECONDS)).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_differentKeys_callsEach() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", true);
+
+        singleFlight.execute("key", calls::incrementAndGet);
+        singleFlight.execute("other key", calls::incrementAndGet);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_sameKeyAfterCompletion_callsAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", true);
+
+        assertThat(singleFlight.execute("key", calls::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.execute("key", calls::incrementAndGet)).isEqualTo(2);
+        assertThat(metric(singleFlight, "singleflight.test.inflight")).isEqualTo(0);
+    }
+
+    private Supplier<Integer> blockingCall(Supplier<Integer> call) {
+        return () -> {
+            called.countDown();
+            try {
+                release.await(5, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return call.get();
+        };
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (metric(singleFlight, "singleflight.test.coalesced").equals(1L)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Second caller did not join the first");
+    }
+
+    private static Object metric(SingleFlight<?, ?> singleFlight, String name) {
+        return singleFlight.metrics().stream()
+                           .filter(metric -> metric.getName().equals(name))
+                           .map(Metric::getValue)
+                           .findFirst()
+                           .orElseThrow(AssertionError::new);
+    }
+}
@@ -0,0 +1,292 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import uk.gov.digital.ho.proving.income.audit.statistics.AuditClientEndpointProperties;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpMethod.POST;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_REQUEST;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncAuditQueueTest {
+
+    private static final String SOME_ENDPOINT = "http://some-endpoint";
+
+    @Mock
+    private RestTemplate mockRestTemplate;
+    @Mock
+    private AuditEventSpooler mockAuditEventSpooler;
+
+    private AuditClientEndpointProperties endpointProperties;
+    private AsyncAuditProperties properties;
+    private final CountDownLatch auditServiceReleased = new CountDownLatch(1);
+    private AsyncAuditQueue busyQueue;
+
+    @Before
+    public void setUp() {
+        endpointProperties = new AuditClientEndpointProperties();
+        endpointProperties.setAuditEndpoint(SOME_ENDPOINT);
+
+        properties = new AsyncAuditProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(2);
+        properties.setWorkers(1);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        auditServiceReleased.countDown();
+        if (busyQueue != null) {
+            busyQueue.stop();
+        }
+    }
+
+    @Test
+    public void start_noWorkers_rejected() {
+        properties.setWorkers(0);
+        AsyncAuditQueue queue = asyncAuditQueue();
+
+        assertThatThrownBy(queue::start).isInstanceOf(IllegalStateException.class)
+                                        .hasMessageContaining("audit.async.workers");
+    }
+
+    @Test
+    public void enqueue_started_dispatchedByWorker() throws InterruptedException {
+        AsyncAuditQueue queue = asyncAuditQueue();
+        queue.start();
+
+        queue.enqueue(event("1"));
+
+        then(mockRestTemplate).should(timeout(2000)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        queue.stop();
+        assertThat(queue.dispatchedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void enqueue_dropNewestAndFull_dropsEvent() throws InterruptedException {
+        properties.setOverflowPolicy(AuditOverflowPolicy.DROP_NEWEST);
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        queue.enqueue(event("3"));
+
+        assertThat(queue.queueDepth()).isEqualTo(2);
+        assertThat(queue.droppedCount()).isEqualTo(1);
+        then(mockRestTemplate).should(times(1)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void enqueue_dropOldestAndFull_keepsNewestEvent() throws InterruptedException {
+        properties.setOverflowPolicy(AuditOverflowPolicy.DROP_OLDEST);
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        queue.enqueue(event("3"));
+
+        assertThat(queue.queueDepth()).isEqualTo(2);
+        assertThat(queue.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void enqueue_callerRunsAndFull_dispatchesOnCallingThread() throws InterruptedException {
+        properties.setOverflowPolicy(AuditOverflowPolicy.CALLER_RUNS);
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        queue.enqueue(event("3"));
+
+        then(mockRestTemplate).should(times(2)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        assertThat(queue.droppedCount()).isZero();
+    }
+
+    @Test
+    public void enqueue_callerRunsAndFullWithAuditServiceDown_singleAttemptThenSpools() throws InterruptedException {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willAnswer(heldUntilReleased())
+            .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        properties.setOverflowPolicy(AuditOverflowPolicy.CALLER_RUNS);
+        AsyncAuditQueue queue = startBusy(asyncAuditQueue(3));
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        HttpEntity<AuditableData> overflow = event("3");
+        queue.enqueue(overflow);
+
+        then(mockRestTemplate).should(times(2)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        then(mockAuditEventSpooler).should().spoolUndelivered(overflow.getBody());
+    }
+
+    @Test
+    public void enqueue_defaultPolicyAndFull_dropsOldestEvent() throws InterruptedException {
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        queue.enqueue(event("3"));
+
+        assertThat(queue.droppedCount()).isEqualTo(1);
+        then(mockRestTemplate).should(times(1)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void enqueue_blockAndFull_dropsAfterTimeout() throws InterruptedException {
+        properties.setOverflowPolicy(AuditOverflowPolicy.BLOCK);
+        properties.setBlockTimeoutMillis(1);
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+        queue.enqueue(event("2"));
+        queue.enqueue(event("3"));
+
+        assertThat(queue.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void stop_eventsQueued_flushesBeforeShutdown() throws InterruptedException {
+        properties.setQueueCapacity(10);
+        AsyncAuditQueue queue = asyncAuditQueue();
+        queue.start();
+
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(event(String.valueOf(i)));
+        }
+        queue.stop();
+
+        then(mockRestTemplate).should(times(10)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        assertThat(queue.queueDepth()).isZero();
+    }
+
+    @Test
+    public void dispatch_auditServiceFails_countedAsFailed() throws InterruptedException {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        AsyncAuditQueue queue = asyncAuditQueue();
+        queue.start();
+
+        queue.enqueue(event("1"));
+        queue.stop();
+
+        assertThat(metricValue(queue, "audit.async.failed")).isEqualTo(1L);
+        assertThat(queue.dispatchedCount()).isZero();
+    }
+
+    @Test
+    public void dispatch_auditServiceFails_spoolsEvent() {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        AsyncAuditQueue queue = asyncAuditQueue();
+
+        HttpEntity<AuditableData> event = event("1");
+        queue.enqueue(event);
+
+        then(mockAuditEventSpooler).should().spoolUndelivered(event.getBody());
+    }
+
+    @Test
+    public void enqueue_notStartedAndAuditServiceFails_notRetriedOnCallingThread() {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        AsyncAuditQueue queue = asyncAuditQueue(3);
+
+        queue.enqueue(event("1"));
+
+        then(mockRestTemplate).should(times(1)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    public void dispatch_spoolBacklog_spoolsInsteadOfPosting() {
+        given(mockAuditEventSpooler.shouldSpool()).willReturn(true);
+        AsyncAuditQueue queue = asyncAuditQueue();
+
+        HttpEntity<AuditableData> event = event("1");
+        queue.enqueue(event);
+
+        then(mockAuditEventSpooler).should().spool(event.getBody());
+        then(mockRestTemplate).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void metrics_queueDepthReported() throws InterruptedException {
+        AsyncAuditQueue queue = startedWithBusyWorker();
+
+        queue.enqueue(event("1"));
+
+        assertThat(metricValue(queue, "audit.async.queue.depth")).isEqualTo(1);
+        assertThat(metricValue(queue, "audit.async.enqueued")).isEqualTo(2L);
+    }
+
+    private AsyncAuditQueue asyncAuditQueue() {
+        return asyncAuditQueue(1);
+    }
+
+    private AsyncAuditQueue asyncAuditQueue(int maxAttempts) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(maxAttempts));
+        return new AsyncAuditQueue(mockRestTemplate, endpointProperties, retryTemplate, properties, mockAuditEventSpooler);
+    }
+
+    private AsyncAuditQueue startedWithBusyWorker() throws InterruptedException {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willAnswer(heldUntilReleased())
+            .willReturn(null);
+        return startBusy(asyncAuditQueue());
+    }
+
+    /**
+     * Starts the queue and ties its only worker up on a POST that does not return until the test ends, so that
+     * anything enqueued afterwards stays queued.
+     */
+    private AsyncAuditQueue startBusy(AsyncAuditQueue queue) throws InterruptedException {
+        busyQueue = queue;
+        queue.start();
+        queue.enqueue(event("busy"));
+        then(mockRestTemplate).should(timeout(2000)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        return queue;
+    }
+
+    private Answer<Object> heldUntilReleased() {
+        return invocation -> {
+            auditServiceReleased.await();
+            return null;
+        };
+    }
+
+    private Number metricValue(AsyncAuditQueue queue, String name) {
+        return queue.metrics().stream()
+                    .filter(metric -> metric.getName().equals(name))
+                    .map(Metric::getValue)
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+    }
+
+    private HttpEntity<AuditableData> event(String eventId) {
+        return new HttpEntity<>(new AuditableData(eventId, LocalDateTime.now(), "some session id", "some correlation id", "some user id",
+                                                  "some deployment", "some namespace", INCOME_PROVING_FINANCIAL_STATUS_REQUEST, "{}"));
+    }
+}
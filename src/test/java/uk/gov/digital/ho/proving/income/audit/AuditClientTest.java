@@ -71,6 +71,10 @@ public class AuditClientTest {
     private RequestData mockRequestData;
     @Mock
     private Appender<ILoggingEvent> mockAppender;
+    @Mock
+    private AsyncAuditQueue mockAsyncAuditQueue;
+    @Mock
+    private AuditEventSpooler mockAuditEventSpooler;
 
     @Captor private ArgumentCaptor<HttpEntity> captorHttpEntity;
     @Captor private ArgumentCaptor<URI> captorUri;
@@ -117,7 +121,9 @@ public class AuditClientTest {
                                       mockRequestData,
                                       endpointProperties,
                                       mockObjectMapper,
-                                      simpleRetryTemplate());
+                                      simpleRetryTemplate(),
+                                      mockAsyncAuditQueue,
+                                      mockAuditEventSpooler);
 
         Logger rootLogger = (Logger) LoggerFactory.getLogger(AuditClient.class);
         rootLogger.setLevel(INFO);
@@ -612,7 +618,9 @@ public class AuditClientTest {
                                              mockRequestData,
                                              ANY_ENDPOINT_PROPERTIES,
                                              mockObjectMapper,
-                                             mockRetryTemplate);
+                                             mockRetryTemplate,
+                                             mockAsyncAuditQueue,
+                                      mockAuditEventSpooler);
 
         client.add(ANY_EVENT_TYPE, UUID, null);
 
@@ -633,6 +641,63 @@ public class AuditClientTest {
         assertThat(errorLog.getArgumentArray()).contains(new ObjectAppendingMarker(EVENT, INCOME_PROVING_AUDIT_FAILURE));
     }
 
+    @Test
+    public void add_asyncEnabled_enqueuesInsteadOfPosting() {
+        given(mockAsyncAuditQueue.isEnabled()).willReturn(true);
+        stubRequestData();
+
+        auditClient.add(ANY_EVENT_TYPE, UUID, null);
+
+        ArgumentCaptor<HttpEntity> eventCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        then(mockAsyncAuditQueue).should().enqueue(eventCaptor.capture());
+        assertHeaders(eventCaptor.getValue().getHeaders());
+        then(mockRestTemplate).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void add_retriesExhausted_spoolsEvent() {
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class))).willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        auditClient.add(ANY_EVENT_TYPE, UUID, null);
+
+        ArgumentCaptor<AuditableData> spooledCaptor = ArgumentCaptor.forClass(AuditableData.class);
+        then(mockAuditEventSpooler).should().spoolUndelivered(spooledCaptor.capture());
+        assertThat(spooledCaptor.getValue().getEventId()).isEqualTo(UUID.toString());
+    }
+
+    @Test
+    public void add_spoolEnabled_singleAttemptThenSpools() {
+        AuditClientEndpointProperties endpointProperties = new AuditClientEndpointProperties();
+        endpointProperties.setAuditEndpoint(SOME_ENDPOINT);
+        RetryTemplate threeAttempts = new RetryTemplate();
+        threeAttempts.setRetryPolicy(new SimpleRetryPolicy(3));
+        AuditClient client = new AuditClient(ANY_CLOCK,
+                                             mockRestTemplate,
+                                             mockRequestData,
+                                             endpointProperties,
+                                             mockObjectMapper,
+                                             threeAttempts,
+                                             mockAsyncAuditQueue,
+                                             mockAuditEventSpooler);
+        given(mockAuditEventSpooler.isEnabled()).willReturn(true);
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class))).willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        client.add(ANY_EVENT_TYPE, UUID, null);
+
+        then(mockRestTemplate).should(times(1)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        then(mockAuditEventSpooler).should().spoolUndelivered(any(AuditableData.class));
+    }
+
+    @Test
+    public void add_spoolBacklog_spoolsInsteadOfPosting() {
+        given(mockAuditEventSpooler.shouldSpool()).willReturn(true);
+
+        auditClient.add(ANY_EVENT_TYPE, UUID, null);
+
+        then(mockAuditEventSpooler).should().spool(any(AuditableData.class));
+        then(mockRestTemplate).shouldHaveZeroInteractions();
+    }
+
     private LoggingEvent getLogStartingWith(List<LoggingEvent> loggingEvents, String messageStart) {
         return loggingEvents.stream()
                             .filter(loggingEvent -> loggingEvent.getFormattedMessage().startsWith(messageStart))
@@ -0,0 +1,136 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.audit.statistics.AuditClientEndpointProperties;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpMethod.POST;
+import static uk.gov.digital.ho.proving.income.audit.AuditEventType.INCOME_PROVING_FINANCIAL_STATUS_REQUEST;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditEventSpoolerTest {
+
+    private static final String SOME_ENDPOINT = "http://some-endpoint";
+    private static final String SOME_BASIC_AUTH = "Basic some-auth";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private RestTemplate mockRestTemplate;
+    @Mock
+    private RequestData mockRequestData;
+
+    private AuditSpoolProperties properties;
+    private AuditEventSpooler spooler;
+
+    @Before
+    public void setUp() throws IOException {
+        AuditClientEndpointProperties endpointProperties = new AuditClientEndpointProperties();
+        endpointProperties.setAuditEndpoint(SOME_ENDPOINT);
+
+        properties = new AuditSpoolProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(folder.getRoot().getPath());
+        properties.setReplayPerSecond(1000);
+        properties.setReplayIntervalMillis(60000);
+
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+        spooler = new AuditEventSpooler(mockRestTemplate, endpointProperties, mockRequestData, mapper, properties);
+        spooler.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        spooler.stop();
+    }
+
+    @Test
+    public void shouldSpool_auditServiceAvailableAndNoBacklog_false() {
+        assertThat(spooler.shouldSpool()).isFalse();
+    }
+
+    @Test
+    public void shouldSpool_afterUndeliveredEvent_true() {
+        assertThat(spooler.spoolUndelivered(event("1"))).isTrue();
+
+        assertThat(spooler.shouldSpool()).isTrue();
+    }
+
+    @Test
+    public void spoolUndelivered_disabled_false() throws InterruptedException {
+        spooler.stop();
+        properties.setEnabled(false);
+        AuditEventSpooler disabled = new AuditEventSpooler(mockRestTemplate, new AuditClientEndpointProperties(), mockRequestData, new ObjectMapper(), properties);
+
+        assertThat(disabled.spoolUndelivered(event("1"))).isFalse();
+        assertThat(disabled.shouldSpool()).isFalse();
+    }
+
+    @Test
+    public void replay_auditServiceBack_replaysInOrderAndStopsSpooling() {
+        given(mockRequestData.auditBasicAuth()).willReturn(SOME_BASIC_AUTH);
+        spooler.spoolUndelivered(event("1"));
+        spooler.spool(event("2"));
+
+        spooler.replay();
+
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        then(mockRestTemplate).should(times(2)).exchange(eq(SOME_ENDPOINT), eq(POST), captor.capture(), eq(Void.class));
+        List<String> replayedIds = captor.getAllValues().stream()
+                                         .map(entity -> ((AuditableData) entity.getBody()).getEventId())
+                                         .collect(toList());
+        assertThat(replayedIds).containsExactly("1", "2");
+        assertThat(captor.getValue().getHeaders().getFirst(AUTHORIZATION)).isEqualTo(SOME_BASIC_AUTH);
+        assertThat(spooler.shouldSpool()).isFalse();
+    }
+
+    @Test
+    public void replay_auditServiceStillDown_keepsEventsForNextReplay() {
+        given(mockRequestData.auditBasicAuth()).willReturn(SOME_BASIC_AUTH);
+        given(mockRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class)))
+            .willThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        spooler.spoolUndelivered(event("1"));
+        spooler.spool(event("2"));
+
+        spooler.replay();
+
+        then(mockRestTemplate).should(times(1)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(Void.class));
+        assertThat(spooler.shouldSpool()).isTrue();
+    }
+
+    private AuditableData event(String eventId) {
+        return new AuditableData(eventId, LocalDateTime.now(), "some session id", "some correlation id", "some user id",
+                                 "some deployment", "some namespace", INCOME_PROVING_FINANCIAL_STATUS_REQUEST, "{}");
+    }
+}
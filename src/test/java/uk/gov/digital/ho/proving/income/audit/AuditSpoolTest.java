@@ -0,0 +1,161 @@
+package uk.gov.digital.ho.proving.income.audit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AuditSpoolTest {
+
+    private static final int SEGMENT_BYTES = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void peek_empty_returnsNull() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        assertThat(spool.peek()).isNull();
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void peek_appended_returnsRecordsInOrder() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        spool.append(bytes("first"));
+        spool.append(bytes("second"));
+
+        assertThat(readNext(spool)).isEqualTo("first");
+        assertThat(readNext(spool)).isEqualTo("second");
+        assertThat(spool.peek()).isNull();
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void peek_notCommitted_returnsSameRecord() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        spool.append(bytes("first"));
+
+        assertThat(spool.peek()).isEqualTo(bytes("first"));
+        assertThat(spool.peek()).isEqualTo(bytes("first"));
+    }
+
+    @Test
+    public void append_segmentFull_rotatesAndDeletesReadSegments() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        for (int i = 0; i < 10; i++) {
+            spool.append(bytes("record-" + i));
+        }
+        assertThat(segmentFiles()).isGreaterThan(1);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(readNext(spool)).isEqualTo("record-" + i);
+        }
+        assertThat(spool.peek()).isNull();
+        assertThat(segmentFiles()).isEqualTo(1);
+    }
+
+    @Test
+    public void append_tooLargeForSegment_throws() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        assertThatThrownBy(() -> spool.append(new byte[SEGMENT_BYTES])).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void reopen_resumesFromCursor() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+        for (int i = 0; i < 5; i++) {
+            spool.append(bytes("record-" + i));
+        }
+        readNext(spool);
+        readNext(spool);
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+        reopened.append(bytes("record-5"));
+
+        for (int i = 2; i < 6; i++) {
+            assertThat(readNext(reopened)).isEqualTo("record-" + i);
+        }
+        assertThat(reopened.peek()).isNull();
+    }
+
+    @Test
+    public void peek_corruptRecordInFullSegment_skipsOnlyThatRecord() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+        for (int i = 0; i < 10; i++) {
+            spool.append(bytes("record-" + i));
+        }
+        spool.close();
+        corruptFirstPayloadByte(firstSegment());
+
+        AuditSpool reopened = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+
+        for (int i = 1; i < 10; i++) {
+            assertThat(readNext(reopened)).isEqualTo("record-" + i);
+        }
+        assertThat(reopened.peek()).isNull();
+    }
+
+    @Test
+    public void peek_corruptRecordInWriteSegment_replaysLaterRecords() throws IOException {
+        AuditSpool spool = new AuditSpool(folder.getRoot().toPath(), SEGMENT_BYTES);
+        spool.append(bytes("first"));
+        spool.append(bytes("second"));
+        corruptFirstPayloadByte(firstSegment());
+
+        assertThat(readNext(spool)).isEqualTo("second");
+        assertThat(spool.isEmpty()).isTrue();
+
+        spool.append(bytes("third"));
+
+        assertThat(readNext(spool)).isEqualTo("third");
+        assertThat(spool.peek()).isNull();
+    }
+
+    private String readNext(AuditSpool spool) throws IOException {
+        byte[] record = spool.peek();
+        spool.commit();
+        return new String(record, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".spool")).count();
+        }
+    }
+
+    private Path firstSegment() throws IOException {
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".spool")).sorted().findFirst().orElseThrow(AssertionError::new);
+        }
+    }
+
+    private static void corruptFirstPayloadByte(Path segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long payloadStart = Integer.BYTES + Long.BYTES;
+            file.seek(payloadStart);
+            int original = file.read();
+            file.seek(payloadStart);
+            file.write(~original);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.retry.backoff.FixedBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.AsyncRetrier;
+import uk.gov.digital.ho.proving.income.application.CircuitBreaker;
+import uk.gov.digital.ho.proving.income.application.CircuitBreakerProperties;
+import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpMethod.POST;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.digital.ho.proving.income.api.RequestData.COMPONENT_TRACE_HEADER;
+import static uk.gov.digital.ho.proving.income.api.RequestData.CORRELATION_ID_HEADER;
+import static uk.gov.digital.ho.proving.income.api.RequestData.SESSION_ID_HEADER;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HmrcAsyncClientTest {
+
+    private static final String SOME_ENDPOINT = "http://income-service/income";
+    private static final String SOME_SESSION_ID = "some session id";
+    private static final String SOME_CORRELATION_ID = "some correlation id";
+    private static final String SOME_BASIC_AUTH = "some basic auth";
+    private static final String SOME_COMPONENT_TRACE = "smoke-tests,pttg-ip-api";
+    private static final Identity SOME_IDENTITY = new Identity("John", "Smith", LocalDate.of(1965, Month.JULY, 19), "NE121212A");
+    private static final LocalDate SOME_FROM_DATE = LocalDate.of(2017, Month.JANUARY, 1);
+    private static final LocalDate SOME_TO_DATE = LocalDate.of(2017, Month.JULY, 1);
+
+    @Mock
+    private AsyncRestTemplate mockAsyncRestTemplate;
+    @Mock
+    private RequestData mockRequestData;
+    @Mock
+    private ServiceResponseLogger mockServiceResponseLogger;
+
+    private ScheduledExecutorService scheduler;
+    private NoMatchCache noMatchCache;
+    private HmrcAsyncClient client;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        NoMatchCacheProperties noMatchCacheProperties = new NoMatchCacheProperties();
+        noMatchCacheProperties.setEnabled(true);
+        noMatchCache = new NoMatchCache(noMatchCacheProperties, Clock.systemUTC());
+        client = new HmrcAsyncClient(mockAsyncRestTemplate, SOME_ENDPOINT, mockRequestData, mockServiceResponseLogger, retrier(3),
+                                     new CircuitBreaker("hmrc", new CircuitBreakerProperties(), Clock.systemUTC(), e -> true),
+                                     new IncomeRecordCache(new IncomeRecordCacheProperties(), new ObjectMapper(), Clock.systemUTC()),
+                                     noMatchCache);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test
+    public void getIncomeRecord_found_completesWithRecord() throws Exception {
+        IncomeRecord incomeRecord = anyIncomeRecord();
+        given(exchange()).willReturn(succeeded(new ResponseEntity<>(incomeRecord, OK)));
+
+        CompletableFuture<IncomeRecord> result = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(result.get(1, SECONDS)).isSameAs(incomeRecord);
+        then(mockServiceResponseLogger).should().record(SOME_IDENTITY, incomeRecord);
+        then(mockRequestData).should().updateComponentTrace(any(ResponseEntity.class));
+    }
+
+    @Test
+    public void getIncomeRecord_sendsSameHeadersAsBlockingClient() {
+        given(mockRequestData.sessionId()).willReturn(SOME_SESSION_ID);
+        given(mockRequestData.correlationId()).willReturn(SOME_CORRELATION_ID);
+        given(mockRequestData.hmrcBasicAuth()).willReturn(SOME_BASIC_AUTH);
+        given(mockRequestData.componentTrace()).willReturn(SOME_COMPONENT_TRACE);
+        given(exchange()).willReturn(succeeded(new ResponseEntity<>(anyIncomeRecord(), OK)));
+
+        client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        then(mockAsyncRestTemplate).should().exchange(eq(SOME_ENDPOINT), eq(POST), captor.capture(), eq(IncomeRecord.class));
+        assertThat(captor.getValue().getHeaders().getFirst(SESSION_ID_HEADER)).isEqualTo(SOME_SESSION_ID);
+        assertThat(captor.getValue().getHeaders().getFirst(CORRELATION_ID_HEADER)).isEqualTo(SOME_CORRELATION_ID);
+        assertThat(captor.getValue().getHeaders().getFirst(AUTHORIZATION)).isEqualTo(SOME_BASIC_AUTH);
+        assertThat(captor.getValue().getHeaders().getFirst(COMPONENT_TRACE_HEADER)).isEqualTo(SOME_COMPONENT_TRACE);
+    }
+
+    @Test
+    public void getIncomeRecord_notFound_failsWithNoUniqueMatchAndRemembersIt() {
+        given(exchange()).willReturn(failed(new HttpClientErrorException(NOT_FOUND)));
+
+        CompletableFuture<IncomeRecord> result = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThatThrownBy(() -> result.get(1, SECONDS)).isInstanceOf(ExecutionException.class)
+                                                         .hasCauseInstanceOf(EarningsServiceNoUniqueMatchException.class);
+        assertThat(noMatchCache.isKnownNoMatch(SOME_IDENTITY)).isTrue();
+        then(mockRequestData).should().updateComponentTrace(any(HttpClientErrorException.class));
+    }
+
+    @Test
+    public void getIncomeRecord_knownNoMatch_doesNotCallHmrc() {
+        noMatchCache.recordNoMatch(SOME_IDENTITY);
+
+        CompletableFuture<IncomeRecord> result = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(result).isCompletedExceptionally();
+        then(mockAsyncRestTemplate).shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void getIncomeRecord_serverError_retriedWithoutBlocking() throws Exception {
+        IncomeRecord incomeRecord = anyIncomeRecord();
+        given(exchange()).willReturn(failed(new HttpServerErrorException(INTERNAL_SERVER_ERROR)),
+                                     succeeded(new ResponseEntity<>(incomeRecord, OK)));
+
+        CompletableFuture<IncomeRecord> result = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThat(result.get(1, SECONDS)).isSameAs(incomeRecord);
+        then(mockAsyncRestTemplate).should(times(2)).exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(IncomeRecord.class));
+    }
+
+    @Test
+    public void getIncomeRecord_connectionFailure_reportedAsResourceAccessException() {
+        given(exchange()).willReturn(failed(new ConnectException("refused")));
+
+        CompletableFuture<IncomeRecord> result = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE);
+
+        assertThatThrownBy(() -> result.get(1, SECONDS)).hasCauseInstanceOf(ResourceAccessException.class);
+    }
+
+    @Test
+    public void getIncomeRecord_completesWithRequestContext() throws Exception {
+        MDC.put(CORRELATION_ID_HEADER, SOME_CORRELATION_ID);
+        SettableListenableFuture<ResponseEntity<IncomeRecord>> response = new SettableListenableFuture<>();
+        given(exchange()).willReturn(response);
+
+        CompletableFuture<String> correlationIdOnCompletion = client.getIncomeRecord(SOME_IDENTITY, SOME_FROM_DATE, SOME_TO_DATE)
+                                                                    .thenApply(incomeRecord -> MDC.get(CORRELATION_ID_HEADER));
+        MDC.clear();
+        CompletableFuture.runAsync(() -> response.set(new ResponseEntity<>(anyIncomeRecord(), OK)));
+
+        assertThat(correlationIdOnCompletion.get(1, SECONDS)).isEqualTo(SOME_CORRELATION_ID);
+    }
+
+    private ListenableFuture<ResponseEntity<IncomeRecord>> exchange() {
+        return mockAsyncRestTemplate.exchange(eq(SOME_ENDPOINT), eq(POST), any(HttpEntity.class), eq(IncomeRecord.class));
+    }
+
+    private AsyncRetrier retrier(int maxAttempts) {
+        return new AsyncRetrier(new SimpleRetryPolicy(maxAttempts, singletonMap(HttpServerErrorException.class, true)),
+                                sleeper -> {
+                                    FixedBackOffPolicy backOffPolicy = new FixedBackOffPolicy();
+                                    backOffPolicy.setBackOffPeriod(10);
+                                    backOffPolicy.setSleeper(sleeper);
+                                    return backOffPolicy;
+                                },
+                                scheduler);
+    }
+
+    private static ListenableFuture<ResponseEntity<IncomeRecord>> succeeded(ResponseEntity<IncomeRecord> response) {
+        SettableListenableFuture<ResponseEntity<IncomeRecord>> future = new SettableListenableFuture<>();
+        future.set(response);
+        return future;
+    }
+
+    private static ListenableFuture<ResponseEntity<IncomeRecord>> failed(Throwable error) {
+        SettableListenableFuture<ResponseEntity<IncomeRecord>> future = new SettableListenableFuture<>();
+        future.setException(error);
+        return future;
+    }
+
+    private static IncomeRecord anyIncomeRecord() {
+        return new IncomeRecord(emptyList(), emptyList(), emptyList(), new HmrcIndividual("John", "Smith", "NE121212A", LocalDate.of(1965, Month.JULY, 19)));
+    }
+}
@@ -5,6 +5,9 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.LoggingEvent;
 import ch.qos.logback.core.Appender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import net.logstash.logback.marker.ObjectAppendingMarker;
 import org.junit.Before;
 import org.junit.Rule;
@@ -26,24 +29,40 @@ import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.digital.ho.proving.income.api.RequestData;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.BulkheadRejectedException;
+import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.CircuitBreakerOpenException;
 import uk.gov.digital.ho.proving.income.application.ApplicationExceptions.EarningsServiceNoUniqueMatchException;
+import uk.gov.digital.ho.proving.income.application.BulkheadFullException;
+import uk.gov.digital.ho.proving.income.application.CircuitBreaker;
+import uk.gov.digital.ho.proving.income.application.CircuitBreakerProperties;
+import uk.gov.digital.ho.proving.income.application.HedgingProperties;
 import uk.gov.digital.ho.proving.income.application.LogEvent;
+import uk.gov.digital.ho.proving.income.application.RequestHedger;
+import uk.gov.digital.ho.proving.income.application.SingleFlight;
 import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
 import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
 import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static ch.qos.logback.classic.Level.ERROR;
 import static ch.qos.logback.classic.Level.INFO;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
@@ -99,7 +118,7 @@ public class HmrcClientTest {
         when(mockRequestData.hmrcBasicAuth()).thenReturn(SOME_BASIC_AUTH);
         when(mockRequestData.componentTrace()).thenReturn(SOME_COMPONENT_TRACE);
 
-        service = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate());
+        service = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), disabledCircuitBreaker(), disabledRequestHedger(), disabledSingleFlight(), disabledIncomeRecordCache(), disabledNoMatchCache());
 
         when(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
             .thenReturn(new ResponseEntity<>(anyIncomeRecord(), OK));
@@ -129,6 +148,43 @@ public class HmrcClientTest {
         return retryTemplate;
     }
 
+    private CircuitBreaker disabledCircuitBreaker() {
+        return new CircuitBreaker("hmrc", new CircuitBreakerProperties(), Clock.systemUTC(), e -> true);
+    }
+
+    private RequestHedger disabledRequestHedger() {
+        return new RequestHedger("hmrc", new HedgingProperties(), Runnable::run, Clock.systemUTC());
+    }
+
+    private SingleFlight<IncomeRecordKey, ResponseEntity<IncomeRecord>> disabledSingleFlight() {
+        return new SingleFlight<>("hmrc", false);
+    }
+
+    private IncomeRecordCache disabledIncomeRecordCache() {
+        return new IncomeRecordCache(new IncomeRecordCacheProperties(), new ObjectMapper(), Clock.systemUTC());
+    }
+
+    private NoMatchCache disabledNoMatchCache() {
+        return new NoMatchCache(new NoMatchCacheProperties(), Clock.systemUTC());
+    }
+
+    private HmrcClient clientWithNoMatchCache() {
+        NoMatchCacheProperties properties = new NoMatchCacheProperties();
+        properties.setEnabled(true);
+        NoMatchCache noMatchCache = new NoMatchCache(properties, Clock.systemUTC());
+        return new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), disabledCircuitBreaker(), disabledRequestHedger(), disabledSingleFlight(), disabledIncomeRecordCache(), noMatchCache);
+    }
+
+    private HmrcClient clientWithCache() {
+        IncomeRecordCacheProperties properties = new IncomeRecordCacheProperties();
+        properties.setEnabled(true);
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        IncomeRecordCache cache = new IncomeRecordCache(properties, mapper, Clock.systemUTC());
+        return new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), disabledCircuitBreaker(), disabledRequestHedger(), disabledSingleFlight(), cache, disabledNoMatchCache());
+    }
+
     @Test
     public void shouldSendServiceResponseToLogger() {
         verify(mockServiceResponseLogger).record(eq(new Identity(SOME_FIRST_NAME, SOME_LAST_NAME, SOME_DOB, SOME_NINO)),
@@ -280,13 +336,159 @@ public class HmrcClientTest {
 
     @Test
     public void getIncomeRecord_anyInput_shouldUseRetryTemplate() {
-        RetryTemplate mockRetryTemplate = mock(RetryTemplate.class);
-        HmrcClient client = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, mockRetryTemplate);
+        RetryTemplate mockRetryTemplate = spy(simpleRetryTemplate());
+        HmrcClient client = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, mockRetryTemplate, disabledCircuitBreaker(), disabledRequestHedger(), disabledSingleFlight(), disabledIncomeRecordCache(), disabledNoMatchCache());
 
         client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
         then(mockRetryTemplate).should().execute(any(), any(), any());
     }
 
+    @Test
+    public void getIncomeRecord_circuitOpen_failsWithoutCallingHmrc() {
+        clearInvocations(mockRestTemplate);
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setEnabled(true);
+        properties.setMinimumCalls(1);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("hmrc", properties, Clock.systemUTC(), e -> e instanceof HttpServerErrorException);
+        HmrcClient client = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), circuitBreaker, disabledRequestHedger(), disabledSingleFlight(), disabledIncomeRecordCache(), disabledNoMatchCache());
+        given(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
+            .willThrow(new HttpServerErrorException(INTERNAL_SERVER_ERROR));
+
+        assertThatThrownBy(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isInstanceOf(CircuitBreakerOpenException.class);
+
+        then(mockRestTemplate).should(times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any());
+    }
+
+    @Test
+    public void getIncomeRecord_bulkheadFull_rejectedAsUnavailable() {
+        given(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
+            .willThrow(new ResourceAccessException("I/O error", new BulkheadFullException("hmrc", 50)));
+
+        assertThatThrownBy(() -> service.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE))
+            .isInstanceOf(BulkheadRejectedException.class)
+            .hasFieldOrPropertyWithValue("bulkhead", "hmrc");
+    }
+
+    @Test
+    public void getIncomeRecord_hedgingEnabled_returnsIncomeRecord() {
+        HedgingProperties properties = new HedgingProperties();
+        properties.setEnabled(true);
+        RequestHedger requestHedger = new RequestHedger("hmrc", properties, Runnable::run, Clock.systemUTC());
+        HmrcClient client = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), disabledCircuitBreaker(), requestHedger, disabledSingleFlight(), disabledIncomeRecordCache(), disabledNoMatchCache());
+
+        assertThat(client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isNotNull();
+    }
+
+    @Test
+    public void getIncomeRecord_concurrentIdenticalLookups_shareOneHmrcCall() throws Exception {
+        clearInvocations(mockRestTemplate, mockRequestData);
+        SingleFlight<IncomeRecordKey, ResponseEntity<IncomeRecord>> singleFlight = new SingleFlight<>("hmrc", true);
+        HmrcClient client = new HmrcClient(mockRestTemplate, "http://income-service/income", mockRequestData, mockServiceResponseLogger, simpleRetryTemplate(), disabledCircuitBreaker(), disabledRequestHedger(), singleFlight, disabledIncomeRecordCache(), disabledNoMatchCache());
+
+        CountDownLatch hmrcCalled = new CountDownLatch(1);
+        CountDownLatch hmrcResponds = new CountDownLatch(1);
+        ResponseEntity<IncomeRecord> responseEntity = new ResponseEntity<>(anyIncomeRecord(), OK);
+        given(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
+            .willAnswer(invocation -> {
+                hmrcCalled.countDown();
+                hmrcResponds.await(5, SECONDS);
+                return responseEntity;
+            });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<IncomeRecord> first = callers.submit(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE));
+            hmrcCalled.await(5, SECONDS);
+            Future<IncomeRecord> second = callers.submit(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE));
+            awaitCoalesced(singleFlight);
+            hmrcResponds.countDown();
+
+            assertThat(second.get(5, SECONDS)).isSameAs(first.get(5, SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        then(mockRestTemplate).should(times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any());
+        then(mockRequestData).should(times(2)).updateComponentTrace(responseEntity);
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            boolean coalesced = singleFlight.metrics().stream()
+                                            .anyMatch(metric -> metric.getName().equals("singleflight.hmrc.coalesced") && metric.getValue().longValue() == 1);
+            if (coalesced) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Second lookup did not join the first");
+    }
+
+    @Test
+    public void getIncomeRecord_cached_doesNotCallHmrcAgain() {
+        HmrcClient client = clientWithCache();
+        clearInvocations(mockRestTemplate);
+
+        IncomeRecord first = client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+        IncomeRecord second = client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+
+        assertThat(second).isEqualTo(first);
+        then(mockRestTemplate).should(times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any());
+    }
+
+    @Test
+    public void getIncomeRecord_cached_responseLoggedButComponentTraceUnchanged() {
+        HmrcClient client = clientWithCache();
+        clearInvocations(mockRequestData, mockServiceResponseLogger);
+
+        client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+        IncomeRecord cached = client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+
+        then(mockServiceResponseLogger).should(times(2)).record(ANY_IDENTITY, cached);
+        then(mockRequestData).should(times(1)).updateComponentTrace(any(ResponseEntity.class));
+    }
+
+    @Test
+    public void getIncomeRecord_cachedButBypassRequested_callsHmrc() {
+        HmrcClient client = clientWithCache();
+        clearInvocations(mockRestTemplate);
+
+        client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+        given(mockRequestData.bypassCache()).willReturn(true);
+        client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE);
+
+        then(mockRestTemplate).should(times(2)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any());
+    }
+
+    @Test
+    public void getIncomeRecord_knownNoMatch_doesNotCallHmrcAgain() {
+        HmrcClient client = clientWithNoMatchCache();
+        clearInvocations(mockRestTemplate);
+        given(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
+            .willThrow(new HttpClientErrorException(NOT_FOUND));
+
+        assertThatThrownBy(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isInstanceOf(EarningsServiceNoUniqueMatchException.class);
+        assertThatThrownBy(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isInstanceOf(EarningsServiceNoUniqueMatchException.class);
+
+        then(mockRestTemplate).should(times(1)).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any());
+        verifyLogMessage("HMRC Service recently found no match", HMRC_NO_MATCH_CACHE_HIT, ERROR);
+    }
+
+    @Test
+    public void getIncomeRecord_knownNoMatchButBypassRequested_callsHmrc() {
+        HmrcClient client = clientWithNoMatchCache();
+        clearInvocations(mockRestTemplate);
+        given(mockRestTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), ArgumentMatchers.<Class<IncomeRecord>>any()))
+            .willThrow(new HttpClientErrorException(NOT_FOUND))
+            .willReturn(new ResponseEntity<>(anyIncomeRecord(), OK));
+
+        assertThatThrownBy(() -> client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isInstanceOf(EarningsServiceNoUniqueMatchException.class);
+        given(mockRequestData.bypassCache()).willReturn(true);
+
+        assertThat(client.getIncomeRecord(ANY_IDENTITY, ANY_DATE, ANY_DATE)).isNotNull();
+    }
+
     @Test
     public void getIncomeRecord_responseSuccess_updateComponentTrace() {
         reset(mockRequestData);
@@ -0,0 +1,257 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IncomeRecordCacheTest {
+
+    private static final String NINO = "AA123456A";
+    private static final LocalDate FROM_DATE = LocalDate.of(2018, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2019, 1, 1);
+    private static final long TTL_SECONDS = 60;
+
+    @Mock
+    private Clock mockClock;
+
+    private IncomeRecordCacheProperties properties;
+    private InterleavingMapper mapper;
+    private IncomeRecordCache cache;
+
+    @Before
+    public void setUp() {
+        given(mockClock.millis()).willReturn(0L);
+
+        properties = new IncomeRecordCacheProperties();
+        properties.setEnabled(true);
+        properties.setTtlSeconds(TTL_SECONDS);
+
+        mapper = new InterleavingMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        cache = new IncomeRecordCache(properties, mapper, mockClock);
+    }
+
+    @Test
+    public void get_notCached_null() {
+        assertThat(cache.get(key("Joe"))).isNull();
+        assertThat(metric("hmrc.cache.misses")).isEqualTo(1L);
+    }
+
+    @Test
+    public void get_cached_returnsCopyOfRecord() {
+        IncomeRecord incomeRecord = incomeRecord();
+        cache.put(key("Joe"), incomeRecord);
+
+        IncomeRecord cached = cache.get(key("Joe"));
+
+        assertThat(cached.paye()).isEqualTo(incomeRecord.paye());
+        assertThat(cached.individual()).isEqualTo(incomeRecord.individual());
+        assertThat(metric("hmrc.cache.hits")).isEqualTo(1L);
+    }
+
+    @Test
+    public void get_datesOutsideCached_notCached() {
+        cache.put(key("Joe"), incomeRecord());
+
+        assertThat(cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE.minusDays(1), TO_DATE))).isNull();
+        assertThat(cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE, TO_DATE.plusDays(1)))).isNull();
+    }
+
+    @Test
+    public void get_datesInsideCached_returnsIncomeForThoseDates() {
+        cache.put(key("Joe"), incomeRecord());
+
+        IncomeRecord cached = cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusMonths(6), TO_DATE));
+
+        assertThat(cached.paye()).extracting(Income::paymentDate).containsExactly(LocalDate.of(2018, 10, 1));
+    }
+
+    @Test
+    public void put_overlappingDates_mergesCoveredDates() {
+        cache.put(key("Joe"), incomeRecord());
+        Income laterIncome = new Income(new BigDecimal("1000.00"), LocalDate.of(2019, 2, 1), 11, null, "123/AB456");
+        IncomeRecord laterRecord = new IncomeRecord(singletonList(laterIncome), emptyList(), emptyList(), individual());
+        cache.put(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusMonths(2), TO_DATE.plusMonths(2)), laterRecord);
+
+        IncomeRecord cached = cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE, TO_DATE.plusMonths(2)));
+
+        assertThat(cached.paye()).extracting(Income::paymentDate).containsExactly(LocalDate.of(2019, 2, 1), LocalDate.of(2018, 2, 1));
+        assertThat(metric("hmrc.cache.merges")).isEqualTo(1L);
+        assertThat(metric("hmrc.cache.entries")).isEqualTo(1);
+    }
+
+    @Test
+    public void put_overlappingDates_expiresWithOlderRecord() {
+        cache.put(key("Joe"), incomeRecord());
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 500);
+        cache.put(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusMonths(2), TO_DATE.plusMonths(2)), incomeRecord());
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 1000);
+
+        assertThat(cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusMonths(2), TO_DATE.plusMonths(2)))).isNull();
+    }
+
+    @Test
+    public void put_anotherPutForSameIdentityWhileMerging_keepsBothRanges() {
+        cache.put(key("Joe"), incomeRecord());
+        Income earlierIncome = new Income(new BigDecimal("1000.00"), LocalDate.of(2017, 12, 1), 9, null, "123/AB456");
+        Income laterIncome = new Income(new BigDecimal("1000.00"), LocalDate.of(2019, 2, 1), 11, null, "123/AB456");
+        IncomeRecord earlierRecord = new IncomeRecord(singletonList(earlierIncome), emptyList(), emptyList(), individual());
+        IncomeRecord laterRecord = new IncomeRecord(singletonList(laterIncome), emptyList(), emptyList(), individual());
+        mapper.beforeNextRead = () -> cache.put(new IncomeRecordKey(identity("Joe"), FROM_DATE.minusMonths(2), TO_DATE.minusMonths(2)), earlierRecord);
+
+        cache.put(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusMonths(2), TO_DATE.plusMonths(2)), laterRecord);
+
+        IncomeRecord cached = cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE.minusMonths(2), TO_DATE.plusMonths(2)));
+        assertThat(cached.paye()).extracting(Income::paymentDate).contains(LocalDate.of(2017, 12, 1), LocalDate.of(2019, 2, 1));
+        assertThat(metric("hmrc.cache.merges")).isEqualTo(2L);
+    }
+
+    @Test
+    public void put_separateDates_replacesCachedRecord() {
+        cache.put(key("Joe"), incomeRecord());
+        cache.put(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusYears(3), TO_DATE.plusYears(3)), incomeRecord());
+
+        assertThat(cache.get(key("Joe"))).isNull();
+        assertThat(cache.get(new IncomeRecordKey(identity("Joe"), FROM_DATE.plusYears(3), TO_DATE.plusYears(3)))).isNotNull();
+        assertThat(metric("hmrc.cache.merges")).isEqualTo(0L);
+    }
+
+    @Test
+    public void get_afterTtl_null() {
+        cache.put(key("Joe"), incomeRecord());
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 1000);
+
+        assertThat(cache.get(key("Joe"))).isNull();
+        assertThat(metric("hmrc.cache.expirations")).isEqualTo(1L);
+        assertThat(metric("hmrc.cache.entries")).isEqualTo(0);
+    }
+
+    @Test
+    public void put_afterTtl_expiredEntryNotAskedForAgainRemoved() {
+        cache.put(key("Joe"), incomeRecord());
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 1000);
+
+        cache.put(key("Fred"), incomeRecord());
+
+        assertThat(metric("hmrc.cache.expirations")).isEqualTo(1L);
+        assertThat(metric("hmrc.cache.entries")).isEqualTo(1);
+    }
+
+    @Test
+    public void put_moreThanMaxEntries_evictsLeastRecentlyUsed() {
+        properties.setMaxEntries(2);
+        cache.put(key("Joe"), incomeRecord());
+        cache.put(key("Jane"), incomeRecord());
+        cache.get(key("Joe"));
+
+        cache.put(key("Jim"), incomeRecord());
+
+        assertThat(cache.get(key("Jane"))).isNull();
+        assertThat(cache.get(key("Joe"))).isNotNull();
+        assertThat(cache.get(key("Jim"))).isNotNull();
+        assertThat(metric("hmrc.cache.evictions")).isEqualTo(1L);
+    }
+
+    @Test
+    public void put_overMaxWeight_evictsLeastRecentlyUsed() {
+        cache.put(key("Joe"), incomeRecord());
+        long recordWeight = (Long) metric("hmrc.cache.weight.bytes");
+        properties.setMaxWeightBytes(recordWeight + recordWeight / 2);
+
+        cache.put(key("Jane"), incomeRecord());
+
+        assertThat(cache.get(key("Joe"))).isNull();
+        assertThat(cache.get(key("Jane"))).isNotNull();
+    }
+
+    @Test
+    public void put_cached_holdsNoPersonalDataInTheClear() {
+        cache.put(key("Joe"), incomeRecord());
+
+        Map<String, ?> entries = (Map<String, ?>) ReflectionTestUtils.getField(cache, "entries");
+        String key = entries.keySet().iterator().next();
+        byte[] sealed = (byte[]) ReflectionTestUtils.getField(entries.get(key), "sealed");
+
+        assertThat(key).doesNotContain(NINO).doesNotContain("Joe");
+        assertThat(new String(sealed, StandardCharsets.ISO_8859_1)).doesNotContain(NINO).doesNotContain("Joe");
+    }
+
+    @Test
+    public void get_disabled_null() {
+        properties.setEnabled(false);
+        cache.put(key("Joe"), incomeRecord());
+
+        assertThat(cache.get(key("Joe"))).isNull();
+        assertThat(cache.metrics()).isEmpty();
+    }
+
+    private static IncomeRecordKey key(String firstName) {
+        return new IncomeRecordKey(identity(firstName), FROM_DATE, TO_DATE);
+    }
+
+    private static Identity identity(String firstName) {
+        return new Identity(firstName, "Bloggs", LocalDate.of(1980, 1, 1), NINO);
+    }
+
+    private static IncomeRecord incomeRecord() {
+        List<Income> paye = asList(new Income(new BigDecimal("1000.00"), LocalDate.of(2018, 10, 1), 7, null, "123/AB456"),
+                                   new Income(new BigDecimal("1000.00"), LocalDate.of(2018, 2, 1), 11, null, "123/AB456"));
+        return new IncomeRecord(paye, emptyList(), emptyList(), individual());
+    }
+
+    private static HmrcIndividual individual() {
+        return new HmrcIndividual("Joe", "Bloggs", NINO, LocalDate.of(1980, 1, 1));
+    }
+
+    private Object metric(String name) {
+        return cache.metrics().stream()
+                    .filter(metric -> metric.getName().equals(name))
+                    .map(Metric::getValue)
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+    }
+
+    /*
+     * Runs a task just before the next cached record is read, which is part way through a put that is merging.
+     */
+    private static class InterleavingMapper extends ObjectMapper {
+        private Runnable beforeNextRead;
+
+        @Override
+        public <T> T readValue(byte[] src, Class<T> valueType) throws IOException {
+            Runnable interleaved = beforeNextRead;
+            beforeNextRead = null;
+            if (interleaved != null) {
+                interleaved.run();
+            }
+            return super.readValue(src, valueType);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.application.ServiceConfiguration;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.StringJoiner;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IncomeRecordDeserializerTest {
+
+    private static final String INDIVIDUAL = "{\"firstName\":\"Joe\",\"lastName\":\"Bloggs\",\"nino\":\"AA123456A\",\"dateOfBirth\":\"1980-1-1\"}";
+    private static final String SELF_ASSESSMENT = "[{\"taxYear\":\"2017-18\",\"selfEmploymentProfit\":1000.50}]";
+
+    private final ObjectMapper streamingMapper = new ServiceConfiguration("", 0, 0, 0, 0, 0, 0).createObjectMapper();
+    private final ObjectMapper databindMapper = databindMapper();
+
+    @Test
+    public void deserialize_longWeeklyPaidRecord_sameAsDatabinding() throws IOException {
+        String json = weeklyPaidRecord(300, 3);
+
+        IncomeRecord streamed = streamingMapper.readValue(json, IncomeRecord.class);
+        IncomeRecord databound = databindMapper.readValue(json, IncomeRecord.class);
+
+        assertThat(streamed.paye()).hasSize(300);
+        assertThat(streamed).isEqualToComparingFieldByFieldRecursively(databound);
+    }
+
+    @Test
+    public void deserialize_repeatedPayeReferences_sameInstance() throws IOException {
+        IncomeRecord incomeRecord = streamingMapper.readValue(weeklyPaidRecord(10, 2), IncomeRecord.class);
+
+        assertThat(incomeRecord.paye().get(0).employerPayeReference()).isSameAs(incomeRecord.paye().get(2).employerPayeReference());
+        assertThat(incomeRecord.paye().get(0).employerPayeReference()).isSameAs(incomeRecord.employments().get(0).employer().payeReference());
+        assertThat(incomeRecord.paye().get(0).employerPayeReference()).isNotEqualTo(incomeRecord.paye().get(1).employerPayeReference());
+    }
+
+    @Test
+    public void deserialize_manyDistinctReferences_allKept() throws IOException {
+        IncomeRecord streamed = streamingMapper.readValue(weeklyPaidRecord(200, 100), IncomeRecord.class);
+        IncomeRecord databound = databindMapper.readValue(weeklyPaidRecord(200, 100), IncomeRecord.class);
+
+        assertThat(streamed.paye()).extracting(Income::employerPayeReference)
+                                   .containsExactlyElementsOf(databound.paye().stream().map(Income::employerPayeReference).collect(toList()));
+    }
+
+    @Test
+    public void deserialize_paddedAndUnpaddedDates_bothRead() throws IOException {
+        IncomeRecord incomeRecord = streamingMapper.readValue(record(income("\"2018-01-05\"", "100"), income("\"2018-1-5\"", "100")), IncomeRecord.class);
+
+        assertThat(incomeRecord.paye()).extracting(Income::paymentDate).containsExactly(LocalDate.of(2018, 1, 5), LocalDate.of(2018, 1, 5));
+    }
+
+    @Test
+    public void deserialize_dayPastEndOfMonth_resolvedAsDatabindingDoes() throws IOException {
+        String json = record(income("\"2018-2-30\"", "100"));
+
+        IncomeRecord incomeRecord = streamingMapper.readValue(json, IncomeRecord.class);
+
+        assertThat(incomeRecord.paye().get(0).paymentDate()).isEqualTo(databindMapper.readValue(json, IncomeRecord.class).paye().get(0).paymentDate());
+    }
+
+    @Test
+    public void deserialize_amounts_exactFromText() throws IOException {
+        IncomeRecord incomeRecord = streamingMapper.readValue(record(income("\"2018-1-5\"", "1234.50"),
+                                                                     income("\"2018-1-12\"", "\"99.99\""),
+                                                                     income("\"2018-1-19\"", "1500")), IncomeRecord.class);
+
+        assertThat(incomeRecord.paye()).extracting(Income::payment)
+                                       .containsExactly(new BigDecimal("1234.50"), new BigDecimal("99.99"), new BigDecimal("1500"));
+    }
+
+    @Test
+    public void deserialize_unknownFields_ignored() throws IOException {
+        String json = "{\"paye\":[{\"taxablePayment\":100,\"paymentDate\":\"2018-1-5\",\"extra\":{\"a\":[1,2]},\"employerPayeReference\":\"A\"}],"
+                      + "\"selfAssessment\":[],\"employments\":[{\"employer\":{\"name\":\"A Ltd\",\"payeReference\":\"A\",\"address\":\"x\"}}],"
+                      + "\"somethingNew\":true,\"individual\":" + INDIVIDUAL + "}";
+
+        IncomeRecord incomeRecord = streamingMapper.readValue(json, IncomeRecord.class);
+
+        assertThat(incomeRecord.paye().get(0).employerPayeReference()).isEqualTo("A");
+        assertThat(incomeRecord.employments().get(0).employer().name()).isEqualTo("A Ltd");
+    }
+
+    @Test
+    public void deserialize_nullValues_keptNull() throws IOException {
+        String json = "{\"paye\":[{\"taxablePayment\":100,\"paymentDate\":\"2018-1-5\",\"weekPayNumber\":null,\"employerPayeReference\":null}],"
+                      + "\"selfAssessment\":null,\"employments\":[],\"individual\":" + INDIVIDUAL + "}";
+
+        IncomeRecord incomeRecord = streamingMapper.readValue(json, IncomeRecord.class);
+
+        assertThat(incomeRecord.paye().get(0).weekPayNumber()).isNull();
+        assertThat(incomeRecord.paye().get(0).employerPayeReference()).isNull();
+        assertThat(incomeRecord.selfAssessment()).isNull();
+    }
+
+    @Test
+    public void deserialize_requiredFieldMissing_fails() {
+        String json = "{\"paye\":[],\"selfAssessment\":[],\"individual\":" + INDIVIDUAL + "}";
+
+        assertThatThrownBy(() -> streamingMapper.readValue(json, IncomeRecord.class)).isInstanceOf(JsonMappingException.class)
+                                                                                   .hasMessageContaining("employments");
+    }
+
+    @Test
+    public void deserialize_incomeNotAnObject_fails() {
+        String json = "{\"paye\":[\"100\"],\"selfAssessment\":[],\"employments\":[],\"individual\":" + INDIVIDUAL + "}";
+
+        assertThatThrownBy(() -> streamingMapper.readValue(json, IncomeRecord.class)).isInstanceOf(JsonMappingException.class);
+    }
+
+    @Test
+    public void parseDate_notHmrcShape_null() {
+        assertThat(parseDate("2018-1-5")).isEqualTo(LocalDate.of(2018, 1, 5));
+        assertThat(parseDate("2018-12-31")).isEqualTo(LocalDate.of(2018, 12, 31));
+        assertThat(parseDate("2016-2-29")).isEqualTo(LocalDate.of(2016, 2, 29));
+        assertThat(parseDate("2017-2-29")).isNull();
+        assertThat(parseDate("2018-13-1")).isNull();
+        assertThat(parseDate("2018-001-1")).isNull();
+        assertThat(parseDate("18-1-5")).isNull();
+        assertThat(parseDate("2018/1/5")).isNull();
+        assertThat(parseDate("2018-1-5T00:00")).isNull();
+    }
+
+    private static LocalDate parseDate(String date) {
+        return IncomeRecordDeserializer.parseDate(date.toCharArray(), 0, date.length());
+    }
+
+    private static ObjectMapper databindMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        JavaTimeModule javaTimeModule = new JavaTimeModule();
+        javaTimeModule.addDeserializer(LocalDate.class, new LocalDateDeserializer(DateTimeFormatter.ofPattern("yyyy-M-d")));
+        mapper.registerModule(javaTimeModule);
+        return mapper;
+    }
+
+    private static String weeklyPaidRecord(int payments, int employers) {
+        StringJoiner paye = new StringJoiner(",", "[", "]");
+        LocalDate paymentDate = LocalDate.of(2018, 12, 28);
+        for (int i = 0; i < payments; i++) {
+            paye.add(String.format("{\"taxablePayment\":%d.%02d,\"paymentDate\":\"%d-%d-%d\",\"weekPayNumber\":%d,\"employerPayeReference\":\"%03d/AB%d\"}",
+                                   400 + i % 7, i % 100, paymentDate.getYear(), paymentDate.getMonthValue(), paymentDate.getDayOfMonth(),
+                                   52 - i % 52, i % employers, i % employers));
+            paymentDate = paymentDate.minusWeeks(1);
+        }
+        StringJoiner employments = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < employers; i++) {
+            employments.add(String.format("{\"employer\":{\"name\":\"Employer %d\",\"payeReference\":\"%03d/AB%d\"}}", i, i, i));
+        }
+        return "{\"paye\":" + paye + ",\"selfAssessment\":" + SELF_ASSESSMENT + ",\"employments\":" + employments + ",\"individual\":" + INDIVIDUAL + "}";
+    }
+
+    private static String income(String paymentDate, String payment) {
+        return "{\"taxablePayment\":" + payment + ",\"paymentDate\":" + paymentDate + ",\"monthPayNumber\":1,\"employerPayeReference\":\"A\"}";
+    }
+
+    private static String record(String... incomes) {
+        return "{\"paye\":[" + String.join(",", incomes) + "],\"selfAssessment\":[],\"employments\":[],\"individual\":" + INDIVIDUAL + "}";
+    }
+}
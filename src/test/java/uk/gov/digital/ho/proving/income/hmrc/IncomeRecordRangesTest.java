@@ -0,0 +1,135 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.hmrc.domain.AnnualSelfAssessmentTaxReturn;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employer;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.HmrcIndividual;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncomeRecordRangesTest {
+
+    private static final LocalDate FROM_DATE = LocalDate.of(2018, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2018, 12, 31);
+    private static final HmrcIndividual INDIVIDUAL = new HmrcIndividual("Joe", "Bloggs", "AA123456A", LocalDate.of(1980, 1, 1));
+
+    @Test
+    public void covers_insideRange_true() {
+        assertThat(IncomeRecordRanges.covers(FROM_DATE, TO_DATE, FROM_DATE, TO_DATE)).isTrue();
+        assertThat(IncomeRecordRanges.covers(FROM_DATE, TO_DATE, FROM_DATE.plusDays(3), TO_DATE.minusDays(3))).isTrue();
+    }
+
+    @Test
+    public void covers_partlyOutsideRange_false() {
+        assertThat(IncomeRecordRanges.covers(FROM_DATE, TO_DATE, FROM_DATE.minusDays(1), TO_DATE)).isFalse();
+        assertThat(IncomeRecordRanges.covers(FROM_DATE, TO_DATE, FROM_DATE, TO_DATE.plusDays(1))).isFalse();
+    }
+
+    @Test
+    public void overlapsOrAdjoins_adjoiningRange_true() {
+        assertThat(IncomeRecordRanges.overlapsOrAdjoins(FROM_DATE, TO_DATE, TO_DATE.plusDays(1), TO_DATE.plusDays(30))).isTrue();
+        assertThat(IncomeRecordRanges.overlapsOrAdjoins(FROM_DATE, TO_DATE, FROM_DATE.minusDays(30), FROM_DATE.minusDays(1))).isTrue();
+    }
+
+    @Test
+    public void overlapsOrAdjoins_gapBetweenRanges_false() {
+        assertThat(IncomeRecordRanges.overlapsOrAdjoins(FROM_DATE, TO_DATE, TO_DATE.plusDays(2), TO_DATE.plusDays(30))).isFalse();
+    }
+
+    @Test
+    public void slice_paye_keepsPaymentsInRangeInOrder() {
+        IncomeRecord incomeRecord = record(asList(income("2018-12-31", "A"), income("2018-06-01", "A"), income("2018-01-01", "A")),
+                                           emptyList(), emptyList());
+
+        IncomeRecord sliced = IncomeRecordRanges.slice(incomeRecord, LocalDate.of(2018, 1, 2), TO_DATE);
+
+        assertThat(sliced.paye()).extracting(Income::paymentDate).containsExactly(LocalDate.of(2018, 12, 31), LocalDate.of(2018, 6, 1));
+        assertThat(sliced.individual()).isEqualTo(INDIVIDUAL);
+    }
+
+    @Test
+    public void slice_selfAssessment_keepsTaxYearsOverlappingRange() {
+        IncomeRecord incomeRecord = record(emptyList(),
+                                           asList(taxReturn("2016-17"), taxReturn("2017-18"), taxReturn("2018-19"), taxReturn("2019-20")),
+                                           emptyList());
+
+        IncomeRecord sliced = IncomeRecordRanges.slice(incomeRecord, LocalDate.of(2018, 4, 6), LocalDate.of(2019, 4, 5));
+
+        assertThat(sliced.selfAssessment()).extracting(AnnualSelfAssessmentTaxReturn::taxYear).containsExactly("2018-19");
+    }
+
+    @Test
+    public void slice_selfAssessmentUnknownTaxYearFormat_kept() {
+        IncomeRecord incomeRecord = record(emptyList(), singletonList(taxReturn("2018")), emptyList());
+
+        assertThat(IncomeRecordRanges.slice(incomeRecord, FROM_DATE, TO_DATE).selfAssessment()).hasSize(1);
+    }
+
+    @Test
+    public void slice_employments_keepsEmployersPaidInRangeAndThoseNeverPaid() {
+        IncomeRecord incomeRecord = record(asList(income("2018-06-01", "A"), income("2017-06-01", "B")),
+                                           emptyList(),
+                                           asList(employment("A"), employment("B"), employment("C")));
+
+        IncomeRecord sliced = IncomeRecordRanges.slice(incomeRecord, FROM_DATE, TO_DATE);
+
+        assertThat(sliced.employments()).extracting(IncomeRecordRangesTest::payeReference).containsExactly("A", "C");
+    }
+
+    @Test
+    public void merge_overlappingRanges_newerRecordWinsInsideItsRange() {
+        IncomeRecord older = record(asList(income("2018-10-01", "A"), income("2018-02-01", "A")),
+                                    singletonList(taxReturn("2017-18")),
+                                    singletonList(employment("A")));
+        IncomeRecord newer = record(asList(income("2019-02-01", "B"), income("2018-11-01", "B")),
+                                    singletonList(taxReturn("2018-19")),
+                                    singletonList(employment("B")));
+
+        IncomeRecord merged = IncomeRecordRanges.merge(older, newer, LocalDate.of(2018, 3, 1), LocalDate.of(2019, 3, 1));
+
+        assertThat(merged.paye()).extracting(Income::paymentDate)
+                                 .containsExactly(LocalDate.of(2019, 2, 1), LocalDate.of(2018, 11, 1), LocalDate.of(2018, 2, 1));
+        assertThat(merged.selfAssessment()).extracting(AnnualSelfAssessmentTaxReturn::taxYear).containsExactly("2018-19", "2017-18");
+        assertThat(merged.employments()).extracting(IncomeRecordRangesTest::payeReference).containsExactly("B", "A");
+    }
+
+    @Test
+    public void merge_sameTaxYearInBoth_keepsNewerReturn() {
+        IncomeRecord older = record(emptyList(), singletonList(new AnnualSelfAssessmentTaxReturn("2018-19", BigDecimal.ONE)), emptyList());
+        IncomeRecord newer = record(emptyList(), singletonList(new AnnualSelfAssessmentTaxReturn("2018-19", BigDecimal.TEN)), emptyList());
+
+        IncomeRecord merged = IncomeRecordRanges.merge(older, newer, FROM_DATE, TO_DATE);
+
+        assertThat(merged.selfAssessment()).extracting(AnnualSelfAssessmentTaxReturn::selfEmploymentProfit).containsExactly(BigDecimal.TEN);
+    }
+
+    private static IncomeRecord record(List<Income> paye, List<AnnualSelfAssessmentTaxReturn> selfAssessment, List<Employments> employments) {
+        return new IncomeRecord(paye, selfAssessment, employments, INDIVIDUAL);
+    }
+
+    private static Income income(String paymentDate, String payeReference) {
+        return new Income(new BigDecimal("1000.00"), LocalDate.parse(paymentDate), null, null, payeReference);
+    }
+
+    private static AnnualSelfAssessmentTaxReturn taxReturn(String taxYear) {
+        return new AnnualSelfAssessmentTaxReturn(taxYear, new BigDecimal("1000.00"));
+    }
+
+    private static Employments employment(String payeReference) {
+        return new Employments(new Employer("Employer " + payeReference, payeReference));
+    }
+
+    private static String payeReference(Employments employment) {
+        return employment.employer().payeReference();
+    }
+}
@@ -0,0 +1,153 @@
+package uk.gov.digital.ho.proving.income.hmrc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Identity;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NoMatchCacheTest {
+
+    private static final String NINO = "AA123456A";
+    private static final long TTL_SECONDS = 60;
+
+    @Mock
+    private Clock mockClock;
+
+    private NoMatchCacheProperties properties;
+    private NoMatchCache cache;
+
+    @Before
+    public void setUp() {
+        given(mockClock.millis()).willReturn(0L);
+
+        properties = new NoMatchCacheProperties();
+        properties.setEnabled(true);
+        properties.setTtlSeconds(TTL_SECONDS);
+        cache = new NoMatchCache(properties, mockClock);
+    }
+
+    @Test
+    public void isKnownNoMatch_notRecorded_false() {
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isFalse();
+        assertThat(metric("hmrc.nomatch.cache.misses")).isEqualTo(1L);
+    }
+
+    @Test
+    public void isKnownNoMatch_recorded_true() {
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isTrue();
+        assertThat(metric("hmrc.nomatch.cache.hits")).isEqualTo(1L);
+    }
+
+    @Test
+    public void isKnownNoMatch_sanitisedIdentityRecorded_true() {
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity(" Joe ", "aa 12 34 56 a"))).isTrue();
+    }
+
+    @Test
+    public void isKnownNoMatch_differentIdentity_false() {
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Jane", NINO))).isFalse();
+    }
+
+    @Test
+    public void isKnownNoMatch_afterTtl_false() {
+        cache.recordNoMatch(identity("Joe", NINO));
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 1000);
+
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isFalse();
+        assertThat(metric("hmrc.nomatch.cache.expirations")).isEqualTo(1L);
+    }
+
+    @Test
+    public void isKnownNoMatch_matchedSince_false() {
+        cache.recordNoMatch(identity("Joe", NINO));
+        cache.recordMatch(identity("Joe", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isFalse();
+    }
+
+    @Test
+    public void recordNoMatch_moreThanMaxEntries_evictsOldest() {
+        properties.setMaxEntries(2);
+        cache.recordNoMatch(identity("Joe", NINO));
+        cache.recordNoMatch(identity("Jane", NINO));
+        cache.isKnownNoMatch(identity("Joe", NINO));
+
+        cache.recordNoMatch(identity("Jim", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isFalse();
+        assertThat(cache.isKnownNoMatch(identity("Jane", NINO))).isTrue();
+        assertThat(metric("hmrc.nomatch.cache.evictions")).isEqualTo(1L);
+    }
+
+    @Test
+    public void recordNoMatch_recordedAgain_evictedAfterNewerEntries() {
+        properties.setMaxEntries(2);
+        cache.recordNoMatch(identity("Joe", NINO));
+        cache.recordNoMatch(identity("Jane", NINO));
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        cache.recordNoMatch(identity("Jim", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Jane", NINO))).isFalse();
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isTrue();
+    }
+
+    @Test
+    public void recordNoMatch_earlierEntriesExpired_removesThem() {
+        cache.recordNoMatch(identity("Joe", NINO));
+        given(mockClock.millis()).willReturn(TTL_SECONDS * 1000);
+
+        cache.recordNoMatch(identity("Jane", NINO));
+
+        assertThat(metric("hmrc.nomatch.cache.expirations")).isEqualTo(1L);
+        assertThat(metric("hmrc.nomatch.cache.entries")).isEqualTo(1);
+    }
+
+    @Test
+    public void recordNoMatch_holdsNoPersonalDataInTheClear() {
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        Map<String, ?> expiries = (Map<String, ?>) ReflectionTestUtils.getField(cache, "expiries");
+
+        assertThat(expiries.keySet().iterator().next()).doesNotContain(NINO).doesNotContain("Joe");
+    }
+
+    @Test
+    public void isKnownNoMatch_disabled_false() {
+        properties.setEnabled(false);
+        cache.recordNoMatch(identity("Joe", NINO));
+
+        assertThat(cache.isKnownNoMatch(identity("Joe", NINO))).isFalse();
+        assertThat(cache.metrics()).isEmpty();
+    }
+
+    private static Identity identity(String firstName, String nino) {
+        return new Identity(firstName, "Bloggs", LocalDate.of(1980, 1, 1), nino);
+    }
+
+    private Object metric(String name) {
+        return cache.metrics().stream()
+                    .filter(metric -> metric.getName().equals(name))
+                    .map(Metric::getValue)
+                    .findFirst()
+                    .orElseThrow(AssertionError::new);
+    }
+}
@@ -27,6 +27,8 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.CatASalariedTestData.amount;
@@ -51,7 +53,7 @@ public class CatANonSalariedIncomeValidatorTest {
     @Before
     public void setUp() {
         validator = new CatANonSalariedIncomeValidator(incomeThresholdCalculator);
-        when(incomeThresholdCalculator.yearlyThreshold(0)).thenReturn(BigDecimal.valueOf(18600));
+        when(incomeThresholdCalculator.yearlyThreshold(any(), eq(0))).thenReturn(BigDecimal.valueOf(18600));
     }
 
     @Test
@@ -400,6 +402,6 @@ public class CatANonSalariedIncomeValidatorTest {
         else if(dependants > 1) {
             yearlyThreshold = BigDecimal.valueOf(22400 + (dependants - 1) * 2400);
         }
-        when(incomeThresholdCalculator.yearlyThreshold(dependants)).thenReturn(yearlyThreshold);
+        when(incomeThresholdCalculator.yearlyThreshold(any(), eq(dependants))).thenReturn(yearlyThreshold);
     }
 }
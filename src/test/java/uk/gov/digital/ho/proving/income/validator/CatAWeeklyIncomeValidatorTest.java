@@ -17,6 +17,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.CatASalariedTestData.*;
 
@@ -31,7 +33,7 @@ public class CatAWeeklyIncomeValidatorTest {
     @Before
     public void setUp() {
         validator = new CatASalariedWeeklyIncomeValidator(incomeThresholdCalculator);
-        when(incomeThresholdCalculator.weeklyThreshold(0)).thenReturn(BigDecimal.valueOf(18600).divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP));
+        when(incomeThresholdCalculator.weeklyThreshold(any(), eq(0))).thenReturn(BigDecimal.valueOf(18600).divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP));
     }
 
     @Test
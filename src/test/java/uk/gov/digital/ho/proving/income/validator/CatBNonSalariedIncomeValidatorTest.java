@@ -20,6 +20,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.CatASalariedTestData.getDate;
@@ -64,7 +65,7 @@ public class CatBNonSalariedIncomeValidatorTest {
         else if(dependants > 1) {
             yearlyThreshold = BigDecimal.valueOf(22400 + (dependants - 1) * 2400);
         }
-        when(incomeThresholdCalculator.yearlyThreshold(dependants)).thenReturn(yearlyThreshold);
+        when(incomeThresholdCalculator.yearlyThreshold(any(), eq(dependants))).thenReturn(yearlyThreshold);
     }
 
     @Test
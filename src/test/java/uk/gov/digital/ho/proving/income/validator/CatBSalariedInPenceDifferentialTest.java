@@ -0,0 +1,110 @@
+package uk.gov.digital.ho.proving.income.validator;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
+import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the category B salaried monthly check gives the same answer in pence as with {@link BigDecimal}s over a corpus
+ * of generated records: monthly and weekly pay, missed months, duplicates, refunds, amounts either side of the threshold
+ * and thresholds that are not whole pence.
+ */
+public class CatBSalariedInPenceDifferentialTest {
+
+    private static final int CASES = 5_000;
+    private static final String[] EMPLOYERS = {"123/AB12345", "456/CD67890"};
+
+    private final Random random = new Random(20181017L);
+
+    @Test
+    public void checkMonthlyIncomeInPence_sameAsBigDecimal() {
+        Set<IncomeValidationStatus> statusesSeen = EnumSet.noneOf(IncomeValidationStatus.class);
+
+        for (int i = 0; i < CASES; i++) {
+            LocalDate toDate = LocalDate.of(2017, 1, 1).plusDays(random.nextInt(730));
+            LocalDate fromDate = toDate.minusYears(1);
+            BigDecimal threshold = threshold();
+
+            List<ApplicantIncomeIndex> individuals = new ArrayList<>();
+            List<Income> allPaye = new ArrayList<>();
+            int numberOfIndividuals = 1 + random.nextInt(2);
+            for (int individual = 0; individual < numberOfIndividuals; individual++) {
+                List<Income> paye = paye(toDate, threshold);
+                ApplicantIncomeIndex incomeIndex = ApplicantIncomeIndex.of(new IncomeRecord(paye, emptyList(), emptyList(), null));
+                individuals.add(incomeIndex);
+                allPaye.addAll(incomeIndex.payeBetween(fromDate, toDate));
+            }
+
+            IncomeValidationStatus expected = CatBSalariedIncomeValidator.checkMonthlyIncome(allPaye, threshold);
+            IncomeValidationStatus actual = CatBSalariedIncomeValidator.checkMonthlyIncomeInPence(individuals, fromDate, toDate, threshold);
+
+            assertThat(actual).as("case %d with threshold %s up to %s", i, threshold, toDate).isEqualTo(expected);
+            statusesSeen.add(expected);
+        }
+
+        assertThat(statusesSeen).containsExactlyInAnyOrder(IncomeValidationStatus.NOT_ENOUGH_RECORDS,
+                                                           IncomeValidationStatus.NON_CONSECUTIVE_MONTHS,
+                                                           IncomeValidationStatus.CATB_SALARIED_BELOW_THRESHOLD,
+                                                           IncomeValidationStatus.CATB_SALARIED_PASSED);
+    }
+
+    private BigDecimal threshold() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return new BigDecimal(18600 + 3800 * random.nextInt(4)).divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP);
+            case 1:
+                return new BigDecimal(18600 + 2400 * random.nextInt(6)).divide(BigDecimal.valueOf(12), 4, RoundingMode.HALF_UP);
+            default:
+                return BigDecimal.valueOf(random.nextInt(200_000), random.nextInt(4));
+        }
+    }
+
+    private List<Income> paye(LocalDate toDate, BigDecimal threshold) {
+        boolean weekly = random.nextBoolean();
+        int payments = weekly ? random.nextInt(60) : random.nextInt(16);
+        double missChance = random.nextInt(3) == 0 ? 0.1 : 0;
+        BigDecimal typicalPayment = weekly ? threshold.multiply(BigDecimal.valueOf(12)).divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP) : threshold;
+
+        List<Income> paye = new ArrayList<>();
+        LocalDate paymentDate = toDate.plusDays(random.nextInt(20));
+        for (int i = 0; i < payments; i++) {
+            if (random.nextDouble() >= missChance) {
+                Income income = new Income(amount(typicalPayment), paymentDate, weekly ? null : i + 1, weekly ? i + 1 : null, EMPLOYERS[random.nextInt(2)]);
+                paye.add(income);
+                if (random.nextInt(20) == 0) {
+                    paye.add(income);
+                }
+            }
+            paymentDate = weekly ? paymentDate.minusWeeks(1) : paymentDate.minusMonths(1);
+        }
+        return paye;
+    }
+
+    private BigDecimal amount(BigDecimal typicalPayment) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return BigDecimal.valueOf(-random.nextInt(50_000), 2);
+            case 1:
+                return BigDecimal.ZERO.setScale(random.nextInt(3));
+            case 2:
+                return typicalPayment.setScale(2, RoundingMode.CEILING);
+            default:
+                BigDecimal variation = BigDecimal.valueOf(random.nextInt(20_000) - 2_000, 2);
+                return typicalPayment.add(variation).setScale(random.nextInt(3), RoundingMode.DOWN);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.CatBSalariedTestData.*;
@@ -64,8 +65,8 @@ public class CatBSalariedIncomeValidatorTest {
         else if(dependants > 1) {
             yearlyThreshold = BigDecimal.valueOf(22400 + (dependants - 1) * 2400);
         }
-        when(incomeThresholdCalculator.yearlyThreshold(dependants)).thenReturn(yearlyThreshold);
-        when(incomeThresholdCalculator.monthlyThreshold(dependants)).thenReturn(yearlyThreshold.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
+        when(incomeThresholdCalculator.yearlyThreshold(any(), eq(dependants))).thenReturn(yearlyThreshold);
+        when(incomeThresholdCalculator.monthlyThreshold(any(), eq(dependants))).thenReturn(yearlyThreshold.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
     }
 
     @Test
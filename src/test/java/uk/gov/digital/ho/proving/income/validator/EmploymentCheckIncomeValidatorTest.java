@@ -19,6 +19,10 @@ import java.time.Month;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.CatASalariedTestData.getDate;
 import static uk.gov.digital.ho.proving.income.validator.EmploymentCheckTestData.*;
@@ -36,7 +40,7 @@ public class EmploymentCheckIncomeValidatorTest {
     @Before
     public void setUp() {
         validator = new EmploymentCheckIncomeValidator(incomeThresholdCalculator);
-        when(incomeThresholdCalculator.monthlyThreshold(0)).thenReturn(EXPECTED_ZERO_DEPENDANT_MONTHLY_THRESHOLD);
+        when(incomeThresholdCalculator.monthlyThreshold(any(), eq(0))).thenReturn(EXPECTED_ZERO_DEPENDANT_MONTHLY_THRESHOLD);
     }
 
     @Test
@@ -56,6 +60,19 @@ public class EmploymentCheckIncomeValidatorTest {
     }
 
 
+    @Test
+    public void thatTheCheckIsDoneOncePerRequest() {
+        LocalDate raisedDate = getDate(2018, Month.SEPTEMBER, 23);
+        IncomeValidationRequest request = new IncomeValidationRequest(noIncome(), raisedDate, 0);
+
+        IncomeValidationResult first = validator.validate(request);
+        IncomeValidationResult second = validator.validate(request);
+
+        assertThat(second).isSameAs(first);
+        verify(incomeThresholdCalculator, times(1)).monthlyThreshold(any(), eq(0));
+        assertThat(request.subResults().reused()).containsEntry("employment check", 1);
+    }
+
     @Test
     public void thatSingleApplicantDetailsAreReturned() {
         LocalDate raisedDate = getDate(2018, Month.SEPTEMBER, 23);
@@ -1,11 +1,13 @@
 package uk.gov.digital.ho.proving.income.validator;
 
 import com.google.common.collect.ImmutableList;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
 import uk.gov.digital.ho.proving.income.api.domain.CategoryCheck;
 import uk.gov.digital.ho.proving.income.api.domain.CheckedIndividual;
 import uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationRequest;
@@ -16,10 +18,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.digital.ho.proving.income.validator.domain.IncomeValidationStatus.CATB_NON_SALARIED_PASSED;
@@ -36,11 +44,19 @@ public class IncomeValidationServiceTest {
     @Mock
     private CatBNonSalariedIncomeValidator catBNonSalariedIncomeValidator;
 
+    private final ForkJoinPool validationPool = new ForkJoinPool(2);
+
     @Before
     public void setUp() {
         incomeValidationService = new IncomeValidationService(newArrayList(catASalariedIncomeValidator, catBNonSalariedIncomeValidator));
     }
 
+    @After
+    public void tearDown() {
+        validationPool.shutdownNow();
+        MDC.clear();
+    }
+
     @Test
     public void thatAllValidatorsAreCalled() {
         IncomeValidationResult catAResult = getResult(MONTHLY_SALARIED_PASSED, "A");
@@ -135,6 +151,88 @@ public class IncomeValidationServiceTest {
             .withFailMessage("The category B check should indicate employment check failed");
     }
 
+    @Test
+    public void thatParallelValidationKeepsValidatorOrder() {
+        IncomeValidationService parallelService = new IncomeValidationService(newArrayList(catASalariedIncomeValidator, catBNonSalariedIncomeValidator),
+                                                                              validationPool, true, 0);
+        AtomicReference<Thread> catBThread = new AtomicReference<>();
+
+        when(catASalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return getResult(MONTHLY_SALARIED_PASSED, "A");
+        });
+        when(catBNonSalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenAnswer(invocation -> {
+            catBThread.set(Thread.currentThread());
+            return getResult(CATB_NON_SALARIED_PASSED, "B");
+        });
+
+        IncomeValidationRequest request = new IncomeValidationRequest(new ArrayList<>(), LocalDate.now(), 0);
+        List<CategoryCheck> categoryChecks = parallelService.validate(request);
+
+        assertThat(categoryChecks).extracting(CategoryCheck::category).containsExactly("A", "B");
+        assertThat(catBThread.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void thatParallelValidationCarriesTheLoggingContext() {
+        IncomeValidationService parallelService = new IncomeValidationService(newArrayList(catASalariedIncomeValidator, catBNonSalariedIncomeValidator),
+                                                                              validationPool, true, 0);
+        AtomicReference<String> catBCorrelationId = new AtomicReference<>();
+        MDC.put("x-correlation-id", "some correlation id");
+
+        when(catASalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenReturn(getResult(MONTHLY_SALARIED_PASSED, "A"));
+        when(catBNonSalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenAnswer(invocation -> {
+            catBCorrelationId.set(MDC.get("x-correlation-id"));
+            return getResult(CATB_NON_SALARIED_PASSED, "B");
+        });
+
+        parallelService.validate(new IncomeValidationRequest(new ArrayList<>(), LocalDate.now(), 0));
+
+        assertThat(catBCorrelationId.get()).isEqualTo("some correlation id");
+    }
+
+    @Test
+    public void thatValidatorsNotYetStartedAreCancelledWhenTheFirstFails() throws InterruptedException {
+        ForkJoinPool busyPool = new ForkJoinPool(1);
+        CountDownLatch releasePool = new CountDownLatch(1);
+        busyPool.submit(() -> {
+            releasePool.await(5, SECONDS);
+            return null;
+        });
+        IncomeValidationService parallelService = new IncomeValidationService(newArrayList(catASalariedIncomeValidator, catBNonSalariedIncomeValidator),
+                                                                              busyPool, true, 0);
+        when(catASalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenThrow(new IllegalStateException("some failure"));
+
+        try {
+            assertThatThrownBy(() -> parallelService.validate(new IncomeValidationRequest(new ArrayList<>(), LocalDate.now(), 0)))
+                .isInstanceOf(IllegalStateException.class);
+            releasePool.countDown();
+            busyPool.awaitQuiescence(5, SECONDS);
+
+            verify(catBNonSalariedIncomeValidator, never()).validate(any(IncomeValidationRequest.class));
+        } finally {
+            busyPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void thatFewPaymentsAreValidatedOnTheCallingThread() {
+        IncomeValidationService parallelService = new IncomeValidationService(newArrayList(catASalariedIncomeValidator, catBNonSalariedIncomeValidator),
+                                                                              validationPool, true, 1);
+        AtomicReference<Thread> catBThread = new AtomicReference<>();
+
+        when(catASalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenReturn(getResult(MONTHLY_SALARIED_PASSED, "A"));
+        when(catBNonSalariedIncomeValidator.validate(any(IncomeValidationRequest.class))).thenAnswer(invocation -> {
+            catBThread.set(Thread.currentThread());
+            return getResult(CATB_NON_SALARIED_PASSED, "B");
+        });
+
+        List<CategoryCheck> categoryChecks = parallelService.validate(new IncomeValidationRequest(new ArrayList<>(), LocalDate.now(), 0));
+
+        assertThat(categoryChecks).extracting(CategoryCheck::category).containsExactly("A", "B");
+        assertThat(catBThread.get()).isSameAs(Thread.currentThread());
+    }
+
     private IncomeValidationResult getResult(IncomeValidationStatus status, String category) {
         return IncomeValidationResult.builder()
             .status(status)
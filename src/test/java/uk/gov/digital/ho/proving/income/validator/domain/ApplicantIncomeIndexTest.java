@@ -0,0 +1,152 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employer;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Employments;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class ApplicantIncomeIndexTest {
+
+    private static final LocalDate FROM_DATE = LocalDate.of(2018, 1, 15);
+    private static final LocalDate TO_DATE = LocalDate.of(2018, 3, 15);
+
+    @Test
+    public void payeBetween_includesBothEndsNewestFirst() {
+        ApplicantIncomeIndex index = index(asList(monthly("2018-01-14", "A"), monthly("2018-03-15", "A"),
+                                                  monthly("2018-01-15", "A"), monthly("2018-03-16", "A")));
+
+        assertThat(index.payeBetween(FROM_DATE, TO_DATE)).extracting(Income::paymentDate)
+                                                         .containsExactly(LocalDate.of(2018, 3, 15), LocalDate.of(2018, 1, 15));
+    }
+
+    @Test
+    public void payeBetween_keepsDuplicates_distinctPayeBetweenRemovesThem() {
+        Income income = monthly("2018-02-01", "A");
+        ApplicantIncomeIndex index = index(asList(income, income, monthly("2018-02-01", "B")));
+
+        assertThat(index.payeBetween(FROM_DATE, TO_DATE)).hasSize(3);
+        assertThat(index.distinctPayeBetween(FROM_DATE, TO_DATE)).hasSize(2);
+        assertThat(index.paye()).hasSize(3);
+    }
+
+    @Test
+    public void payeBetween_noPaymentsInRange_empty() {
+        ApplicantIncomeIndex index = index(asList(monthly("2017-01-01", "A"), monthly("2019-01-01", "A")));
+
+        assertThat(index.payeBetween(FROM_DATE, TO_DATE)).isEmpty();
+        assertThat(index.payeBetween(FROM_DATE, LocalDate.MAX)).hasSize(1);
+    }
+
+    @Test
+    public void monthlyIncomeBetween_sumsPerEmployerAndMonth() {
+        ApplicantIncomeIndex index = index(asList(monthly("2018-02-01", "A"), monthly("2018-02-20", "A"),
+                                                  monthly("2018-02-10", "B"), monthly("2018-03-01", "A")));
+
+        List<Income> monthlyIncome = index.monthlyIncomeBetween(FROM_DATE, TO_DATE);
+
+        assertThat(monthlyIncome).extracting(Income::paymentDate)
+                                 .containsExactly(LocalDate.of(2018, 3, 1), LocalDate.of(2018, 2, 20), LocalDate.of(2018, 2, 10));
+        assertThat(monthlyIncome).extracting(Income::payment)
+                                 .containsExactly(new BigDecimal("1000"), new BigDecimal("2000"), new BigDecimal("1000"));
+        assertThat(monthlyIncome).extracting(Income::employerPayeReference).containsExactly("A", "A", "B");
+    }
+
+    @Test
+    public void monthlyIncomeBetween_monthCutByRange_onlyPaymentsInRangeSummed() {
+        ApplicantIncomeIndex index = index(asList(monthly("2018-01-20", "A"), monthly("2018-01-10", "A"),
+                                                  monthly("2018-03-10", "A"), monthly("2018-03-20", "A")));
+
+        List<Income> monthlyIncome = index.monthlyIncomeBetween(FROM_DATE, TO_DATE);
+
+        assertThat(monthlyIncome).extracting(Income::paymentDate).containsExactly(LocalDate.of(2018, 3, 10), LocalDate.of(2018, 1, 20));
+        assertThat(monthlyIncome).extracting(Income::payment).containsExactly(new BigDecimal("1000"), new BigDecimal("1000"));
+    }
+
+    @Test
+    public void monthlyIncomeBetween_duplicatesCountedOnce() {
+        Income income = monthly("2018-02-01", "A");
+        ApplicantIncomeIndex index = index(asList(income, income));
+
+        assertThat(index.monthlyIncomeBetween(FROM_DATE, TO_DATE)).extracting(Income::payment).containsExactly(new BigDecimal("1000"));
+    }
+
+    @Test
+    public void weeklyIncomeBetween_sumsPerEmployerAndWeekNumber() {
+        ApplicantIncomeIndex index = index(asList(weekly("2018-02-02", 5, "A"), weekly("2018-02-03", 5, "A"),
+                                                  weekly("2018-02-09", 6, "A"), monthly("2018-02-10", "A")));
+
+        List<Income> weeklyIncome = index.weeklyIncomeBetween(FROM_DATE, TO_DATE);
+
+        assertThat(weeklyIncome).extracting(Income::weekPayNumber).containsExactly(6, 5);
+        assertThat(weeklyIncome).extracting(Income::payment).containsExactly(new BigDecimal("250"), new BigDecimal("500"));
+    }
+
+    @Test
+    public void monthlyTotals_everyPaymentInMonthOrder() {
+        Income income = monthly("2018-02-01", "A");
+        ApplicantIncomeIndex index = index(asList(monthly("2018-03-01", "A"), income, income, monthly("2017-12-01", "B")));
+
+        assertThat(index.monthlyTotals()).containsExactly(entry(201712, new BigDecimal("1000")),
+                                                          entry(201802, new BigDecimal("2000")),
+                                                          entry(201803, new BigDecimal("1000")));
+    }
+
+    @Test
+    public void weekPayNumbers_distinctInOrder() {
+        ApplicantIncomeIndex index = index(asList(weekly("2018-02-09", 6, "A"), weekly("2018-02-02", 5, "A"),
+                                                  weekly("2018-02-02", 5, "B"), monthly("2018-02-10", "A")));
+
+        assertThat(index.weekPayNumbers()).containsExactly(5, 6);
+    }
+
+    @Test
+    public void paymentDates_firstAndLast() {
+        ApplicantIncomeIndex index = index(asList(monthly("2018-02-01", "A"), monthly("2018-03-01", "A"), monthly("2018-01-01", "A")));
+
+        assertThat(index.firstPaymentDate()).isEqualTo(LocalDate.of(2018, 1, 1));
+        assertThat(index.lastPaymentDate()).isEqualTo(LocalDate.of(2018, 3, 1));
+        assertThat(index(emptyList()).firstPaymentDate()).isNull();
+    }
+
+    @Test
+    public void employerNames_distinctInOrder() {
+        IncomeRecord incomeRecord = new IncomeRecord(emptyList(), emptyList(),
+                                                     asList(employment("Pizza Hut"), employment("Burger King"), employment("Pizza Hut")), null);
+
+        assertThat(ApplicantIncomeIndex.of(incomeRecord).employerNames()).containsExactly("Pizza Hut", "Burger King");
+    }
+
+    @Test
+    public void of_missingPayeAndEmployments_empty() {
+        ApplicantIncomeIndex index = ApplicantIncomeIndex.of(new IncomeRecord(null, null, null, null));
+
+        assertThat(index.paye()).isEmpty();
+        assertThat(index.employerNames()).isEmpty();
+    }
+
+    private static ApplicantIncomeIndex index(List<Income> paye) {
+        return ApplicantIncomeIndex.of(new IncomeRecord(paye, emptyList(), emptyList(), null));
+    }
+
+    private static Income monthly(String paymentDate, String payeReference) {
+        return new Income(new BigDecimal("1000"), LocalDate.parse(paymentDate), 1, null, payeReference);
+    }
+
+    private static Income weekly(String paymentDate, int weekPayNumber, String payeReference) {
+        return new Income(new BigDecimal("250"), LocalDate.parse(paymentDate), null, weekPayNumber, payeReference);
+    }
+
+    private static Employments employment(String name) {
+        return new Employments(new Employer(name, name + "/ref"));
+    }
+}
@@ -0,0 +1,74 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.api.domain.Applicant;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class IncomeIndexTest {
+
+    private final ApplicantIncome applicantIncome = applicantIncome("AA123456A", asList(income("2018-02-01", "100"), income("2018-03-01", "200")));
+    private final ApplicantIncome partnerIncome = applicantIncome("BB123456B", asList(income("2018-02-15", "300"), income("2017-12-01", "400")));
+
+    @Test
+    public void payeBetween_joint_applicantThenPartner() {
+        IncomeIndex incomeIndex = IncomeIndex.of(asList(applicantIncome, partnerIncome));
+
+        assertThat(incomeIndex.payeBetween(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 3, 1))).extracting(Income::payment)
+                                                                                               .containsExactly(new BigDecimal("200"),
+                                                                                                                new BigDecimal("100"),
+                                                                                                                new BigDecimal("300"));
+    }
+
+    @Test
+    public void monthlyTotals_joint_merged() {
+        IncomeIndex incomeIndex = IncomeIndex.of(asList(applicantIncome, partnerIncome));
+
+        assertThat(incomeIndex.monthlyTotals()).containsExactly(entry(201712, new BigDecimal("400")),
+                                                                entry(201802, new BigDecimal("400")),
+                                                                entry(201803, new BigDecimal("200")));
+    }
+
+    @Test
+    public void totalPaymentsSince_everyone() {
+        IncomeIndex incomeIndex = IncomeIndex.of(asList(applicantIncome, partnerIncome));
+
+        assertThat(incomeIndex.totalPaymentsSince(LocalDate.of(2018, 2, 1))).isEqualTo(new BigDecimal("600"));
+    }
+
+    @Test
+    public void applicantOnlyAndPartnerOnly_shareTheIndividualIndex() {
+        IncomeIndex incomeIndex = IncomeIndex.of(asList(applicantIncome, partnerIncome));
+
+        assertThat(incomeIndex.applicantOnly().applicant()).isSameAs(incomeIndex.applicant());
+        assertThat(incomeIndex.partnerOnly().applicant()).isSameAs(incomeIndex.partner());
+    }
+
+    @Test
+    public void partner_noPartner_fails() {
+        IncomeIndex incomeIndex = IncomeIndex.of(singletonList(applicantIncome));
+
+        assertThatThrownBy(incomeIndex::partner).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(IncomeIndex.of(emptyList())::applicant).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ApplicantIncome applicantIncome(String nino, List<Income> paye) {
+        Applicant applicant = new Applicant("Joe", "Bloggs", LocalDate.of(1980, 1, 1), nino);
+        return new ApplicantIncome(applicant, new IncomeRecord(paye, emptyList(), emptyList(), null));
+    }
+
+    private static Income income(String paymentDate, String payment) {
+        return new Income(new BigDecimal(payment), LocalDate.parse(paymentDate), 1, null, "A");
+    }
+}
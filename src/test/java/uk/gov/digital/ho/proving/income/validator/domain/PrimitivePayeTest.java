@@ -0,0 +1,71 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrimitivePayeTest {
+
+    @Test
+    public void of_wholePence_exactNewestFirst() {
+        PrimitivePaye paye = PrimitivePaye.of(asList(income("1234.50", "2018-02-28"), income("-0.01", "2018-01-31"), income("1500", "2017-12-01")));
+
+        assertThat(paye.isExact()).isTrue();
+        assertThat(paye.size()).isEqualTo(3);
+        assertThat(paye.pence(0)).isEqualTo(123450);
+        assertThat(paye.pence(1)).isEqualTo(-1);
+        assertThat(paye.pence(2)).isEqualTo(150000);
+        assertThat(paye.epochDay(0)).isEqualTo(LocalDate.of(2018, 2, 28).toEpochDay());
+        assertThat(paye.month(1) - paye.month(2)).isEqualTo(1);
+    }
+
+    @Test
+    public void of_fractionOfAPenny_notExact() {
+        PrimitivePaye paye = PrimitivePaye.of(asList(income("100.00", "2018-02-28"), income("100.005", "2018-01-31")));
+
+        assertThat(paye.isExact()).isFalse();
+    }
+
+    @Test
+    public void isExactInPence() {
+        assertThat(PrimitivePaye.isExactInPence(new BigDecimal("99.990"))).isTrue();
+        assertThat(PrimitivePaye.isExactInPence(new BigDecimal("0.000"))).isTrue();
+        assertThat(PrimitivePaye.isExactInPence(new BigDecimal("1E+3"))).isTrue();
+        assertThat(PrimitivePaye.isExactInPence(new BigDecimal("99.999"))).isFalse();
+        assertThat(PrimitivePaye.isExactInPence(BigDecimal.valueOf(PrimitivePaye.MAX_PENCE))).isFalse();
+    }
+
+    @Test
+    public void thresholdInPence_roundsUp() {
+        assertThat(PrimitivePaye.thresholdInPence(new BigDecimal("1550.00"))).isEqualTo(155000);
+        assertThat(PrimitivePaye.thresholdInPence(new BigDecimal("1550.0001"))).isEqualTo(155001);
+        assertThat(PrimitivePaye.thresholdInPence(new BigDecimal("-1.005"))).isEqualTo(-100);
+    }
+
+    @Test
+    public void monthCode_consecutiveOverYearEnd() {
+        assertThat(PrimitivePaye.monthCode(LocalDate.of(2018, 1, 1)) - PrimitivePaye.monthCode(LocalDate.of(2017, 12, 31))).isEqualTo(1);
+    }
+
+    @Test
+    public void firstBefore_boundaries() {
+        PrimitivePaye paye = PrimitivePaye.of(asList(income("1", "2018-03-01"), income("1", "2018-02-01"), income("1", "2018-02-01"), income("1", "2018-01-01")));
+        int february = (int) LocalDate.of(2018, 2, 1).toEpochDay();
+
+        assertThat(paye.firstOnOrBefore(february)).isEqualTo(1);
+        assertThat(paye.firstBefore(february)).isEqualTo(3);
+        assertThat(paye.firstBefore((int) LocalDate.of(2017, 1, 1).toEpochDay())).isEqualTo(4);
+        assertThat(paye.firstOnOrBefore((int) LocalDate.of(2019, 1, 1).toEpochDay())).isZero();
+        assertThat(PrimitivePaye.of(emptyList()).firstBefore(february)).isZero();
+    }
+
+    private static Income income(String payment, String paymentDate) {
+        return new Income(new BigDecimal(payment), LocalDate.parse(paymentDate), 1, null, "A");
+    }
+}
@@ -0,0 +1,109 @@
+package uk.gov.digital.ho.proving.income.validator.domain;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.digital.ho.proving.income.validator.CatBNonSalariedTestData.multipleApplicantSingleMonthEqualsNoDependantsThreshold;
+
+public class SubResultsTest {
+
+    private static final LocalDate RAISED_DATE = LocalDate.of(2018, 9, 23);
+
+    private final AtomicInteger computations = new AtomicInteger();
+    private final SubResult<Integer> counted = new SubResult<>("counted", request -> computations.incrementAndGet());
+
+    @Test
+    public void of_askedTwice_computedOnce() {
+        IncomeValidationRequest request = new IncomeValidationRequest(emptyList(), RAISED_DATE, 0);
+
+        assertThat(counted.of(request)).isEqualTo(1);
+        assertThat(counted.of(request)).isEqualTo(1);
+
+        assertThat(request.subResults().computed()).containsEntry("counted", 1);
+        assertThat(request.subResults().reused()).containsEntry("counted", 1);
+    }
+
+    @Test
+    public void of_differentRequests_computedForEach() {
+        counted.of(new IncomeValidationRequest(emptyList(), RAISED_DATE, 0));
+        counted.of(new IncomeValidationRequest(emptyList(), RAISED_DATE, 0));
+
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    public void of_dependsOnAnotherSubResult_bothComputedOnce() {
+        SubResult<Integer> dependent = new SubResult<>("dependent", request -> counted.of(request) + 10);
+        IncomeValidationRequest request = new IncomeValidationRequest(emptyList(), RAISED_DATE, 0);
+
+        assertThat(dependent.of(request)).isEqualTo(11);
+        assertThat(counted.of(request)).isEqualTo(1);
+        assertThat(dependent.of(request)).isEqualTo(11);
+
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    public void of_splitRequests_ownResultsButSharedCounts() {
+        IncomeValidationRequest request = new IncomeValidationRequest(multipleApplicantSingleMonthEqualsNoDependantsThreshold(RAISED_DATE), RAISED_DATE, 0);
+
+        counted.of(request);
+        counted.of(request.toApplicantOnly());
+        counted.of(request.toApplicantOnly());
+
+        assertThat(request.toApplicantOnly()).isSameAs(request.toApplicantOnly());
+        assertThat(computations).hasValue(2);
+        assertThat(request.subResults().computed()).containsEntry("counted", 2).containsEntry("applicant only request", 1);
+        assertThat(request.subResults().reused()).containsEntry("counted", 1);
+    }
+
+    @Test
+    public void of_computationFails_failureShared() {
+        SubResult<Integer> failing = new SubResult<>("failing", request -> {
+            computations.incrementAndGet();
+            throw new IllegalArgumentException("bad income");
+        });
+        IncomeValidationRequest request = new IncomeValidationRequest(emptyList(), RAISED_DATE, 0);
+
+        assertThatThrownBy(() -> failing.of(request)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> failing.of(request)).isInstanceOf(IllegalArgumentException.class).hasMessage("bad income");
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    public void of_askedConcurrently_waitsForTheFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SubResult<Integer> slow = new SubResult<>("slow", request -> {
+            started.countDown();
+            await(release);
+            return computations.incrementAndGet();
+        });
+        IncomeValidationRequest request = new IncomeValidationRequest(emptyList(), RAISED_DATE, 0);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> slow.of(request));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> slow.of(request));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(computations).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.digital.ho.proving.income.validator.frequencycalculator;
+
+import org.junit.Test;
+import uk.gov.digital.ho.proving.income.hmrc.domain.Income;
+import uk.gov.digital.ho.proving.income.hmrc.domain.IncomeRecord;
+import uk.gov.digital.ho.proving.income.validator.domain.ApplicantIncomeIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PayPatternProfilerTest {
+
+    private static final LocalDate FIRST_PAYMENT = LocalDate.of(2018, 1, 5);
+
+    @Test
+    public void profile_noPayments_monthlyWithNoSpan() {
+        PayPattern payPattern = profile(emptyList());
+
+        assertThat(payPattern.frequency()).isEqualTo(Frequency.CALENDAR_MONTHLY);
+        assertThat(payPattern.payments()).isZero();
+        assertThat(payPattern.firstPaymentDate()).isNull();
+        assertThat(payPattern.daysSpanned()).isZero();
+    }
+
+    @Test
+    public void profile_weekNumbered_frequencyGapsAndSpan() {
+        PayPattern payPattern = profile(weekly(10, 2, "A"));
+
+        assertThat(payPattern.frequency()).isEqualTo(Frequency.FORTNIGHTLY);
+        assertThat(payPattern.payments()).isEqualTo(10);
+        assertThat(payPattern.weekNumberGap()).isEqualTo(2);
+        assertThat(payPattern.largestWeekNumberGap()).isEqualTo(2);
+        assertThat(payPattern.firstPaymentDate()).isEqualTo(FIRST_PAYMENT);
+        assertThat(payPattern.lastPaymentDate()).isEqualTo(FIRST_PAYMENT.plusWeeks(18));
+        assertThat(payPattern.daysSpanned()).isEqualTo(126);
+    }
+
+    @Test
+    public void profile_unevenWeekNumbers_noCommonGapAndJudgedOnDates() {
+        List<Income> paye = asList(weekIncome(0, 1, "A"), weekIncome(7, 2, "A"), weekIncome(14, 5, "A"));
+
+        PayPattern payPattern = profile(paye);
+
+        assertThat(payPattern.weekNumberGap()).isZero();
+        assertThat(payPattern.largestWeekNumberGap()).isEqualTo(3);
+        assertThat(payPattern.frequency()).isEqualTo(Frequency.WEEKLY);
+    }
+
+    @Test
+    public void profile_monthAndWeekNumbered_changed() {
+        List<Income> paye = asList(weekIncome(0, 1, "A"), new Income(BigDecimal.TEN, FIRST_PAYMENT.plusDays(30), 1, null, "A"));
+
+        assertThat(profile(paye).frequency()).isEqualTo(Frequency.CHANGED);
+    }
+
+    @Test
+    public void profile_employerChanges_countedInDateOrder() {
+        List<Income> paye = asList(weekIncome(21, 4, "B"), weekIncome(0, 1, "A"), weekIncome(14, 3, "B"), weekIncome(7, 2, "A"));
+
+        assertThat(profile(paye).employerChanges()).isEqualTo(1);
+    }
+
+    @Test
+    public void profile_sameAsFrequencyCalculatorByPaymentDates() {
+        List<Income> paye = asList(new Income(BigDecimal.TEN, FIRST_PAYMENT, null, null, "A"),
+                                   new Income(BigDecimal.TEN, FIRST_PAYMENT.plusDays(28), null, null, "A"),
+                                   new Income(BigDecimal.TEN, FIRST_PAYMENT.plusDays(56), null, null, "A"));
+
+        assertThat(profile(paye).frequency()).isEqualTo(FrequencyCalculator.calculateByPaymentNumbers(record(paye)))
+                                             .isEqualTo(Frequency.FOUR_WEEKLY);
+    }
+
+    private static PayPattern profile(List<Income> paye) {
+        return PayPatternProfiler.profile(ApplicantIncomeIndex.of(record(paye)));
+    }
+
+    private static IncomeRecord record(List<Income> paye) {
+        return new IncomeRecord(paye, emptyList(), emptyList(), null);
+    }
+
+    private static List<Income> weekly(int payments, int weeksApart, String payeReference) {
+        List<Income> paye = new ArrayList<>();
+        for (int i = 0; i < payments; i++) {
+            paye.add(weekIncome(i * weeksApart * 7, 1 + i * weeksApart, payeReference));
+        }
+        return paye;
+    }
+
+    private static Income weekIncome(int daysAfterFirst, int weekPayNumber, String payeReference) {
+        return new Income(BigDecimal.TEN, FIRST_PAYMENT.plusDays(daysAfterFirst), null, weekPayNumber, payeReference);
+    }
+}